@@ -0,0 +1,55 @@
+package com.hyperativa.javaEspecialista;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Deterministic test data shared by the JMH benchmarks.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @return a digits-only PAN of the given length with a valid Luhn check digit.
+     */
+    public static String luhnValidPan(int length, Random random) {
+        int[] digits = new int[length];
+        for (int i = 0; i < length - 1; i++) {
+            digits[i] = random.nextInt(10);
+        }
+        int sum = 0;
+        for (int i = length - 2, position = 0; i >= 0; i--, position++) {
+            int n = digits[i];
+            if (position % 2 == 0) {
+                n *= 2;
+                if (n > 9) {
+                    n -= 9;
+                }
+            }
+            sum += n;
+        }
+        digits[length - 1] = (10 - sum % 10) % 10;
+
+        StringBuilder pan = new StringBuilder(length);
+        for (int digit : digits) {
+            pan.append(digit);
+        }
+        return pan.toString();
+    }
+
+    /**
+     * @return a DESAFIO lot file with the given number of card records, in the
+     *         layout accepted by the batch upload endpoint.
+     */
+    public static byte[] desafioFile(int records, Random random) {
+        StringBuilder file = new StringBuilder((records + 2) * 32);
+        file.append(String.format("%-29s%s%s%06d%n", "DESAFIO-HYPERATIVA", "20180524", "LOTE0001", records));
+        for (int i = 1; i <= records; i++) {
+            file.append(String.format("C%-6d%-19s%n", i, luhnValidPan(16, random)));
+        }
+        file.append(String.format("LOTE0001%06d%n", records));
+        return file.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
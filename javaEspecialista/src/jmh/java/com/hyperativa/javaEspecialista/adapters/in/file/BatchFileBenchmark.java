@@ -0,0 +1,116 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import com.hyperativa.javaEspecialista.BenchmarkData;
+import com.hyperativa.javaEspecialista.adapters.out.metrics.MicrometerMetricsAdapter;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchResponse;
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
+import com.hyperativa.javaEspecialista.domain.model.Card;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+import com.hyperativa.javaEspecialista.domain.ports.in.CardBatchInputPort;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of batch ingestion by lot size: parsing alone, and the full
+ * pipeline with a no-op domain so that only the adapter's own overhead
+ * (chunking, queues, stage hand-off) is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchFileBenchmark {
+
+    @Param({ "1000", "100000" })
+    public int batchSize;
+
+    private MockMultipartFile file;
+    private BatchFileAdapter adapter;
+
+    @Setup
+    public void setUp() {
+        file = new MockMultipartFile("file", "lote.txt", "text/plain",
+                BenchmarkData.desafioFile(batchSize, new Random(42)));
+        adapter = new BatchFileAdapter(new NoOpCardBatchInputPort(), 256, 8, 4, 10_000, 0,
+                new MicrometerMetricsAdapter(new SimpleMeterRegistry()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        adapter.shutdown();
+    }
+
+    @Benchmark
+    public int parse() {
+        LinkedBlockingQueue<CardChunk> sink = new LinkedBlockingQueue<>();
+        adapter.parseFile(file, sink);
+        return sink.size();
+    }
+
+    @Benchmark
+    public BatchResponse processFile() {
+        return adapter.processFile(file);
+    }
+
+    private static final class NoOpCardBatchInputPort implements CardBatchInputPort {
+
+        private static final byte[] HASH = new byte[32];
+        private static final Card CARD = new Card(UUID.randomUUID(), HASH, new byte[16], new byte[12],
+                new byte[16], null);
+
+        @Override
+        public void validate(byte[] cardNumber) {
+        }
+
+        @Override
+        public byte[] hash(byte[] cardNumber) {
+            return HASH;
+        }
+
+        @Override
+        public List<Optional<UUID>> findRegistered(List<byte[]> cardHashes) {
+            return Collections.nCopies(cardHashes.size(), Optional.empty());
+        }
+
+        @Override
+        public Card tokenize(byte[] cardNumber, byte[] cardHash) {
+            return CARD;
+        }
+
+        @Override
+        public List<CardSaveResult> persistAll(List<Card> cards, BatchCheckpoint checkpoint) {
+            return Collections.nCopies(cards.size(), CardSaveResult.inserted(CARD.getUuid()));
+        }
+
+        @Override
+        public List<BatchCheckpoint> findCheckpoints(String lotId, long lotSize) {
+            return List.of();
+        }
+
+        @Override
+        public void completeLot(String lotId) {
+        }
+    }
+}
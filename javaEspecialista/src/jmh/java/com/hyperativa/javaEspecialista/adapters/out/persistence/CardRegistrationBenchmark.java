@@ -0,0 +1,175 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence;
+
+import com.hyperativa.javaEspecialista.adapters.out.persistence.entity.CardEntity;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.CardJdbcRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-card registration against MySQL when the same card arrives on
+ * several threads at once: every card is registered
+ * {@code registrationsPerCard} times by concurrently running threads.
+ * <p>
+ * {@code checkThenInsert} is the former path, a lookup by hash followed by a
+ * plain insert that fails on {@code uk_cards_card_hash} when it loses the
+ * race and then looks the card up again. {@code upsert} is
+ * {@link CardJdbcRepository#insertOrGetToken}. The auxiliary counters report
+ * how each registration ended. Needs Docker for the MySQL container.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class CardRegistrationBenchmark {
+
+    // Same shape as the cards table after changesets 002 and 006
+    private static final String CREATE_CARDS = """
+            CREATE TABLE cards (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                uuid BINARY(16) NOT NULL,
+                card_hash BINARY(32) NOT NULL,
+                encrypted_card BLOB NOT NULL,
+                encryption_iv BINARY(12) NOT NULL,
+                encryption_tag BINARY(16) NOT NULL,
+                created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                CONSTRAINT uk_cards_uuid UNIQUE (uuid),
+                CONSTRAINT uk_cards_card_hash UNIQUE (card_hash))""";
+
+    private static final String INSERT = """
+            INSERT INTO cards (uuid, card_hash, encrypted_card, encryption_iv, encryption_tag, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)""";
+
+    private static final String FIND_TOKEN = "SELECT uuid FROM cards WHERE card_hash = ?";
+
+    private static final RowMapper<byte[]> TOKEN = (rs, rowNum) -> rs.getBytes("uuid");
+
+    @Param({ "1", "8" })
+    public int registrationsPerCard;
+
+    private final AtomicLong registrations = new AtomicLong();
+    private MySQLContainer<?> mysql;
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private CardJdbcRepository repository;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+
+        public long inserted;
+        public long duplicates;
+        public long constraintViolations;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            inserted = 0;
+            duplicates = 0;
+            constraintViolations = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void startDatabase() {
+        mysql = new MySQLContainer<>("mysql:8.0");
+        mysql.start();
+
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(mysql.getJdbcUrl());
+        config.setUsername(mysql.getUsername());
+        config.setPassword(mysql.getPassword());
+        config.setMaximumPoolSize(16);
+        dataSource = new HikariDataSource(config);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(CREATE_CARDS);
+        repository = new CardJdbcRepository(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate));
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE TABLE cards");
+        registrations.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopDatabase() {
+        dataSource.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public byte[] upsert(Outcomes outcomes) {
+        CardEntity card = nextCard();
+        byte[] token = repository.insertOrGetToken(card);
+        if (Arrays.equals(token, card.getUuid())) {
+            outcomes.inserted++;
+        } else {
+            outcomes.duplicates++;
+        }
+        return token;
+    }
+
+    @Benchmark
+    public byte[] checkThenInsert(Outcomes outcomes) {
+        CardEntity card = nextCard();
+        List<byte[]> existing = jdbcTemplate.query(FIND_TOKEN, TOKEN, card.getCardHash());
+        if (!existing.isEmpty()) {
+            outcomes.duplicates++;
+            return existing.get(0);
+        }
+        try {
+            jdbcTemplate.update(INSERT, card.getUuid(), card.getCardHash(), card.getEncryptedCard(),
+                    card.getEncryptionIv(), card.getEncryptionTag(), Timestamp.valueOf(card.getCreatedAt()));
+            outcomes.inserted++;
+            return card.getUuid();
+        } catch (DuplicateKeyException e) {
+            outcomes.constraintViolations++;
+            return jdbcTemplate.query(FIND_TOKEN, TOKEN, card.getCardHash()).get(0);
+        }
+    }
+
+    /**
+     * Consecutive registrations share a card hash, so the threads that pick
+     * them up race on the same new card.
+     */
+    private CardEntity nextCard() {
+        long cardIndex = registrations.getAndIncrement() / registrationsPerCard;
+        byte[] hash = ByteBuffer.allocate(32).putLong(cardIndex).array();
+        byte[] uuid = new byte[16];
+        ThreadLocalRandom.current().nextBytes(uuid);
+        return new CardEntity(null, uuid, hash, new byte[16], new byte[12], new byte[16], LocalDateTime.now());
+    }
+}
@@ -0,0 +1,74 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence.cache;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building cache keys from a 32-byte card hash: the legacy hex-encoded
+ * Redis key ({@code card:exists:<hex>}), the binary key of
+ * {@link CardCacheCodec} and the raw {@link HashKey} used by the near-cache,
+ * plus encoding a token as a Redis value in both layouts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyBenchmark {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private byte[] hash;
+    private UUID token;
+
+    @Setup
+    public void setUp() {
+        hash = new byte[32];
+        new Random(42).nextBytes(hash);
+        token = UUID.nameUUIDFromBytes(hash);
+    }
+
+    @Benchmark
+    public String redisKey() {
+        return "card:exists:" + HexFormat.of().formatHex(hash);
+    }
+
+    @Benchmark
+    public String redisKeySharedFormat() {
+        return "card:exists:" + HEX.formatHex(hash);
+    }
+
+    @Benchmark
+    public byte[] binaryRedisKey() {
+        return CardCacheCodec.key(hash);
+    }
+
+    @Benchmark
+    public String legacyRedisValue() {
+        return token.toString();
+    }
+
+    @Benchmark
+    public byte[] binaryRedisValue() {
+        return CardCacheCodec.encode(token);
+    }
+
+    @Benchmark
+    public int nearCacheKeyHash() {
+        return new HashKey(hash).hashCode();
+    }
+}
@@ -0,0 +1,61 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence.mapper;
+
+import com.hyperativa.javaEspecialista.adapters.out.persistence.entity.CardEntity;
+import com.hyperativa.javaEspecialista.domain.model.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping a card between the domain model and the persistence entity,
+ * including the defensive array copies made by {@link Card}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardEntityMapperBenchmark {
+
+    private final CardEntityMapper mapper = new CardEntityMapper();
+    private Card card;
+    private CardEntity entity;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        byte[] hash = new byte[32];
+        byte[] encrypted = new byte[16];
+        byte[] iv = new byte[12];
+        byte[] tag = new byte[16];
+        random.nextBytes(hash);
+        random.nextBytes(encrypted);
+        random.nextBytes(iv);
+        random.nextBytes(tag);
+        card = new Card(UUID.randomUUID(), hash, encrypted, iv, tag, LocalDateTime.now());
+        entity = mapper.toEntity(card);
+    }
+
+    @Benchmark
+    public CardEntity toEntity() {
+        return mapper.toEntity(card);
+    }
+
+    @Benchmark
+    public Card toDomain() {
+        return mapper.toDomain(entity);
+    }
+}
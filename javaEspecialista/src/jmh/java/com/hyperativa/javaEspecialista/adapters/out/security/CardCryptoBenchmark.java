@@ -0,0 +1,74 @@
+package com.hyperativa.javaEspecialista.adapters.out.security;
+
+import com.hyperativa.javaEspecialista.BenchmarkData;
+import com.hyperativa.javaEspecialista.adapters.out.metrics.MicrometerMetricsAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded cost of the {@link CryptoAdapter} operations on the
+ * tokenization path, by PAN length.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardCryptoBenchmark {
+
+    @Param({ "13", "16", "19" })
+    public int panLength;
+
+    private CryptoAdapter cryptoAdapter;
+    private String pan;
+    private byte[] iv;
+    private byte[] cipherText;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        String encodedKey = Base64.getEncoder().encodeToString(key);
+        cryptoAdapter = new CryptoAdapter(encodedKey, encodedKey, 64,
+                new MicrometerMetricsAdapter(new SimpleMeterRegistry()));
+        pan = BenchmarkData.luhnValidPan(panLength, random);
+        iv = cryptoAdapter.generateIv();
+        cipherText = cryptoAdapter.encrypt(pan, iv);
+    }
+
+    @Benchmark
+    public byte[] hash() {
+        return cryptoAdapter.hash(pan);
+    }
+
+    @Benchmark
+    public byte[] encrypt() {
+        return cryptoAdapter.encrypt(pan, iv);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return cryptoAdapter.decrypt(cipherText, iv);
+    }
+
+    @Benchmark
+    public byte[] encryptWithFreshIv() {
+        return cryptoAdapter.encrypt(pan, cryptoAdapter.generateIv());
+    }
+}
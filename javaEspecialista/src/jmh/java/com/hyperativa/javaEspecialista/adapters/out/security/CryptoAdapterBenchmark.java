@@ -0,0 +1,104 @@
+package com.hyperativa.javaEspecialista.adapters.out.security;
+
+import com.hyperativa.javaEspecialista.adapters.out.metrics.MicrometerMetricsAdapter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CryptoAdapter} with the previous implementation, which
+ * looked up a new {@link Mac}/{@link Cipher} from the provider and created a
+ * new {@link SecureRandom} on every call. Runs with several threads so that
+ * provider-lookup contention shows up; add {@code -prof gc} to compare
+ * allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class CryptoAdapterBenchmark {
+
+    private static final String PAN = "4539578763621486";
+    private static final byte[] PAN_BYTES = PAN.getBytes(StandardCharsets.UTF_8);
+
+    private CryptoAdapter cryptoAdapter;
+    private SecretKey encryptionKey;
+    private SecretKey hashKey;
+    private byte[] iv;
+
+    @Setup
+    public void setUp() {
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        String encodedKey = Base64.getEncoder().encodeToString(key);
+        cryptoAdapter = new CryptoAdapter(encodedKey, encodedKey, 64,
+                new MicrometerMetricsAdapter(new SimpleMeterRegistry()));
+        encryptionKey = new SecretKeySpec(key, "AES");
+        hashKey = new SecretKeySpec(key, "HmacSHA256");
+        iv = cryptoAdapter.generateIv();
+    }
+
+    @Benchmark
+    public byte[] hashLegacy() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(hashKey);
+        return mac.doFinal(PAN.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public byte[] hashPooled() {
+        return cryptoAdapter.hash(PAN);
+    }
+
+    @Benchmark
+    public byte[] hashPooledBytes() {
+        return cryptoAdapter.hash(PAN_BYTES);
+    }
+
+    @Benchmark
+    public byte[] encryptLegacy() throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(128, iv));
+        return cipher.doFinal(PAN.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public byte[] encryptPooled() {
+        return cryptoAdapter.encrypt(PAN_BYTES, iv);
+    }
+
+    @Benchmark
+    public byte[] generateIvLegacy() {
+        byte[] legacyIv = new byte[12];
+        new SecureRandom().nextBytes(legacyIv);
+        return legacyIv;
+    }
+
+    @Benchmark
+    public byte[] generateIvShared() {
+        return cryptoAdapter.generateIv();
+    }
+}
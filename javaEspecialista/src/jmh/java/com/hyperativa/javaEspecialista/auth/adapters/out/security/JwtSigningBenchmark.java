@@ -0,0 +1,102 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.security;
+
+import com.hyperativa.javaEspecialista.config.JwtKeyProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token signing, as done on every login, and full verification, as
+ * done on every request the verified JWT cache misses, per algorithm.
+ * {@code RS256} uses a 2048-bit RSA key, {@code ES256} a P-256 key. Both go
+ * through {@link JwtKeySet}, as in the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class JwtSigningBenchmark {
+
+    @Param({ "RS256", "ES256" })
+    public String algorithm;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private JwtEncoderParameters parameters;
+    private String token;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        KeyPairGenerator generator;
+        if (algorithm.startsWith("RS")) {
+            generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+        } else {
+            generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+        }
+        KeyPair keyPair = generator.generateKeyPair();
+
+        JwtKeySet keys = new JwtKeySet(new JwtKeyProperties("bench", List.of(new JwtKeyProperties.Key("bench",
+                algorithm, pem("PUBLIC KEY", keyPair.getPublic().getEncoded()),
+                pem("PRIVATE KEY", keyPair.getPrivate().getEncoded())))));
+        encoder = keys.encoder();
+        decoder = keys.decoder();
+
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("self")
+                .subject("alice")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .claim("scope", "ROLE_USER")
+                .build();
+        parameters = JwtEncoderParameters.from(keys.signingHeader(), claims);
+        token = encoder.encode(parameters).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt sign() {
+        return encoder.encode(parameters);
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return decoder.decode(token);
+    }
+
+    private static Resource pem(String type, byte[] der) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        String text = "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n";
+        return new ByteArrayResource(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,54 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Password check of a login per encoder configuration, through the same
+ * {@link PasswordEncoders#delegating} encoder the application uses. Runs in
+ * sample mode, so the report lists the latency percentiles (p50, p99, ...)
+ * of a single check; use them to pick {@code app.security.password.encoder}
+ * and {@code bcrypt-strength} for a login latency budget.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "StrongPass1!xy";
+
+    /** Encoder id, with the BCrypt cost for {@code bcrypt}. */
+    @Param({ "bcrypt-10", "bcrypt-12", "argon2", "pbkdf2" })
+    public String configuration;
+
+    private PasswordEncoder encoder;
+    private String storedHash;
+
+    @Setup
+    public void setUp() {
+        String[] parts = configuration.split("-");
+        int bcryptStrength = parts.length > 1 ? Integer.parseInt(parts[1]) : 10;
+        encoder = PasswordEncoders.delegating(parts[0], bcryptStrength);
+        storedHash = encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean login() {
+        return encoder.matches(PASSWORD, storedHash);
+    }
+}
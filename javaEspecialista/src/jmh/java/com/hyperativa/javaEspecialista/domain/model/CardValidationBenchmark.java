@@ -0,0 +1,55 @@
+package com.hyperativa.javaEspecialista.domain.model;
+
+import com.hyperativa.javaEspecialista.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link Card#validate(String)} (length, digits and Luhn) by PAN
+ * length, from a {@code String} and from an ASCII slice of a record buffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardValidationBenchmark {
+
+    @Param({ "13", "16", "19" })
+    public int panLength;
+
+    private String pan;
+    private byte[] record;
+
+    @Setup
+    public void setUp() {
+        pan = BenchmarkData.luhnValidPan(panLength, new Random(42));
+        record = ("C000001" + pan).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public String validate() {
+        Card.validate(pan);
+        return pan;
+    }
+
+    @Benchmark
+    public byte[] validateAsciiSlice() {
+        Card.validate(record, 7, panLength);
+        return record;
+    }
+}
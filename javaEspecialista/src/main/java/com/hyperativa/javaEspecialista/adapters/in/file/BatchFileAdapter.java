@@ -2,141 +2,470 @@ package com.hyperativa.javaEspecialista.adapters.in.file;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchError;
 import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchResponse;
-import com.hyperativa.javaEspecialista.domain.ports.in.CardInputPort;
+import com.hyperativa.javaEspecialista.domain.exception.BatchFileFormatException;
+import com.hyperativa.javaEspecialista.domain.exception.FileProcessingException;
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+import com.hyperativa.javaEspecialista.domain.ports.in.CardBatchInputPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+
+import jakarta.annotation.PreDestroy;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Joiner;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.function.Consumer;
 
 /**
- * Batch file adapter that processes card registrations using Java 25 virtual
- * threads
- * for maximum throughput. Each card registration is submitted to a virtual
- * thread,
- * enabling high concurrency without platform thread exhaustion.
+ * Batch file adapter that streams card registrations through a bounded,
+ * multi-stage pipeline (parse → validate → hash → dedupe → encrypt → persist).
+ * The dedupe stage drops already registered cards with one bulk lookup per
+ * chunk, and the persist stage writes each chunk with one multi-row insert.
+ * <p>
+ * The upload is spooled to a temporary file and memory-mapped; the lot is
+ * first checked against its header and trailer, then read sequentially by
+ * {@link DesafioLotParser} and cut into chunks. Each stage is connected to the
+ * next one by a bounded queue. When a downstream stage falls behind, the
+ * upstream stages block, so memory use depends on the pipeline configuration
+ * and not on the file size.
+ * </p>
+ * <p>
+ * The parser and all stage workers are virtual threads forked into one
+ * {@link StructuredTaskScope} (a preview API in Java 25): if any of them
+ * fails, or the request thread is interrupted, the whole upload is cancelled
+ * instead of leaving stages blocked on their queues. The CPU-bound stages
+ * (validate, hash, encrypt) run their work on a ForkJoin pool of
+ * {@code app.batch.cpu-parallelism} threads shared by all uploads, so only the
+ * I/O stages (dedupe, persist) use the virtual thread carriers.
+ * </p>
+ * <p>
+ * Lots with a header are resumable: each chunk is persisted together with a
+ * checkpoint of the lines it covers, and when the same lot is uploaded again
+ * after an interruption the committed lines are skipped. The checkpoints are
+ * removed once the lot has run to the end.
+ * </p>
  */
 @Component
 public class BatchFileAdapter {
 
     private static final Logger log = LoggerFactory.getLogger(BatchFileAdapter.class);
-    private final CardInputPort cardInputPort;
+    private final CardBatchInputPort cardBatchInputPort;
+    private final MetricsPort metricsService;
+    private final int chunkSize;
+    private final int queueCapacity;
+    private final int workersPerStage;
+    private final int maxReportedErrors;
+    private final ForkJoinPool cpuPool;
 
-    public BatchFileAdapter(CardInputPort cardInputPort) {
-        this.cardInputPort = cardInputPort;
+    /**
+     * @param cpuParallelism threads of the pool running the CPU-bound stages;
+     *                       {@code 0} uses one per available processor.
+     */
+    public BatchFileAdapter(CardBatchInputPort cardBatchInputPort,
+            @Value("${app.batch.chunk-size:256}") int chunkSize,
+            @Value("${app.batch.queue-capacity:8}") int queueCapacity,
+            @Value("${app.batch.workers-per-stage:4}") int workersPerStage,
+            @Value("${app.batch.max-reported-errors:10000}") int maxReportedErrors,
+            @Value("${app.batch.cpu-parallelism:0}") int cpuParallelism,
+            MetricsPort metricsService) {
+        this.cardBatchInputPort = cardBatchInputPort;
+        this.metricsService = metricsService;
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+        this.workersPerStage = workersPerStage;
+        this.maxReportedErrors = maxReportedErrors;
+        this.cpuPool = new ForkJoinPool(
+                cpuParallelism > 0 ? cpuParallelism : Runtime.getRuntime().availableProcessors(),
+                pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("batch-cpu-" + thread.getPoolIndex());
+                    return thread;
+                },
+                null, true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        cpuPool.close();
     }
 
     public BatchResponse processFile(MultipartFile file) {
-        ParseResult parsed = parseFile(file);
-        List<CardLine> cardLines = parsed.cards;
-
-        int total = parsed.totalLines;
-        AtomicInteger success = new AtomicInteger(0);
-        AtomicInteger failure = new AtomicInteger(0);
-        List<BatchError> errors = Collections.synchronizedList(new ArrayList<>());
-
-        // Process with virtual threads for maximum concurrency
-        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            List<Future<?>> futures = new ArrayList<>();
-
-            for (CardLine cardLine : cardLines) {
-                futures.add(executor.submit(() -> {
-                    try {
-                        if (cardLine.cardNumber().isEmpty()) {
-                            errors.add(new BatchError(cardLine.lineNumber(), "****", "Empty card number"));
-                            log.warn("Empty card number at line: {}", cardLine.lineNumber());
-                            failure.incrementAndGet();
-                            return;
-                        }
-                        cardInputPort.registerCard(cardLine.cardNumber());
-                        success.incrementAndGet();
-                    } catch (Exception e) {
-                        String maskedCard = maskCardNumber(cardLine.cardNumber());
-                        String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
-                        errors.add(new BatchError(cardLine.lineNumber(), maskedCard, reason));
-                        log.error("Failed to process line: {} - Card: {} - Reason: {}",
-                                cardLine.lineNumber(), maskedCard, reason, e);
-                        failure.incrementAndGet();
-                    }
-                }));
-            }
+        Path spool = spool(file);
+        try {
+            return processLot(spool, newResults(false));
+        } finally {
+            deleteSpool(spool);
+        }
+    }
 
-            // Wait for all tasks to complete
-            for (Future<?> future : futures) {
-                try {
-                    future.get();
-                } catch (Exception e) {
-                    log.error("Unexpected error waiting for virtual thread", e);
-                }
+    /**
+     * Collects the outcome of one lot.
+     *
+     * @param trackNewErrors whether errors are also kept for
+     *                       {@link BatchResultCollector#drainNewErrors()}, so
+     *                       progress can be published while the lot runs.
+     */
+    BatchResultCollector newResults(boolean trackNewErrors) {
+        return new BatchResultCollector(maxReportedErrors, trackNewErrors);
+    }
+
+    /**
+     * Runs a spooled lot through the pipeline. The caller owns the spool
+     * file and deletes it with {@link #deleteSpool(Path)}.
+     */
+    BatchResponse processLot(Path lot, BatchResultCollector results) {
+        BlockingQueue<CardChunk> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<CardChunk> validated = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<CardChunk> hashed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<CardChunk> deduplicated = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<CardChunk> encrypted = new ArrayBlockingQueue<>(queueCapacity);
+
+        int totalLines;
+        try (var scope = StructuredTaskScope.open(Joiner.<Object>awaitAllSuccessfulOrThrow(),
+                config -> config.withName("batch-upload"))) {
+            new BatchStage("validate", parsed, validated, eachLine(this::validate, results), cpuPool, metricsService)
+                    .fork(scope, workersPerStage);
+            new BatchStage("hash", validated, hashed, eachLine(this::hash, results), cpuPool, metricsService)
+                    .fork(scope, workersPerStage);
+            new BatchStage("dedupe", hashed, deduplicated, dropRegistered(results), null, metricsService)
+                    .fork(scope, workersPerStage);
+            new BatchStage("encrypt", deduplicated, encrypted, eachLine(this::encrypt, results), cpuPool,
+                    metricsService)
+                    .fork(scope, workersPerStage);
+            new BatchStage("persist", encrypted, null, persistChunk(results), null, metricsService)
+                    .fork(scope, workersPerStage);
+
+            Subtask<Integer> parse = scope.fork(() -> {
+                int lines = parseLot(lot, parsed, results);
+                parsed.put(CardChunk.END);
+                return lines;
+            });
+
+            scope.join();
+            totalLines = parse.get();
+        } catch (StructuredTaskScope.FailedException e) {
+            // The first failure cancelled every other stage; rethrow it as is
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
+            throw new FileProcessingException("Batch file processing failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileProcessingException("Batch file processing interrupted", e);
         }
 
-        return new BatchResponse(total, success.get(), failure.get(), errors);
+        completeLot(results.lotId());
+        return results.toResponse(totalLines);
     }
 
     /**
-     * Parse the batch file and extract card numbers. This is done sequentially
-     * since file I/O is inherently sequential. The parsed cards are then
-     * processed in parallel via virtual threads.
+     * Drops the checkpoints of a lot that ran to the end. A failure only
+     * leaves them to the data retention cleanup.
      */
-    private ParseResult parseFile(MultipartFile file) {
-        List<CardLine> cards = new ArrayList<>();
-        int lineNumber = 0;
+    private void completeLot(String lotId) {
+        if (lotId == null) {
+            return;
+        }
+        try {
+            cardBatchInputPort.completeLot(lotId);
+        } catch (Exception e) {
+            log.warn("Could not clear the checkpoints of lot {}: {}", lotId, e.getMessage());
+        }
+    }
 
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+    private void validate(CardLine line) {
+        if (line.cardNumber().length == 0) {
+            throw new IllegalArgumentException("Empty card number");
+        }
+        cardBatchInputPort.validate(line.cardNumber());
+    }
 
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
+    private void hash(CardLine line) {
+        line.cardHash(cardBatchInputPort.hash(line.cardNumber()));
+    }
 
-                // Skip Header
-                if (line.startsWith("DESAFIO"))
-                    continue;
-                // Skip Footer or empty lines
-                if (line.trim().isEmpty() || line.startsWith("LOTE") || line.length() < 26)
-                    continue;
+    private void encrypt(CardLine line) {
+        line.card(cardBatchInputPort.tokenize(line.cardNumber(), line.cardHash()));
+    }
 
+    /**
+     * Applies a per-line step to every line of a chunk that has not failed yet.
+     * A failing line is recorded and skipped by the following stages; it never
+     * aborts the rest of the chunk.
+     */
+    private Consumer<CardChunk> eachLine(Consumer<CardLine> step, BatchResultCollector results) {
+        return chunk -> {
+            for (CardLine line : chunk.lines()) {
+                if (line.failed()) {
+                    continue;
+                }
                 try {
-                    String rawCardNumber = line.substring(7, 26).trim();
-                    cards.add(new CardLine(lineNumber, rawCardNumber));
+                    step.accept(line);
                 } catch (Exception e) {
-                    cards.add(new CardLine(lineNumber, ""));
+                    recordFailure(line, e, results);
+                }
+            }
+        };
+    }
+
+    /**
+     * Drops the cards of a hashed chunk that are already registered, with one
+     * bulk lookup, so they are never encrypted. If the lookup fails the lines
+     * go on; the persist stage still detects duplicates through the unique
+     * index.
+     */
+    private Consumer<CardChunk> dropRegistered(BatchResultCollector results) {
+        return chunk -> {
+            List<CardLine> pending = chunk.lines().stream()
+                    .filter(line -> !line.failed())
+                    .toList();
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            List<Optional<UUID>> registered;
+            try {
+                registered = cardBatchInputPort.findRegistered(pending.stream().map(CardLine::cardHash).toList());
+            } catch (Exception e) {
+                log.warn("Bulk duplicate lookup failed for chunk of {} cards: {}", pending.size(), e.getMessage());
+                return;
+            }
+            for (int i = 0; i < pending.size() && i < registered.size(); i++) {
+                Optional<UUID> token = registered.get(i);
+                if (token.isPresent()) {
+                    recordDuplicate(pending.get(i), token.get(), results);
                 }
             }
+        };
+    }
+
+    /**
+     * Persists the surviving lines of a chunk with a single batched insert,
+     * together with the chunk's checkpoint. Duplicates are reported per line;
+     * a failure of the insert itself fails every line of the chunk. This is
+     * the last stage, so the plaintext card numbers of the chunk are wiped
+     * once it is done.
+     */
+    private Consumer<CardChunk> persistChunk(BatchResultCollector results) {
+        return chunk -> {
+            try {
+                persistLines(chunk, results);
+            } finally {
+                chunk.lines().forEach(CardLine::clearCardNumber);
+            }
+        };
+    }
+
+    private void persistLines(CardChunk chunk, BatchResultCollector results) {
+        List<CardLine> pending = chunk.lines().stream()
+                .filter(line -> !line.failed())
+                .toList();
+        // A chunk without cards left is still checkpointed, so it is not redone on resume
+        if (pending.isEmpty() && chunk.checkpoint() == null) {
+            return;
+        }
+
+        List<CardSaveResult> saved;
+        try {
+            saved = cardBatchInputPort.persistAll(pending.stream().map(CardLine::card).toList(),
+                    chunk.checkpoint());
+            if (saved.size() != pending.size()) {
+                throw new IllegalStateException("Expected " + pending.size()
+                        + " save results but got " + saved.size());
+            }
+        } catch (Exception e) {
+            if (pending.isEmpty()) {
+                log.warn("Could not checkpoint lines {}-{} of lot {}: {}", chunk.checkpoint().firstLine(),
+                        chunk.checkpoint().lastLine(), chunk.checkpoint().lotId(), e.getMessage());
+            }
+            pending.forEach(line -> recordFailure(line, e, results));
+            return;
+        }
+
+        for (int i = 0; i < pending.size(); i++) {
+            CardSaveResult result = saved.get(i);
+            if (result.duplicate()) {
+                recordDuplicate(pending.get(i), result.token(), results);
+            } else {
+                results.success();
+            }
+        }
+    }
+
+    private void recordDuplicate(CardLine line, UUID existingToken, BatchResultCollector results) {
+        String maskedCard = maskCardNumber(line.cardNumber());
+        results.failure(line, maskedCard, "Card already registered with Token: " + existingToken);
+        log.warn("Duplicate card at line: {} - Card: {}", line.lineNumber(), maskedCard);
+    }
+
+    private void recordFailure(CardLine line, Exception e, BatchResultCollector results) {
+        String maskedCard = maskCardNumber(line.cardNumber());
+        String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        results.failure(line, maskedCard, reason);
+        if (line.cardNumber().length == 0) {
+            log.warn("Empty card number at line: {}", line.lineNumber());
+        } else {
+            log.error("Failed to process line: {} - Card: {} - Reason: {}",
+                    line.lineNumber(), maskedCard, reason, e);
+        }
+    }
+
+    /**
+     * Parse the batch file and feed card lines to the pipeline in chunks.
+     *
+     * @return the total number of lines read.
+     */
+    int parseFile(MultipartFile file, BlockingQueue<CardChunk> sink) {
+        Path spool = spool(file);
+        try {
+            return parseLot(spool, sink, newResults(false));
+        } finally {
+            deleteSpool(spool);
+        }
+    }
+
+    /**
+     * Copies an upload to a temporary file, which outlives the request that
+     * carried it.
+     */
+    Path spool(MultipartFile file) {
+        Path spool = null;
+        try {
+            spool = Files.createTempFile("desafio-lot-", ".txt");
+            file.transferTo(spool);
+            return spool;
+        } catch (IOException e) {
+            log.error("Error reading file", e);
+            deleteSpool(spool);
+            throw new FileProcessingException("Failed to process file", e);
+        }
+    }
+
+    /**
+     * Feeds a spooled lot to the pipeline in chunks. The lot is memory-mapped,
+     * so it is read straight from the page cache and never copied onto the
+     * heap. The header and trailer are verified in a first pass, before any
+     * card reaches the pipeline; the second pass is sequential since blocking
+     * on the bounded queue throttles reading to the pace of the slowest stage.
+     *
+     * @param results receives the number of cards declared by the header and
+     *                the lot identity once the lot has been verified, and
+     *                counts the lines committed by an earlier run.
+     * @return the total number of lines read.
+     */
+    private int parseLot(Path spool, BlockingQueue<CardChunk> sink, BatchResultCollector results) {
+        try (FileChannel channel = FileChannel.open(spool, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new BatchFileFormatException("Batch file exceeds the maximum size of "
+                        + Integer.MAX_VALUE + " bytes");
+            }
+            ByteBuffer lot = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            DesafioLotParser parser = new DesafioLotParser(lot);
+            int cardCount = parser.verify();
+            String lotId = parser.lotId();
+            results.expectedCards(cardCount);
+            results.lotId(lotId);
+            CommittedLines committed = committedLines(lotId, channel.size());
+            return parseLot(parser, cardCount, lotId, channel.size(), committed, sink, results);
         } catch (IOException e) {
             log.error("Error reading file", e);
-            throw new com.hyperativa.javaEspecialista.domain.exception.FileProcessingException("Failed to process file",
-                    e);
+            throw new FileProcessingException("Failed to process file", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileProcessingException("Batch file processing interrupted", e);
         }
+    }
 
-        log.info("Parsed {} card lines from batch file ({} total lines), processing with virtual threads",
-                cards.size(), lineNumber);
-        return new ParseResult(cards, lineNumber);
+    /**
+     * Looks up what an interrupted run of the lot already committed. If the
+     * lookup fails the whole lot is processed again; cards committed by the
+     * earlier run are then reported as duplicates.
+     */
+    private CommittedLines committedLines(String lotId, long lotSize) {
+        if (lotId == null) {
+            return CommittedLines.NONE;
+        }
+        try {
+            CommittedLines committed = new CommittedLines(cardBatchInputPort.findCheckpoints(lotId, lotSize));
+            if (!committed.isEmpty()) {
+                log.info("Resuming lot {} after an interrupted upload", lotId);
+            }
+            return committed;
+        } catch (Exception e) {
+            log.warn("Could not load the checkpoints of lot {}, processing it from the start: {}", lotId,
+                    e.getMessage());
+            return CommittedLines.NONE;
+        }
     }
 
-    private String maskCardNumber(String cardNumber) {
-        if (cardNumber == null || cardNumber.length() < 4) {
-            return "****";
+    private int parseLot(DesafioLotParser parser, int cardCount, String lotId, long lotSize,
+            CommittedLines committed, BlockingQueue<CardChunk> sink, BatchResultCollector results)
+            throws InterruptedException {
+        List<CardLine> pending = new ArrayList<>(chunkSize);
+
+        int lineCount = parser.parse((lineNumber, cardNumber) -> {
+            if (committed.contains(lineNumber)) {
+                Arrays.fill(cardNumber, (byte) 0);
+                results.resumed();
+                return;
+            }
+            pending.add(new CardLine(lineNumber, cardNumber));
+            if (pending.size() == chunkSize) {
+                sink.put(chunk(pending, lotId, lotSize));
+                pending.clear();
+            }
+        });
+        if (!pending.isEmpty()) {
+            sink.put(chunk(pending, lotId, lotSize));
         }
-        return "****" + cardNumber.substring(cardNumber.length() - 4);
+
+        log.info("Streamed {} card lines from batch file ({} total lines, {} already committed) through the "
+                + "processing pipeline", cardCount, lineCount, results.resumedCount());
+        return lineCount;
+    }
+
+    private static CardChunk chunk(List<CardLine> lines, String lotId, long lotSize) {
+        BatchCheckpoint checkpoint = lotId == null ? null
+                : new BatchCheckpoint(lotId, lotSize, lines.getFirst().lineNumber(), lines.getLast().lineNumber());
+        return new CardChunk(List.copyOf(lines), checkpoint);
     }
 
-    private record CardLine(int lineNumber, String cardNumber) {
+    void deleteSpool(Path spool) {
+        if (spool == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            log.warn("Could not delete batch spool file {}: {}", spool, e.getMessage());
+        }
     }
 
-    private record ParseResult(List<CardLine> cards, int totalLines) {
+    private String maskCardNumber(byte[] cardNumber) {
+        if (cardNumber.length < 4) {
+            return "****";
+        }
+        return "****" + new String(cardNumber, cardNumber.length - 4, 4, StandardCharsets.US_ASCII);
     }
 }
@@ -0,0 +1,227 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchError;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchResponse;
+import com.hyperativa.javaEspecialista.domain.model.BatchJob;
+import com.hyperativa.javaEspecialista.domain.model.BatchJobError;
+import com.hyperativa.javaEspecialista.domain.model.BatchJobStatus;
+import com.hyperativa.javaEspecialista.domain.ports.out.BatchJobPort;
+
+import jakarta.annotation.PreDestroy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs batch uploads in the background so that the request returns as soon
+ * as the file is spooled, instead of holding the connection until the whole
+ * lot has been processed.
+ * <p>
+ * Each job runs on its own virtual thread through the regular
+ * {@link BatchFileAdapter} pipeline. At most {@code app.batch.jobs.max-concurrent}
+ * jobs run at once per node; the others wait as {@link BatchJobStatus#QUEUED}.
+ * While a job runs, its counters and new errors are published to the
+ * {@link BatchJobPort} every {@code app.batch.jobs.progress-interval}, and
+ * the jobs still queued on this node are marked alive at the same rate, so a
+ * job whose node dies is reported as stalled instead of live.
+ * </p>
+ */
+@Component
+public class BatchJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchJobService.class);
+
+    private static final long SHUTDOWN_GRACE_SECONDS = 5;
+
+    private final BatchFileAdapter batchFileAdapter;
+    private final BatchJobPort jobStore;
+    private final Semaphore slots;
+    private final long progressIntervalMillis;
+    private final ExecutorService jobExecutor;
+    private final ScheduledExecutorService progressScheduler;
+    private final Set<UUID> queuedJobs = ConcurrentHashMap.newKeySet();
+
+    public BatchJobService(BatchFileAdapter batchFileAdapter, BatchJobPort jobStore,
+            @Value("${app.batch.jobs.max-concurrent:2}") int maxConcurrent,
+            @Value("${app.batch.jobs.progress-interval:1s}") Duration progressInterval) {
+        this(batchFileAdapter, jobStore, maxConcurrent, progressInterval,
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-job-", 0).factory()),
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("batch-job-progress").daemon().factory()));
+    }
+
+    BatchJobService(BatchFileAdapter batchFileAdapter, BatchJobPort jobStore, int maxConcurrent,
+            Duration progressInterval, ExecutorService jobExecutor, ScheduledExecutorService progressScheduler) {
+        this.batchFileAdapter = batchFileAdapter;
+        this.jobStore = jobStore;
+        this.slots = new Semaphore(maxConcurrent, true);
+        this.progressIntervalMillis = progressInterval.toMillis();
+        this.jobExecutor = jobExecutor;
+        this.progressScheduler = progressScheduler;
+        progressScheduler.scheduleWithFixedDelay(this::touchQueuedJobs, progressIntervalMillis,
+                progressIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Interrupts the running jobs and gives them a moment to mark themselves
+     * as failed while Redis is still available.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        progressScheduler.shutdownNow();
+        jobExecutor.shutdownNow();
+        if (!jobExecutor.awaitTermination(SHUTDOWN_GRACE_SECONDS, TimeUnit.SECONDS)) {
+            log.warn("Batch jobs still running after {} s of shutdown", SHUTDOWN_GRACE_SECONDS);
+        }
+    }
+
+    /**
+     * Spools the upload and queues it for processing.
+     *
+     * @return the job as queued.
+     */
+    public BatchJob submit(MultipartFile file, String owner) {
+        Path spool = batchFileAdapter.spool(file);
+        UUID id = UUID.randomUUID();
+        try {
+            jobStore.create(id, owner, file.getOriginalFilename());
+            queuedJobs.add(id);
+            jobExecutor.execute(() -> run(id, spool));
+        } catch (RuntimeException e) {
+            queuedJobs.remove(id);
+            batchFileAdapter.deleteSpool(spool);
+            if (e instanceof RejectedExecutionException) {
+                jobStore.failed(id, 0, 0, "Batch jobs are shutting down");
+            }
+            throw e;
+        }
+        log.info("Batch job {} queued for file {} by {}", id, file.getOriginalFilename(), owner);
+        return jobStore.find(id).orElseThrow();
+    }
+
+    public Optional<BatchJob> find(UUID id) {
+        return jobStore.find(id);
+    }
+
+    public List<BatchError> errors(UUID id, int page, int size) {
+        return jobStore.errors(id, page, size).stream()
+                .map(error -> new BatchError(error.lineNumber(), error.maskedCard(), error.reason()))
+                .toList();
+    }
+
+    private void touchQueuedJobs() {
+        if (queuedJobs.isEmpty()) {
+            return;
+        }
+        try {
+            jobStore.touch(Set.copyOf(queuedJobs));
+        } catch (RuntimeException e) {
+            log.warn("Could not mark {} queued batch jobs as alive: {}", queuedJobs.size(), e.getMessage());
+        }
+    }
+
+    private static List<BatchJobError> toJobErrors(List<BatchError> errors) {
+        return errors.stream()
+                .map(error -> new BatchJobError(error.lineNumber(), error.cardNumber(), error.reason()))
+                .toList();
+    }
+
+    private void run(UUID id, Path spool) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            queuedJobs.remove(id);
+            Thread.currentThread().interrupt();
+            jobStore.failed(id, 0, 0, "Batch job interrupted before it started");
+            batchFileAdapter.deleteSpool(spool);
+            return;
+        }
+
+        // From here on the job's own progress updates keep it alive
+        queuedJobs.remove(id);
+        JobProgress progress = new JobProgress(id, batchFileAdapter.newResults(true));
+        ScheduledFuture<?> publisher = null;
+        try {
+            jobStore.started(id);
+            publisher = progressScheduler.scheduleWithFixedDelay(progress::publish,
+                    progressIntervalMillis, progressIntervalMillis, TimeUnit.MILLISECONDS);
+            BatchResponse response = batchFileAdapter.processLot(spool, progress.results);
+            progress.complete(response);
+            log.info("Batch job {} completed: {} succeeded, {} failed", id, response.successCount(),
+                    response.failureCount());
+        } catch (RuntimeException | Error e) {
+            log.error("Batch job {} failed", id, e);
+            progress.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+        } finally {
+            if (publisher != null) {
+                publisher.cancel(false);
+            }
+            slots.release();
+            batchFileAdapter.deleteSpool(spool);
+        }
+    }
+
+    /**
+     * Publishes the progress of one job. The periodic publish and the final
+     * write are serialised, so a late progress update can never overwrite the
+     * final result.
+     */
+    private final class JobProgress {
+
+        private final UUID id;
+        private final BatchResultCollector results;
+        private boolean finished;
+
+        JobProgress(UUID id, BatchResultCollector results) {
+            this.id = id;
+            this.results = results;
+        }
+
+        synchronized void publish() {
+            if (!finished) {
+                writeProgress();
+            }
+        }
+
+        synchronized void complete(BatchResponse response) {
+            finished = true;
+            jobStore.completed(id, results.expectedCards(), response.totalLinesProcessed(), response.successCount(),
+                    response.failureCount(), toJobErrors(response.errors()));
+        }
+
+        synchronized void fail(String message) {
+            finished = true;
+            // Keep the errors reported before the failure
+            writeProgress();
+            jobStore.failed(id, results.successCount(), results.failureCount(), message);
+        }
+
+        private void writeProgress() {
+            try {
+                jobStore.progress(id, results.expectedCards(), results.successCount(), results.failureCount(),
+                        toJobErrors(results.drainNewErrors()));
+            } catch (RuntimeException e) {
+                // Progress is best effort; the next update or the final write catches up
+                log.warn("Could not publish progress of batch job {}: {}", id, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchError;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchResponse;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gathers batch outcomes incrementally as lines leave the pipeline. Failures
+ * are always counted, but only the first {@code maxReportedErrors} are kept
+ * in detail so that a file full of bad lines cannot grow the heap unbounded.
+ * <p>
+ * The counters can be read while the lot is still running; with
+ * {@code trackNewErrors} the reported errors are also queued until a progress
+ * publisher drains them.
+ * </p>
+ */
+final class BatchResultCollector {
+
+    private final int maxReportedErrors;
+    private final AtomicInteger success = new AtomicInteger();
+    private final AtomicInteger failure = new AtomicInteger();
+    private final AtomicInteger resumed = new AtomicInteger();
+    private final AtomicInteger reportedErrors = new AtomicInteger();
+    private final Queue<BatchError> errors = new ConcurrentLinkedQueue<>();
+    private final Queue<BatchError> newErrors;
+    private volatile int expectedCards = -1;
+    private volatile String lotId;
+
+    BatchResultCollector(int maxReportedErrors, boolean trackNewErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+        this.newErrors = trackNewErrors ? new ConcurrentLinkedQueue<>() : null;
+    }
+
+    void expectedCards(int cardCount) {
+        this.expectedCards = cardCount;
+    }
+
+    /**
+     * @return the card count declared by the lot header, or {@code -1} until
+     *         the lot has been verified.
+     */
+    int expectedCards() {
+        return expectedCards;
+    }
+
+    void lotId(String lotId) {
+        this.lotId = lotId;
+    }
+
+    /**
+     * @return the identity of a lot that is checkpointed as it runs, or
+     *         {@code null} if the lot cannot be resumed.
+     */
+    String lotId() {
+        return lotId;
+    }
+
+    int successCount() {
+        return success.get();
+    }
+
+    int failureCount() {
+        return failure.get();
+    }
+
+    int resumedCount() {
+        return resumed.get();
+    }
+
+    /**
+     * Removes and returns the errors reported since the previous call, in no
+     * particular order. Always empty unless new errors are tracked.
+     */
+    List<BatchError> drainNewErrors() {
+        List<BatchError> drained = new ArrayList<>();
+        if (newErrors != null) {
+            BatchError error;
+            while ((error = newErrors.poll()) != null) {
+                drained.add(error);
+            }
+        }
+        return drained;
+    }
+
+    void success() {
+        success.incrementAndGet();
+    }
+
+    /**
+     * Counts a card line committed by an earlier run of the lot and skipped
+     * now.
+     */
+    void resumed() {
+        resumed.incrementAndGet();
+    }
+
+    void failure(CardLine line, String maskedCard, String reason) {
+        line.markFailed();
+        failure.incrementAndGet();
+        if (reportedErrors.incrementAndGet() <= maxReportedErrors) {
+            BatchError error = new BatchError(line.lineNumber(), maskedCard, reason);
+            errors.add(error);
+            if (newErrors != null) {
+                newErrors.add(error);
+            }
+        }
+    }
+
+    BatchResponse toResponse(int totalLines) {
+        List<BatchError> sorted = new ArrayList<>(errors);
+        sorted.sort(Comparator.comparingInt(BatchError::lineNumber));
+        return new BatchResponse(totalLines, success.get(), failure.get(), resumed.get(), sorted);
+    }
+}
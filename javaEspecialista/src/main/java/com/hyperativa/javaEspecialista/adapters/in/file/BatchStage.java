@@ -0,0 +1,116 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * One stage of the batch pipeline: a fixed number of workers take chunks from
+ * the input queue, apply the stage work and hand them to the output queue.
+ * <p>
+ * Queues are bounded, so a slow stage blocks the stages before it
+ * (backpressure) instead of letting work pile up in memory. When the
+ * {@link CardChunk#END} marker arrives every worker of the stage sees it, and
+ * the last one to stop forwards it downstream.
+ * </p>
+ * <p>
+ * Workers are virtual threads forked into the upload's
+ * {@link StructuredTaskScope}. The work of a CPU-bound stage is handed to a
+ * separate, fixed-size pool while the worker waits, so crypto never occupies
+ * the carrier threads that the I/O stages run on.
+ * </p>
+ */
+final class BatchStage {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchStage.class);
+
+    private final String name;
+    private final BlockingQueue<CardChunk> input;
+    private final BlockingQueue<CardChunk> output;
+    private final Consumer<CardChunk> work;
+    private final ExecutorService cpuPool;
+    private final MetricsPort metricsService;
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    /**
+     * @param output  the next stage's queue, or {@code null} for the last stage.
+     * @param cpuPool the pool that runs the work of a CPU-bound stage, or
+     *                {@code null} to run it on the stage's own workers.
+     */
+    BatchStage(String name, BlockingQueue<CardChunk> input, BlockingQueue<CardChunk> output,
+            Consumer<CardChunk> work, ExecutorService cpuPool, MetricsPort metricsService) {
+        this.name = name;
+        this.input = input;
+        this.output = output;
+        this.work = work;
+        this.cpuPool = cpuPool;
+        this.metricsService = metricsService;
+    }
+
+    void fork(StructuredTaskScope<Object, Void> scope, int workers) {
+        activeWorkers.set(workers);
+        for (int i = 0; i < workers; i++) {
+            scope.fork(this::runWorker);
+        }
+    }
+
+    private void runWorker() {
+        try {
+            while (true) {
+                CardChunk chunk = input.take();
+                if (chunk == CardChunk.END) {
+                    // Put the marker back so sibling workers also stop
+                    input.put(CardChunk.END);
+                    if (activeWorkers.decrementAndGet() == 0 && output != null) {
+                        output.put(CardChunk.END);
+                    }
+                    return;
+                }
+                process(chunk);
+                if (output != null) {
+                    output.put(chunk);
+                }
+            }
+        } catch (InterruptedException e) {
+            log.warn("Batch stage '{}' interrupted", name);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void process(CardChunk chunk) throws InterruptedException {
+        if (cpuPool == null) {
+            timed(chunk);
+            return;
+        }
+        Future<?> task = cpuPool.submit(() -> timed(chunk));
+        try {
+            task.get();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void timed(CardChunk chunk) {
+        long start = System.nanoTime();
+        work.accept(chunk);
+        metricsService.recordBatchStageLatency(name, Duration.ofNanos(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,21 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
+
+import java.util.List;
+
+/**
+ * Unit of work handed between batch pipeline stages. Moving lines in chunks
+ * keeps queue hand-off overhead low while the bounded queues still cap how
+ * many lines are in memory at once.
+ *
+ * @param checkpoint the line range the chunk covers, committed with its
+ *                   cards; {@code null} if the lot cannot be resumed.
+ */
+record CardChunk(List<CardLine> lines, BatchCheckpoint checkpoint) {
+
+    /**
+     * End-of-stream marker propagated through the pipeline once parsing is done.
+     */
+    static final CardChunk END = new CardChunk(List.of(), null);
+}
@@ -0,0 +1,65 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import com.hyperativa.javaEspecialista.domain.model.Card;
+
+import java.util.Arrays;
+
+/**
+ * A single card record travelling through the batch pipeline. Each stage fills
+ * in the field it produces; hand-off between stages happens through blocking
+ * queues, which gives the required happens-before ordering.
+ * <p>
+ * The card number is kept as ASCII bytes straight from the lot file and is
+ * zeroed by {@link #clearCardNumber()} once the line has been persisted or has
+ * failed.
+ * </p>
+ */
+final class CardLine {
+
+    private final int lineNumber;
+    private final byte[] cardNumber;
+    private byte[] cardHash;
+    private Card card;
+    private boolean failed;
+
+    CardLine(int lineNumber, byte[] cardNumber) {
+        this.lineNumber = lineNumber;
+        this.cardNumber = cardNumber;
+    }
+
+    int lineNumber() {
+        return lineNumber;
+    }
+
+    byte[] cardNumber() {
+        return cardNumber;
+    }
+
+    void clearCardNumber() {
+        Arrays.fill(cardNumber, (byte) 0);
+    }
+
+    byte[] cardHash() {
+        return cardHash;
+    }
+
+    void cardHash(byte[] cardHash) {
+        this.cardHash = cardHash;
+    }
+
+    Card card() {
+        return card;
+    }
+
+    void card(Card card) {
+        this.card = card;
+    }
+
+    boolean failed() {
+        return failed;
+    }
+
+    void markFailed() {
+        this.failed = true;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lines of a lot that an earlier run already committed. Persist workers
+ * commit chunks out of order, so this is a set of ranges rather than a single
+ * offset. Lookups must come in ascending line order, as the parser produces
+ * them, so each one costs amortised constant time.
+ */
+final class CommittedLines {
+
+    static final CommittedLines NONE = new CommittedLines(List.of());
+
+    private final List<BatchCheckpoint> ranges;
+    private int next;
+
+    CommittedLines(List<BatchCheckpoint> checkpoints) {
+        this.ranges = checkpoints.stream()
+                .sorted(Comparator.comparingInt(BatchCheckpoint::firstLine))
+                .toList();
+    }
+
+    boolean isEmpty() {
+        return ranges.isEmpty();
+    }
+
+    /**
+     * @param lineNumber a line number not lower than the previous one.
+     */
+    boolean contains(int lineNumber) {
+        while (next < ranges.size() && ranges.get(next).lastLine() < lineNumber) {
+            next++;
+        }
+        return next < ranges.size() && ranges.get(next).firstLine() <= lineNumber;
+    }
+}
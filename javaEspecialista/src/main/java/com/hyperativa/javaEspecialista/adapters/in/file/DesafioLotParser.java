@@ -0,0 +1,319 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import com.hyperativa.javaEspecialista.domain.exception.BatchFileFormatException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fixed-width parser for DESAFIO lot files that works directly on the raw
+ * bytes of the lot, so no line or field is ever decoded to a {@code String}.
+ * <p>
+ * Layout (1-based columns):
+ * <pre>
+ * header  : [01-29] name ("DESAFIO...")  [30-37] date  [38-45] lot  [46-51] record count
+ * record  : [01-01] 'C'  [02-07] sequence  [08-26] card number, left-aligned
+ * trailer : [01-08] lot  [09-14] record count
+ * </pre>
+ * Record lines may stop right after the card number; trailing padding is
+ * optional. Lines shorter than the card number column and blank lines are
+ * ignored, as before.
+ * </p>
+ */
+final class DesafioLotParser {
+
+    private static final byte[] HEADER_PREFIX = "DESAFIO".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRAILER_PREFIX = "LOTE".getBytes(StandardCharsets.US_ASCII);
+
+    private static final int HEADER_DATE_START = 29;
+    private static final int HEADER_LOT_START = 37;
+    private static final int HEADER_COUNT_START = 45;
+    private static final int HEADER_LENGTH = 51;
+    private static final int TRAILER_LOT_START = 0;
+    private static final int TRAILER_COUNT_START = 8;
+    private static final int TRAILER_LENGTH = 14;
+    private static final int DATE_LENGTH = 8;
+    private static final int LOT_LENGTH = 8;
+    private static final int COUNT_LENGTH = 6;
+
+    static final int CARD_NUMBER_START = 7;
+    static final int CARD_NUMBER_END = 26;
+
+    /**
+     * Receives the card number of each record line, as ASCII bytes with the
+     * padding removed. The array is owned by the receiver.
+     */
+    @FunctionalInterface
+    interface RecordHandler {
+        void accept(int lineNumber, byte[] cardNumber) throws InterruptedException;
+    }
+
+    private enum LineType {
+        HEADER, RECORD, TRAILER, SKIPPED
+    }
+
+    @FunctionalInterface
+    private interface LineVisitor {
+        void visit(int lineNumber, int start, int end, LineType type) throws InterruptedException;
+    }
+
+    private final ByteBuffer lot;
+    private LotLayout layout;
+
+    /**
+     * @param lot the whole lot file, from its current position to its limit;
+     *            only absolute reads are used, so the buffer is never modified.
+     */
+    DesafioLotParser(ByteBuffer lot) {
+        this.lot = lot;
+    }
+
+    /**
+     * Checks the header and trailer against the records actually present,
+     * before anything is handed to the pipeline.
+     *
+     * @return the number of record lines in the lot.
+     * @throws BatchFileFormatException if the header or trailer is malformed, or
+     *                                  the declared lot number or record count
+     *                                  does not match.
+     */
+    int verify() {
+        LotLayout scanned = new LotLayout();
+        try {
+            scan(scanned);
+        } catch (InterruptedException e) {
+            // LotLayout never blocks
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        scanned.check();
+        layout = scanned;
+        return scanned.records;
+    }
+
+    /**
+     * Identifies the lot by the generation date and lot number of its header,
+     * e.g. {@code 20180524LOTE0001}.
+     *
+     * @return the lot identity, or {@code null} if the lot has no header.
+     * @throws IllegalStateException if the lot has not been verified yet.
+     */
+    String lotId() {
+        if (layout == null) {
+            throw new IllegalStateException("Lot not verified");
+        }
+        if (layout.headerLine == 0) {
+            return null;
+        }
+        return text(layout.headerStart + HEADER_DATE_START, DATE_LENGTH)
+                + text(layout.headerStart + HEADER_LOT_START, LOT_LENGTH);
+    }
+
+    /**
+     * Hands the card number of every record line to {@code handler}, in file
+     * order.
+     *
+     * @return the total number of lines in the lot.
+     */
+    int parse(RecordHandler handler) throws InterruptedException {
+        return scan((lineNumber, start, end, type) -> {
+            if (type == LineType.RECORD) {
+                handler.accept(lineNumber, cardNumber(start, end));
+            }
+        });
+    }
+
+    /**
+     * Walks the lot line by line. Lines end with {@code \n} (an optional
+     * preceding {@code \r} is dropped); a final line without terminator is
+     * still reported, an empty one after the last terminator is not.
+     */
+    private int scan(LineVisitor visitor) throws InterruptedException {
+        int limit = lot.limit();
+        int position = lot.position();
+        int lineNumber = 0;
+        while (position < limit) {
+            int start = position;
+            while (position < limit && lot.get(position) != '\n') {
+                position++;
+            }
+            int end = position;
+            if (end > start && lot.get(end - 1) == '\r') {
+                end--;
+            }
+            position++;
+            lineNumber++;
+            visitor.visit(lineNumber, start, end, classify(start, end));
+        }
+        return lineNumber;
+    }
+
+    private LineType classify(int start, int end) {
+        if (startsWith(start, end, HEADER_PREFIX)) {
+            return LineType.HEADER;
+        }
+        if (startsWith(start, end, TRAILER_PREFIX)) {
+            return LineType.TRAILER;
+        }
+        if (end - start <= CARD_NUMBER_START || isBlank(start, end)) {
+            return LineType.SKIPPED;
+        }
+        return LineType.RECORD;
+    }
+
+    private byte[] cardNumber(int lineStart, int lineEnd) {
+        int from = lineStart + CARD_NUMBER_START;
+        int to = Math.min(lineStart + CARD_NUMBER_END, lineEnd);
+        while (from < to && lot.get(from) <= ' ') {
+            from++;
+        }
+        while (to > from && lot.get(to - 1) <= ' ') {
+            to--;
+        }
+        byte[] cardNumber = new byte[to - from];
+        lot.get(from, cardNumber);
+        return cardNumber;
+    }
+
+    private boolean startsWith(int start, int end, byte[] prefix) {
+        if (end - start < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (lot.get(start + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (lot.get(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the unsigned decimal value of a fixed-width field, or -1 if it
+     *         contains anything other than digits.
+     */
+    private int number(int from, int length) {
+        int value = 0;
+        for (int i = from; i < from + length; i++) {
+            int digit = lot.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private boolean sameBytes(int a, int b, int length) {
+        for (int i = 0; i < length; i++) {
+            if (lot.get(a + i) != lot.get(b + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String text(int from, int length) {
+        byte[] bytes = new byte[length];
+        lot.get(from, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * First pass: remembers where the header and trailer are and counts the
+     * records in between.
+     */
+    private final class LotLayout implements LineVisitor {
+
+        private int headerLine;
+        private int headerStart;
+        private int headerEnd;
+        private int trailerLine;
+        private int trailerStart;
+        private int trailerEnd;
+        private int records;
+
+        @Override
+        public void visit(int lineNumber, int start, int end, LineType type) {
+            switch (type) {
+                case HEADER -> {
+                    if (headerLine != 0) {
+                        throw new BatchFileFormatException("Unexpected second header at line " + lineNumber);
+                    }
+                    headerLine = lineNumber;
+                    headerStart = start;
+                    headerEnd = end;
+                }
+                case TRAILER -> {
+                    if (trailerLine != 0) {
+                        throw new BatchFileFormatException("Unexpected second trailer at line " + lineNumber);
+                    }
+                    trailerLine = lineNumber;
+                    trailerStart = start;
+                    trailerEnd = end;
+                }
+                case RECORD -> {
+                    if (trailerLine != 0) {
+                        throw new BatchFileFormatException("Record at line " + lineNumber
+                                + " comes after the lot trailer at line " + trailerLine);
+                    }
+                    records++;
+                }
+                case SKIPPED -> {
+                }
+            }
+        }
+
+        void check() {
+            if (headerLine != 0) {
+                checkHeader();
+            }
+            if (trailerLine != 0) {
+                checkTrailer();
+            }
+        }
+
+        private void checkHeader() {
+            int declared = headerEnd - headerStart >= HEADER_LENGTH
+                    ? number(headerStart + HEADER_COUNT_START, COUNT_LENGTH)
+                    : -1;
+            if (declared < 0) {
+                throw new BatchFileFormatException("Malformed lot header at line " + headerLine);
+            }
+            String lotNumber = text(headerStart + HEADER_LOT_START, LOT_LENGTH);
+            if (declared != records) {
+                throw new BatchFileFormatException("Header of lot " + lotNumber + " declares " + declared
+                        + " records but the lot contains " + records);
+            }
+            if (trailerLine == 0) {
+                throw new BatchFileFormatException("Lot " + lotNumber + " has no trailer");
+            }
+        }
+
+        private void checkTrailer() {
+            int declared = trailerEnd - trailerStart >= TRAILER_LENGTH
+                    ? number(trailerStart + TRAILER_COUNT_START, COUNT_LENGTH)
+                    : -1;
+            if (declared < 0) {
+                throw new BatchFileFormatException("Malformed lot trailer at line " + trailerLine);
+            }
+            if (headerLine != 0 && !sameBytes(headerStart + HEADER_LOT_START,
+                    trailerStart + TRAILER_LOT_START, LOT_LENGTH)) {
+                throw new BatchFileFormatException("Trailer lot " + text(trailerStart + TRAILER_LOT_START, LOT_LENGTH)
+                        + " does not match header lot " + text(headerStart + HEADER_LOT_START, LOT_LENGTH));
+            }
+            if (declared != records) {
+                throw new BatchFileFormatException("Trailer declares " + declared
+                        + " records but the lot contains " + records);
+            }
+        }
+    }
+}
@@ -3,24 +3,43 @@ package com.hyperativa.javaEspecialista.adapters.in.web;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.hyperativa.javaEspecialista.adapters.in.file.BatchFileAdapter;
+import com.hyperativa.javaEspecialista.adapters.in.file.BatchJobService;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchDetokenizeRequest;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchDetokenizeResponse;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchError;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchJobResponse;
 import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchResponse;
 import com.hyperativa.javaEspecialista.adapters.in.web.dto.CardRequest;
 import com.hyperativa.javaEspecialista.adapters.in.web.dto.CardResponse;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.DetokenizeRequest;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.DetokenizeResponse;
+import com.hyperativa.javaEspecialista.adapters.in.web.exception.IdempotencyKeyReusedException;
+import com.hyperativa.javaEspecialista.domain.model.BatchJob;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+import com.hyperativa.javaEspecialista.domain.model.IdempotentRegistration;
 import com.hyperativa.javaEspecialista.domain.ports.in.CardInputPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.IdempotencyPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 
+import java.net.URI;
 import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/v1/cards")
@@ -30,23 +49,79 @@ public class CardController {
 
     private static final Logger log = LoggerFactory.getLogger(CardController.class);
 
+    private static final int MAX_ERRORS_PAGE_SIZE = 1000;
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final Pattern VALID_IDEMPOTENCY_KEY = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
     private final CardInputPort cardInputPort;
     private final BatchFileAdapter batchFileAdapter;
+    private final BatchJobService batchJobService;
+    private final IdempotencyPort idempotencyPort;
+    private final MetricsPort metricsService;
 
     public CardController(CardInputPort cardInputPort,
-            BatchFileAdapter batchFileAdapter) {
+            BatchFileAdapter batchFileAdapter,
+            BatchJobService batchJobService,
+            IdempotencyPort idempotencyPort,
+            MetricsPort metricsService) {
         this.cardInputPort = cardInputPort;
         this.batchFileAdapter = batchFileAdapter;
+        this.batchJobService = batchJobService;
+        this.idempotencyPort = idempotencyPort;
+        this.metricsService = metricsService;
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
-    @Operation(summary = "Register a new card", description = "Registers a card. If it exists, returns the existing UUID.")
-    @Transactional
+    @Operation(summary = "Register a new card", description = "Registers a card and returns 201 with its token. If the card is already registered, returns 200 with the existing token. A request retried with the same Idempotency-Key gets the first response back.")
     public ResponseEntity<CardResponse> registerCard(@Valid @RequestBody CardRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
             Principal principal) {
+        if (idempotencyKey == null) {
+            log.info("User {} registered a card: {}", principal.getName(), maskCardNumber(request.cardNumber()));
+            return registered(cardInputPort.registerCard(request.cardNumber()));
+        }
+
+        checkIdempotencyKey(idempotencyKey);
+        // Hashed once: the same hash checks the stored fingerprint, registers the card and stores the outcome
+        byte[] cardHash = cardInputPort.hash(request.cardNumber());
+        Optional<IdempotentRegistration> stored = idempotencyPort.find(principal.getName(), idempotencyKey,
+                cardHash);
+        if (stored.isPresent()) {
+            return replay(stored.get());
+        }
+
         log.info("User {} registered a card: {}", principal.getName(), maskCardNumber(request.cardNumber()));
-        UUID uuid = cardInputPort.registerCard(request.cardNumber());
-        return ResponseEntity.status(HttpStatus.CREATED).body(new CardResponse(uuid));
+        CardSaveResult result = cardInputPort.registerCard(request.cardNumber(), cardHash);
+        idempotencyPort.save(principal.getName(), idempotencyKey, cardHash, result);
+        return registered(result);
+    }
+
+    private static ResponseEntity<CardResponse> registered(CardSaveResult result) {
+        return ResponseEntity.status(result.duplicate() ? HttpStatus.OK : HttpStatus.CREATED)
+                .body(new CardResponse(result.token()));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the key is not 1 to 64 letters,
+     *                                  digits, {@code -} or {@code _}.
+     */
+    static void checkIdempotencyKey(String idempotencyKey) {
+        if (!VALID_IDEMPOTENCY_KEY.matcher(idempotencyKey).matches()) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be 1 to 64 letters, digits, '-' or '_'");
+        }
+    }
+
+    private ResponseEntity<CardResponse> replay(IdempotentRegistration stored) {
+        if (!stored.sameCard()) {
+            throw new IdempotencyKeyReusedException();
+        }
+        metricsService.incrementCardRegistrationReplay();
+        return ResponseEntity.status(stored.created() ? HttpStatus.CREATED : HttpStatus.OK)
+                .header(IDEMPOTENT_REPLAYED, "true")
+                .body(new CardResponse(stored.token()));
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -57,6 +132,32 @@ public class CardController {
         return ResponseEntity.ok(batchFileAdapter.processFile(file));
     }
 
+    @PostMapping(value = "/batches", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Submit batch file", description = "Accepts a TXT file for background processing and returns a job to poll for progress.")
+    public ResponseEntity<BatchJobResponse> submitBatch(
+            @RequestParam("file") MultipartFile file, Principal principal) {
+        log.info("User {} submitted batch file: {}", principal.getName(), file.getOriginalFilename());
+        BatchJob job = batchJobService.submit(file, principal.getName());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/cards/batches/" + job.id()))
+                .body(toResponse(job, 0, 0, List.of()));
+    }
+
+    @GetMapping("/batches/{jobId}")
+    @Operation(summary = "Get batch job progress", description = "Returns the progress of a batch job and one page of its errors. Only the submitter or an admin can see a job.")
+    public ResponseEntity<BatchJobResponse> getBatch(@PathVariable UUID jobId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size,
+            Authentication authentication) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.clamp(size, 1, MAX_ERRORS_PAGE_SIZE);
+        return batchJobService.find(jobId)
+                .filter(job -> canSee(job, authentication))
+                .map(job -> ResponseEntity.ok(toResponse(job, pageNumber, pageSize,
+                        batchJobService.errors(jobId, pageNumber, pageSize))))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping("/lookup")
     @Operation(summary = "Get card UUID (Secure Lookup)", description = "Retrieves the UUID of a registered card by its number via POST to avoid URL logging.")
     public ResponseEntity<CardResponse> getCardSecure(@Valid @RequestBody CardRequest request,
@@ -68,6 +169,38 @@ public class CardController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/detokenize")
+    @PreAuthorize("hasAuthority('SCOPE_ADMIN')")
+    @Operation(summary = "Detokenize card", description = "Returns the card number behind a token. Admin only; every call is audited.")
+    public ResponseEntity<DetokenizeResponse> detokenize(@Valid @RequestBody DetokenizeRequest request,
+            Principal principal) {
+        log.info("User {} requested detokenization of token {}", principal.getName(), request.token());
+        return cardInputPort.detokenize(request.token())
+                .map(cardNumber -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.noStore())
+                        .body(new DetokenizeResponse(request.token(), cardNumber)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/detokenize/batch")
+    @PreAuthorize("hasAuthority('SCOPE_ADMIN')")
+    @Operation(summary = "Detokenize cards in bulk", description = "Returns the card numbers behind up to 1000 tokens. Admin only; every token is audited.")
+    public ResponseEntity<BatchDetokenizeResponse> detokenizeBatch(@Valid @RequestBody BatchDetokenizeRequest request,
+            Principal principal) {
+        log.info("User {} requested detokenization of {} tokens", principal.getName(), request.tokens().size());
+        Map<UUID, String> cardNumbers = cardInputPort.detokenize(request.tokens());
+        List<DetokenizeResponse> cards = cardNumbers.entrySet().stream()
+                .map(entry -> new DetokenizeResponse(entry.getKey(), entry.getValue()))
+                .toList();
+        List<UUID> notFound = request.tokens().stream()
+                .distinct()
+                .filter(token -> !cardNumbers.containsKey(token))
+                .toList();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(new BatchDetokenizeResponse(cards, notFound));
+    }
+
     @PostMapping("/delete")
     @PreAuthorize("hasAuthority('SCOPE_ADMIN')")
     @Operation(summary = "Delete card (LGPD)", description = "Permanently erases card data per LGPD Art. 18 (right to erasure). Card number sent via body for security.")
@@ -79,6 +212,24 @@ public class CardController {
         return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
     }
 
+    /**
+     * Jobs of other users are reported as not found rather than forbidden, so
+     * job ids cannot be probed.
+     */
+    private boolean canSee(BatchJob job, Authentication authentication) {
+        return authentication.getName().equals(job.owner())
+                || authentication.getAuthorities().stream()
+                        .anyMatch(authority -> "SCOPE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private BatchJobResponse toResponse(BatchJob job, int page, int size, List<BatchError> errors) {
+        return new BatchJobResponse(job.id(), job.status().name(), job.fileName(),
+                job.expectedCards() >= 0 ? job.expectedCards() : null, job.totalLines(),
+                job.successCount(), job.failureCount(), job.cardsPerSecond(),
+                job.submittedAt(), job.startedAt(), job.finishedAt(), job.message(),
+                job.reportedErrors(), page, size, errors);
+    }
+
     private String maskCardNumber(String cardNumber) {
         if (cardNumber == null || cardNumber.length() < 4) {
             return "****";
@@ -0,0 +1,14 @@
+package com.hyperativa.javaEspecialista.adapters.in.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Tokens to reverse to card numbers")
+public record BatchDetokenizeRequest(
+        @Schema(description = "Tokens to detokenize (at most 1000)") @NotEmpty(message = "At least one token is required") @Size(max = 1000, message = "At most 1000 tokens per request") List<@NotNull(message = "Tokens must not be null") UUID> tokens) {
+}
@@ -0,0 +1,13 @@
+package com.hyperativa.javaEspecialista.adapters.in.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Response for batch detokenization")
+public record BatchDetokenizeResponse(
+        @Schema(description = "Card number of each known token, in request order") List<DetokenizeResponse> cards,
+
+        @Schema(description = "Tokens that are not registered") List<UUID> notFound) {
+}
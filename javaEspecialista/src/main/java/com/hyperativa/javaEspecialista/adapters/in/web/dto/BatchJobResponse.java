@@ -0,0 +1,43 @@
+package com.hyperativa.javaEspecialista.adapters.in.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Schema(description = "Status and progress of an asynchronous batch upload")
+public record BatchJobResponse(
+        @Schema(description = "Job identifier to poll", example = "3f1c2a9e-8b7d-4e6f-a5c4-1d2e3f4a5b6c") UUID jobId,
+
+        @Schema(description = "Job status", example = "RUNNING", allowableValues = { "QUEUED", "RUNNING",
+                "COMPLETED", "FAILED" }) String status,
+
+        @Schema(description = "Name of the uploaded file", example = "lote.txt") String fileName,
+
+        @Schema(description = "Card count declared by the lot header; null until the lot has been verified", example = "100000") Integer expectedCards,
+
+        @Schema(description = "Total number of lines in the file; 0 until the job has completed", example = "100002") int totalLinesProcessed,
+
+        @Schema(description = "Number of cards registered so far", example = "41800") int successCount,
+
+        @Schema(description = "Number of cards that failed so far", example = "12") int failureCount,
+
+        @Schema(description = "Cards processed per second since the job started", example = "20900.5") double cardsPerSecond,
+
+        @Schema(description = "When the upload was accepted") Instant submittedAt,
+
+        @Schema(description = "When processing started") Instant startedAt,
+
+        @Schema(description = "When processing finished") Instant finishedAt,
+
+        @Schema(description = "Why the job failed", example = "Header declares 10 records but the lot has 9") String message,
+
+        @Schema(description = "Total number of errors kept in detail", example = "12") int errorCount,
+
+        @Schema(description = "Page of errors returned", example = "0") int page,
+
+        @Schema(description = "Maximum number of errors per page", example = "100") int size,
+
+        @Schema(description = "One page of errors; sorted by line number once the job has completed") List<BatchError> errors) {
+}
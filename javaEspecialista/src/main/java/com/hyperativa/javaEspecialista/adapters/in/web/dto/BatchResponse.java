@@ -11,5 +11,11 @@ public record BatchResponse(
 
                 @Schema(description = "Number of cards that failed to register", example = "1") int failureCount,
 
+                @Schema(description = "Number of card lines skipped because an earlier, interrupted upload of the same lot already committed them", example = "0") int resumedCount,
+
                 @Schema(description = "Detailed information about each failure") List<BatchError> errors) {
+
+        public BatchResponse(int totalLinesProcessed, int successCount, int failureCount, List<BatchError> errors) {
+                this(totalLinesProcessed, successCount, failureCount, 0, errors);
+        }
 }
@@ -0,0 +1,8 @@
+package com.hyperativa.javaEspecialista.adapters.in.web.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public record DetokenizeRequest(@NotNull(message = "Token is required") UUID token) {
+}
@@ -0,0 +1,10 @@
+package com.hyperativa.javaEspecialista.adapters.in.web.dto;
+
+import java.util.UUID;
+
+/**
+ * Response carrying the PAN behind a PCI DSS token. Only returned to
+ * administrators, never cached by clients ({@code Cache-Control: no-store}).
+ */
+public record DetokenizeResponse(UUID token, String cardNumber) {
+}
@@ -1,11 +1,15 @@
 package com.hyperativa.javaEspecialista.adapters.in.web.exception;
 
+import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationBusyException;
 import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationException;
+import com.hyperativa.javaEspecialista.domain.exception.BatchFileFormatException;
 import com.hyperativa.javaEspecialista.domain.exception.CardValidationException;
 import com.hyperativa.javaEspecialista.domain.exception.UsernameAlreadyExistsException;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -46,12 +50,20 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
-    @ExceptionHandler(com.hyperativa.javaEspecialista.domain.exception.DuplicateCardException.class)
-    public ProblemDetail handleDuplicateCard(
-            com.hyperativa.javaEspecialista.domain.exception.DuplicateCardException e) {
-        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
-        problem.setTitle("Card Already Registered");
-        problem.setType(URI.create("https://hyperativa.com.br/errors/duplicate-card"));
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ProblemDetail handleIdempotencyKeyReused(IdempotencyKeyReusedException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage());
+        problem.setTitle("Idempotency Key Reused");
+        problem.setType(URI.create("https://hyperativa.com.br/errors/idempotency-key-reused"));
+        problem.setProperty("timestamp", Instant.now());
+        return problem;
+    }
+
+    @ExceptionHandler(BatchFileFormatException.class)
+    public ProblemDetail handleBatchFileFormat(BatchFileFormatException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+        problem.setTitle("Invalid Batch File");
+        problem.setType(URI.create("https://hyperativa.com.br/errors/batch-file-format"));
         problem.setProperty("timestamp", Instant.now());
         return problem;
     }
@@ -90,6 +102,18 @@ public class GlobalExceptionHandler {
         return problem;
     }
 
+    @ExceptionHandler(AuthenticationBusyException.class)
+    public ResponseEntity<ProblemDetail> handleAuthenticationBusy(AuthenticationBusyException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many credential checks in progress, try again shortly");
+        problem.setTitle("Service Unavailable");
+        problem.setType(URI.create("https://hyperativa.com.br/errors/service-unavailable"));
+        problem.setProperty("timestamp", Instant.now());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(problem);
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ProblemDetail handleBadCredentials(BadCredentialsException e) {
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.UNAUTHORIZED,
@@ -0,0 +1,12 @@
+package com.hyperativa.javaEspecialista.adapters.in.web.exception;
+
+/**
+ * Thrown when an {@code Idempotency-Key} that already answered one card
+ * registration is sent with a different card.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key was already used to register a different card");
+    }
+}
@@ -1,33 +1,46 @@
 package com.hyperativa.javaEspecialista.adapters.in.web.filter;
 
+import com.hyperativa.javaEspecialista.config.RateLimitProperties;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.io.IOException;
-import java.time.Duration;
+import java.util.List;
 
+/**
+ * Applies the per-client rate limits of {@code app.ratelimit}. Each request is
+ * charged to the first configured route whose path pattern matches it, or to
+ * the default limit; the check itself is done by
+ * {@link TokenBucketRateLimiter}, usually without leaving the JVM.
+ */
 @Component
 public class RateLimitFilter implements Filter {
 
-    private final StringRedisTemplate redisTemplate;
-    // Keeping MeterRegistry if it's used elsewhere, but typically MetricsPort
-    // is the preferred abstraction for domain metrics.
+    static final String DEFAULT_ROUTE = "default";
+
+    private final TokenBucketRateLimiter rateLimiter;
     private final MetricsPort metricsService;
-    private final int limitPerMinute;
+    private final List<RouteLimit> routes;
+    private final RouteLimit defaultRoute;
 
-    public RateLimitFilter(StringRedisTemplate redisTemplate,
-            MetricsPort metricsService,
-            @Value("${app.ratelimit.requests-per-minute:100}") int limitPerMinute) {
-        this.redisTemplate = redisTemplate;
+    public RateLimitFilter(TokenBucketRateLimiter rateLimiter, MetricsPort metricsService,
+            RateLimitProperties properties) {
+        this.rateLimiter = rateLimiter;
         this.metricsService = metricsService;
-        this.limitPerMinute = limitPerMinute;
+        this.routes = properties.routes().stream()
+                .map(route -> new RouteLimit(route.path(), PathPatternParser.defaultInstance.parse(route.path()),
+                        route.requestsPerMinute()))
+                .toList();
+        this.defaultRoute = new RouteLimit(DEFAULT_ROUTE, null, properties.requestsPerMinute());
     }
 
     @Override
@@ -36,26 +49,36 @@ public class RateLimitFilter implements Filter {
 
         if (request instanceof HttpServletRequest httpRequest) {
             String clientIp = httpRequest.getRemoteAddr();
-            String startKey = "rate_limit:" + clientIp;
-            String requestUri = httpRequest.getRequestURI();
+            RouteLimit route = resolve(httpRequest.getRequestURI());
 
-            Long count = redisTemplate.opsForValue().increment(startKey);
-            if (count != null && count == 1) {
-                redisTemplate.expire(startKey, Duration.ofMinutes(1));
-            }
+            long retryAfterMillis = rateLimiter.tryAcquire(route.name(), clientIp, route.requestsPerMinute());
+            // Tagged with the route pattern rather than the raw URI, which
+            // would create a time series per card id
+            metricsService.incrementRateLimit(retryAfterMillis == 0, clientIp, route.name());
 
-            if (count != null && count > limitPerMinute) {
-                metricsService.incrementRateLimit(false, clientIp, requestUri);
+            if (retryAfterMillis > 0) {
                 HttpServletResponse httpResponse = (HttpServletResponse) response;
                 httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                httpResponse.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000));
                 httpResponse.setContentType("application/json");
                 httpResponse.getWriter().write("{\"title\": \"Rate Limit Exceeded\", \"status\": 429}");
                 return;
             }
-
-            metricsService.incrementRateLimit(true, clientIp, requestUri);
         }
 
         chain.doFilter(request, response);
     }
+
+    private RouteLimit resolve(String requestUri) {
+        PathContainer path = PathContainer.parsePath(requestUri);
+        for (RouteLimit route : routes) {
+            if (route.pattern().matches(path)) {
+                return route;
+            }
+        }
+        return defaultRoute;
+    }
+
+    private record RouteLimit(String name, PathPattern pattern, int requestsPerMinute) {
+    }
 }
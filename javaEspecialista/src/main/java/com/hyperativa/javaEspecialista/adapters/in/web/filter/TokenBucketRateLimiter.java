@@ -0,0 +1,165 @@
+package com.hyperativa.javaEspecialista.adapters.in.web.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.hyperativa.javaEspecialista.config.RateLimitProperties;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket rate limiter that checks requests against an in-memory bucket
+ * per client and route, and only goes to Redis to refill it.
+ * <p>
+ * The authoritative bucket lives in Redis ({@code rate_limit:{route}:{client}})
+ * and is shared by every node. When its local bucket runs dry, a node leases a
+ * block of tokens from it with one atomic Lua script; the block is spent
+ * locally until it runs out or {@code app.ratelimit.lease-ttl} passes. Tokens
+ * are taken from Redis before they are spent, so the cluster never admits more
+ * than the configured limit; at worst a node lets unspent tokens expire.
+ * </p>
+ * <p>
+ * A denial from Redis is remembered until the shared bucket has a token
+ * again, so a client hammering a node does not reach Redis either. If Redis is
+ * unavailable, each node falls back to a local allowance at the configured
+ * rate instead of rejecting traffic.
+ * </p>
+ */
+@Component
+public class TokenBucketRateLimiter {
+
+    static final String KEY_PREFIX = "rate_limit:";
+
+    private static final Logger log = LoggerFactory.getLogger(TokenBucketRateLimiter.class);
+    private static final Duration PERIOD = Duration.ofMinutes(1);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> leaseScript;
+    private final MetricsPort metricsService;
+    private final int leaseSize;
+    private final Duration leaseTtl;
+    private final Ticker ticker;
+    private final Cache<String, LocalBucket> buckets;
+
+    @Autowired
+    public TokenBucketRateLimiter(StringRedisTemplate redisTemplate, RedisScript<List<Long>> rateLimitLeaseScript,
+            RateLimitProperties properties, MetricsPort metricsService) {
+        this(redisTemplate, rateLimitLeaseScript, properties, metricsService, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(StringRedisTemplate redisTemplate, RedisScript<List<Long>> leaseScript,
+            RateLimitProperties properties, MetricsPort metricsService, Ticker ticker) {
+        this.redisTemplate = redisTemplate;
+        this.leaseScript = leaseScript;
+        this.metricsService = metricsService;
+        this.leaseSize = properties.leaseSize();
+        this.leaseTtl = properties.leaseTtl();
+        this.ticker = ticker;
+        // A bucket that is evicted early only costs an extra lease
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(PERIOD)
+                .executor(Runnable::run)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Takes one token for {@code clientId} on {@code route}.
+     *
+     * @return 0 if the request may proceed, otherwise the number of
+     *         milliseconds until the client's bucket holds a token again.
+     */
+    public long tryAcquire(String route, String clientId, int requestsPerMinute) {
+        String key = KEY_PREFIX + route + ":" + clientId;
+        LocalBucket bucket = buckets.get(key, k -> new LocalBucket(ticker.read()));
+        // Concurrent requests of one client wait for a single lease instead of
+        // all going to Redis
+        synchronized (bucket) {
+            long now = ticker.read();
+            if (bucket.tokens > 0 && now - bucket.leaseExpiresAt < 0) {
+                bucket.tokens--;
+                return 0;
+            }
+            if (now - bucket.blockedUntil < 0) {
+                return toMillis(bucket.blockedUntil - now);
+            }
+            return lease(key, bucket, requestsPerMinute, now);
+        }
+    }
+
+    private long lease(String key, LocalBucket bucket, int requestsPerMinute, long now) {
+        long granted;
+        long retryAfterMillis;
+        try {
+            List<Long> result = redisTemplate.execute(leaseScript, List.of(key),
+                    String.valueOf(requestsPerMinute), String.valueOf(PERIOD.toMillis()),
+                    String.valueOf(leaseSize(requestsPerMinute)));
+            granted = result.get(0);
+            retryAfterMillis = Math.max(1, result.get(1));
+        } catch (Exception e) {
+            // Redis is down or slow: limit this node on its own rather than
+            // failing every request
+            log.warn("Rate limit lease failed for {}, using a local allowance: {}", key, e.getMessage());
+            metricsService.incrementRateLimitLease("error");
+            bucket.refill(localAllowance(requestsPerMinute), now + leaseTtl.toNanos());
+            return 0;
+        }
+
+        if (granted > 0) {
+            metricsService.incrementRateLimitLease("granted");
+            bucket.refill(granted, now + leaseTtl.toNanos());
+            return 0;
+        }
+        metricsService.incrementRateLimitLease("exhausted");
+        bucket.blockedUntil = now + TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+        return retryAfterMillis;
+    }
+
+    /**
+     * Leases stay small relative to the limit, so a few nodes cannot take the
+     * whole budget of a client and leave the others idle. Tight limits, such
+     * as on login, end up leasing one token at a time.
+     */
+    int leaseSize(int requestsPerMinute) {
+        return Math.max(1, Math.min(leaseSize, requestsPerMinute / 10));
+    }
+
+    private long localAllowance(int requestsPerMinute) {
+        return Math.max(1, requestsPerMinute * leaseTtl.toMillis() / PERIOD.toMillis());
+    }
+
+    private static long toMillis(long nanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(nanos + 999_999));
+    }
+
+    /**
+     * Tokens leased by this node. Deadlines are {@link Ticker} readings, which
+     * may be negative, so they are only ever compared by subtraction.
+     */
+    private static final class LocalBucket {
+        private long tokens;
+        private long leaseExpiresAt;
+        private long blockedUntil;
+
+        private LocalBucket(long now) {
+            this.leaseExpiresAt = now;
+            this.blockedUntil = now;
+        }
+
+        /** Takes the first of {@code leased} tokens for the current request. */
+        private void refill(long leased, long expiresAt) {
+            tokens = leased - 1;
+            leaseExpiresAt = expiresAt;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hyperativa.javaEspecialista.adapters.out.metrics;
 
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
@@ -9,6 +10,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
+import java.util.function.IntSupplier;
 
 /**
  * Micrometer implementation of the domain MetricsPort.
@@ -27,20 +29,40 @@ public class MicrometerMetricsAdapter implements MetricsPort {
     private final Counter cardLookupTotal;
     private final Counter cardLookupFoundCounter;
     private final Counter cardLookupNotFoundCounter;
+    private final Counter cardDetokenizeTotal;
+    private final Counter cardDetokenizeFoundCounter;
+    private final Counter cardDetokenizeNotFoundCounter;
+    private final Counter cardRegistrationReplaysCounter;
 
     // Cache Metrics
     private final Counter cacheHitsCounter;
     private final Counter cacheMissesCounter;
+    private final Counter cacheLegacyHitsCounter;
+    private final Counter cacheLoadsCoalescedCounter;
     private final Timer cacheGetLatencyTimer;
     private final Timer cachePutLatencyTimer;
+    private final Counter nearCacheHitsCounter;
+    private final Counter nearCacheMissesCounter;
+    private final Counter nearCacheEvictionsCounter;
+    private final Counter panCacheHitsCounter;
+    private final Counter panCacheMissesCounter;
 
     // Crypto Metrics
     private final Timer cryptoEncryptLatencyTimer;
     private final Counter cryptoFailuresCounter;
 
+    // Audit Metrics
+    private final Counter auditEventsSpilledCounter;
+    private final Counter auditEventsDroppedCounter;
+
     // Auth Metrics
     private final Counter loginSuccessCounter;
+    private final Counter jwtCacheHitsCounter;
+    private final Counter jwtCacheMissesCounter;
     private final Counter userRegisteredCounter;
+    private final Timer passwordHashQueueWaitTimer;
+    private final Timer passwordHashDurationTimer;
+    private final Counter passwordRehashedCounter;
 
     public MicrometerMetricsAdapter(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -69,6 +91,22 @@ public class MicrometerMetricsAdapter implements MetricsPort {
                 .description("Total number of failed card lookups")
                 .register(meterRegistry);
 
+        this.cardDetokenizeTotal = Counter.builder("card_detokenize_total")
+                .description("Total number of tokens submitted for detokenization")
+                .register(meterRegistry);
+
+        this.cardDetokenizeFoundCounter = Counter.builder("card_detokenize_found_total")
+                .description("Total number of tokens resolved to a card number")
+                .register(meterRegistry);
+
+        this.cardDetokenizeNotFoundCounter = Counter.builder("card_detokenize_not_found_total")
+                .description("Total number of detokenization requests for unknown tokens")
+                .register(meterRegistry);
+
+        this.cardRegistrationReplaysCounter = Counter.builder("card_registration_replays_total")
+                .description("Total number of card registrations answered from a stored Idempotency-Key result")
+                .register(meterRegistry);
+
         this.cacheHitsCounter = Counter.builder("cache_hits_total")
                 .description("Total number of cache hits")
                 .register(meterRegistry);
@@ -77,6 +115,14 @@ public class MicrometerMetricsAdapter implements MetricsPort {
                 .description("Total number of cache misses")
                 .register(meterRegistry);
 
+        this.cacheLegacyHitsCounter = Counter.builder("cache_legacy_hits_total")
+                .description("Total number of cache hits served from the legacy text layout")
+                .register(meterRegistry);
+
+        this.cacheLoadsCoalescedCounter = Counter.builder("cache_loads_coalesced_total")
+                .description("Total number of cache misses that waited for a database load already in progress")
+                .register(meterRegistry);
+
         this.cacheGetLatencyTimer = Timer.builder("cache_get_latency_seconds")
                 .description("Latency of cache GET operations")
                 .register(meterRegistry);
@@ -85,6 +131,26 @@ public class MicrometerMetricsAdapter implements MetricsPort {
                 .description("Latency of cache PUT operations")
                 .register(meterRegistry);
 
+        this.nearCacheHitsCounter = Counter.builder("near_cache_hits_total")
+                .description("Total number of in-process (L1) cache hits")
+                .register(meterRegistry);
+
+        this.nearCacheMissesCounter = Counter.builder("near_cache_misses_total")
+                .description("Total number of in-process (L1) cache misses")
+                .register(meterRegistry);
+
+        this.nearCacheEvictionsCounter = Counter.builder("near_cache_evictions_total")
+                .description("Total number of in-process (L1) cache entries evicted by size or expiry")
+                .register(meterRegistry);
+
+        this.panCacheHitsCounter = Counter.builder("pan_cache_hits_total")
+                .description("Total number of detokenizations served from the decrypted card cache")
+                .register(meterRegistry);
+
+        this.panCacheMissesCounter = Counter.builder("pan_cache_misses_total")
+                .description("Total number of detokenizations that had to decrypt the card")
+                .register(meterRegistry);
+
         this.cryptoEncryptLatencyTimer = Timer.builder("crypto_encrypt_latency_seconds")
                 .description("Latency of encryption operations")
                 .register(meterRegistry);
@@ -93,13 +159,41 @@ public class MicrometerMetricsAdapter implements MetricsPort {
                 .description("Total number of cryptographic failures")
                 .register(meterRegistry);
 
+        this.auditEventsSpilledCounter = Counter.builder("audit_events_spilled_total")
+                .description("Total number of audit events written to the disk spill file instead of MySQL")
+                .register(meterRegistry);
+
+        this.auditEventsDroppedCounter = Counter.builder("audit_events_dropped_total")
+                .description("Total number of audit events lost because neither MySQL nor the spill file accepted them")
+                .register(meterRegistry);
+
         this.loginSuccessCounter = Counter.builder("auth_login_success_total")
                 .description("Total number of successful logins")
                 .register(meterRegistry);
 
+        this.jwtCacheHitsCounter = Counter.builder("jwt_cache_hits_total")
+                .description("Total number of bearer tokens served from the verified JWT cache")
+                .register(meterRegistry);
+
+        this.jwtCacheMissesCounter = Counter.builder("jwt_cache_misses_total")
+                .description("Total number of bearer tokens whose signature had to be verified")
+                .register(meterRegistry);
+
         this.userRegisteredCounter = Counter.builder("auth_user_registered_total")
                 .description("Total number of users successfully registered")
                 .register(meterRegistry);
+
+        this.passwordHashQueueWaitTimer = Timer.builder("password_hash_queue_wait_seconds")
+                .description("Time a password hash waits for a hashing thread")
+                .register(meterRegistry);
+
+        this.passwordHashDurationTimer = Timer.builder("password_hash_duration_seconds")
+                .description("Time spent computing a password hash")
+                .register(meterRegistry);
+
+        this.passwordRehashedCounter = Counter.builder("auth_password_rehashed_total")
+                .description("Total number of stored password hashes upgraded to the current encoder on login")
+                .register(meterRegistry);
     }
 
     @Override
@@ -129,6 +223,21 @@ public class MicrometerMetricsAdapter implements MetricsPort {
         }
     }
 
+    @Override
+    public void recordDetokenization(boolean found) {
+        cardDetokenizeTotal.increment();
+        if (found) {
+            cardDetokenizeFoundCounter.increment();
+        } else {
+            cardDetokenizeNotFoundCounter.increment();
+        }
+    }
+
+    @Override
+    public void incrementCardRegistrationReplay() {
+        cardRegistrationReplaysCounter.increment();
+    }
+
     @Override
     public void incrementCacheHit() {
         cacheHitsCounter.increment();
@@ -139,6 +248,16 @@ public class MicrometerMetricsAdapter implements MetricsPort {
         cacheMissesCounter.increment();
     }
 
+    @Override
+    public void incrementCacheLegacyHit() {
+        cacheLegacyHitsCounter.increment();
+    }
+
+    @Override
+    public void incrementCacheLoadCoalesced() {
+        cacheLoadsCoalescedCounter.increment();
+    }
+
     @Override
     public void recordCacheGetLatency(Duration duration) {
         cacheGetLatencyTimer.record(duration);
@@ -149,6 +268,50 @@ public class MicrometerMetricsAdapter implements MetricsPort {
         cachePutLatencyTimer.record(duration);
     }
 
+    @Override
+    public void incrementNearCacheHit() {
+        nearCacheHitsCounter.increment();
+    }
+
+    @Override
+    public void incrementNearCacheMiss() {
+        nearCacheMissesCounter.increment();
+    }
+
+    @Override
+    public void incrementNearCacheEviction() {
+        nearCacheEvictionsCounter.increment();
+    }
+
+    @Override
+    public void incrementPanCacheHit() {
+        panCacheHitsCounter.increment();
+    }
+
+    @Override
+    public void incrementPanCacheMiss() {
+        panCacheMissesCounter.increment();
+    }
+
+    @Override
+    public void registerAuditQueueDepth(IntSupplier depth) {
+        Gauge.builder("audit_queue_depth", depth, IntSupplier::getAsInt)
+                .description("Number of audit events waiting to be written to MySQL")
+                .strongReference(true) // the supplier is usually a lambda nobody else holds on to
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void incrementAuditEventsSpilled(int count) {
+        auditEventsSpilledCounter.increment(count);
+    }
+
+    @Override
+    public void incrementAuditEventsDropped(int count) {
+        log.error("Incrementing audit_events_dropped_total metric by {}", count);
+        auditEventsDroppedCounter.increment(count);
+    }
+
     @Override
     public void incrementRateLimit(boolean allowed, String clientId, String endpoint) {
         String counterName = allowed ? "rate_limit_allowed_total" : "rate_limit_blocked_total";
@@ -159,6 +322,15 @@ public class MicrometerMetricsAdapter implements MetricsPort {
                 .increment();
     }
 
+    @Override
+    public void incrementRateLimitLease(String outcome) {
+        Counter.builder("rate_limit_leases_total")
+                .description("Token leases requested from the shared Redis bucket")
+                .tag("outcome", outcome != null ? outcome : "unknown")
+                .register(meterRegistry)
+                .increment();
+    }
+
     @Override
     public void recordCryptoEncryptLatency(Duration duration) {
         cryptoEncryptLatencyTimer.record(duration);
@@ -170,12 +342,31 @@ public class MicrometerMetricsAdapter implements MetricsPort {
         cryptoFailuresCounter.increment();
     }
 
+    @Override
+    public void recordBatchStageLatency(String stage, Duration duration) {
+        Timer.builder("batch_stage_duration_seconds")
+                .description("Time a batch pipeline stage spends on one chunk")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(duration);
+    }
+
     @Override
     public void incrementLoginSuccess() {
         log.debug("Incrementing auth_login_success_total metric");
         loginSuccessCounter.increment();
     }
 
+    @Override
+    public void incrementJwtCacheHit() {
+        jwtCacheHitsCounter.increment();
+    }
+
+    @Override
+    public void incrementJwtCacheMiss() {
+        jwtCacheMissesCounter.increment();
+    }
+
     @Override
     public void incrementLoginFailure(String reason) {
         Counter.builder("auth_login_failure_total")
@@ -204,4 +395,28 @@ public class MicrometerMetricsAdapter implements MetricsPort {
                 .register(meterRegistry)
                 .increment();
     }
+
+    @Override
+    public void recordPasswordHashQueueWait(Duration duration) {
+        passwordHashQueueWaitTimer.record(duration);
+    }
+
+    @Override
+    public void recordPasswordHashDuration(Duration duration) {
+        passwordHashDurationTimer.record(duration);
+    }
+
+    @Override
+    public void incrementPasswordHashRejected(String reason) {
+        Counter.builder("password_hash_rejected_total")
+                .description("Total number of password hashes refused because the hashing executor was saturated")
+                .tag("reason", reason != null ? reason : "unknown")
+                .register(meterRegistry)
+                .increment();
+    }
+
+    @Override
+    public void incrementPasswordRehashed() {
+        passwordRehashedCounter.increment();
+    }
 }
@@ -0,0 +1,53 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.BatchCheckpointJdbcRepository;
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
+import com.hyperativa.javaEspecialista.domain.ports.out.BatchCheckpointPort;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public class BatchCheckpointRepositoryAdapter implements BatchCheckpointPort {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchCheckpointRepositoryAdapter.class);
+    private static final String DATABASE = "database";
+    private final BatchCheckpointJdbcRepository checkpointRepository;
+
+    public BatchCheckpointRepositoryAdapter(BatchCheckpointJdbcRepository checkpointRepository) {
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    @Override
+    @CircuitBreaker(name = DATABASE)
+    @Retry(name = DATABASE)
+    public List<BatchCheckpoint> findByLot(String lotId) {
+        return checkpointRepository.findByLot(lotId);
+    }
+
+    @Override
+    @CircuitBreaker(name = DATABASE)
+    @Retry(name = DATABASE)
+    public void deleteByLot(String lotId) {
+        int deleted = checkpointRepository.deleteByLot(lotId);
+        log.debug("Deleted {} checkpoints of lot {}", deleted, lotId);
+    }
+
+    @Override
+    @CircuitBreaker(name = DATABASE)
+    @Retry(name = DATABASE)
+    public int deleteCreatedBefore(LocalDateTime cutoff) {
+        int deleted = checkpointRepository.deleteCreatedBefore(cutoff);
+        if (deleted > 0) {
+            log.info("Data retention cleanup: {} stale batch checkpoints deleted", deleted);
+        }
+        return deleted;
+    }
+}
@@ -1,122 +1,510 @@
 package com.hyperativa.javaEspecialista.adapters.out.persistence;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
 
+import com.hyperativa.javaEspecialista.adapters.out.persistence.cache.CardCacheCodec;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.cache.CardNearCache;
 import com.hyperativa.javaEspecialista.adapters.out.persistence.entity.CardEntity;
 import com.hyperativa.javaEspecialista.adapters.out.persistence.mapper.CardEntityMapper;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.BatchCheckpointJdbcRepository;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.CardJdbcRepository;
 import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.CardRepository;
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
 import com.hyperativa.javaEspecialista.domain.model.Card;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
 import com.hyperativa.javaEspecialista.domain.ports.out.CardRepositoryPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 public class CardRepositoryAdapter implements CardRepositoryPort {
 
     private static final Logger log = LoggerFactory.getLogger(CardRepositoryAdapter.class);
-    private static final String CARD_EXISTS = "card:exists:";
     private static final String DATABASE = "database";
     private final CardRepository cardRepository;
-    private final StringRedisTemplate redisTemplate;
+    private final CardJdbcRepository cardJdbcRepository;
+    private final BatchCheckpointJdbcRepository checkpointRepository;
+    private final TransactionOperations transactions;
+    private final RedisTemplate<byte[], byte[]> redisTemplate;
+    private final CardNearCache nearCache;
     private final Duration cacheTtlFound;
     private final Duration cacheTtlNotFound;
+    private final boolean legacyRead;
+    private final double cacheTtlJitter;
     private final CardEntityMapper cardEntityMapper;
     private final MetricsPort metricsService;
 
+    /**
+     * Database lookups in progress by card hash, so that concurrent misses on
+     * the same hash share one query.
+     */
+    private final ConcurrentHashMap<ByteBuffer, CompletableFuture<UUID>> inFlightLoads = new ConcurrentHashMap<>();
+
+    /**
+     * @param legacyRead also look up (and delete) entries written in the
+     *                   legacy text layout; only needed until those have
+     *                   expired, i.e. for {@code app.cache.ttl-found} after the
+     *                   binary layout is rolled out.
+     * @param cacheTtlJitter fraction of the TTL by which each Redis entry's
+     *                   expiry is randomly shortened, so that entries
+     *                   written together do not all expire together.
+     */
     public CardRepositoryAdapter(CardRepository cardRepository,
-            StringRedisTemplate redisTemplate,
+            CardJdbcRepository cardJdbcRepository,
+            BatchCheckpointJdbcRepository checkpointRepository,
+            TransactionOperations transactions,
+            RedisTemplate<byte[], byte[]> binaryRedisTemplate,
+            CardNearCache nearCache,
             @Value("${app.cache.ttl-found:24h}") Duration cacheTtlFound,
             @Value("${app.cache.ttl-not-found:10m}") Duration cacheTtlNotFound,
+            @Value("${app.cache.legacy-read:true}") boolean legacyRead,
+            @Value("${app.cache.ttl-jitter:0.1}") double cacheTtlJitter,
             CardEntityMapper cardEntityMapper,
             MetricsPort metricsService) {
         this.cardRepository = cardRepository;
-        this.redisTemplate = redisTemplate;
+        this.cardJdbcRepository = cardJdbcRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactions = transactions;
+        this.redisTemplate = binaryRedisTemplate;
+        this.nearCache = nearCache;
         this.cacheTtlFound = cacheTtlFound;
         this.cacheTtlNotFound = cacheTtlNotFound;
+        this.legacyRead = legacyRead;
+        this.cacheTtlJitter = cacheTtlJitter;
         this.cardEntityMapper = cardEntityMapper;
         this.metricsService = metricsService;
     }
 
+    /**
+     * The caches are only a shortcut here: if Redis is unavailable the caller
+     * goes on to the upsert, which gives the same answer.
+     */
+    @Override
+    public Optional<UUID> findCachedUuid(byte[] cardHash) {
+        try {
+            UUID cachedValue = findCached(cardHash);
+            if (cachedValue == null || CardNearCache.NOT_FOUND.equals(cachedValue)) {
+                return Optional.empty();
+            }
+            return Optional.of(cachedValue);
+        } catch (Exception e) {
+            log.warn("Cache lookup failed, falling back to the upsert: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    @CircuitBreaker(name = DATABASE)
+    @Retry(name = DATABASE)
+    public CardSaveResult saveOrGet(Card card) {
+        byte[] cardHash = card.getCardHash();
+        log.debug("Upserting card: {}", card.getUuid());
+        byte[] storedUuid = cardJdbcRepository.insertOrGetToken(cardEntityMapper.toEntity(card));
+        if (storedUuid == null) {
+            throw new IllegalStateException("Card missing after insert: " + card.getUuid());
+        }
+        UUID token = CardEntityMapper.toUuid(storedUuid);
+        writeCacheEntries(List.of(cardHash), List.of(token));
+        nearCache.put(cardHash, token);
+
+        if (!token.equals(card.getUuid())) {
+            return CardSaveResult.duplicateOf(token);
+        }
+        nearCache.publishInvalidation(List.of(cardHash));
+        return CardSaveResult.inserted(token);
+    }
+
+    /**
+     * Inserts the chunk with one batched statement that skips rows whose hash
+     * is already registered, then reads back the stored tokens with a single
+     * {@code IN} query: a row whose stored token differs from the card's own
+     * token was a duplicate. Because the insert is idempotent, a retry of the
+     * whole chunk reports the same outcome.
+     * <p>
+     * The checkpoint is written in the same transaction as the insert, so a
+     * lot interrupted at any point has a checkpoint for exactly the chunks
+     * whose cards were committed.
+     * </p>
+     */
+    @Override
+    @CircuitBreaker(name = DATABASE)
+    @Retry(name = DATABASE)
+    public List<CardSaveResult> saveAll(List<Card> cards, BatchCheckpoint checkpoint) {
+        if (cards.isEmpty()) {
+            if (checkpoint != null) {
+                checkpointRepository.insert(checkpoint);
+            }
+            return List.of();
+        }
+        log.debug("Saving chunk of {} cards to database", cards.size());
+
+        List<CardEntity> entities = cards.stream().map(cardEntityMapper::toEntity).toList();
+        transactions.executeWithoutResult(status -> {
+            cardJdbcRepository.insertIgnoringDuplicates(entities);
+            if (checkpoint != null) {
+                checkpointRepository.insert(checkpoint);
+            }
+        });
+
+        List<byte[]> hashes = cards.stream().map(Card::getCardHash).toList();
+        Map<ByteBuffer, UUID> storedTokens = findStoredTokens(hashes);
+
+        List<CardSaveResult> results = new ArrayList<>(cards.size());
+        List<UUID> tokens = new ArrayList<>(cards.size());
+        List<byte[]> insertedHashes = new ArrayList<>(cards.size());
+        for (Card card : cards) {
+            UUID token = storedTokens.get(ByteBuffer.wrap(card.getCardHash()));
+            if (token == null) {
+                throw new IllegalStateException("Card missing after batch insert: " + card.getUuid());
+            }
+            if (token.equals(card.getUuid())) {
+                results.add(CardSaveResult.inserted(token));
+                insertedHashes.add(card.getCardHash());
+            } else {
+                results.add(CardSaveResult.duplicateOf(token));
+            }
+            tokens.add(token);
+            nearCache.put(card.getCardHash(), token);
+        }
+
+        writeCacheEntries(hashes, tokens);
+        nearCache.publishInvalidation(insertedHashes);
+        return results;
+    }
+
+    /**
+     * Resolves a whole chunk of hashes with one {@code MGET}, one {@code IN}
+     * query for the cache misses and one pipelined write of the resulting
+     * positive and negative cache entries, instead of a {@code GET} and a
+     * {@code SELECT} per hash.
+     */
+    @Override
+    @CircuitBreaker(name = DATABASE)
+    @Retry(name = DATABASE)
+    public List<Optional<UUID>> findUuidsByHashes(Collection<byte[]> cardHashes) {
+        if (cardHashes.isEmpty()) {
+            return List.of();
+        }
+        List<byte[]> hashes = List.copyOf(cardHashes);
+        List<Optional<UUID>> results = new ArrayList<>(Collections.nCopies(hashes.size(), Optional.empty()));
+
+        // L1 - in-process near-cache
+        List<Integer> nearMisses = new ArrayList<>();
+        for (int i = 0; i < hashes.size(); i++) {
+            UUID nearValue = nearCache.getIfPresent(hashes.get(i));
+            if (nearValue == null) {
+                nearMisses.add(i);
+            } else if (!CardNearCache.NOT_FOUND.equals(nearValue)) {
+                results.set(i, Optional.of(nearValue));
+            }
+        }
+        if (nearMisses.isEmpty()) {
+            return results;
+        }
+
+        // L2 - Redis, one MGET for everything the near-cache did not know
+        List<UUID> cachedValues = readCacheEntries(nearMisses.stream().map(hashes::get).toList());
+
+        List<Integer> misses = new ArrayList<>();
+        for (int j = 0; j < nearMisses.size(); j++) {
+            int i = nearMisses.get(j);
+            UUID cachedValue = cachedValues.get(j);
+            if (cachedValue == null) {
+                metricsService.incrementCacheMiss();
+                misses.add(i);
+            } else {
+                metricsService.incrementCacheHit();
+                if (CardNearCache.NOT_FOUND.equals(cachedValue)) {
+                    nearCache.putNotFound(hashes.get(i));
+                } else {
+                    nearCache.put(hashes.get(i), cachedValue);
+                    results.set(i, Optional.of(cachedValue));
+                }
+            }
+        }
+        log.debug("Bulk lookup of {} hashes: {} near-cache misses, {} cache misses", hashes.size(),
+                nearMisses.size(), misses.size());
+        if (misses.isEmpty()) {
+            return results;
+        }
+
+        // Cache Miss - Query DB once for all misses
+        List<byte[]> missHashes = misses.stream().map(hashes::get).toList();
+        Map<ByteBuffer, UUID> storedTokens = findStoredTokens(missHashes);
+
+        List<UUID> missValues = new ArrayList<>(misses.size());
+        for (int i : misses) {
+            byte[] hash = hashes.get(i);
+            UUID token = storedTokens.get(ByteBuffer.wrap(hash));
+            if (token != null) {
+                nearCache.put(hash, token);
+                results.set(i, Optional.of(token));
+                missValues.add(token);
+            } else {
+                nearCache.putNotFound(hash);
+                missValues.add(CardNearCache.NOT_FOUND);
+            }
+        }
+
+        writeCacheEntries(missHashes, missValues);
+        return results;
+    }
+
+    /**
+     * Goes straight to MySQL: encrypted card data is not kept in Redis, and
+     * repeated detokenizations are absorbed by the decrypted card cache in
+     * front of this call.
+     */
     @Override
     @CircuitBreaker(name = DATABASE)
     @Retry(name = DATABASE)
-    public Card save(Card card) {
-        log.debug("Saving card to database: {}", card.getUuid());
-        CardEntity entity = cardEntityMapper.toEntity(card);
-        CardEntity savedEntity = Objects.requireNonNull(cardRepository.save(entity));
+    public List<Card> findByTokens(Collection<UUID> tokens) {
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        List<byte[]> uuids = tokens.stream().map(CardEntityMapper::toBytes).toList();
+        return cardJdbcRepository.findByUuids(uuids).stream()
+                .map(cardEntityMapper::toDomain)
+                .toList();
+    }
 
-        // Update Cache (Read-Through / Write-Through)
-        String hexHash = HexFormat.of().formatHex(card.getCardHash());
-        String cacheKey = CARD_EXISTS + hexHash;
+    private Map<ByteBuffer, UUID> findStoredTokens(List<byte[]> hashes) {
+        Map<ByteBuffer, UUID> storedTokens = new HashMap<>();
+        for (CardEntity stored : cardJdbcRepository.findTokensByCardHashes(hashes)) {
+            storedTokens.put(ByteBuffer.wrap(stored.getCardHash()), CardEntityMapper.toUuid(stored.getUuid()));
+        }
+        return storedTokens;
+    }
+
+    /**
+     * Reads the cache entries of {@code hashes} with one {@code MGET}. In
+     * legacy-read mode the legacy key of each hash is fetched in the same
+     * command and used when there is no binary entry.
+     *
+     * @return one element per hash: the cached token,
+     *         {@link CardNearCache#NOT_FOUND} for a negative entry, or
+     *         {@code null} on a cache miss.
+     */
+    private List<UUID> readCacheEntries(List<byte[]> hashes) {
+        int keysPerHash = legacyRead ? 2 : 1;
+        List<byte[]> keys = new ArrayList<>(hashes.size() * keysPerHash);
+        for (byte[] hash : hashes) {
+            keys.add(CardCacheCodec.key(hash));
+            if (legacyRead) {
+                keys.add(CardCacheCodec.legacyKey(hash));
+            }
+        }
 
         Instant start = Instant.now();
-        redisTemplate.opsForValue().set(cacheKey, Objects.requireNonNull(card.getUuid().toString()),
-                Objects.requireNonNull(cacheTtlFound));
+        List<byte[]> values = redisTemplate.opsForValue().multiGet(keys);
+        metricsService.recordCacheGetLatency(Duration.between(start, Instant.now()));
+
+        List<UUID> entries = new ArrayList<>(hashes.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            UUID entry = values != null ? CardCacheCodec.decode(values.get(i * keysPerHash)) : null;
+            if (entry == null && legacyRead && values != null) {
+                entry = CardCacheCodec.decodeLegacy(values.get(i * keysPerHash + 1));
+                if (entry != null) {
+                    metricsService.incrementCacheLegacyHit();
+                }
+            }
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    /**
+     * @param token the token to cache, or {@link CardNearCache#NOT_FOUND} for
+     *              a negative entry.
+     */
+    private void writeCacheEntry(byte[] cardHash, UUID token) {
+        boolean notFound = CardNearCache.NOT_FOUND.equals(token);
+        Instant start = Instant.now();
+        redisTemplate.opsForValue().set(CardCacheCodec.key(cardHash),
+                notFound ? CardCacheCodec.notFound() : CardCacheCodec.encode(token),
+                jittered(notFound ? cacheTtlNotFound : cacheTtlFound));
         metricsService.recordCachePutLatency(Duration.between(start, Instant.now()));
-        log.debug("Card cached with key: {}", cacheKey);
+    }
+
+    /**
+     * Shortens the TTL by a random amount of up to {@code cacheTtlJitter} of
+     * it. A popular card cached by a burst of lookups then expires at a
+     * different moment on each write, instead of every entry of the burst
+     * expiring, and being reloaded, at once.
+     */
+    private Duration jittered(Duration ttl) {
+        long millis = Objects.requireNonNull(ttl).toMillis();
+        long maxJitter = (long) (millis * cacheTtlJitter);
+        if (maxJitter <= 0) {
+            return ttl;
+        }
+        return Duration.ofMillis(millis - ThreadLocalRandom.current().nextLong(maxJitter + 1));
+    }
 
-        return cardEntityMapper.toDomain(savedEntity);
+    /**
+     * Writes cache entries in one pipelined round trip, using the negative TTL
+     * for {@link CardNearCache#NOT_FOUND} entries. The cache is only an
+     * optimisation, so a failure here is logged and must not fail the caller.
+     */
+    private void writeCacheEntries(List<byte[]> hashes, List<UUID> tokens) {
+        Instant start = Instant.now();
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (int i = 0; i < hashes.size(); i++) {
+                    UUID token = tokens.get(i);
+                    boolean negative = CardNearCache.NOT_FOUND.equals(token);
+                    connection.stringCommands().set(
+                            CardCacheCodec.key(hashes.get(i)),
+                            negative ? CardCacheCodec.notFound() : CardCacheCodec.encode(token),
+                            Expiration.from(jittered(negative ? cacheTtlNotFound : cacheTtlFound)),
+                            SetOption.upsert());
+                }
+                return null;
+            });
+            metricsService.recordCachePutLatency(Duration.between(start, Instant.now()));
+        } catch (Exception e) {
+            log.warn("Failed to write {} cache entries: {}", hashes.size(), e.getMessage());
+        }
     }
 
+    /**
+     * Reads through the near-cache and Redis to MySQL. When a popular card
+     * drops out of both caches, the concurrent callers that miss on it are
+     * coalesced: the first one queries MySQL and writes the caches back, and
+     * the others block (cheaply, on virtual threads) until it has the
+     * answer.
+     */
     @Override
     @CircuitBreaker(name = DATABASE)
     @Retry(name = DATABASE)
     public Optional<UUID> findUuidByHash(byte[] cardHash) {
         String hexHash = HexFormat.of().formatHex(cardHash);
         log.debug("Finding card UUID by hash: {}", hexHash);
-        String cacheKey = CARD_EXISTS + hexHash;
-
-        Instant start = Instant.now();
-        String cachedValue = redisTemplate.opsForValue().get(cacheKey);
-        metricsService.recordCacheGetLatency(Duration.between(start, Instant.now()));
 
+        UUID cachedValue = findCached(cardHash);
         if (cachedValue != null) {
-            metricsService.incrementCacheHit();
-            if ("NOT_FOUND".equals(cachedValue)) {
-                log.debug("Cache hit (negative) for key: {}", cacheKey);
-                return Optional.empty();
-            }
-            log.debug("Cache hit for key: {}, found UUID: {}", cacheKey, cachedValue);
-            return Optional.of(UUID.fromString(cachedValue));
+            return CardNearCache.NOT_FOUND.equals(cachedValue) ? Optional.empty() : Optional.of(cachedValue);
         }
 
-        metricsService.incrementCacheMiss();
-        log.debug("Cache miss for key: {}, querying database", cacheKey);
+        // Cache Miss - one caller per hash queries the DB, the others wait for its answer
+        ByteBuffer key = ByteBuffer.wrap(cardHash);
+        CompletableFuture<UUID> load = new CompletableFuture<>();
+        CompletableFuture<UUID> running = inFlightLoads.putIfAbsent(key, load);
+        if (running != null) {
+            metricsService.incrementCacheLoadCoalesced();
+            log.debug("Cache miss for hash: {}, waiting for the load in progress", hexHash);
+            UUID token = await(running);
+            return CardNearCache.NOT_FOUND.equals(token) ? Optional.empty() : Optional.of(token);
+        }
 
-        // Cache Miss - Query DB
+        try {
+            log.debug("Cache miss for hash: {}, querying database", hexHash);
+            UUID token = loadFromDatabase(cardHash);
+            load.complete(token);
+            return CardNearCache.NOT_FOUND.equals(token) ? Optional.empty() : Optional.of(token);
+        } catch (RuntimeException | Error e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightLoads.remove(key, load);
+        }
+    }
+
+    /**
+     * @return the stored token, or {@link CardNearCache#NOT_FOUND}; either is
+     *         written to both caches.
+     */
+    private UUID loadFromDatabase(byte[] cardHash) {
         Optional<CardEntity> entityOpt = cardRepository.findByCardHash(cardHash);
 
         if (entityOpt.isPresent()) {
-            String uuidStr = entityOpt.get().getUuid();
+            UUID token = CardEntityMapper.toUuid(entityOpt.get().getUuid());
+            writeCacheEntry(cardHash, token);
+            nearCache.put(cardHash, token);
+            return token;
+        }
+        log.debug("Card hash not found in database: {}", HexFormat.of().formatHex(cardHash));
+        // Negative Caching
+        writeCacheEntry(cardHash, CardNearCache.NOT_FOUND);
+        nearCache.putNotFound(cardHash);
+        return CardNearCache.NOT_FOUND;
+    }
 
-            Instant startPut = Instant.now();
-            redisTemplate.opsForValue().set(cacheKey, Objects.requireNonNull(uuidStr),
-                    Objects.requireNonNull(cacheTtlFound));
-            metricsService.recordCachePutLatency(Duration.between(startPut, Instant.now()));
+    /**
+     * Waits for another caller's load and rethrows its failure as is, so
+     * that the circuit breaker and retry see the same exception as the
+     * loader.
+     */
+    private static UUID await(CompletableFuture<UUID> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 
-            return Optional.of(UUID.fromString(uuidStr));
-        } else {
-            log.debug("Card hash not found in database: {}", hexHash);
-            // Negative Caching
-            Instant startPut = Instant.now();
-            redisTemplate.opsForValue().set(cacheKey, "NOT_FOUND", Objects.requireNonNull(cacheTtlNotFound));
-            metricsService.recordCachePutLatency(Duration.between(startPut, Instant.now()));
+    /**
+     * Looks the hash up in the near-cache, then in Redis, and fills the
+     * near-cache from a Redis hit.
+     *
+     * @return the cached token, {@link CardNearCache#NOT_FOUND} for a
+     *         negative entry, or {@code null} if neither cache knows the hash.
+     */
+    private UUID findCached(byte[] cardHash) {
+        UUID nearValue = nearCache.getIfPresent(cardHash);
+        if (nearValue != null) {
+            log.debug("Near-cache hit for hash: {}", HexFormat.of().formatHex(cardHash));
+            return nearValue;
+        }
 
-            return Optional.empty();
+        UUID cachedValue = readCacheEntries(List.of(cardHash)).get(0);
+        if (cachedValue == null) {
+            metricsService.incrementCacheMiss();
+            return null;
+        }
+        metricsService.incrementCacheHit();
+        if (CardNearCache.NOT_FOUND.equals(cachedValue)) {
+            log.debug("Cache hit (negative) for hash: {}", HexFormat.of().formatHex(cardHash));
+            nearCache.putNotFound(cardHash);
+        } else {
+            log.debug("Cache hit for hash: {}, found UUID: {}", HexFormat.of().formatHex(cardHash), cachedValue);
+            nearCache.put(cardHash, cachedValue);
         }
+        return cachedValue;
     }
 
     @Override
@@ -129,13 +517,7 @@ public class CardRepositoryAdapter implements CardRepositoryPort {
         int deleted = cardRepository.deleteByCardHash(cardHash);
 
         if (deleted > 0) {
-            // Invalidate cache
-            String cacheKey = CARD_EXISTS + hexHash;
-            try {
-                redisTemplate.delete(cacheKey);
-            } catch (Exception e) {
-                log.warn("Failed to invalidate cache for deleted card: {}", e.getMessage());
-            }
+            evictDeleted(List.of(cardHash));
             log.info("Card deleted successfully, hash: {}", hexHash);
             return true;
         }
@@ -145,13 +527,40 @@ public class CardRepositoryAdapter implements CardRepositoryPort {
     }
 
     @Override
-    public int deleteExpiredCards() {
+    @CircuitBreaker(name = DATABASE)
+    @Retry(name = DATABASE)
+    public List<UUID> deleteExpiredCards(int limit) {
         log.debug("Deleting expired cards (data retention cleanup)");
-        int deleted = cardRepository.deleteExpired();
-        if (deleted > 0) {
-            log.info("Data retention cleanup: {} expired cards deleted", deleted);
+        List<CardEntity> expired = cardJdbcRepository.findExpired(limit);
+        if (expired.isEmpty()) {
+            return List.of();
+        }
+        int deleted = cardJdbcRepository.deleteByUuids(expired.stream().map(CardEntity::getUuid).toList());
+        evictDeleted(expired.stream().map(CardEntity::getCardHash).toList());
+        log.info("Data retention cleanup: {} expired cards deleted", deleted);
+        return expired.stream().map(entity -> CardEntityMapper.toUuid(entity.getUuid())).toList();
+    }
+
+    /**
+     * Removes deleted cards from Redis, including legacy entries that would
+     * otherwise still resolve them, then from the near-cache of every node.
+     */
+    private void evictDeleted(List<byte[]> cardHashes) {
+        List<byte[]> cacheKeys = new ArrayList<>(cardHashes.size() * 2);
+        for (byte[] cardHash : cardHashes) {
+            cacheKeys.add(CardCacheCodec.key(cardHash));
+            if (legacyRead) {
+                cacheKeys.add(CardCacheCodec.legacyKey(cardHash));
+            }
+        }
+        try {
+            redisTemplate.delete(cacheKeys);
+        } catch (Exception e) {
+            log.warn("Failed to invalidate cache for {} deleted cards: {}", cardHashes.size(), e.getMessage());
         }
-        return deleted;
+        // Drop the near-cache copies only after Redis, so they cannot be refilled from a stale entry
+        cardHashes.forEach(nearCache::invalidate);
+        nearCache.publishInvalidation(cardHashes);
     }
 
 }
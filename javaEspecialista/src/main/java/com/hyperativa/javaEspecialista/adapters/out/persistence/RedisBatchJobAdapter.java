@@ -0,0 +1,239 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.hyperativa.javaEspecialista.domain.model.BatchJob;
+import com.hyperativa.javaEspecialista.domain.model.BatchJobError;
+import com.hyperativa.javaEspecialista.domain.model.BatchJobStatus;
+import com.hyperativa.javaEspecialista.domain.ports.out.BatchJobPort;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the state of asynchronous batch uploads in Redis.
+ * <p>
+ * A job is a hash under {@code batch:job:<id>} holding its status and
+ * counters, plus a list under {@code batch:job:<id>:errors} holding the
+ * reported errors as {@code line|maskedCard|reason} entries. Each write goes
+ * out in one pipelined round trip and renews the TTL of both keys
+ * ({@code app.batch.jobs.ttl}), so finished jobs expire on their own.
+ * </p>
+ * <p>
+ * Whether a queued or running job has stalled is decided when it is read,
+ * from its {@code updatedAt}, so nothing has to sweep for dead jobs. A job
+ * that was reported as stalled during a Redis outage shows its real status
+ * again once its node catches up.
+ * </p>
+ */
+@Component
+public class RedisBatchJobAdapter implements BatchJobPort {
+
+    static final String STALLED_MESSAGE = "Batch job stopped reporting progress. "
+            + "Submit the lot again to resume it after its last committed chunk";
+
+    private static final String KEY_PREFIX = "batch:job:";
+    private static final String ERRORS_SUFFIX = ":errors";
+
+    private final StringRedisTemplate redisTemplate;
+    private final long ttlSeconds;
+    private final Duration stallTimeout;
+
+    public RedisBatchJobAdapter(StringRedisTemplate redisTemplate,
+            @Value("${app.batch.jobs.ttl:24h}") Duration ttl,
+            @Value("${app.batch.jobs.stall-timeout:30s}") Duration stallTimeout) {
+        this.redisTemplate = redisTemplate;
+        this.ttlSeconds = ttl.toSeconds();
+        this.stallTimeout = stallTimeout;
+    }
+
+    @Override
+    public void create(UUID id, String owner, String fileName) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("owner", owner);
+        fields.put("fileName", fileName != null ? fileName : "");
+        fields.put("status", BatchJobStatus.QUEUED.name());
+        String now = now();
+        fields.put("submittedAt", now);
+        fields.put("updatedAt", now);
+        write(id, fields);
+    }
+
+    @Override
+    public void started(UUID id) {
+        String now = now();
+        write(id, Map.of("status", BatchJobStatus.RUNNING.name(), "startedAt", now, "updatedAt", now));
+    }
+
+    @Override
+    public void touch(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String now = now();
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            for (UUID id : ids) {
+                redis.hSet(key(id), "updatedAt", now);
+                redis.expire(key(id), ttlSeconds);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void progress(UUID id, int expectedCards, int successCount, int failureCount,
+            List<BatchJobError> newErrors) {
+        Map<String, String> fields = Map.of(
+                "expectedCards", Integer.toString(expectedCards),
+                "success", Integer.toString(successCount),
+                "failure", Integer.toString(failureCount),
+                "updatedAt", now());
+        write(id, fields, redis -> {
+            if (!newErrors.isEmpty()) {
+                redis.rPush(errorsKey(id), encode(newErrors));
+                redis.hIncrBy(key(id), "reportedErrors", newErrors.size());
+            }
+        });
+    }
+
+    @Override
+    public void completed(UUID id, int expectedCards, int totalLines, int successCount, int failureCount,
+            List<BatchJobError> errors) {
+        String now = now();
+        Map<String, String> fields = Map.of(
+                "status", BatchJobStatus.COMPLETED.name(),
+                "expectedCards", Integer.toString(expectedCards),
+                "totalLines", Integer.toString(totalLines),
+                "success", Integer.toString(successCount),
+                "failure", Integer.toString(failureCount),
+                "reportedErrors", Integer.toString(errors.size()),
+                "updatedAt", now,
+                "finishedAt", now);
+        write(id, fields, redis -> {
+            redis.del(errorsKey(id));
+            if (!errors.isEmpty()) {
+                redis.rPush(errorsKey(id), encode(errors));
+            }
+        });
+    }
+
+    @Override
+    public void failed(UUID id, int successCount, int failureCount, String message) {
+        String now = now();
+        Map<String, String> fields = Map.of(
+                "status", BatchJobStatus.FAILED.name(),
+                "success", Integer.toString(successCount),
+                "failure", Integer.toString(failureCount),
+                "message", message != null ? message : "",
+                "updatedAt", now,
+                "finishedAt", now);
+        write(id, fields);
+    }
+
+    @Override
+    public Optional<BatchJob> find(UUID id) {
+        Map<String, String> fields = redisTemplate.<String, String>opsForHash().entries(key(id));
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+        String message = fields.get("message");
+        BatchJobStatus status = BatchJobStatus.valueOf(fields.get("status"));
+        Instant submittedAt = instantField(fields, "submittedAt");
+        Instant updatedAt = instantField(fields, "updatedAt");
+        Instant finishedAt = instantField(fields, "finishedAt");
+        if (stalled(status, updatedAt != null ? updatedAt : submittedAt)) {
+            status = BatchJobStatus.FAILED;
+            finishedAt = updatedAt;
+            message = STALLED_MESSAGE;
+        }
+        return Optional.of(new BatchJob(
+                id,
+                fields.get("owner"),
+                fields.get("fileName"),
+                status,
+                intField(fields, "expectedCards", -1),
+                intField(fields, "totalLines", 0),
+                intField(fields, "success", 0),
+                intField(fields, "failure", 0),
+                intField(fields, "reportedErrors", 0),
+                submittedAt,
+                instantField(fields, "startedAt"),
+                updatedAt,
+                finishedAt,
+                message == null || message.isEmpty() ? null : message));
+    }
+
+    private boolean stalled(BatchJobStatus status, Instant lastUpdate) {
+        boolean live = status == BatchJobStatus.QUEUED || status == BatchJobStatus.RUNNING;
+        return live && lastUpdate != null && lastUpdate.plus(stallTimeout).isBefore(Instant.now());
+    }
+
+    @Override
+    public List<BatchJobError> errors(UUID id, int page, int size) {
+        long start = (long) page * size;
+        List<String> entries = redisTemplate.opsForList().range(errorsKey(id), start, start + size - 1);
+        return entries == null ? List.of() : entries.stream().map(RedisBatchJobAdapter::decode).toList();
+    }
+
+    private void write(UUID id, Map<String, String> fields) {
+        write(id, fields, redis -> {
+        });
+    }
+
+    private void write(UUID id, Map<String, String> fields, Consumer<StringRedisConnection> extra) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection redis = (StringRedisConnection) connection;
+            redis.hMSet(key(id), fields);
+            extra.accept(redis);
+            redis.expire(key(id), ttlSeconds);
+            redis.expire(errorsKey(id), ttlSeconds);
+            return null;
+        });
+    }
+
+    private static String key(UUID id) {
+        return KEY_PREFIX + id;
+    }
+
+    private static String errorsKey(UUID id) {
+        return KEY_PREFIX + id + ERRORS_SUFFIX;
+    }
+
+    private static String now() {
+        return Long.toString(Instant.now().toEpochMilli());
+    }
+
+    private static int intField(Map<String, String> fields, String name, int defaultValue) {
+        String value = fields.get(name);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    private static Instant instantField(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        return value != null ? Instant.ofEpochMilli(Long.parseLong(value)) : null;
+    }
+
+    static String[] encode(List<BatchJobError> errors) {
+        return errors.stream()
+                .map(error -> error.lineNumber() + "|" + error.maskedCard() + "|" + error.reason())
+                .toArray(String[]::new);
+    }
+
+    static BatchJobError decode(String entry) {
+        // The reason is last, so a '|' inside it does not break the split
+        String[] parts = entry.split("\\|", 3);
+        return new BatchJobError(Integer.parseInt(parts[0]), parts[1], parts.length > 2 ? parts[2] : "");
+    }
+}
@@ -0,0 +1,106 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+import com.hyperativa.javaEspecialista.domain.model.IdempotentRegistration;
+import com.hyperativa.javaEspecialista.domain.ports.out.IdempotencyPort;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Idempotency records in Redis, so that a retried card registration is
+ * answered without querying the database again.
+ * <p>
+ * Keys are {@code "idem:card:<user>:<key>"}, scoped to the caller so one user
+ * cannot replay another user's registration. Values are 33 bytes: a flag
+ * byte ({@code 1} if the card was created), the 16 bytes of the token and a
+ * 16-byte fingerprint of the card number, the HMAC lookup hash the caller
+ * computed for the request cut to its first half. A request whose card does not match the fingerprint is a
+ * different request sent under the same key. The fingerprint is keyed, so it
+ * cannot be brute-forced back to a card number from a Redis dump. Entries
+ * expire after {@code app.idempotency.ttl}.
+ * </p>
+ * <p>
+ * If Redis is unavailable the request is simply processed again.
+ * </p>
+ */
+@Component
+public class RedisIdempotencyAdapter implements IdempotencyPort {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisIdempotencyAdapter.class);
+
+    private static final String KEY_PREFIX = "idem:card:";
+    private static final byte CREATED = 1;
+    private static final int FINGERPRINT_LENGTH = 16;
+    private static final int VALUE_LENGTH = 1 + 16 + FINGERPRINT_LENGTH;
+
+    private final RedisTemplate<byte[], byte[]> redisTemplate;
+    private final Duration ttl;
+
+    public RedisIdempotencyAdapter(RedisTemplate<byte[], byte[]> binaryRedisTemplate,
+            @Value("${app.idempotency.ttl:24h}") Duration ttl) {
+        this.redisTemplate = binaryRedisTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<IdempotentRegistration> find(String owner, String idempotencyKey, byte[] cardHash) {
+        try {
+            byte[] value = redisTemplate.opsForValue().get(key(owner, idempotencyKey));
+            if (value == null || value.length != VALUE_LENGTH) {
+                return Optional.empty();
+            }
+            return Optional.of(decode(value, fingerprint(cardHash)));
+        } catch (Exception e) {
+            log.warn("Idempotency lookup failed, processing the request again: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void save(String owner, String idempotencyKey, byte[] cardHash, CardSaveResult result) {
+        try {
+            redisTemplate.opsForValue().setIfAbsent(key(owner, idempotencyKey), encode(cardHash, result), ttl);
+        } catch (Exception e) {
+            log.warn("Could not store idempotency key: {}", e.getMessage());
+        }
+    }
+
+    private static byte[] key(String owner, String idempotencyKey) {
+        // The key cannot contain ':', so the last one separates it from the owner
+        return (KEY_PREFIX + owner + ":" + idempotencyKey).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] fingerprint(byte[] cardHash) {
+        return Arrays.copyOf(cardHash, FINGERPRINT_LENGTH);
+    }
+
+    private static byte[] encode(byte[] cardHash, CardSaveResult result) {
+        return ByteBuffer.allocate(VALUE_LENGTH)
+                .put(result.duplicate() ? 0 : CREATED)
+                .putLong(result.token().getMostSignificantBits())
+                .putLong(result.token().getLeastSignificantBits())
+                .put(fingerprint(cardHash))
+                .array();
+    }
+
+    private static IdempotentRegistration decode(byte[] value, byte[] fingerprint) {
+        ByteBuffer buffer = ByteBuffer.wrap(value);
+        boolean created = buffer.get() == CREATED;
+        UUID token = new UUID(buffer.getLong(), buffer.getLong());
+        boolean sameCard = MessageDigest.isEqual(fingerprint,
+                Arrays.copyOfRange(value, VALUE_LENGTH - FINGERPRINT_LENGTH, VALUE_LENGTH));
+        return new IdempotentRegistration(token, created, sameCard);
+    }
+}
@@ -0,0 +1,96 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Binary layout of the Redis card cache.
+ * <p>
+ * Keys are {@code "ce:"} followed by the raw 32-byte HMAC (35 bytes instead
+ * of the 76 of the legacy hex key) and values are the 16 bytes of the token,
+ * most significant half first. A negative entry is the single byte
+ * {@code 0x00}.
+ * </p>
+ * <p>
+ * The legacy layout, {@code "card:exists:" + hex(hash)} with the token or
+ * {@code NOT_FOUND} as text, can still be decoded while the cache rolls over.
+ * </p>
+ */
+public final class CardCacheCodec {
+
+    private static final byte[] KEY_PREFIX = "ce:".getBytes(StandardCharsets.US_ASCII);
+    private static final String LEGACY_KEY_PREFIX = "card:exists:";
+    private static final String LEGACY_NOT_FOUND = "NOT_FOUND";
+    private static final byte NOT_FOUND_MARKER = 0;
+    private static final byte[] NOT_FOUND_VALUE = { NOT_FOUND_MARKER };
+    private static final int UUID_LENGTH = 16;
+
+    private CardCacheCodec() {
+    }
+
+    public static byte[] key(byte[] cardHash) {
+        byte[] key = new byte[KEY_PREFIX.length + cardHash.length];
+        System.arraycopy(KEY_PREFIX, 0, key, 0, KEY_PREFIX.length);
+        System.arraycopy(cardHash, 0, key, KEY_PREFIX.length, cardHash.length);
+        return key;
+    }
+
+    public static byte[] legacyKey(byte[] cardHash) {
+        return (LEGACY_KEY_PREFIX + HexFormat.of().formatHex(cardHash)).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static byte[] encode(UUID token) {
+        return ByteBuffer.allocate(UUID_LENGTH)
+                .putLong(token.getMostSignificantBits())
+                .putLong(token.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * @return the value of a negative entry; shared, so callers must not
+     *         modify it.
+     */
+    public static byte[] notFound() {
+        return NOT_FOUND_VALUE;
+    }
+
+    public static boolean isNotFound(byte[] value) {
+        return value.length == 1 && value[0] == NOT_FOUND_MARKER;
+    }
+
+    /**
+     * @return the cached token, {@link CardNearCache#NOT_FOUND} for a negative
+     *         entry, or {@code null} if {@code value} is absent or not a
+     *         binary cache value.
+     */
+    public static UUID decode(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.length == UUID_LENGTH) {
+            ByteBuffer buffer = ByteBuffer.wrap(value);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return isNotFound(value) ? CardNearCache.NOT_FOUND : null;
+    }
+
+    /**
+     * Same as {@link #decode} for a value written in the legacy text layout.
+     */
+    public static UUID decodeLegacy(byte[] value) {
+        if (value == null) {
+            return null;
+        }
+        String text = new String(value, StandardCharsets.US_ASCII);
+        if (LEGACY_NOT_FOUND.equals(text)) {
+            return CardNearCache.NOT_FOUND;
+        }
+        try {
+            return UUID.fromString(text);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * In-process L1 cache in front of the Redis {@code card:exists:} entries.
+ * <p>
+ * Entries are keyed by the raw card hash and expire after the Redis TTL for
+ * their kind (found / not found), capped by {@code app.cache.near.max-ttl} to
+ * bound how long a node can serve a stale answer if an invalidation is lost.
+ * Deletes and new registrations are broadcast on a Redis pub/sub channel so
+ * that the other nodes drop their local copy.
+ * </p>
+ */
+@Component
+public class CardNearCache {
+
+    /**
+     * Value cached for hashes known not to be registered; mirrors the
+     * {@code NOT_FOUND} marker of the Redis cache.
+     */
+    public static final UUID NOT_FOUND = new UUID(0L, 0L);
+
+    public static final String INVALIDATION_CHANNEL = "card:exists:invalidate";
+
+    private static final Logger log = LoggerFactory.getLogger(CardNearCache.class);
+    private static final char NODE_SEPARATOR = '|';
+    private static final String HASH_SEPARATOR = ",";
+
+    private final Cache<HashKey, UUID> cache;
+    private final StringRedisTemplate redisTemplate;
+    private final MetricsPort metricsService;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    public CardNearCache(StringRedisTemplate redisTemplate,
+            @Value("${app.cache.ttl-found:24h}") Duration cacheTtlFound,
+            @Value("${app.cache.ttl-not-found:10m}") Duration cacheTtlNotFound,
+            @Value("${app.cache.near.max-entries:100000}") long maxEntries,
+            @Value("${app.cache.near.max-ttl:5m}") Duration maxTtl,
+            MetricsPort metricsService) {
+        this(redisTemplate, cacheTtlFound, cacheTtlNotFound, maxEntries, maxTtl, metricsService, Ticker.systemTicker());
+    }
+
+    CardNearCache(StringRedisTemplate redisTemplate, Duration cacheTtlFound, Duration cacheTtlNotFound,
+            long maxEntries, Duration maxTtl, MetricsPort metricsService, Ticker ticker) {
+        this.redisTemplate = redisTemplate;
+        this.metricsService = metricsService;
+        long foundNanos = min(cacheTtlFound, maxTtl).toNanos();
+        long notFoundNanos = min(cacheTtlNotFound, maxTtl).toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<HashKey, UUID>() {
+                    @Override
+                    public long expireAfterCreate(HashKey key, UUID value, long currentTime) {
+                        return NOT_FOUND.equals(value) ? notFoundNanos : foundNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(HashKey key, UUID value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(HashKey key, UUID value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .evictionListener((key, value, cause) -> metricsService.incrementNearCacheEviction())
+                .executor(Runnable::run)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * @return the cached token, {@link #NOT_FOUND} for a cached negative
+     *         lookup, or {@code null} if the hash is not cached locally.
+     */
+    public UUID getIfPresent(byte[] cardHash) {
+        UUID cached = cache.getIfPresent(new HashKey(cardHash));
+        if (cached != null) {
+            metricsService.incrementNearCacheHit();
+        } else {
+            metricsService.incrementNearCacheMiss();
+        }
+        return cached;
+    }
+
+    public void put(byte[] cardHash, UUID token) {
+        cache.put(new HashKey(cardHash), token);
+    }
+
+    public void putNotFound(byte[] cardHash) {
+        cache.put(new HashKey(cardHash), NOT_FOUND);
+    }
+
+    public void invalidate(byte[] cardHash) {
+        cache.invalidate(new HashKey(cardHash));
+    }
+
+    /**
+     * Asks every other node to drop the given hashes from its near-cache. A
+     * failed broadcast is only logged: the other nodes converge when their
+     * entries expire after at most {@code app.cache.near.max-ttl}.
+     */
+    public void publishInvalidation(Collection<byte[]> cardHashes) {
+        if (cardHashes.isEmpty()) {
+            return;
+        }
+        String hashes = cardHashes.stream()
+                .map(HexFormat.of()::formatHex)
+                .collect(Collectors.joining(HASH_SEPARATOR));
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + NODE_SEPARATOR + hashes);
+        } catch (Exception e) {
+            log.warn("Failed to publish near-cache invalidation for {} hashes: {}", cardHashes.size(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Applies an invalidation message received on {@link #INVALIDATION_CHANNEL}.
+     * Messages published by this node are ignored, since its own cache is
+     * already up to date.
+     */
+    public void applyInvalidation(String message) {
+        int separator = message.indexOf(NODE_SEPARATOR);
+        if (separator < 0) {
+            log.warn("Ignoring malformed near-cache invalidation message");
+            return;
+        }
+        if (message.startsWith(nodeId) && separator == nodeId.length()) {
+            return;
+        }
+        String hashes = message.substring(separator + 1);
+        int invalidated = 0;
+        for (String hexHash : hashes.split(HASH_SEPARATOR)) {
+            if (!hexHash.isEmpty()) {
+                cache.invalidate(new HashKey(HexFormat.of().parseHex(hexHash)));
+                invalidated++;
+            }
+        }
+        log.debug("Near-cache invalidated {} hashes from a remote node", invalidated);
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    private static Duration min(Duration ttl, Duration maxTtl) {
+        return ttl.compareTo(maxTtl) <= 0 ? ttl : maxTtl;
+    }
+}
@@ -0,0 +1,25 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence.cache;
+
+import java.util.Arrays;
+
+/**
+ * Map key for a raw card hash. Arrays use identity equality, so the 32-byte
+ * HMAC is wrapped to compare by content without hex-encoding it first.
+ */
+record HashKey(byte[] hash) {
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof HashKey key && Arrays.equals(hash, key.hash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(hash);
+    }
+
+    @Override
+    public String toString() {
+        return "HashKey[" + hash.length + " bytes]";
+    }
+}
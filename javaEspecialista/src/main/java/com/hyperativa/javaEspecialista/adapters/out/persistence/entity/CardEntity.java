@@ -10,7 +10,7 @@ public class CardEntity {
 
     @Id
     private Long id;
-    private String uuid;
+    private byte[] uuid;
     private byte[] cardHash;
     private byte[] encryptedCard;
     private byte[] encryptionIv;
@@ -20,7 +20,7 @@ public class CardEntity {
     public CardEntity() {
     }
 
-    public CardEntity(Long id, String uuid, byte[] cardHash, byte[] encryptedCard, byte[] encryptionIv,
+    public CardEntity(Long id, byte[] uuid, byte[] cardHash, byte[] encryptedCard, byte[] encryptionIv,
             byte[] encryptionTag, LocalDateTime createdAt) {
         this.id = id;
         this.uuid = uuid;
@@ -39,11 +39,14 @@ public class CardEntity {
         this.id = id;
     }
 
-    public String getUuid() {
+    /**
+     * @return the token as 16 bytes, most significant half first.
+     */
+    public byte[] getUuid() {
         return uuid;
     }
 
-    public void setUuid(String uuid) {
+    public void setUuid(byte[] uuid) {
         this.uuid = uuid;
     }
 
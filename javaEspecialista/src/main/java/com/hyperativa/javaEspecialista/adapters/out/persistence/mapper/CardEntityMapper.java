@@ -1,5 +1,6 @@
 package com.hyperativa.javaEspecialista.adapters.out.persistence.mapper;
 
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 import com.hyperativa.javaEspecialista.adapters.out.persistence.entity.CardEntity;
@@ -8,10 +9,12 @@ import com.hyperativa.javaEspecialista.domain.model.Card;
 @org.springframework.stereotype.Component
 public class CardEntityMapper {
 
+    private static final int UUID_LENGTH = 16;
+
     public CardEntity toEntity(Card card) {
         return new CardEntity(
                 null, // ID generated by DB
-                card.getUuid().toString(),
+                toBytes(card.getUuid()),
                 card.getCardHash(),
                 card.getEncryptedCard(),
                 card.getEncryptionIv(),
@@ -21,7 +24,7 @@ public class CardEntityMapper {
 
     public Card toDomain(CardEntity entity) {
         return new Card(
-                UUID.fromString(entity.getUuid()),
+                toUuid(entity.getUuid()),
                 entity.getCardHash(),
                 entity.getEncryptedCard(),
                 entity.getEncryptionIv(),
@@ -29,4 +32,24 @@ public class CardEntityMapper {
                 entity.getCreatedAt());
     }
 
+    /**
+     * Encodes a token for the {@code BINARY(16)} {@code uuid} column, most
+     * significant half first (the byte order of MySQL {@code UUID_TO_BIN}
+     * without swapping), so time-ordered tokens sort by creation time.
+     */
+    public static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(UUID_LENGTH)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static UUID toUuid(byte[] bytes) {
+        if (bytes.length != UUID_LENGTH) {
+            throw new IllegalArgumentException("Expected a 16-byte UUID but got " + bytes.length + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
 }
@@ -0,0 +1,61 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence.repo;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Plain JDBC access to the {@code batch_checkpoints} table.
+ */
+@Repository
+public class BatchCheckpointJdbcRepository {
+
+    private static final String INSERT = """
+            INSERT INTO batch_checkpoints (lot_id, lot_size, first_line, last_line)
+            VALUES (?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE lot_size = VALUES(lot_size), last_line = VALUES(last_line)""";
+
+    private static final String FIND_BY_LOT = """
+            SELECT lot_id, lot_size, first_line, last_line
+            FROM batch_checkpoints WHERE lot_id = ?""";
+
+    private static final String DELETE_BY_LOT = "DELETE FROM batch_checkpoints WHERE lot_id = ?";
+
+    private static final String DELETE_CREATED_BEFORE = "DELETE FROM batch_checkpoints WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BatchCheckpointJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stores a checkpoint. Storing the same range again, as a retried chunk
+     * does, is harmless.
+     */
+    public void insert(BatchCheckpoint checkpoint) {
+        jdbcTemplate.update(INSERT, checkpoint.lotId(), checkpoint.lotSize(), checkpoint.firstLine(),
+                checkpoint.lastLine());
+    }
+
+    public List<BatchCheckpoint> findByLot(String lotId) {
+        return jdbcTemplate.query(FIND_BY_LOT, (rs, rowNum) -> new BatchCheckpoint(
+                rs.getString("lot_id"),
+                rs.getLong("lot_size"),
+                rs.getInt("first_line"),
+                rs.getInt("last_line")), lotId);
+    }
+
+    public int deleteByLot(String lotId) {
+        return jdbcTemplate.update(DELETE_BY_LOT, lotId);
+    }
+
+    public int deleteCreatedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_CREATED_BEFORE, Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,172 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence.repo;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.hyperativa.javaEspecialista.adapters.out.persistence.entity.CardEntity;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access to the {@code cards} table for operations that Spring Data
+ * JDBC cannot express efficiently, such as multi-row inserts.
+ * <p>
+ * With {@code rewriteBatchedStatements=true} on the MySQL JDBC URL the driver
+ * rewrites a batch into a single multi-row {@code INSERT}, so a whole chunk is
+ * written in one round trip.
+ * </p>
+ */
+@Repository
+public class CardJdbcRepository {
+
+    private static final String INSERT_IGNORING_DUPLICATES = """
+            INSERT INTO cards (uuid, card_hash, encrypted_card, encryption_iv, encryption_tag, created_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE id = id""";
+
+    private static final String FIND_TOKEN_BY_CARD_HASH = "SELECT uuid FROM cards WHERE card_hash = ?";
+
+    private static final String FIND_BY_CARD_HASHES = "SELECT uuid, card_hash FROM cards WHERE card_hash IN (:cardHashes)";
+
+    private static final String FIND_BY_UUIDS = """
+            SELECT uuid, encrypted_card, encryption_iv, encryption_tag, created_at
+            FROM cards WHERE uuid IN (:uuids)""";
+
+    private static final String FIND_EXPIRED = """
+            SELECT uuid, card_hash FROM cards
+            WHERE expires_at IS NOT NULL AND expires_at < NOW()
+            LIMIT ?""";
+
+    private static final String DELETE_BY_UUIDS = "DELETE FROM cards WHERE uuid IN (:uuids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public CardJdbcRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * Inserts all entities in one JDBC batch. Rows whose card hash (or token)
+     * already exists are left untouched instead of aborting the batch, which
+     * also makes a retry of the same batch harmless.
+     */
+    public void insertIgnoringDuplicates(List<CardEntity> entities) {
+        jdbcTemplate.batchUpdate(INSERT_IGNORING_DUPLICATES, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bindInsert(ps, entities.get(i));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entities.size();
+            }
+        });
+    }
+
+    /**
+     * Inserts one card unless its hash is already registered, then reads
+     * back the token stored for the hash through {@code uk_cards_card_hash}.
+     * <p>
+     * A concurrent insert of the same hash makes the upsert wait for it on
+     * the unique index instead of failing, and the read then sees the
+     * committed row. MySQL has no {@code RETURNING}, and with the driver's
+     * default found-rows semantics the update count of an upsert is 1 for
+     * both outcomes, so the token is what tells them apart.
+     * </p>
+     *
+     * @return the stored token: the entity's own on insert, the existing one
+     *         otherwise; {@code null} if the card was erased in between.
+     */
+    public byte[] insertOrGetToken(CardEntity entity) {
+        jdbcTemplate.update(INSERT_IGNORING_DUPLICATES, ps -> bindInsert(ps, entity));
+        List<byte[]> tokens = jdbcTemplate.query(FIND_TOKEN_BY_CARD_HASH, (rs, rowNum) -> rs.getBytes("uuid"),
+                entity.getCardHash());
+        return tokens.isEmpty() ? null : tokens.get(0);
+    }
+
+    private static void bindInsert(PreparedStatement ps, CardEntity entity) throws SQLException {
+        LocalDateTime createdAt = entity.getCreatedAt() != null ? entity.getCreatedAt() : LocalDateTime.now();
+        ps.setBytes(1, entity.getUuid());
+        ps.setBytes(2, entity.getCardHash());
+        ps.setBytes(3, entity.getEncryptedCard());
+        ps.setBytes(4, entity.getEncryptionIv());
+        ps.setBytes(5, entity.getEncryptionTag());
+        ps.setTimestamp(6, Timestamp.valueOf(createdAt));
+    }
+
+    /**
+     * Looks up the tokens registered for a set of card hashes with a single
+     * {@code IN} query. Only {@code uuid} and {@code cardHash} are populated on
+     * the returned entities; hashes that are not registered are absent.
+     */
+    public List<CardEntity> findTokensByCardHashes(Collection<byte[]> cardHashes) {
+        if (cardHashes.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.query(FIND_BY_CARD_HASHES, Map.of("cardHashes", cardHashes),
+                (rs, rowNum) -> {
+                    CardEntity entity = new CardEntity();
+                    entity.setUuid(rs.getBytes("uuid"));
+                    entity.setCardHash(rs.getBytes("card_hash"));
+                    return entity;
+                });
+    }
+
+    /**
+     * Loads the encrypted card data of a set of tokens with a single
+     * {@code IN} query on {@code uk_cards_uuid}. The card hash is not read;
+     * tokens that are not registered are absent.
+     */
+    public List<CardEntity> findByUuids(Collection<byte[]> uuids) {
+        if (uuids.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.query(FIND_BY_UUIDS, Map.of("uuids", uuids),
+                (rs, rowNum) -> {
+                    CardEntity entity = new CardEntity();
+                    entity.setUuid(rs.getBytes("uuid"));
+                    entity.setEncryptedCard(rs.getBytes("encrypted_card"));
+                    entity.setEncryptionIv(rs.getBytes("encryption_iv"));
+                    entity.setEncryptionTag(rs.getBytes("encryption_tag"));
+                    Timestamp createdAt = rs.getTimestamp("created_at");
+                    entity.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+                    return entity;
+                });
+    }
+
+    /**
+     * Finds up to {@code limit} cards whose {@code expires_at} has passed.
+     * Only {@code uuid} and {@code cardHash} are populated.
+     */
+    public List<CardEntity> findExpired(int limit) {
+        return jdbcTemplate.query(FIND_EXPIRED, (rs, rowNum) -> {
+            CardEntity entity = new CardEntity();
+            entity.setUuid(rs.getBytes("uuid"));
+            entity.setCardHash(rs.getBytes("card_hash"));
+            return entity;
+        }, limit);
+    }
+
+    /**
+     * Deletes a set of cards by token with a single {@code IN} statement.
+     *
+     * @return the number of rows deleted.
+     */
+    public int deleteByUuids(Collection<byte[]> uuids) {
+        if (uuids.isEmpty()) {
+            return 0;
+        }
+        return namedParameterJdbcTemplate.update(DELETE_BY_UUIDS, Map.of("uuids", uuids));
+    }
+}
@@ -12,13 +12,14 @@ public interface CardRepository extends CrudRepository<CardEntity, Long> {
     @org.springframework.data.jdbc.repository.query.Query("SELECT * FROM cards WHERE card_hash = :cardHash")
     Optional<CardEntity> findByCardHash(byte[] cardHash);
 
-    Optional<CardEntity> findByUuid(String uuid);
+    /**
+     * Token lookup on the {@code uk_cards_uuid} index; the token is passed in
+     * its 16-byte column form (see {@code CardEntityMapper.toBytes}).
+     */
+    @org.springframework.data.jdbc.repository.query.Query("SELECT * FROM cards WHERE uuid = :uuid")
+    Optional<CardEntity> findByUuid(byte[] uuid);
 
     @org.springframework.data.jdbc.repository.query.Modifying
     @org.springframework.data.jdbc.repository.query.Query("DELETE FROM cards WHERE card_hash = :cardHash")
     int deleteByCardHash(byte[] cardHash);
-
-    @org.springframework.data.jdbc.repository.query.Modifying
-    @org.springframework.data.jdbc.repository.query.Query("DELETE FROM cards WHERE expires_at IS NOT NULL AND expires_at < NOW()")
-    int deleteExpired();
 }
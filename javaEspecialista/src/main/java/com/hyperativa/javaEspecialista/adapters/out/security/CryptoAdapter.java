@@ -3,6 +3,7 @@ package com.hyperativa.javaEspecialista.adapters.out.security;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.hyperativa.javaEspecialista.domain.exception.EncryptionException;
 import com.hyperativa.javaEspecialista.domain.ports.out.CryptoPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 
@@ -15,8 +16,17 @@ import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Base64;
 
+/**
+ * AES-256-GCM / HMAC-SHA-256 implementation of {@link CryptoPort}.
+ * <p>
+ * {@link Mac} and {@link Cipher} instances are reused through bounded pools
+ * instead of being looked up from the JCA provider on every call, and IVs come
+ * from a single shared {@link SecureRandom}, which is thread-safe.
+ * </p>
+ */
 @Component
 public class CryptoAdapter implements CryptoPort {
 
@@ -28,64 +38,126 @@ public class CryptoAdapter implements CryptoPort {
     private final SecretKey encryptionKey;
     private final SecretKey hashKey;
     private final MetricsPort metricsService;
+    private final CryptoObjectPool<Mac> macPool;
+    private final CryptoObjectPool<Cipher> cipherPool;
+    private final SecureRandom secureRandom = new SecureRandom();
 
     public CryptoAdapter(@Value("${app.security.encryption-key}") String encryptionKeyStr,
             @Value("${app.security.hash-key}") String hashKeyStr,
+            @Value("${app.security.crypto-pool-size:64}") int poolSize,
             MetricsPort metricsService) {
         // Assuming keys are provided as Base64 encoded strings
         this.encryptionKey = new SecretKeySpec(Base64.getDecoder().decode(encryptionKeyStr), "AES");
         this.hashKey = new SecretKeySpec(Base64.getDecoder().decode(hashKeyStr), HMAC_ALGORITHM);
         this.metricsService = metricsService;
+        this.macPool = new CryptoObjectPool<>(poolSize, () -> {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hashKey);
+            return mac;
+        });
+        this.cipherPool = new CryptoObjectPool<>(poolSize, () -> Cipher.getInstance(AES_ALGORITHM));
     }
 
     @Override
     public byte[] encrypt(String plainText, byte[] iv) {
+        byte[] plainBytes = null;
+        try {
+            plainBytes = plainText.getBytes(StandardCharsets.UTF_8);
+            return encrypt(plainBytes, iv);
+        } catch (EncryptionException e) {
+            throw e;
+        } catch (Exception e) {
+            metricsService.incrementCryptoFailure();
+            throw new EncryptionException("Error during encryption", e);
+        } finally {
+            wipe(plainBytes);
+        }
+    }
+
+    @Override
+    public byte[] encrypt(byte[] plainText, byte[] iv) {
         Instant start = Instant.now();
         try {
-            Cipher cipher = Cipher.getInstance(AES_ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, parameterSpec);
-            byte[] result = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+            Cipher cipher = cipherPool.borrow();
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+            byte[] result = cipher.doFinal(plainText);
+            cipherPool.release(cipher);
             metricsService.recordCryptoEncryptLatency(Duration.between(start, Instant.now()));
             return result;
         } catch (Exception e) {
             metricsService.incrementCryptoFailure();
-            throw new com.hyperativa.javaEspecialista.domain.exception.EncryptionException("Error during encryption",
-                    e);
+            throw new EncryptionException("Error during encryption", e);
         }
     }
 
     @Override
     public byte[] hash(String plainText) {
+        byte[] plainBytes = null;
         try {
-            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-            mac.init(hashKey);
-            return mac.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+            plainBytes = plainText.getBytes(StandardCharsets.UTF_8);
+            return hash(plainBytes);
+        } catch (EncryptionException e) {
+            throw e;
+        } catch (Exception e) {
+            metricsService.incrementCryptoFailure();
+            throw new EncryptionException("Error during hashing", e);
+        } finally {
+            wipe(plainBytes);
+        }
+    }
+
+    @Override
+    public byte[] hash(byte[] plainText) {
+        try {
+            Mac mac = macPool.borrow();
+            // doFinal resets the Mac to its initialized state, ready for the next caller
+            byte[] result = mac.doFinal(plainText);
+            macPool.release(mac);
+            return result;
         } catch (Exception e) {
             metricsService.incrementCryptoFailure();
-            throw new com.hyperativa.javaEspecialista.domain.exception.EncryptionException("Error during hashing", e);
+            throw new EncryptionException("Error during hashing", e);
         }
     }
 
     @Override
     public String decrypt(byte[] cipherText, byte[] iv) {
+        byte[] result = null;
         try {
-            Cipher cipher = Cipher.getInstance(AES_ALGORITHM);
-            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, iv);
-            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, parameterSpec);
-            byte[] result = cipher.doFinal(cipherText);
+            result = decryptToBytes(cipherText, iv);
             return new String(result, StandardCharsets.UTF_8);
+        } finally {
+            wipe(result);
+        }
+    }
+
+    @Override
+    public byte[] decryptToBytes(byte[] cipherText, byte[] iv) {
+        try {
+            Cipher cipher = cipherPool.borrow();
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_LENGTH, iv));
+            byte[] result = cipher.doFinal(cipherText);
+            cipherPool.release(cipher);
+            return result;
         } catch (Exception e) {
             metricsService.incrementCryptoFailure();
-            throw new com.hyperativa.javaEspecialista.domain.exception.EncryptionException("Error during decryption",
-                    e);
+            throw new EncryptionException("Error during decryption", e);
         }
     }
 
     @Override
     public byte[] generateIv() {
         byte[] iv = new byte[IV_LENGTH];
-        new SecureRandom().nextBytes(iv);
+        secureRandom.nextBytes(iv);
         return iv;
     }
+
+    /**
+     * Clears a temporary copy of card data once it has been consumed.
+     */
+    private static void wipe(byte[] sensitive) {
+        if (sensitive != null) {
+            Arrays.fill(sensitive, (byte) 0);
+        }
+    }
 }
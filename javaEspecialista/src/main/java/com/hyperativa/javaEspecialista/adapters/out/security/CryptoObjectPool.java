@@ -0,0 +1,51 @@
+package com.hyperativa.javaEspecialista.adapters.out.security;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of JCA engine objects ({@link javax.crypto.Mac},
+ * {@link javax.crypto.Cipher}) that are expensive to look up but not
+ * thread-safe.
+ * <p>
+ * A {@code ThreadLocal} does not fit virtual threads: every request runs on a
+ * fresh thread, so a thread-local instance would be created and discarded per
+ * call. Instead, instances are borrowed from a bounded queue and returned
+ * after use. When the pool is empty a new instance is created, and when it is
+ * full a returned instance is dropped, so callers never block.
+ * </p>
+ */
+final class CryptoObjectPool<T> {
+
+    @FunctionalInterface
+    interface Factory<T> {
+        T create() throws GeneralSecurityException;
+    }
+
+    private final BlockingQueue<T> idle;
+    private final Factory<T> factory;
+
+    CryptoObjectPool(int capacity, Factory<T> factory) {
+        this.idle = new ArrayBlockingQueue<>(capacity);
+        this.factory = factory;
+    }
+
+    T borrow() throws GeneralSecurityException {
+        T instance = idle.poll();
+        return instance != null ? instance : factory.create();
+    }
+
+    /**
+     * Returns an instance to the pool. Only instances whose last operation
+     * completed normally should be released; an instance left in an unknown
+     * state by an exception must simply be dropped.
+     */
+    void release(T instance) {
+        idle.offer(instance);
+    }
+
+    int idleCount() {
+        return idle.size();
+    }
+}
@@ -0,0 +1,173 @@
+package com.hyperativa.javaEspecialista.adapters.out.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.hyperativa.javaEspecialista.domain.ports.out.DecryptedCardCachePort;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory cache of decrypted card numbers for detokenization.
+ * <p>
+ * Card numbers are held as bytes, never as {@code String}s, and are zeroed
+ * when their entry is removed for any reason: expiry after
+ * {@code app.detokenize.cache.ttl}, eviction beyond
+ * {@code app.detokenize.cache.max-entries}, replacement or invalidation.
+ * Expired entries are removed by a scheduler instead of waiting for the next
+ * cache access, so a card number never outlives its TTL by more than the
+ * scheduler's delay.
+ * </p>
+ * <p>
+ * Erased cards are invalidated on every node: the tokens are broadcast on a
+ * Redis pub/sub channel next to the near-cache one, and each node drops its
+ * copy when it receives them.
+ * </p>
+ */
+@Component
+public class DecryptedCardCache implements DecryptedCardCachePort {
+
+    public static final String INVALIDATION_CHANNEL = "card:pan:invalidate";
+
+    private static final Logger log = LoggerFactory.getLogger(DecryptedCardCache.class);
+    private static final char NODE_SEPARATOR = '|';
+    private static final String TOKEN_SEPARATOR = ",";
+
+    private final Cache<UUID, CardNumber> cache;
+    private final StringRedisTemplate redisTemplate;
+    private final MetricsPort metricsService;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Autowired
+    public DecryptedCardCache(StringRedisTemplate redisTemplate,
+            @Value("${app.detokenize.cache.ttl:60s}") Duration ttl,
+            @Value("${app.detokenize.cache.max-entries:10000}") long maxEntries,
+            MetricsPort metricsService) {
+        this(redisTemplate, ttl, maxEntries, metricsService, Ticker.systemTicker(), Scheduler.systemScheduler());
+    }
+
+    DecryptedCardCache(StringRedisTemplate redisTemplate, Duration ttl, long maxEntries, MetricsPort metricsService,
+            Ticker ticker, Scheduler scheduler) {
+        this.redisTemplate = redisTemplate;
+        this.metricsService = metricsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .<UUID, CardNumber>removalListener((token, cardNumber, cause) -> {
+                    if (cardNumber != null) {
+                        cardNumber.wipe();
+                    }
+                })
+                .executor(Runnable::run)
+                .scheduler(scheduler)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public String get(UUID token) {
+        CardNumber cached = cache.getIfPresent(token);
+        // An entry removed concurrently may already be wiped
+        String cardNumber = cached != null ? cached.read() : null;
+        if (cardNumber != null) {
+            metricsService.incrementPanCacheHit();
+        } else {
+            metricsService.incrementPanCacheMiss();
+        }
+        return cardNumber;
+    }
+
+    @Override
+    public void put(UUID token, byte[] cardNumber) {
+        cache.put(token, new CardNumber(cardNumber));
+    }
+
+    /**
+     * A failed broadcast is only logged: the other nodes then drop the card
+     * numbers when they expire after {@code app.detokenize.cache.ttl}.
+     */
+    @Override
+    public void invalidate(Collection<UUID> tokens) {
+        if (tokens.isEmpty()) {
+            return;
+        }
+        cache.invalidateAll(tokens);
+        String message = tokens.stream()
+                .map(UUID::toString)
+                .collect(Collectors.joining(TOKEN_SEPARATOR));
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, nodeId + NODE_SEPARATOR + message);
+        } catch (Exception e) {
+            log.warn("Failed to publish decrypted card invalidation for {} tokens: {}", tokens.size(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Applies an invalidation message received on {@link #INVALIDATION_CHANNEL}.
+     * Messages published by this node are ignored, since it already dropped
+     * the tokens.
+     */
+    public void applyInvalidation(String message) {
+        int separator = message.indexOf(NODE_SEPARATOR);
+        if (separator < 0) {
+            log.warn("Ignoring malformed decrypted card invalidation message");
+            return;
+        }
+        if (message.startsWith(nodeId) && separator == nodeId.length()) {
+            return;
+        }
+        int invalidated = 0;
+        for (String token : message.substring(separator + 1).split(TOKEN_SEPARATOR)) {
+            if (!token.isEmpty()) {
+                cache.invalidate(UUID.fromString(token));
+                invalidated++;
+            }
+        }
+        log.debug("Decrypted card cache invalidated {} tokens from a remote node", invalidated);
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Card number bytes that are read and wiped under the same lock, so a
+     * reader never sees a half-zeroed value.
+     */
+    static final class CardNumber {
+
+        private final byte[] digits;
+        private boolean wiped;
+
+        CardNumber(byte[] digits) {
+            this.digits = digits;
+        }
+
+        synchronized String read() {
+            return wiped ? null : new String(digits, StandardCharsets.US_ASCII);
+        }
+
+        synchronized void wipe() {
+            Arrays.fill(digits, (byte) 0);
+            wiped = true;
+        }
+    }
+}
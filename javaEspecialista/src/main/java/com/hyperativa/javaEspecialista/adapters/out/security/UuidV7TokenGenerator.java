@@ -0,0 +1,84 @@
+package com.hyperativa.javaEspecialista.adapters.out.security;
+
+import com.hyperativa.javaEspecialista.domain.ports.out.TokenGeneratorPort;
+import org.springframework.stereotype.Component;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates time-ordered RFC 9562 version 7 tokens:
+ * <pre>
+ * 48 bits Unix time in ms | 4 bits version (7) | 12 bits counter | 2 bits variant | 62 bits random
+ * </pre>
+ * Consecutive tokens sort in creation order, so inserts append to the end of
+ * the {@code uk_cards_uuid} index instead of splitting pages all over it.
+ * <p>
+ * The timestamp and counter advance together through one atomic
+ * compare-and-set, which keeps tokens strictly increasing within a
+ * millisecond (up to 4096 per ms, after which the timestamp runs slightly
+ * ahead of the clock) and never goes backwards if the clock does. The random
+ * tail comes from a small set of independent DRBG instances picked by thread
+ * id, so threads do not queue on one {@link SecureRandom}.
+ * </p>
+ */
+@Component
+public class UuidV7TokenGenerator implements TokenGeneratorPort {
+
+    private static final int COUNTER_BITS = 12;
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_9562 = 0x8000_0000_0000_0000L;
+
+    // (unixMillis << COUNTER_BITS) | counter of the last token handed out
+    private final AtomicLong lastTimestamp = new AtomicLong();
+    private final LongSupplier clock;
+    private final SecureRandom[] randoms;
+
+    public UuidV7TokenGenerator() {
+        this(System::currentTimeMillis, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    UuidV7TokenGenerator(LongSupplier clock, int randomStripes) {
+        this.clock = clock;
+        // Power of two, so a stripe is picked with a mask
+        this.randoms = new SecureRandom[Integer.highestOneBit(Math.max(1, randomStripes - 1)) << 1];
+        for (int i = 0; i < randoms.length; i++) {
+            randoms[i] = newRandom();
+        }
+    }
+
+    @Override
+    public UUID nextToken() {
+        long timestamp = nextTimestamp();
+        long millis = timestamp >>> COUNTER_BITS;
+        long counter = timestamp & ((1L << COUNTER_BITS) - 1);
+        long mostSignificant = millis << 16 | VERSION_7 | counter;
+        long leastSignificant = random().nextLong() >>> 2 | VARIANT_RFC_9562;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private long nextTimestamp() {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        return lastTimestamp.accumulateAndGet(now, (last, current) -> Math.max(current, last + 1));
+    }
+
+    private SecureRandom random() {
+        return randoms[(int) Thread.currentThread().threadId() & (randoms.length - 1)];
+    }
+
+    /**
+     * DRBG instances keep independent state; the platform default
+     * ({@code NativePRNG} on Linux) funnels every instance through one shared
+     * lock.
+     */
+    private static SecureRandom newRandom() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
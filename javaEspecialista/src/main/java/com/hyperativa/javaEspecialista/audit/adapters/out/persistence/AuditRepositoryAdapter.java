@@ -1,48 +1,266 @@
 package com.hyperativa.javaEspecialista.audit.adapters.out.persistence;
 
 import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.entity.AuditLogEntity;
-import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.repository.AuditLogRepository;
+import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.repository.AuditLogJdbcRepository;
 import com.hyperativa.javaEspecialista.audit.domain.port.out.AuditPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Adapter implementing PCI DSS Requirement 10 audit logging.
  * Persists audit events to the audit_log table for compliance and forensic
  * analysis.
+ * <p>
+ * Events are handed to a bounded in-memory queue and written by a single
+ * background writer with multi-row inserts, so requests no longer wait for an
+ * {@code INSERT} per event. A batch is flushed once it holds
+ * {@code app.audit.batch-size} events or its oldest event has waited
+ * {@code app.audit.flush-interval}.
+ * </p>
+ * <p>
+ * No event is silently lost when MySQL is slow or down: if the queue is full
+ * the caller appends the event to a spill file, and a failed batch is spilled
+ * by the writer, which then skips MySQL for {@code app.audit.retry-interval}.
+ * Spilled events are replayed once MySQL accepts writes again. Only an event
+ * that cannot be spilled either is dropped, and counted in
+ * {@code audit_events_dropped_total}.
+ * </p>
+ * <p>
+ * Appends to the spill file do not wait for the disk. A background thread
+ * forces them every {@code app.audit.spill-sync-interval} with one
+ * {@code fsync} for all events spilled since the previous one, so an overflow
+ * costs the request thread a write to the page cache instead of a disk
+ * flush. Events spilled within the last interval survive a crash of the JVM,
+ * but not a crash or power loss of the host.
+ * </p>
  */
 @Component
 public class AuditRepositoryAdapter implements AuditPort {
 
     private static final Logger log = LoggerFactory.getLogger(AuditRepositoryAdapter.class);
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogJdbcRepository auditLogJdbcRepository;
+    private final MetricsPort metricsService;
+    private final BlockingQueue<AuditLogEntity> queue;
+    private final AuditSpillFile spillFile;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long retryIntervalNanos;
+    private final Duration spillSyncInterval;
+
+    // After a failed write, MySQL is skipped (events go straight to the spill
+    // file) until this System.nanoTime() deadline
+    private volatile boolean databaseSuspended;
+    private volatile long resumeDatabaseAt;
 
-    public AuditRepositoryAdapter(AuditLogRepository auditLogRepository) {
-        this.auditLogRepository = auditLogRepository;
+    private volatile boolean stopped;
+    private Thread writer;
+    private Thread spillSyncer;
+
+    public AuditRepositoryAdapter(AuditLogJdbcRepository auditLogJdbcRepository, MetricsPort metricsService,
+            @Value("${app.audit.queue-capacity:8192}") int queueCapacity,
+            @Value("${app.audit.batch-size:256}") int batchSize,
+            @Value("${app.audit.flush-interval:200ms}") Duration flushInterval,
+            @Value("${app.audit.retry-interval:30s}") Duration retryInterval,
+            @Value("${app.audit.spill-directory:audit-spill}") String spillDirectory,
+            @Value("${app.audit.spill-sync-interval:100ms}") Duration spillSyncInterval) {
+        this.auditLogJdbcRepository = auditLogJdbcRepository;
+        this.metricsService = metricsService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.spillFile = new AuditSpillFile(Path.of(spillDirectory));
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.retryIntervalNanos = retryInterval.toNanos();
+        this.spillSyncInterval = spillSyncInterval;
+        metricsService.registerAuditQueueDepth(queue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::writeLoop);
+        spillSyncer = Thread.ofPlatform().name("audit-spill-sync").daemon().start(this::syncLoop);
+    }
+
+    /**
+     * Stops the writer and flushes whatever is still queued, before the
+     * datasource is closed.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        stopped = true;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 5_000);
+        }
+        if (spillSyncer != null) {
+            spillSyncer.interrupt();
+        }
+        flush();
+        try {
+            spillFile.close();
+        } catch (IOException e) {
+            log.error("Failed to force the audit spill file to disk: {}", e.getMessage(), e);
+        }
     }
 
     @Override
     public void log(String userId, String action, String resourceId,
             String ipAddress, String result, String details) {
-        try {
-            // Ensure details is a valid JSON string if the column is JSON.
-            // If it's a plain string, wrap it in quotes.
-            String jsonDetails = details;
-            if (details != null && !details.startsWith("{") && !details.startsWith("[") && !details.startsWith("\"")) {
-                jsonDetails = "\"" + details.replace("\"", "\\\"") + "\"";
+        // Ensure details is a valid JSON string if the column is JSON.
+        // If it's a plain string, wrap it in quotes.
+        String jsonDetails = details;
+        if (details != null && !details.startsWith("{") && !details.startsWith("[") && !details.startsWith("\"")) {
+            jsonDetails = "\"" + details.replace("\"", "\\\"") + "\"";
+        }
+
+        var entity = new AuditLogEntity(userId, action, resourceId, ipAddress, result, jsonDetails);
+        if (stopped) {
+            write(List.of(entity));
+        } else if (!queue.offer(entity)) {
+            // Audit failures must never break business operations; a full
+            // queue means MySQL is behind, so keep the event on disk instead
+            spill(List.of(entity));
+        }
+        log.debug("Audit event recorded: action={}, user={}, result={}", action, userId, result);
+    }
+
+    /**
+     * Writes every queued event, then replays the spill file. Used on shutdown
+     * and by tests; the writer thread does the same work continuously.
+     */
+    void flush() {
+        List<AuditLogEntity> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+        replaySpill();
+    }
+
+    private void writeLoop() {
+        List<AuditLogEntity> batch = new ArrayList<>(batchSize);
+        while (!stopped) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                // stop() flushes the queue; only the batch in hand is written here
+                write(batch);
+                return;
             }
+            write(batch);
+            batch.clear();
+            if (queue.isEmpty()) {
+                replaySpill();
+            }
+        }
+    }
 
-            var entity = new AuditLogEntity(userId, action, resourceId, ipAddress, result, jsonDetails);
-            auditLogRepository.save(entity);
-            log.debug("Audit event recorded: action={}, user={}, result={}", action, userId, result);
+    private void syncLoop() {
+        while (!stopped) {
+            try {
+                Thread.sleep(spillSyncInterval);
+            } catch (InterruptedException e) {
+                // stop() closes the spill file, which forces it
+                return;
+            }
+            try {
+                spillFile.sync();
+            } catch (IOException e) {
+                log.error("Failed to force the audit spill file to disk: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Waits for the first event, then keeps collecting until the batch is full
+     * or the first event has waited for the flush interval.
+     */
+    private void collect(List<AuditLogEntity> batch) throws InterruptedException {
+        AuditLogEntity first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            AuditLogEntity next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void write(List<AuditLogEntity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (isDatabaseSuspended()) {
+            spill(batch);
+            return;
+        }
+        try {
+            auditLogJdbcRepository.insertAll(batch);
+            databaseSuspended = false;
         } catch (Exception e) {
-            // Audit failures must never break business operations,
-            // but we log them at ERROR level for monitoring
-            log.error("Failed to persist audit event: action={}, user={}, error={}",
-                    action, userId, e.getMessage(), e);
+            log.error("Failed to persist {} audit events, spilling them to disk: {}", batch.size(), e.getMessage(),
+                    e);
+            suspendDatabase();
+            spill(batch);
         }
     }
+
+    private void spill(List<AuditLogEntity> events) {
+        try {
+            spillFile.append(events);
+            metricsService.incrementAuditEventsSpilled(events.size());
+        } catch (IOException e) {
+            metricsService.incrementAuditEventsDropped(events.size());
+            log.error("Failed to spill {} audit events, they are lost: {}", events.size(), e.getMessage(), e);
+        }
+    }
+
+    private void replaySpill() {
+        if (isDatabaseSuspended() || !spillFile.hasPending()) {
+            return;
+        }
+        try {
+            int replayed = spillFile.replay(batchSize, auditLogJdbcRepository::insertAll);
+            databaseSuspended = false;
+            log.info("Replayed {} spilled audit events into MySQL", replayed);
+        } catch (IOException e) {
+            log.error("Failed to read the audit spill file: {}", e.getMessage(), e);
+        } catch (Exception e) {
+            log.warn("Audit spill replay failed, retrying later: {}", e.getMessage());
+            suspendDatabase();
+        }
+    }
+
+    private void suspendDatabase() {
+        resumeDatabaseAt = System.nanoTime() + retryIntervalNanos;
+        databaseSuspended = true;
+    }
+
+    private boolean isDatabaseSuspended() {
+        return databaseSuspended && System.nanoTime() - resumeDatabaseAt < 0;
+    }
 }
@@ -0,0 +1,261 @@
+package com.hyperativa.javaEspecialista.audit.adapters.out.persistence;
+
+import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.entity.AuditLogEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Append-only file of audit events that could not be written to MySQL.
+ * Events are stored one per line as tab-separated fields, with {@code \N}
+ * for {@code null} and backslash escapes for tabs, line breaks and
+ * backslashes.
+ * <p>
+ * Appends only write to the open file and return; {@link #sync} forces
+ * everything appended since the previous call to disk with a single
+ * {@code fsync}. Appended events survive a crash of the JVM, since the
+ * kernel already holds them, but not a crash of the host before the next
+ * sync.
+ * </p>
+ * <p>
+ * {@link #replay} first moves the file aside, so events spilled while a
+ * replay is running go to a fresh file. A replay file left over by a crash is
+ * picked up again on the next replay; delivery is therefore at least once.
+ * </p>
+ */
+final class AuditSpillFile {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditSpillFile.class);
+
+    private static final String NULL = "\\N";
+    private static final int FIELDS = 7;
+
+    private final Path spill;
+    private final Path replay;
+
+    // The spill file, kept open between appends; null until the first append
+    // after it was moved aside for a replay
+    private FileChannel channel;
+    private boolean unsynced;
+
+    AuditSpillFile(Path directory) {
+        this.spill = directory.resolve("audit-spill.log");
+        this.replay = directory.resolve("audit-spill.replay");
+    }
+
+    synchronized void append(List<AuditLogEntity> entities) throws IOException {
+        StringBuilder lines = new StringBuilder(entities.size() * 128);
+        for (AuditLogEntity entity : entities) {
+            encode(entity, lines);
+        }
+        if (channel == null) {
+            Files.createDirectories(spill.getParent());
+            channel = FileChannel.open(spill, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            unsynced = true;
+        } catch (IOException e) {
+            // Reopened by the next append; a torn line is skipped on replay
+            channel.close();
+            channel = null;
+            throw e;
+        }
+    }
+
+    /**
+     * Forces the events appended since the previous sync to disk. The
+     * {@code fsync} runs outside the lock, so appends are not held up by it.
+     */
+    void sync() throws IOException {
+        FileChannel toSync;
+        synchronized (this) {
+            if (!unsynced || channel == null) {
+                return;
+            }
+            toSync = channel;
+            unsynced = false;
+        }
+        try {
+            toSync.force(false);
+        } catch (ClosedChannelException e) {
+            // Moved aside for a replay or closed, both of which forced it first
+        } catch (IOException e) {
+            synchronized (this) {
+                unsynced = true;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Forces and closes the spill file. A later append opens it again.
+     */
+    synchronized void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } finally {
+            channel.close();
+            channel = null;
+            unsynced = false;
+        }
+    }
+
+    boolean hasPending() {
+        return Files.exists(spill) || Files.exists(replay);
+    }
+
+    /**
+     * Hands the spilled events to {@code sink} in batches of at most
+     * {@code batchSize}. If {@code sink} throws, the failed batch and every
+     * event after it are spilled again and the exception is rethrown.
+     *
+     * @return the number of events handed to {@code sink} successfully.
+     */
+    int replay(int batchSize, Consumer<List<AuditLogEntity>> sink) throws IOException {
+        synchronized (this) {
+            if (!Files.exists(replay)) {
+                if (!Files.exists(spill)) {
+                    return 0;
+                }
+                close();
+                Files.move(spill, replay, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+
+        int replayed = 0;
+        List<AuditLogEntity> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = Files.newBufferedReader(replay, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                AuditLogEntity entity = decode(line);
+                if (entity == null) {
+                    continue;
+                }
+                batch.add(entity);
+                if (batch.size() == batchSize) {
+                    replayed += deliver(batch, sink, reader);
+                }
+            }
+            replayed += deliver(batch, sink, reader);
+        }
+        Files.delete(replay);
+        return replayed;
+    }
+
+    private int deliver(List<AuditLogEntity> batch, Consumer<List<AuditLogEntity>> sink, BufferedReader rest)
+            throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            sink.accept(batch);
+        } catch (RuntimeException e) {
+            String line;
+            while ((line = rest.readLine()) != null) {
+                AuditLogEntity entity = decode(line);
+                if (entity != null) {
+                    batch.add(entity);
+                }
+            }
+            append(batch);
+            rest.close();
+            Files.delete(replay);
+            throw e;
+        }
+        int delivered = batch.size();
+        batch.clear();
+        return delivered;
+    }
+
+    private static void encode(AuditLogEntity entity, StringBuilder out) {
+        field(entity.getTimestamp().toString(), out).append('\t');
+        field(entity.getUserId(), out).append('\t');
+        field(entity.getAction(), out).append('\t');
+        field(entity.getResourceId(), out).append('\t');
+        field(entity.getIpAddress(), out).append('\t');
+        field(entity.getResult(), out).append('\t');
+        field(entity.getDetails(), out).append('\n');
+    }
+
+    private static StringBuilder field(String value, StringBuilder out) {
+        if (value == null) {
+            return out.append(NULL);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> out.append("\\\\");
+                case '\t' -> out.append("\\t");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                default -> out.append(c);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * @return the decoded event, or {@code null} for a corrupt line (such as
+     *         one torn by a crash in the middle of an append), which is skipped.
+     */
+    private static AuditLogEntity decode(String line) {
+        String[] fields = line.split("\t", -1);
+        try {
+            if (fields.length != FIELDS) {
+                throw new IllegalArgumentException(fields.length + " fields");
+            }
+            return new AuditLogEntity(LocalDateTime.parse(fields[0]), unescape(fields[1]), unescape(fields[2]),
+                    unescape(fields[3]), unescape(fields[4]), unescape(fields[5]), unescape(fields[6]));
+        } catch (RuntimeException e) {
+            log.error("Skipping corrupt audit spill record: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String unescape(String field) {
+        if (NULL.equals(field)) {
+            return null;
+        }
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+        StringBuilder value = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 1 < field.length()) {
+                char escaped = field.charAt(++i);
+                value.append(switch (escaped) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> escaped;
+                });
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+}
@@ -23,7 +23,12 @@ public class AuditLogEntity {
 
     public AuditLogEntity(String userId, String action, String resourceId,
             String ipAddress, String result, String details) {
-        this.timestamp = LocalDateTime.now();
+        this(LocalDateTime.now(), userId, action, resourceId, ipAddress, result, details);
+    }
+
+    public AuditLogEntity(LocalDateTime timestamp, String userId, String action, String resourceId,
+            String ipAddress, String result, String details) {
+        this.timestamp = timestamp;
         this.userId = userId;
         this.action = action;
         this.resourceId = resourceId;
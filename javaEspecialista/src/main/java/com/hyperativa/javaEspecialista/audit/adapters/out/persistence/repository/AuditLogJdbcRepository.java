@@ -0,0 +1,54 @@
+package com.hyperativa.javaEspecialista.audit.adapters.out.persistence.repository;
+
+import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.entity.AuditLogEntity;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC writer for the {@code audit_log} table. A batch of events is sent
+ * as one JDBC batch, which {@code rewriteBatchedStatements=true} turns into a
+ * single multi-row {@code INSERT}.
+ */
+@Repository
+public class AuditLogJdbcRepository {
+
+    private static final String INSERT = """
+            INSERT INTO audit_log (timestamp, user_id, action, resource_id, ip_address, result, details)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<AuditLogEntity> entities) {
+        if (entities.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AuditLogEntity entity = entities.get(i);
+                ps.setTimestamp(1, Timestamp.valueOf(entity.getTimestamp()));
+                ps.setString(2, entity.getUserId());
+                ps.setString(3, entity.getAction());
+                ps.setString(4, entity.getResourceId());
+                ps.setString(5, entity.getIpAddress());
+                ps.setString(6, entity.getResult());
+                ps.setString(7, entity.getDetails());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entities.size();
+            }
+        });
+    }
+}
@@ -66,6 +66,11 @@ public class JdbcUserAdapter
         log.info("User details saved for: {}", user.username());
     }
 
+    @Override
+    public boolean updatePassword(UUID userId, String expectedPassword, String newPassword) {
+        return userRepository.updatePassword(userId.toString(), expectedPassword, newPassword);
+    }
+
     private User toDomain(UserEntity entity) {
         return new User(
                 UUID.fromString(entity.getId()),
@@ -0,0 +1,111 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.persistence;
+
+import com.hyperativa.javaEspecialista.auth.domain.model.RefreshToken;
+import com.hyperativa.javaEspecialista.auth.domain.port.out.LoadRefreshTokenPort;
+import com.hyperativa.javaEspecialista.auth.domain.port.out.SaveRefreshTokenPort;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Refresh tokens in Redis, enabled with
+ * {@code app.security.refresh-tokens.store=redis}.
+ * <p>
+ * Each token is a hash at {@code rt:<token>} that Redis expires together with
+ * the token, so nothing has to purge old rows. Every user has a token family
+ * generation at {@code rt:gen:<userId>}; a token records the generation it was
+ * issued in and counts as revoked once the counter has moved past it. Revoking
+ * all of a user's tokens is therefore a single {@code INCR}, however many
+ * sessions the user has. Revoked tokens stay readable until they expire, so
+ * reusing one still triggers the theft detection in the auth service.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.security.refresh-tokens.store", havingValue = "redis")
+public class RedisRefreshTokenAdapter implements LoadRefreshTokenPort, SaveRefreshTokenPort {
+
+    static final String TOKEN_PREFIX = "rt:";
+    static final String GENERATION_PREFIX = "rt:gen:";
+
+    private static final RedisScript<Long> SAVE_SCRIPT = RedisScript.of(
+            new ClassPathResource("scripts/refresh-token-save.lua"), Long.class);
+
+    private static final String ID = "id";
+    private static final String USER_ID = "userId";
+    private static final String EXPIRY = "expiry";
+    private static final String REVOKED = "revoked";
+    private static final String GENERATION = "gen";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRefreshTokenAdapter(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Optional<RefreshToken> loadByToken(String token) {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(TOKEN_PREFIX + token);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String userId = (String) fields.get(USER_ID);
+        boolean revoked = "1".equals(fields.get(REVOKED))
+                || parseGeneration(fields.get(GENERATION)) < currentGeneration(userId);
+        return Optional.of(new RefreshToken(
+                UUID.fromString((String) fields.get(ID)),
+                token,
+                UUID.fromString(userId),
+                Instant.ofEpochMilli(Long.parseLong((String) fields.get(EXPIRY))),
+                revoked));
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken refreshToken) {
+        UUID id = refreshToken.id();
+        List<String> args = new ArrayList<>(11);
+        args.add(String.valueOf(refreshToken.expiryDate().toEpochMilli()));
+        if (id == null) {
+            id = UUID.randomUUID();
+            // A family revoked between this read and the write below also
+            // revokes the new token, which errs on the safe side
+            args.add(GENERATION);
+            args.add(String.valueOf(currentGeneration(refreshToken.userId().toString())));
+        }
+        args.add(ID);
+        args.add(id.toString());
+        args.add(USER_ID);
+        args.add(refreshToken.userId().toString());
+        args.add(EXPIRY);
+        args.add(args.getFirst());
+        args.add(REVOKED);
+        args.add(refreshToken.revoked() ? "1" : "0");
+
+        redisTemplate.execute(SAVE_SCRIPT, List.of(TOKEN_PREFIX + refreshToken.token()), args.toArray());
+        return new RefreshToken(id, refreshToken.token(), refreshToken.userId(), refreshToken.expiryDate(),
+                refreshToken.revoked());
+    }
+
+    @Override
+    public void revokeAllUserTokens(UUID userId) {
+        // The counter never expires: resetting it would bring revoked tokens back
+        redisTemplate.opsForValue().increment(GENERATION_PREFIX + userId);
+    }
+
+    private long currentGeneration(String userId) {
+        return parseGeneration(redisTemplate.opsForValue().get(GENERATION_PREFIX + userId));
+    }
+
+    private static long parseGeneration(Object value) {
+        return value == null ? 0 : Long.parseLong((String) value);
+    }
+}
@@ -5,12 +5,19 @@ import com.hyperativa.javaEspecialista.auth.adapters.out.persistence.repository.
 import com.hyperativa.javaEspecialista.auth.domain.model.RefreshToken;
 import com.hyperativa.javaEspecialista.auth.domain.port.out.LoadRefreshTokenPort;
 import com.hyperativa.javaEspecialista.auth.domain.port.out.SaveRefreshTokenPort;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Refresh tokens in the {@code refresh_tokens} table. Used unless
+ * {@code app.security.refresh-tokens.store} selects
+ * {@link RedisRefreshTokenAdapter}.
+ */
 @Component
+@ConditionalOnProperty(name = "app.security.refresh-tokens.store", havingValue = "jdbc", matchIfMissing = true)
 public class RefreshTokenRepositoryAdapter implements LoadRefreshTokenPort, SaveRefreshTokenPort {
 
     private final RefreshTokenRepository repository;
@@ -1,5 +1,7 @@
 package com.hyperativa.javaEspecialista.auth.adapters.out.persistence.repo;
 
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import java.util.Optional;
 
@@ -7,4 +9,8 @@ import com.hyperativa.javaEspecialista.auth.adapters.out.persistence.entity.User
 
 public interface UserRepository extends CrudRepository<UserEntity, String> {
     Optional<UserEntity> findByUsername(String username);
+
+    @Modifying
+    @Query("UPDATE users SET password = :newPassword WHERE id = :id AND password = :expectedPassword")
+    boolean updatePassword(String id, String expectedPassword, String newPassword);
 }
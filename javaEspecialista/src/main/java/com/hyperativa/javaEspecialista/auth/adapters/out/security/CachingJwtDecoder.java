@@ -0,0 +1,124 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * {@link JwtDecoder} that remembers the tokens it has already verified, so a
+ * client reusing its access token does not pay for an RSA signature check
+ * and claims validation on every request.
+ * <p>
+ * Entries are keyed by the SHA-256 digest of the token, so bearer tokens are
+ * not kept in memory, and expire at the token's {@code exp}. At most
+ * {@code maxEntries} tokens are kept; beyond that the least recently and
+ * frequently used ones are evicted. Tokens that fail to decode are never
+ * cached, and tokens without an expiry are verified every time.
+ * </p>
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<TokenDigest, Jwt> cache;
+    private final MetricsPort metricsService;
+    private final Clock clock;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maxEntries, MetricsPort metricsService) {
+        this(delegate, maxEntries, metricsService, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maxEntries, MetricsPort metricsService, Clock clock,
+            Ticker ticker) {
+        this.delegate = delegate;
+        this.metricsService = metricsService;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<TokenDigest, Jwt>() {
+                    @Override
+                    public long expireAfterCreate(TokenDigest key, Jwt jwt, long currentTime) {
+                        return untilExpiry(jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(TokenDigest key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(TokenDigest key, Jwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .executor(Runnable::run)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        TokenDigest key = TokenDigest.of(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null) {
+            metricsService.incrementJwtCacheHit();
+            return cached;
+        }
+
+        metricsService.incrementJwtCacheMiss();
+        Jwt jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null && untilExpiry(jwt).isPositive()) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    private Duration untilExpiry(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        Duration remaining = Duration.between(clock.instant(), expiresAt);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    /**
+     * SHA-256 of a token. Arrays use identity equality, so the digest is
+     * wrapped to compare by content.
+     */
+    record TokenDigest(byte[] digest) {
+
+        static TokenDigest of(String token) {
+            try {
+                MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+                return new TokenDigest(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof TokenDigest key && Arrays.equals(digest, key.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(digest);
+        }
+
+        @Override
+        public String toString() {
+            return "TokenDigest[" + digest.length + " bytes]";
+        }
+    }
+}
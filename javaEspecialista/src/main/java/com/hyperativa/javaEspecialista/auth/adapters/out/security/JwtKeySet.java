@@ -0,0 +1,186 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.security;
+
+import com.hyperativa.javaEspecialista.config.JwtKeyProperties;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The keys access tokens are signed and verified with.
+ * <p>
+ * Every configured key gets its own {@code kid}. Tokens are signed with one
+ * of them and carry its {@code kid}, so the decoder picks the right key
+ * without trying the others. The decoder accepts tokens signed by any of the
+ * keys, whatever their algorithm, which lets RSA and EC keys be rotated in
+ * and out without downtime. Tokens issued before keys had ids carry no
+ * {@code kid} and are checked against every key of their algorithm.
+ * </p>
+ */
+public class JwtKeySet {
+
+    private final JWK signingKey;
+    private final JwsHeader signingHeader;
+    private final JWKSet verificationKeys;
+    private final Set<JWSAlgorithm> algorithms;
+
+    public JwtKeySet(JwtKeyProperties properties) {
+        if (properties.keys().isEmpty()) {
+            throw new IllegalStateException("No JWT keys configured under app.security.jwt.keys");
+        }
+
+        List<JWK> publicKeys = new ArrayList<>();
+        Set<String> ids = new HashSet<>();
+        Set<JWSAlgorithm> configuredAlgorithms = new LinkedHashSet<>();
+        JWK signing = null;
+        for (JwtKeyProperties.Key key : properties.keys()) {
+            if (key.id() == null || !ids.add(key.id())) {
+                throw new IllegalStateException("Every JWT key needs a unique id, got: " + key.id());
+            }
+            JWK jwk = load(key);
+            publicKeys.add(jwk.toPublicJWK());
+            configuredAlgorithms.add((JWSAlgorithm) jwk.getAlgorithm());
+            if (key.id().equals(properties.signingKeyId())) {
+                signing = jwk;
+            }
+        }
+
+        if (signing == null) {
+            throw new IllegalStateException("JWT signing key not found: " + properties.signingKeyId());
+        }
+        if (!signing.isPrivate()) {
+            throw new IllegalStateException("JWT signing key has no private key: " + signing.getKeyID());
+        }
+
+        this.signingKey = signing;
+        this.signingHeader = JwsHeader.with(SignatureAlgorithm.from(signing.getAlgorithm().getName()))
+                .keyId(signing.getKeyID())
+                .build();
+        this.verificationKeys = new JWKSet(publicKeys);
+        this.algorithms = Set.copyOf(configuredAlgorithms);
+    }
+
+    /**
+     * Encoder holding only the signing key. Callers must send
+     * {@link #signingHeader()} so the token names its algorithm and key.
+     */
+    public JwtEncoder encoder() {
+        return new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(signingKey)));
+    }
+
+    /**
+     * Decoder accepting tokens signed by any configured key, with the default
+     * timestamp validation.
+     */
+    public JwtDecoder decoder() {
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms,
+                new ImmutableJWKSet<>(verificationKeys)));
+        // Claims are validated by NimbusJwtDecoder's OAuth2TokenValidator
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    public JwsHeader signingHeader() {
+        return signingHeader;
+    }
+
+    private static JWK load(JwtKeyProperties.Key key) {
+        SignatureAlgorithm supported = SignatureAlgorithm.from(key.algorithm());
+        if (supported == null) {
+            throw new IllegalStateException(
+                    "Unsupported JWT algorithm for key " + key.id() + ": " + key.algorithm());
+        }
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(supported.getName());
+
+        try {
+            if (JWSAlgorithm.Family.RSA.contains(algorithm)) {
+                KeyFactory factory = KeyFactory.getInstance("RSA");
+                return new RSAKey.Builder((RSAPublicKey) publicKey(factory, key.publicKey()))
+                        .privateKey((RSAPrivateKey) privateKey(factory, key.privateKey()))
+                        .keyID(key.id())
+                        .algorithm(algorithm)
+                        .keyUse(KeyUse.SIGNATURE)
+                        .build();
+            }
+
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            ECPublicKey publicKey = (ECPublicKey) publicKey(factory, key.publicKey());
+            Curve curve = Curve.forECParameterSpec(publicKey.getParams());
+            if (curve == null || !Curve.forJWSAlgorithm(algorithm).contains(curve)) {
+                throw new IllegalStateException("JWT key " + key.id() + " is not on the curve " + algorithm
+                        + " requires");
+            }
+            return new ECKey.Builder(curve, publicKey)
+                    .privateKey((ECPrivateKey) privateKey(factory, key.privateKey()))
+                    .keyID(key.id())
+                    .algorithm(algorithm)
+                    .keyUse(KeyUse.SIGNATURE)
+                    .build();
+        } catch (GeneralSecurityException | IOException | ClassCastException e) {
+            throw new IllegalStateException("Could not load JWT key " + key.id(), e);
+        }
+    }
+
+    private static PublicKey publicKey(KeyFactory factory, Resource pem)
+            throws GeneralSecurityException, IOException {
+        if (pem == null) {
+            throw new IllegalStateException("JWT key has no public key");
+        }
+        return factory.generatePublic(new X509EncodedKeySpec(decodePem(pem, "PUBLIC KEY")));
+    }
+
+    private static PrivateKey privateKey(KeyFactory factory, Resource pem)
+            throws GeneralSecurityException, IOException {
+        if (pem == null) {
+            return null;
+        }
+        return factory.generatePrivate(new PKCS8EncodedKeySpec(decodePem(pem, "PRIVATE KEY")));
+    }
+
+    private static byte[] decodePem(Resource pem, String type) throws IOException {
+        String text = pem.getContentAsString(StandardCharsets.US_ASCII);
+        String begin = "-----BEGIN " + type + "-----";
+        String end = "-----END " + type + "-----";
+        int start = text.indexOf(begin);
+        int stop = text.indexOf(end);
+        if (start < 0 || stop < start) {
+            throw new IOException(pem.getDescription() + " is not a PEM encoded " + type);
+        }
+        return Base64.getMimeDecoder().decode(text.substring(start + begin.length(), stop));
+    }
+}
@@ -3,6 +3,7 @@ package com.hyperativa.javaEspecialista.auth.adapters.out.security;
 import com.hyperativa.javaEspecialista.auth.domain.model.User;
 import com.hyperativa.javaEspecialista.auth.domain.service.AuthService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -19,6 +20,7 @@ public class JwtTokenProvider implements AuthService.TokenProvider {
 
     private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
     private final JwtEncoder jwtEncoder;
+    private final JwsHeader jwsHeader;
 
     @Value("${jwt.expiration-seconds:3600}")
     private long expirationSeconds;
@@ -26,8 +28,9 @@ public class JwtTokenProvider implements AuthService.TokenProvider {
     @Value("${app.security.token-issuer:https://hyperativa.com}")
     private String tokenIssuer;
 
-    public JwtTokenProvider(JwtEncoder jwtEncoder) {
+    public JwtTokenProvider(JwtEncoder jwtEncoder, JwtKeySet jwtKeySet) {
         this.jwtEncoder = jwtEncoder;
+        this.jwsHeader = jwtKeySet.signingHeader();
     }
 
     @Override
@@ -46,7 +49,7 @@ public class JwtTokenProvider implements AuthService.TokenProvider {
                 .claim("scope", scope)
                 .build();
 
-        String tokenValue = this.jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+        String tokenValue = this.jwtEncoder.encode(JwtEncoderParameters.from(jwsHeader, claims)).getTokenValue();
         return new AuthService.AccessToken(tokenValue, expirationSeconds);
     }
 }
@@ -0,0 +1,54 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.security;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Builds the {@link DelegatingPasswordEncoder} behind
+ * {@link SpringPasswordEncoderAdapter}.
+ * <p>
+ * New hashes are written as {@code {id}hash} with the configured encoder.
+ * Stored hashes are matched with the encoder named by their prefix, so
+ * BCrypt, Argon2 and PBKDF2 hashes are all accepted whichever one is
+ * configured. Hashes written before the prefix was introduced are plain
+ * BCrypt. {@link PasswordEncoder#upgradeEncoding} reports every hash that
+ * is unprefixed, uses another encoder, or uses a lower BCrypt cost than
+ * configured.
+ * </p>
+ */
+public final class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+    public static final String ARGON2 = "argon2";
+    public static final String PBKDF2 = "pbkdf2";
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * @param idForEncode    encoder new hashes are written with: {@code bcrypt},
+     *                       {@code argon2} or {@code pbkdf2}.
+     * @param bcryptStrength BCrypt cost (log2 of the rounds), 4 to 31.
+     */
+    public static PasswordEncoder delegating(String idForEncode, int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        Map<String, PasswordEncoder> encoders = Map.of(
+                BCRYPT, bcrypt,
+                ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8(),
+                PBKDF2, Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        if (!encoders.containsKey(idForEncode)) {
+            throw new IllegalStateException("Unknown password encoder: " + idForEncode
+                    + ", expected one of " + encoders.keySet());
+        }
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(idForEncode, encoders);
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+}
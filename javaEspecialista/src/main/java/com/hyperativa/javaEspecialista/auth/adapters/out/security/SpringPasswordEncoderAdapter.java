@@ -1,29 +1,115 @@
 package com.hyperativa.javaEspecialista.auth.adapters.out.security;
 
+import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationBusyException;
 import com.hyperativa.javaEspecialista.auth.domain.port.out.PasswordEncoderPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import jakarta.annotation.PreDestroy;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
  * Adapter that bridges Spring Security's PasswordEncoder
  * to the domain's PasswordEncoderPort.
+ * <p>
+ * BCrypt is deliberately slow, so hashing runs on a small pool of platform
+ * threads instead of the caller's virtual thread. A burst of logins then
+ * occupies at most {@code app.security.password-hashing.threads} cores and
+ * leaves the carriers free for the rest of the traffic. Hashes beyond that
+ * wait in a bounded queue; when the queue is full, or a hash has waited
+ * longer than {@code max-queue-wait}, it is refused with
+ * {@link AuthenticationBusyException} without being computed.
+ * </p>
  */
 @Component
 public class SpringPasswordEncoderAdapter implements PasswordEncoderPort {
 
     private final PasswordEncoder passwordEncoder;
+    private final MetricsPort metricsService;
+    private final ThreadPoolExecutor hashExecutor;
+    private final long maxQueueWaitNanos;
 
-    public SpringPasswordEncoderAdapter(PasswordEncoder passwordEncoder) {
+    /**
+     * @param threads hashing threads; {@code 0} uses half of the available
+     *                processors, at least one.
+     */
+    public SpringPasswordEncoderAdapter(PasswordEncoder passwordEncoder, MetricsPort metricsService,
+            @Value("${app.security.password-hashing.threads:0}") int threads,
+            @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${app.security.password-hashing.max-queue-wait:2s}") Duration maxQueueWait) {
         this.passwordEncoder = passwordEncoder;
+        this.metricsService = metricsService;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory());
+        this.maxQueueWaitNanos = maxQueueWait.toNanos();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashExecutor.close();
     }
 
     @Override
     public String encode(String rawPassword) {
-        return passwordEncoder.encode(rawPassword);
+        return hash(() -> passwordEncoder.encode(rawPassword));
     }
 
     @Override
     public boolean matches(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return hash(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only parses the stored hash, so it does not need a hashing thread
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T hash(Supplier<T> work) {
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result = hashExecutor.submit(() -> {
+                long started = System.nanoTime();
+                long waited = started - submitted;
+                metricsService.recordPasswordHashQueueWait(Duration.ofNanos(waited));
+                // The caller has waited long enough; don't spend a core on an answer that comes too late
+                if (waited > maxQueueWaitNanos) {
+                    metricsService.incrementPasswordHashRejected("queue_timeout");
+                    throw new AuthenticationBusyException("Password hashing queue wait exceeded");
+                }
+                T value = work.get();
+                metricsService.recordPasswordHashDuration(Duration.ofNanos(System.nanoTime() - started));
+                return value;
+            });
+        } catch (RejectedExecutionException e) {
+            metricsService.incrementPasswordHashRejected("queue_full");
+            throw new AuthenticationBusyException("Password hashing queue is full");
+        }
+
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
     }
 }
@@ -0,0 +1,13 @@
+package com.hyperativa.javaEspecialista.auth.domain.exception;
+
+/**
+ * Thrown when a password cannot be checked or hashed right now because the
+ * hashing capacity of the node is saturated. The request was not evaluated
+ * and can be retried.
+ */
+public class AuthenticationBusyException extends RuntimeException {
+
+    public AuthenticationBusyException(String message) {
+        super(message);
+    }
+}
@@ -8,11 +8,23 @@ public interface PasswordEncoderPort {
 
     /**
      * Encodes a raw password.
+     *
+     * @throws com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationBusyException
+     *         if hashing capacity is saturated.
      */
     String encode(String rawPassword);
 
     /**
      * Verifies a raw password against an encoded one.
+     *
+     * @throws com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationBusyException
+     *         if hashing capacity is saturated.
      */
     boolean matches(String rawPassword, String encodedPassword);
+
+    /**
+     * Whether an encoded password was hashed with an older algorithm or cost
+     * than new passwords are, and should be hashed again.
+     */
+    boolean upgradeEncoding(String encodedPassword);
 }
@@ -2,6 +2,16 @@ package com.hyperativa.javaEspecialista.auth.domain.port.out;
 
 import com.hyperativa.javaEspecialista.auth.domain.model.User;
 
+import java.util.UUID;
+
 public interface SaveUserPort {
     void save(User user);
+
+    /**
+     * Replaces a user's password hash, unless it changed since it was read.
+     *
+     * @return {@code false} if the stored hash is no longer
+     *         {@code expectedPassword}.
+     */
+    boolean updatePassword(UUID userId, String expectedPassword, String newPassword);
 }
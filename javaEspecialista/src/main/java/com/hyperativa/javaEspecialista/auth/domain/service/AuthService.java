@@ -1,5 +1,6 @@
 package com.hyperativa.javaEspecialista.auth.domain.service;
 
+import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationBusyException;
 import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationException;
 import com.hyperativa.javaEspecialista.auth.domain.model.RefreshToken;
 import com.hyperativa.javaEspecialista.auth.domain.model.Role;
@@ -81,7 +82,15 @@ public class AuthService implements AuthInputPort {
 
         log.debug("User found, verifying credentials for: {}", username);
 
-        boolean matches = passwordEncoder.matches(password, user.password());
+        boolean matches;
+        try {
+            matches = passwordEncoder.matches(password, user.password());
+        } catch (AuthenticationBusyException e) {
+            log.warn("Password hashing saturated, login rejected for user: {}", username);
+            metricsService.incrementLoginFailure("busy");
+            auditPort.log(username, "LOGIN_FAILURE", null, ip, "FAILURE", "Server busy");
+            throw e;
+        }
         log.debug("Password matches: {}", matches);
 
         if (!matches) {
@@ -94,6 +103,7 @@ public class AuthService implements AuthInputPort {
         log.info("User authenticated successfully: {}", username);
         metricsService.incrementLoginSuccess();
         auditPort.log(username, "LOGIN_SUCCESS", null, ip, "SUCCESS", null);
+        rehashIfOutdated(user, password);
 
         return createTokenPair(user);
     }
@@ -137,6 +147,27 @@ public class AuthService implements AuthInputPort {
         return createTokenPair(user);
     }
 
+    /**
+     * Hashes the password again with the current encoder and cost if the
+     * stored hash predates them. The plain password is only available here,
+     * after a successful login.
+     */
+    private void rehashIfOutdated(User user, String password) {
+        if (!passwordEncoder.upgradeEncoding(user.password())) {
+            return;
+        }
+        try {
+            String rehashed = passwordEncoder.encode(password);
+            if (saveUserPort.updatePassword(user.id(), user.password(), rehashed)) {
+                metricsService.incrementPasswordRehashed();
+                log.info("Password hash upgraded for user: {}", user.username());
+            }
+        } catch (RuntimeException e) {
+            // The login itself succeeded; the hash is upgraded on a later login
+            log.warn("Could not upgrade password hash for user: {}", user.username(), e);
+        }
+    }
+
     // Helper
     private TokenPair createTokenPair(User user) {
         AccessToken accessToken = tokenProvider.generateAccessToken(user);
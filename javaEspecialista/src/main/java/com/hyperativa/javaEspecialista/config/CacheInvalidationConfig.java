@@ -0,0 +1,39 @@
+package com.hyperativa.javaEspecialista.config;
+
+import com.hyperativa.javaEspecialista.adapters.out.persistence.cache.CardNearCache;
+import com.hyperativa.javaEspecialista.adapters.out.security.DecryptedCardCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes every node to the near-cache invalidation channel, so a card
+ * deleted or registered on one node is dropped from the L1 cache of the others,
+ * and to the decrypted card invalidation channel, so an erased card number is
+ * no longer served by any node's detokenization cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cardCacheInvalidationContainer(RedisConnectionFactory connectionFactory,
+            CardNearCache cardNearCache, DecryptedCardCache decryptedCardCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> cardNearCache.applyInvalidation(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(CardNearCache.INVALIDATION_CHANNEL));
+        container.addMessageListener(
+                (message, pattern) -> decryptedCardCache.applyInvalidation(
+                        new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(DecryptedCardCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -1,15 +1,26 @@
 package com.hyperativa.javaEspecialista.config;
 
+import com.hyperativa.javaEspecialista.domain.ports.out.BatchCheckpointPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.CardRepositoryPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.DecryptedCardCachePort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
 /**
  * Scheduled task for data retention policy enforcement.
- * Deletes cards whose {@code expires_at} timestamp has passed.
+ * Deletes cards whose {@code expires_at} timestamp has passed, in batches
+ * that are dropped from every node's decrypted card cache once deleted, and the
+ * checkpoints of batch lots that were interrupted and not resubmitted within
+ * {@code app.batch.checkpoints.retention}.
  * Runs daily at 02:00 AM by default (configurable).
  */
 @Component
@@ -17,16 +28,33 @@ import org.springframework.stereotype.Component;
 public class DataRetentionScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(DataRetentionScheduler.class);
+    static final int CARD_BATCH_SIZE = 1000;
     private final CardRepositoryPort cardRepository;
+    private final DecryptedCardCachePort decryptedCardCache;
+    private final BatchCheckpointPort batchCheckpoints;
+    private final Duration checkpointRetention;
 
-    public DataRetentionScheduler(CardRepositoryPort cardRepository) {
+    public DataRetentionScheduler(CardRepositoryPort cardRepository, DecryptedCardCachePort decryptedCardCache,
+            BatchCheckpointPort batchCheckpoints,
+            @Value("${app.batch.checkpoints.retention:7d}") Duration checkpointRetention) {
         this.cardRepository = cardRepository;
+        this.decryptedCardCache = decryptedCardCache;
+        this.batchCheckpoints = batchCheckpoints;
+        this.checkpointRetention = checkpointRetention;
     }
 
     @Scheduled(cron = "${app.data-retention.cleanup-cron:0 0 2 * * ?}")
     public void cleanupExpiredCards() {
         log.info("Data retention cleanup started");
-        int deleted = cardRepository.deleteExpiredCards();
-        log.info("Data retention cleanup completed: {} cards removed", deleted);
+        int deleted = 0;
+        List<UUID> tokens;
+        do {
+            tokens = cardRepository.deleteExpiredCards(CARD_BATCH_SIZE);
+            decryptedCardCache.invalidate(tokens);
+            deleted += tokens.size();
+        } while (tokens.size() == CARD_BATCH_SIZE);
+        int checkpoints = batchCheckpoints.deleteCreatedBefore(LocalDateTime.now().minus(checkpointRetention));
+        log.info("Data retention cleanup completed: {} cards and {} batch checkpoints removed", deleted,
+                checkpoints);
     }
 }
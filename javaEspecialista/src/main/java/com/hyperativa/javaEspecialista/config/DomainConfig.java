@@ -1,10 +1,13 @@
 package com.hyperativa.javaEspecialista.config;
 
 import com.hyperativa.javaEspecialista.audit.domain.port.out.AuditPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.BatchCheckpointPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.CardRepositoryPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.CryptoPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.DecryptedCardCachePort;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.SecurityPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.TokenGeneratorPort;
 import com.hyperativa.javaEspecialista.domain.service.CardService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -14,7 +17,10 @@ public class DomainConfig {
 
     @Bean
     public CardService cardService(CardRepositoryPort cardRepositoryPort, CryptoPort cryptoPort,
-            MetricsPort metricsPort, AuditPort auditPort, SecurityPort securityPort) {
-        return new CardService(cardRepositoryPort, cryptoPort, metricsPort, auditPort, securityPort);
+            MetricsPort metricsPort, AuditPort auditPort, SecurityPort securityPort,
+            TokenGeneratorPort tokenGeneratorPort, DecryptedCardCachePort decryptedCardCachePort,
+            BatchCheckpointPort batchCheckpointPort) {
+        return new CardService(cardRepositoryPort, cryptoPort, metricsPort, auditPort, securityPort,
+                tokenGeneratorPort, decryptedCardCachePort, batchCheckpointPort);
     }
 }
@@ -0,0 +1,38 @@
+package com.hyperativa.javaEspecialista.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.core.io.Resource;
+
+import java.util.List;
+
+/**
+ * Access token keys, bound from {@code app.security.jwt}.
+ *
+ * @param signingKeyId id of the key new tokens are signed with; it must have
+ *                     a private key.
+ * @param keys         every key tokens are verified against. Keys that are
+ *                     being rotated in or out only need a public key.
+ */
+@ConfigurationProperties("app.security.jwt")
+public record JwtKeyProperties(
+        String signingKeyId,
+        @DefaultValue List<Key> keys) {
+
+    /**
+     * @param id         sent as the {@code kid} header of the tokens this key
+     *                   signs.
+     * @param algorithm  JWS algorithm, e.g. {@code RS256} or {@code ES256};
+     *                   it decides whether the PEM files hold an RSA or an EC
+     *                   key.
+     * @param publicKey  PEM encoded X.509 public key.
+     * @param privateKey PEM encoded PKCS#8 private key, or {@code null} for a
+     *                   key that only verifies.
+     */
+    public record Key(
+            String id,
+            @DefaultValue("RS256") String algorithm,
+            Resource publicKey,
+            Resource privateKey) {
+    }
+}
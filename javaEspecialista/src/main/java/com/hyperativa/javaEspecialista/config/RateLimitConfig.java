@@ -0,0 +1,25 @@
+package com.hyperativa.javaEspecialista.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Binds the rate limit configuration and loads the Lua script that leases
+ * tokens from the shared Redis bucket.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public RedisScript<List<Long>> rateLimitLeaseScript() {
+        RedisScript<List> script = RedisScript.of(new ClassPathResource("scripts/rate-limit-lease.lua"), List.class);
+        return (RedisScript<List<Long>>) (RedisScript<?>) script;
+    }
+}
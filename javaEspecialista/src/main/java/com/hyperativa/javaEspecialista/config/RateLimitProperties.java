@@ -0,0 +1,35 @@
+package com.hyperativa.javaEspecialista.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limits per client, bound from {@code app.ratelimit}.
+ *
+ * @param requestsPerMinute limit for requests that match none of the routes.
+ * @param routes            per-route limits; the first route whose path
+ *                          pattern matches the request wins.
+ * @param leaseSize         maximum number of tokens a node takes from the
+ *                          shared Redis bucket at once.
+ * @param leaseTtl          how long a node may spend leased tokens before it
+ *                          has to go back to Redis.
+ * @param maxClients        maximum number of client buckets kept in memory.
+ */
+@ConfigurationProperties("app.ratelimit")
+public record RateLimitProperties(
+        @DefaultValue("100") int requestsPerMinute,
+        @DefaultValue List<Route> routes,
+        @DefaultValue("20") int leaseSize,
+        @DefaultValue("5s") Duration leaseTtl,
+        @DefaultValue("100000") long maxClients) {
+
+    /**
+     * @param path              Spring path pattern, e.g. {@code /api/v1/cards/**}.
+     * @param requestsPerMinute limit for requests matching {@code path}.
+     */
+    public record Route(String path, int requestsPerMinute) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.hyperativa.javaEspecialista.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Redis templates besides the {@code StringRedisTemplate} provided by Spring
+ * Boot.
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * Template that passes keys and values through unchanged, for the binary
+     * card cache.
+     */
+    @Bean
+    public RedisTemplate<byte[], byte[]> binaryRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<byte[], byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setDefaultSerializer(RedisSerializer.byteArray());
+        template.setKeySerializer(RedisSerializer.byteArray());
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setHashKeySerializer(RedisSerializer.byteArray());
+        template.setHashValueSerializer(RedisSerializer.byteArray());
+        return template;
+    }
+}
@@ -1,41 +1,29 @@
 package com.hyperativa.javaEspecialista.config;
 
-import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.JWKSet;
-import com.nimbusds.jose.jwk.RSAKey;
-import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
-import com.nimbusds.jose.jwk.source.JWKSource;
-import com.nimbusds.jose.proc.SecurityContext;
+import com.hyperativa.javaEspecialista.auth.adapters.out.security.CachingJwtDecoder;
+import com.hyperativa.javaEspecialista.auth.adapters.out.security.JwtKeySet;
+import com.hyperativa.javaEspecialista.auth.adapters.out.security.PasswordEncoders;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
-import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
 import org.springframework.security.web.SecurityFilterChain;
 
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
-
 @Configuration
 @EnableMethodSecurity
+@EnableConfigurationProperties(JwtKeyProperties.class)
 public class SecurityConfig {
 
-    @Value("${jwt.public.key}")
-    RSAPublicKey key;
-
-    @Value("${jwt.private.key}")
-    RSAPrivateKey priv;
-
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -65,19 +53,25 @@ public class SecurityConfig {
     }
 
     @Bean
-    JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withPublicKey(this.key).build();
+    JwtKeySet jwtKeySet(JwtKeyProperties properties) {
+        return new JwtKeySet(properties);
+    }
+
+    @Bean
+    JwtDecoder jwtDecoder(JwtKeySet jwtKeySet,
+            @Value("${app.security.jwt-cache.max-entries:10000}") long maxEntries,
+            MetricsPort metricsService) {
+        return new CachingJwtDecoder(jwtKeySet.decoder(), maxEntries, metricsService);
     }
 
     @Bean
-    JwtEncoder jwtEncoder() {
-        JWK jwk = new RSAKey.Builder(this.key).privateKey(this.priv).build();
-        JWKSource<SecurityContext> jwks = new ImmutableJWKSet<>(new JWKSet(jwk));
-        return new NimbusJwtEncoder(jwks);
+    JwtEncoder jwtEncoder(JwtKeySet jwtKeySet) {
+        return jwtKeySet.encoder();
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password.encoder:bcrypt}") String encoder,
+            @Value("${app.security.password.bcrypt-strength:10}") int bcryptStrength) {
+        return PasswordEncoders.delegating(encoder, bcryptStrength);
     }
 }
@@ -0,0 +1,12 @@
+package com.hyperativa.javaEspecialista.domain.exception;
+
+/**
+ * Thrown when a batch lot file is structurally invalid (malformed header or
+ * trailer, or declared record counts that do not match the lot contents).
+ */
+public class BatchFileFormatException extends RuntimeException {
+
+    public BatchFileFormatException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +0,0 @@
-package com.hyperativa.javaEspecialista.domain.exception;
-
-public class DuplicateCardException extends RuntimeException {
-    public DuplicateCardException(String message) {
-        super(message);
-    }
-}
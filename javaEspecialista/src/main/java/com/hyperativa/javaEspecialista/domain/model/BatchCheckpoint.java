@@ -0,0 +1,20 @@
+package com.hyperativa.javaEspecialista.domain.model;
+
+/**
+ * Range of lines of a lot whose cards have been committed. It is stored in
+ * the same transaction as the cards, so an interrupted lot can be resumed
+ * after the last committed range instead of from the first line.
+ *
+ * @param lotId     the lot identity from the header: generation date and lot
+ *                  number.
+ * @param lotSize   the size of the lot file in bytes, so that a different
+ *                  file reusing a lot number is not mistaken for the same lot.
+ * @param firstLine the first line of the range, 1-based.
+ * @param lastLine  the last line of the range, inclusive.
+ */
+public record BatchCheckpoint(String lotId, long lotSize, int firstLine, int lastLine) {
+
+    public boolean sameLot(String lotId, long lotSize) {
+        return this.lotId.equals(lotId) && this.lotSize == lotSize;
+    }
+}
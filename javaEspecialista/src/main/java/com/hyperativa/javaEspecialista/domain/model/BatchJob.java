@@ -0,0 +1,44 @@
+package com.hyperativa.javaEspecialista.domain.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Snapshot of an asynchronous batch upload as kept by the batch job store.
+ *
+ * @param expectedCards  card count declared by the lot header, or {@code -1}
+ *                       until the lot has been verified.
+ * @param totalLines     lines read from the file; only known once the job
+ *                       has completed.
+ * @param reportedErrors number of errors kept in detail, at most
+ *                       {@code app.batch.max-reported-errors}.
+ */
+public record BatchJob(
+        UUID id,
+        String owner,
+        String fileName,
+        BatchJobStatus status,
+        int expectedCards,
+        int totalLines,
+        int successCount,
+        int failureCount,
+        int reportedErrors,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant updatedAt,
+        Instant finishedAt,
+        String message) {
+
+    /**
+     * Cards processed per second between the start of the job and its last
+     * progress update, or {@code 0} before the first update.
+     */
+    public double cardsPerSecond() {
+        if (startedAt == null || updatedAt == null) {
+            return 0;
+        }
+        long millis = Duration.between(startedAt, updatedAt).toMillis();
+        return millis > 0 ? (successCount + failureCount) * 1000.0 / millis : 0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.hyperativa.javaEspecialista.domain.model;
+
+/**
+ * Error reported for one line of an asynchronous batch upload.
+ *
+ * @param maskedCard the card number with all but its last four digits masked.
+ */
+public record BatchJobError(int lineNumber, String maskedCard, String reason) {
+}
@@ -0,0 +1,15 @@
+package com.hyperativa.javaEspecialista.domain.model;
+
+/**
+ * Lifecycle of an asynchronous batch upload.
+ */
+public enum BatchJobStatus {
+    /** Accepted and spooled, waiting for a free job slot. */
+    QUEUED,
+    /** Flowing through the pipeline; counters are updated periodically. */
+    RUNNING,
+    /** Every line was processed; counters and errors are final. */
+    COMPLETED,
+    /** The lot was rejected or processing aborted; see the job message. */
+    FAILED
+}
@@ -5,7 +5,6 @@ import com.hyperativa.javaEspecialista.domain.exception.CardValidationException;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.UUID;
-import java.util.regex.Pattern;
 
 /**
  * Immutable domain model for a tokenized card.
@@ -20,7 +19,9 @@ public class Card {
     private final byte[] encryptionTag;
     private final LocalDateTime createdAt;
 
-    private static final Pattern DIGIT_PATTERN = Pattern.compile("^\\d+$");
+    /** ISO/IEC 7812 PAN length bounds. */
+    public static final int MIN_PAN_LENGTH = 8;
+    public static final int MAX_PAN_LENGTH = 19;
 
     public Card(UUID uuid, byte[] cardHash, byte[] encryptedCard, byte[] encryptionIv, byte[] encryptionTag,
             LocalDateTime createdAt) {
@@ -36,29 +37,67 @@ public class Card {
         if (cardNumber == null || cardNumber.isBlank()) {
             throw new CardValidationException("Card number cannot be empty");
         }
-        if (!DIGIT_PATTERN.matcher(cardNumber).matches()) {
+        validate((CharSequence) cardNumber);
+    }
+
+    /**
+     * Validates PAN length, digits and the Luhn checksum in a single pass,
+     * without allocating. Any issuer prefix is accepted; only the ISO/IEC 7812
+     * length range is enforced.
+     */
+    public static void validate(CharSequence cardNumber) {
+        int length = cardNumber.length();
+        checkLength(length);
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = length - 1; i >= 0; i--) {
+            sum += luhnDigit(cardNumber.charAt(i) - '0', doubled);
+            doubled = !doubled;
+        }
+        checkChecksum(sum);
+    }
+
+    /**
+     * Same as {@link #validate(CharSequence)} for an ASCII slice of a byte
+     * buffer, so batch files can be validated without decoding them to
+     * {@code String}s first.
+     */
+    public static void validate(byte[] ascii, int offset, int length) {
+        checkLength(length);
+        int sum = 0;
+        boolean doubled = false;
+        for (int i = offset + length - 1; i >= offset; i--) {
+            sum += luhnDigit(ascii[i] - '0', doubled);
+            doubled = !doubled;
+        }
+        checkChecksum(sum);
+    }
+
+    private static int luhnDigit(int digit, boolean doubled) {
+        if (digit < 0 || digit > 9) {
             throw new CardValidationException("Card number must contain only digits");
         }
-        if (!isLuhnValid(cardNumber)) {
-            throw new CardValidationException("Invalid card number (Luhn check failed)");
+        if (!doubled) {
+            return digit;
         }
+        int twice = digit * 2;
+        return twice > 9 ? twice - 9 : twice;
     }
 
-    private static boolean isLuhnValid(String cardNumber) {
-        int sum = 0;
-        boolean alternate = false;
-        for (int i = cardNumber.length() - 1; i >= 0; i--) {
-            int n = Integer.parseInt(cardNumber.substring(i, i + 1));
-            if (alternate) {
-                n *= 2;
-                if (n > 9) {
-                    n = (n % 10) + 1;
-                }
-            }
-            sum += n;
-            alternate = !alternate;
+    private static void checkLength(int length) {
+        if (length == 0) {
+            throw new CardValidationException("Card number cannot be empty");
+        }
+        if (length < MIN_PAN_LENGTH || length > MAX_PAN_LENGTH) {
+            throw new CardValidationException(
+                    "Card number must have between " + MIN_PAN_LENGTH + " and " + MAX_PAN_LENGTH + " digits");
+        }
+    }
+
+    private static void checkChecksum(int sum) {
+        if (sum % 10 != 0) {
+            throw new CardValidationException("Invalid card number (Luhn check failed)");
         }
-        return (sum % 10 == 0);
     }
 
     public UUID getUuid() {
@@ -0,0 +1,22 @@
+package com.hyperativa.javaEspecialista.domain.model;
+
+import java.util.UUID;
+
+/**
+ * Outcome of registering a single card, on its own or as part of a batch.
+ *
+ * @param token     the token of the stored card: the new card's own token when
+ *                  it was inserted, or the token of the card already registered
+ *                  with the same hash.
+ * @param duplicate true if a card with the same hash was already registered.
+ */
+public record CardSaveResult(UUID token, boolean duplicate) {
+
+    public static CardSaveResult inserted(UUID token) {
+        return new CardSaveResult(token, false);
+    }
+
+    public static CardSaveResult duplicateOf(UUID existingToken) {
+        return new CardSaveResult(existingToken, true);
+    }
+}
@@ -0,0 +1,15 @@
+package com.hyperativa.javaEspecialista.domain.model;
+
+import java.util.UUID;
+
+/**
+ * A card registration as it was answered the first time it was sent under an
+ * {@code Idempotency-Key}.
+ *
+ * @param token    the token returned to the first request.
+ * @param created  whether the first request created the card.
+ * @param sameCard whether the card number of the current request matches the
+ *                 one the first request was for.
+ */
+public record IdempotentRegistration(UUID token, boolean created, boolean sameCard) {
+}
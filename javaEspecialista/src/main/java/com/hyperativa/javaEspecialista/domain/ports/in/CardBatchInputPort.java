@@ -0,0 +1,77 @@
+package com.hyperativa.javaEspecialista.domain.ports.in;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
+import com.hyperativa.javaEspecialista.domain.model.Card;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+
+/**
+ * Stage-level operations of the card registration flow.
+ * <p>
+ * {@link CardInputPort#registerCard(String)} runs the same steps in sequence
+ * for a single card. Batch ingestion runs each step as a separate pipeline
+ * stage so that lines are streamed through validation, hashing, duplicate
+ * lookup, encryption and persistence without holding the whole file in memory.
+ * </p>
+ * <p>
+ * Card numbers are passed as the ASCII digits read from the lot file, so they
+ * are never turned into {@code String}s and can be wiped after use.
+ * </p>
+ */
+public interface CardBatchInputPort {
+
+    /**
+     * Validates the card number format and Luhn checksum.
+     */
+    void validate(byte[] cardNumber);
+
+    /**
+     * @return the HMAC-SHA-256 lookup hash of the card number.
+     */
+    byte[] hash(byte[] cardNumber);
+
+    /**
+     * Looks up which of a chunk of card hashes are already registered, so
+     * duplicates can be dropped before they are encrypted.
+     *
+     * @return one entry per hash, in the same order as {@code cardHashes};
+     *         holding the existing token for registered cards.
+     */
+    List<Optional<UUID>> findRegistered(List<byte[]> cardHashes);
+
+    /**
+     * Encrypts the card number and assigns it a new token.
+     *
+     * @return a card ready to be persisted.
+     */
+    Card tokenize(byte[] cardNumber, byte[] cardHash);
+
+    /**
+     * Persists a chunk of tokenized cards. Cards that are already registered
+     * are reported as duplicates rather than thrown as exceptions, so one
+     * duplicate does not fail the rest of the chunk.
+     *
+     * @param checkpoint the line range covered by the chunk, committed
+     *                   atomically with the cards; {@code null} when the lot
+     *                   cannot be resumed.
+     * @return one result per card, in the same order as {@code cards}.
+     */
+    List<CardSaveResult> persistAll(List<Card> cards, BatchCheckpoint checkpoint);
+
+    /**
+     * Looks up the line ranges already committed by an earlier, interrupted
+     * run of the same lot. Checkpoints left by a different file with the same
+     * lot number are discarded.
+     *
+     * @return the committed line ranges, in no particular order.
+     */
+    List<BatchCheckpoint> findCheckpoints(String lotId, long lotSize);
+
+    /**
+     * Forgets the checkpoints of a lot once it has run to the end.
+     */
+    void completeLot(String lotId);
+}
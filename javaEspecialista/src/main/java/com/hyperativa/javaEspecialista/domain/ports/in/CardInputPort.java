@@ -1,13 +1,51 @@
 package com.hyperativa.javaEspecialista.domain.ports.in;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 import java.util.Optional;
 
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+
 public interface CardInputPort {
-    UUID registerCard(String cardNumber);
+
+    /**
+     * Registers a card, or returns the token it is already registered with.
+     * An existing card is a normal outcome, not an error.
+     *
+     * @return the new token, or the existing one flagged as a duplicate.
+     */
+    CardSaveResult registerCard(String cardNumber);
+
+    /**
+     * Variant of {@link #registerCard(String)} for callers that already
+     * computed the card hash with {@link #hash(String)}, so a request hashes
+     * the card only once.
+     */
+    CardSaveResult registerCard(String cardNumber, byte[] cardHash);
+
+    /**
+     * Computes the HMAC-SHA-256 lookup hash of a card number.
+     */
+    byte[] hash(String cardNumber);
 
     Optional<UUID> findCardUuid(String cardNumber);
 
+    /**
+     * Reverses a token to the card number it stands for. Restricted to
+     * administrators; every call is audited.
+     */
+    Optional<String> detokenize(UUID token);
+
+    /**
+     * Bulk variant of {@link #detokenize(UUID)} that loads all uncached cards
+     * in one round trip.
+     *
+     * @return the card number of each known token, in the iteration order of
+     *         {@code tokens}; unknown tokens are absent.
+     */
+    Map<UUID, String> detokenize(Collection<UUID> tokens);
+
     /**
      * Deletes a card by its number. LGPD Art. 18 - Right to erasure.
      * 
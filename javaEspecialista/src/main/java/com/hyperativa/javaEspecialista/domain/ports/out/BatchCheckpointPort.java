@@ -0,0 +1,33 @@
+package com.hyperativa.javaEspecialista.domain.ports.out;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
+
+/**
+ * Checkpoints of lots being processed. Checkpoints are written by
+ * {@link CardRepositoryPort#saveAll(List, BatchCheckpoint)}, together with the
+ * cards of the range they cover.
+ */
+public interface BatchCheckpointPort {
+
+    /**
+     * @return the committed line ranges of the lot, in no particular order.
+     */
+    List<BatchCheckpoint> findByLot(String lotId);
+
+    /**
+     * Forgets a lot once it has been processed, or when a different file
+     * arrives with the same lot number.
+     */
+    void deleteByLot(String lotId);
+
+    /**
+     * Deletes the checkpoints of lots that were interrupted and never
+     * resubmitted.
+     *
+     * @return the number of checkpoints deleted.
+     */
+    int deleteCreatedBefore(LocalDateTime cutoff);
+}
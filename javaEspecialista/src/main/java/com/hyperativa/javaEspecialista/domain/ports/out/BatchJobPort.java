@@ -0,0 +1,61 @@
+package com.hyperativa.javaEspecialista.domain.ports.out;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.hyperativa.javaEspecialista.domain.model.BatchJob;
+import com.hyperativa.javaEspecialista.domain.model.BatchJobError;
+
+/**
+ * Shared state of asynchronous batch uploads, so that any node can answer a
+ * progress poll for a job running on another one. Jobs expire on their own
+ * some time after their last update.
+ * <p>
+ * The node that owns a queued or running job updates it at least every
+ * {@code app.batch.jobs.progress-interval}. A job whose last update is older
+ * than {@code app.batch.jobs.stall-timeout} is reported as
+ * {@link com.hyperativa.javaEspecialista.domain.model.BatchJobStatus#FAILED}:
+ * its node has stopped or lost Redis.
+ * </p>
+ */
+public interface BatchJobPort {
+
+    void create(UUID id, String owner, String fileName);
+
+    void started(UUID id);
+
+    /**
+     * Marks queued jobs as still alive while they wait for a job slot.
+     */
+    void touch(Collection<UUID> ids);
+
+    /**
+     * Records the counters of a running job and appends the errors reported
+     * since the previous update.
+     */
+    void progress(UUID id, int expectedCards, int successCount, int failureCount, List<BatchJobError> newErrors);
+
+    /**
+     * Stores the final result of a job. The error list is replaced by
+     * {@code errors}, which is expected to be complete and sorted by line.
+     */
+    void completed(UUID id, int expectedCards, int totalLines, int successCount, int failureCount,
+            List<BatchJobError> errors);
+
+    /**
+     * Marks a job as failed. Counters and errors recorded so far are kept, so
+     * the caller can tell how far the lot got.
+     */
+    void failed(UUID id, int successCount, int failureCount, String message);
+
+    Optional<BatchJob> find(UUID id);
+
+    /**
+     * Reads one page of a job's reported errors. While the job runs the
+     * errors are in arrival order; once it has completed they are sorted by
+     * line number.
+     */
+    List<BatchJobError> errors(UUID id, int page, int size);
+}
@@ -1,15 +1,71 @@
 package com.hyperativa.javaEspecialista.domain.ports.out;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
 import com.hyperativa.javaEspecialista.domain.model.Card;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
 
 public interface CardRepositoryPort {
-    Card save(Card card);
+    /**
+     * Looks a card hash up in the caches only, never in the database, so a
+     * repeat registration can be answered before the card is encrypted.
+     * Negative entries are not trusted, since a concurrent registration may
+     * have stored the card after they were written.
+     *
+     * @return the cached token, or empty if the caller has to go through
+     *         {@link #saveOrGet(Card)}.
+     */
+    Optional<UUID> findCachedUuid(byte[] cardHash);
+
+    /**
+     * Stores a card unless its hash is already registered. The insert and
+     * the duplicate check are one atomic statement, so two concurrent
+     * registrations of the same card cannot both store it or fail on the
+     * unique constraint. The caches are not consulted; see
+     * {@link #findCachedUuid(byte[])}.
+     *
+     * @return {@code inserted} with the card's own token, or
+     *         {@code duplicateOf} with the token the card was already
+     *         registered with.
+     */
+    CardSaveResult saveOrGet(Card card);
+
+    /**
+     * Persists a chunk of cards in a single batched round trip. Cards whose hash
+     * is already registered are not stored and are reported as duplicates
+     * instead of failing the whole chunk.
+     *
+     * @param checkpoint the line range covered by the chunk, committed in the
+     *                   same transaction as the cards; {@code null} when the
+     *                   lot cannot be resumed. It is stored even if
+     *                   {@code cards} is empty.
+     * @return one result per card, in the same order as {@code cards}.
+     */
+    List<CardSaveResult> saveAll(List<Card> cards, BatchCheckpoint checkpoint);
 
     Optional<UUID> findUuidByHash(byte[] cardHash);
 
+    /**
+     * Bulk variant of {@link #findUuidByHash(byte[])} that resolves a whole
+     * chunk of hashes in a constant number of round trips.
+     *
+     * @return one entry per hash, in the iteration order of {@code cardHashes};
+     *         empty for hashes that are not registered.
+     */
+    List<Optional<UUID>> findUuidsByHashes(Collection<byte[]> cardHashes);
+
+    /**
+     * Loads the encrypted cards of a set of tokens in a single round trip.
+     *
+     * @return the cards found, in no particular order; unknown tokens are
+     *         absent.
+     */
+    List<Card> findByTokens(Collection<UUID> tokens);
+
     /**
      * Deletes a card by its hash. Required for LGPD Art. 18 (right to erasure).
      * 
@@ -18,10 +74,11 @@ public interface CardRepositoryPort {
     boolean deleteByHash(byte[] cardHash);
 
     /**
-     * Deletes all cards whose {@code expires_at} timestamp has passed.
-     * Used by the scheduled data retention cleanup task.
+     * Deletes up to {@code limit} cards whose {@code expires_at} timestamp has
+     * passed. Used by the scheduled data retention cleanup task, which calls it
+     * until fewer than {@code limit} cards are returned.
      *
-     * @return the number of expired cards deleted.
+     * @return the tokens of the deleted cards.
      */
-    int deleteExpiredCards();
+    List<UUID> deleteExpiredCards(int limit);
 }
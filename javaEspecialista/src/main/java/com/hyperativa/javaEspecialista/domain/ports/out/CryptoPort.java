@@ -3,6 +3,14 @@ package com.hyperativa.javaEspecialista.domain.ports.out;
 public interface CryptoPort {
     byte[] encrypt(String plainText, byte[] iv);
 
+    /**
+     * Encrypts raw plaintext bytes using AES-256-GCM, for callers that already
+     * hold the card number as bytes and want to avoid a {@code String} copy.
+     *
+     * @return the ciphertext with the GCM tag appended
+     */
+    byte[] encrypt(byte[] plainText, byte[] iv);
+
     /**
      * Decrypts ciphertext using AES-256-GCM.
      *
@@ -12,7 +20,23 @@ public interface CryptoPort {
      */
     String decrypt(byte[] cipherText, byte[] iv);
 
+    /**
+     * Decrypts ciphertext using AES-256-GCM into raw bytes, so the plaintext
+     * can be wiped once it is no longer needed, which a {@code String} cannot.
+     *
+     * @param cipherText the encrypted data (ciphertext + GCM tag concatenated)
+     * @param iv         the initialization vector used during encryption
+     * @return the decrypted plaintext; the caller owns the array and is
+     *         responsible for zeroing it
+     */
+    byte[] decryptToBytes(byte[] cipherText, byte[] iv);
+
     byte[] hash(String plainText);
 
+    /**
+     * Computes the HMAC-SHA-256 lookup hash of raw plaintext bytes.
+     */
+    byte[] hash(byte[] plainText);
+
     byte[] generateIv();
 }
@@ -0,0 +1,33 @@
+package com.hyperativa.javaEspecialista.domain.ports.out;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Short-lived, size-bounded cache of recently decrypted card numbers, so
+ * repeated detokenizations of the same token do not decrypt it every time.
+ * Implementations must zero a card number as soon as its entry leaves the
+ * cache.
+ */
+public interface DecryptedCardCachePort {
+
+    /**
+     * @return the cached card number, or {@code null} if the token is not
+     *         cached.
+     */
+    String get(UUID token);
+
+    /**
+     * Caches a decrypted card number. The cache takes ownership of
+     * {@code cardNumber} and zeroes it on eviction, so the caller must not
+     * use the array afterwards.
+     */
+    void put(UUID token, byte[] cardNumber);
+
+    /**
+     * Drops the tokens from this node's cache and asks every other node to
+     * drop them too. Call it after the cards are deleted, so that a
+     * detokenization running at the same time cannot cache them again.
+     */
+    void invalidate(Collection<UUID> tokens);
+}
@@ -0,0 +1,29 @@
+package com.hyperativa.javaEspecialista.domain.ports.out;
+
+import java.util.Optional;
+
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+import com.hyperativa.javaEspecialista.domain.model.IdempotentRegistration;
+
+/**
+ * Shared record of card registrations sent with an {@code Idempotency-Key},
+ * scoped to the user that sent them. The record is only a shortcut over
+ * registration, which is already idempotent by card: implementations report
+ * nothing found and skip writes when their store is unavailable.
+ */
+public interface IdempotencyPort {
+
+    /**
+     * @param cardHash the lookup hash of the card in the current request,
+     *                 compared with the card the key was first used for.
+     */
+    Optional<IdempotentRegistration> find(String owner, String idempotencyKey, byte[] cardHash);
+
+    /**
+     * Stores the outcome unless a concurrent request with the same key
+     * stored one first.
+     *
+     * @param cardHash the lookup hash of the registered card.
+     */
+    void save(String owner, String idempotencyKey, byte[] cardHash, CardSaveResult result);
+}
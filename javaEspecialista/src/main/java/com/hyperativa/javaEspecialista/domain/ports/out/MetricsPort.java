@@ -1,6 +1,7 @@
 package com.hyperativa.javaEspecialista.domain.ports.out;
 
 import java.time.Duration;
+import java.util.function.IntSupplier;
 
 /**
  * Domain port for application metrics.
@@ -17,29 +18,71 @@ public interface MetricsPort {
 
     void recordCardLookup(boolean found);
 
+    void recordDetokenization(boolean found);
+
+    void incrementCardRegistrationReplay();
+
     // ── Cache Metrics ──
     void incrementCacheHit();
 
     void incrementCacheMiss();
 
+    void incrementCacheLegacyHit();
+
+    void incrementCacheLoadCoalesced();
+
     void recordCacheGetLatency(Duration duration);
 
     void recordCachePutLatency(Duration duration);
 
+    void incrementNearCacheHit();
+
+    void incrementNearCacheMiss();
+
+    void incrementNearCacheEviction();
+
+    void incrementPanCacheHit();
+
+    void incrementPanCacheMiss();
+
     // ── Crypto Metrics ──
     void recordCryptoEncryptLatency(Duration duration);
 
     void incrementCryptoFailure();
 
+    // ── Batch Metrics ──
+    void recordBatchStageLatency(String stage, Duration duration);
+
+    // ── Audit Metrics ──
+    void registerAuditQueueDepth(IntSupplier depth);
+
+    void incrementAuditEventsSpilled(int count);
+
+    void incrementAuditEventsDropped(int count);
+
     // ── Rate Limit Metrics ──
     void incrementRateLimit(boolean allowed, String clientId, String endpoint);
 
+    void incrementRateLimitLease(String outcome);
+
     // ── Auth Metrics ──
     void incrementLoginSuccess();
 
+    void incrementJwtCacheHit();
+
+    void incrementJwtCacheMiss();
+
     void incrementLoginFailure(String reason);
 
     void incrementUserRegistered(String role);
 
     void incrementUserRegistrationFailure(String reason);
+
+    void recordPasswordHashQueueWait(Duration duration);
+
+    void recordPasswordHashDuration(Duration duration);
+
+    void incrementPasswordHashRejected(String reason);
+
+    void incrementPasswordRehashed();
 }
@@ -0,0 +1,14 @@
+package com.hyperativa.javaEspecialista.domain.ports.out;
+
+import java.util.UUID;
+
+/**
+ * Source of the tokens that replace card numbers.
+ */
+public interface TokenGeneratorPort {
+
+    /**
+     * @return a new token, unique and not derivable from the card number.
+     */
+    UUID nextToken();
+}
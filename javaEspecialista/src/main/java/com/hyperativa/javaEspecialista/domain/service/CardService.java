@@ -1,20 +1,34 @@
 package com.hyperativa.javaEspecialista.domain.service;
 
-import com.hyperativa.javaEspecialista.domain.exception.DuplicateCardException;
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
 import com.hyperativa.javaEspecialista.domain.model.Card;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+import com.hyperativa.javaEspecialista.domain.ports.in.CardBatchInputPort;
 import com.hyperativa.javaEspecialista.domain.ports.in.CardInputPort;
 import com.hyperativa.javaEspecialista.audit.domain.port.out.AuditPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.BatchCheckpointPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.CardRepositoryPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.CryptoPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.DecryptedCardCachePort;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.SecurityPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.TokenGeneratorPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 /**
  * PCI DSS-compliant card tokenization service.
@@ -25,64 +39,158 @@ import java.util.UUID;
  * All operations are audited per PCI DSS Requirement 10.
  * </p>
  */
-public class CardService implements CardInputPort {
+public class CardService implements CardInputPort, CardBatchInputPort {
 
     private static final Logger log = LoggerFactory.getLogger(CardService.class);
 
+    /**
+     * Below this many cards to decrypt, the fork/join overhead of a parallel
+     * stream outweighs the AES-GCM work.
+     */
+    private static final int PARALLEL_DECRYPT_THRESHOLD = 64;
+
     private final CardRepositoryPort cardRepository;
     private final CryptoPort cryptoPort;
     private final MetricsPort metricsService;
     private final AuditPort auditPort;
     private final SecurityPort securityPort;
+    private final TokenGeneratorPort tokenGenerator;
+    private final DecryptedCardCachePort decryptedCardCache;
+    private final BatchCheckpointPort batchCheckpoints;
 
     public CardService(CardRepositoryPort cardRepository, CryptoPort cryptoPort,
-            MetricsPort metricsService, AuditPort auditPort, SecurityPort securityPort) {
+            MetricsPort metricsService, AuditPort auditPort, SecurityPort securityPort,
+            TokenGeneratorPort tokenGenerator, DecryptedCardCachePort decryptedCardCache,
+            BatchCheckpointPort batchCheckpoints) {
         this.cardRepository = cardRepository;
         this.cryptoPort = cryptoPort;
         this.metricsService = metricsService;
         this.auditPort = auditPort;
         this.securityPort = securityPort;
+        this.tokenGenerator = tokenGenerator;
+        this.decryptedCardCache = decryptedCardCache;
+        this.batchCheckpoints = batchCheckpoints;
     }
 
-    public UUID registerCard(String cardNumber) {
-        log.debug("Starting card registration process");
+    @Override
+    public CardSaveResult registerCard(String cardNumber) {
         Card.validate(cardNumber);
+        return register(cardNumber, cryptoPort.hash(cardNumber));
+    }
 
-        byte[] cardHash = cryptoPort.hash(cardNumber);
-        Optional<UUID> existingUuid = cardRepository.findUuidByHash(cardHash);
+    @Override
+    public CardSaveResult registerCard(String cardNumber, byte[] cardHash) {
+        Card.validate(cardNumber);
+        return register(cardNumber, cardHash);
+    }
+
+    @Override
+    public byte[] hash(String cardNumber) {
+        return cryptoPort.hash(cardNumber);
+    }
+
+    private CardSaveResult register(String cardNumber, byte[] cardHash) {
+        log.debug("Starting card registration process");
+        // A cached token answers a repeat registration before paying for the encryption. On a miss
+        // there is no database lookup: the upsert reports a duplicate atomically, which a separate check cannot
+        Optional<UUID> cached = cardRepository.findCachedUuid(cardHash);
+        CardSaveResult result;
+        if (cached.isPresent()) {
+            result = CardSaveResult.duplicateOf(cached.get());
+        } else {
+            byte[] iv = cryptoPort.generateIv();
+            result = cardRepository.saveOrGet(newCard(cardHash, iv, cryptoPort.encrypt(cardNumber, iv)));
+        }
 
-        if (existingUuid.isPresent()) {
-            log.info("Card already exists with Token: {}", existingUuid.get());
+        if (result.duplicate()) {
+            log.info("Card already exists with Token: {}", result.token());
             metricsService.incrementCardsAlreadyExists();
-            throw new DuplicateCardException(
-                    "Card already registered with Token: " + existingUuid.get());
+        } else {
+            metricsService.incrementCardsCreated();
+            auditPort.log(securityPort.getCurrentUser(), "CARD_REGISTERED", result.token().toString(),
+                    securityPort.getCurrentIp(), "SUCCESS", null);
+            log.info("New card tokenized successfully with token: {}", result.token());
+        }
+        return result;
+    }
+
+    @Override
+    public void validate(byte[] cardNumber) {
+        Card.validate(cardNumber, 0, cardNumber.length);
+    }
+
+    @Override
+    public byte[] hash(byte[] cardNumber) {
+        return cryptoPort.hash(cardNumber);
+    }
+
+    @Override
+    public List<Optional<UUID>> findRegistered(List<byte[]> cardHashes) {
+        List<Optional<UUID>> existing = cardRepository.findUuidsByHashes(cardHashes);
+        for (Optional<UUID> token : existing) {
+            token.ifPresent(uuid -> {
+                log.info("Card already exists with Token: {}", uuid);
+                metricsService.incrementCardsAlreadyExists();
+            });
         }
-        log.debug("Card is new, proceeding with encryption and saving");
+        return existing;
+    }
 
+    @Override
+    public Card tokenize(byte[] cardNumber, byte[] cardHash) {
         byte[] iv = cryptoPort.generateIv();
-        byte[] encryptedWithTag = cryptoPort.encrypt(cardNumber, iv);
+        return newCard(cardHash, iv, cryptoPort.encrypt(cardNumber, iv));
+    }
 
+    private Card newCard(byte[] cardHash, byte[] iv, byte[] encryptedWithTag) {
         int tagLength = 16;
         int cipherTextLength = encryptedWithTag.length - tagLength;
 
         byte[] encryptedCard = Arrays.copyOfRange(encryptedWithTag, 0, cipherTextLength);
         byte[] encryptionTag = Arrays.copyOfRange(encryptedWithTag, cipherTextLength, encryptedWithTag.length);
 
-        Card newCard = new Card(
-                UUID.randomUUID(),
+        return new Card(
+                tokenGenerator.nextToken(),
                 cardHash,
                 encryptedCard,
                 iv,
                 encryptionTag,
                 LocalDateTime.now());
+    }
+
+    @Override
+    public List<CardSaveResult> persistAll(List<Card> cards, BatchCheckpoint checkpoint) {
+        List<CardSaveResult> results = cardRepository.saveAll(cards, checkpoint);
+        String user = securityPort.getCurrentUser();
+        String ip = securityPort.getCurrentIp();
 
-        cardRepository.save(newCard);
-        metricsService.incrementCardsCreated();
-        auditPort.log(securityPort.getCurrentUser(), "CARD_REGISTERED", newCard.getUuid().toString(),
-                securityPort.getCurrentIp(), "SUCCESS",
-                null);
-        log.info("New card tokenized successfully with token: {}", newCard.getUuid());
-        return newCard.getUuid();
+        for (CardSaveResult result : results) {
+            if (result.duplicate()) {
+                log.info("Card already exists with Token: {}", result.token());
+                metricsService.incrementCardsAlreadyExists();
+            } else {
+                metricsService.incrementCardsCreated();
+                auditPort.log(user, "CARD_REGISTERED", result.token().toString(), ip, "SUCCESS", null);
+            }
+        }
+        log.debug("Persisted chunk of {} cards", cards.size());
+        return results;
+    }
+
+    @Override
+    public List<BatchCheckpoint> findCheckpoints(String lotId, long lotSize) {
+        List<BatchCheckpoint> checkpoints = batchCheckpoints.findByLot(lotId);
+        if (checkpoints.stream().allMatch(checkpoint -> checkpoint.sameLot(lotId, lotSize))) {
+            return checkpoints;
+        }
+        log.warn("Lot {} was resubmitted with different contents; discarding its checkpoints", lotId);
+        batchCheckpoints.deleteByLot(lotId);
+        return List.of();
+    }
+
+    @Override
+    public void completeLot(String lotId) {
+        batchCheckpoints.deleteByLot(lotId);
     }
 
     public Optional<UUID> findCardUuid(String cardNumber) {
@@ -102,12 +210,81 @@ public class CardService implements CardInputPort {
         return result;
     }
 
+    @Override
+    public Optional<String> detokenize(UUID token) {
+        return Optional.ofNullable(detokenize(List.of(token)).get(token));
+    }
+
+    /**
+     * Serves recently detokenized cards from the decrypted card cache, loads
+     * the others with a single query and decrypts them, in parallel for large
+     * batches. Each token is audited individually.
+     */
+    @Override
+    public Map<UUID, String> detokenize(Collection<UUID> tokens) {
+        // Misses keep a null placeholder so the result follows the request order
+        Map<UUID, String> cardNumbers = new LinkedHashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        for (UUID token : new LinkedHashSet<>(tokens)) {
+            String cached = decryptedCardCache.get(token);
+            cardNumbers.put(token, cached);
+            if (cached == null) {
+                misses.add(token);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            List<Card> cards = cardRepository.findByTokens(misses);
+            String[] decrypted = new String[cards.size()];
+            IntStream indexes = IntStream.range(0, cards.size());
+            if (cards.size() >= PARALLEL_DECRYPT_THRESHOLD) {
+                indexes = indexes.parallel();
+            }
+            indexes.forEach(i -> decrypted[i] = decrypt(cards.get(i)));
+            for (int i = 0; i < cards.size(); i++) {
+                cardNumbers.put(cards.get(i).getUuid(), decrypted[i]);
+            }
+        }
+
+        String user = securityPort.getCurrentUser();
+        String ip = securityPort.getCurrentIp();
+        for (Map.Entry<UUID, String> entry : cardNumbers.entrySet()) {
+            boolean found = entry.getValue() != null;
+            metricsService.recordDetokenization(found);
+            auditPort.log(user, "CARD_DETOKENIZED", entry.getKey().toString(), ip, found ? "SUCCESS" : "NOT_FOUND",
+                    null);
+        }
+        int requested = cardNumbers.size();
+        cardNumbers.values().removeIf(Objects::isNull);
+        log.info("Detokenized {} of {} tokens ({} decrypted)", cardNumbers.size(), requested, misses.size());
+        return cardNumbers;
+    }
+
+    /**
+     * Decrypts a card and hands the plaintext bytes over to the decrypted card
+     * cache, which wipes them on eviction.
+     */
+    private String decrypt(Card card) {
+        byte[] encryptedCard = card.getEncryptedCard();
+        byte[] encryptionTag = card.getEncryptionTag();
+        byte[] encryptedWithTag = Arrays.copyOf(encryptedCard, encryptedCard.length + encryptionTag.length);
+        System.arraycopy(encryptionTag, 0, encryptedWithTag, encryptedCard.length, encryptionTag.length);
+
+        byte[] cardNumber = cryptoPort.decryptToBytes(encryptedWithTag, card.getEncryptionIv());
+        String result = new String(cardNumber, StandardCharsets.US_ASCII);
+        decryptedCardCache.put(card.getUuid(), cardNumber);
+        return result;
+    }
+
     @Override
     public boolean deleteCard(String cardNumber) {
         log.debug("Processing card deletion request (LGPD Art. 18)");
         byte[] cardHash = cryptoPort.hash(cardNumber);
+        Optional<UUID> token = cardRepository.findUuidByHash(cardHash);
         boolean deleted = cardRepository.deleteByHash(cardHash);
         if (deleted) {
+            // Only once the row is gone, so a concurrent detokenization cannot cache the card again
+            token.ifPresent(uuid -> decryptedCardCache.invalidate(List.of(uuid)));
             auditPort.log(securityPort.getCurrentUser(), "CARD_DELETED", null, securityPort.getCurrentIp(), "SUCCESS",
                     "LGPD erasure request");
             log.info("Card data erased per LGPD Art. 18 request");
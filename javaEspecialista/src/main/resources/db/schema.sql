@@ -6,8 +6,8 @@ USE card_registry;
 
 CREATE TABLE cards ( id BIGINT NOT NULL AUTO_INCREMENT,
 
--- Identificador interno do sistema
-uuid CHAR(36) NOT NULL,
+-- Identificador interno do sistema (token UUID em 16 bytes)
+uuid BINARY (16) NOT NULL,
 
 -- Hash determinístico do cartão (HMAC-SHA-256)
 card_hash BINARY (32) NOT NULL,
@@ -0,0 +1,36 @@
+-- Leases up to ARGV[3] tokens from the token bucket stored at KEYS[1].
+--
+-- The bucket holds at most ARGV[1] tokens and refills completely every
+-- ARGV[2] milliseconds. Time comes from the Redis server, so every node
+-- shares the same clock.
+--
+-- Returns { granted, retryAfterMillis }; retryAfterMillis is only set when
+-- no token could be granted.
+local capacity = tonumber(ARGV[1])
+local period = tonumber(ARGV[2])
+local requested = tonumber(ARGV[3])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local rate = capacity / period
+
+local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(bucket[1])
+local ts = tonumber(bucket[2])
+if tokens == nil or ts == nil then
+    tokens = capacity
+    ts = now
+end
+
+tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate)
+local granted = math.min(requested, math.floor(tokens))
+tokens = tokens - granted
+
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) / rate) + 1000)
+
+local retryAfter = 0
+if granted == 0 then
+    retryAfter = math.ceil((1 - tokens) / rate)
+end
+return { granted, retryAfter }
@@ -0,0 +1,9 @@
+-- Writes the refresh token stored at KEYS[1] and expires it with the token.
+--
+-- ARGV[1] is the token's expiry in epoch milliseconds; the remaining
+-- arguments are field/value pairs. Fields not passed keep their value, so
+-- revoking a token leaves the family generation it was issued in untouched.
+-- An expiry in the past deletes the key straight away.
+redis.call('HSET', KEYS[1], unpack(ARGV, 2))
+redis.call('PEXPIREAT', KEYS[1], ARGV[1])
+return 1
@@ -1,42 +1,89 @@
 package com.hyperativa.javaEspecialista.adapters.in.file;
 
 import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchResponse;
-import com.hyperativa.javaEspecialista.domain.ports.in.CardInputPort;
+import com.hyperativa.javaEspecialista.domain.exception.BatchFileFormatException;
+import com.hyperativa.javaEspecialista.domain.exception.FileProcessingException;
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
+import com.hyperativa.javaEspecialista.domain.model.Card;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+import com.hyperativa.javaEspecialista.domain.ports.in.CardBatchInputPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BatchFileAdapterTest {
 
     @Mock
-    private CardInputPort cardInputPort;
+    private CardBatchInputPort cardBatchInputPort;
+
+    @Mock
+    private MetricsPort metricsService;
 
-    @InjectMocks
     private BatchFileAdapter batchFileAdapter;
 
+    @BeforeEach
+    void setUp() {
+        batchFileAdapter = new BatchFileAdapter(cardBatchInputPort, 2, 1, 2, 100, 2, metricsService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchFileAdapter.shutdown();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubPersistAll(String duplicateCardNumber, UUID existingToken) {
+        when(cardBatchInputPort.tokenize(any(), any())).thenAnswer(invocation -> new Card(UUID.randomUUID(),
+                invocation.getArgument(0, byte[].class), null, null, null, null));
+        when(cardBatchInputPort.persistAll(any(), any())).thenAnswer(invocation -> ((List<Card>) invocation
+                .getArgument(0))
+                .stream()
+                .map(card -> new String(card.getCardHash(), StandardCharsets.UTF_8).equals(duplicateCardNumber)
+                        ? CardSaveResult.duplicateOf(existingToken)
+                        : CardSaveResult.inserted(card.getUuid()))
+                .toList());
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
     @Test
     void processFile_ShouldProcessValidLinesAndSkipHeaderFooter() throws IOException {
         // Arrange
-        String content = "DESAFIO HEADER\n" +
+        String content = "DESAFIO-HYPERATIVA           20180524LOTE0001000002\n" +
                 "DATA   1234567890123452   REST\n" + // Valid card 1
                 "DATA   1234567890123452   REST\n" + // Valid card 2
-                "LOTE FOOTER\n" +
+                "LOTE0001000002\n" +
                 "SHORT\n" +
                 "\n";
 
         MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain",
                 content.getBytes(StandardCharsets.UTF_8));
+        stubPersistAll(null, null);
 
         // Act
         BatchResponse response = batchFileAdapter.processFile(file);
@@ -47,7 +94,10 @@ class BatchFileAdapterTest {
         assertEquals(2, response.successCount());
         assertEquals(0, response.failureCount());
         assertEquals(0, response.errors().size());
-        verify(cardInputPort, times(2)).registerCard("1234567890123452");
+        verify(cardBatchInputPort, times(2)).validate(any());
+        verify(cardBatchInputPort, times(2)).hash(any());
+        verify(cardBatchInputPort, times(2)).tokenize(any(), any());
+        verify(cardBatchInputPort, times(1)).persistAll(any(), any()); // both cards fit in a single chunk
     }
 
     @Test
@@ -57,8 +107,8 @@ class BatchFileAdapterTest {
         MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain",
                 content.getBytes(StandardCharsets.UTF_8));
 
-        when(cardInputPort.registerCard(anyString()))
-                .thenThrow(new com.hyperativa.javaEspecialista.domain.exception.CardValidationException("Luhn failed"));
+        doThrow(new com.hyperativa.javaEspecialista.domain.exception.CardValidationException("Luhn failed"))
+                .when(cardBatchInputPort).validate(any());
 
         // Act
         BatchResponse response = batchFileAdapter.processFile(file);
@@ -70,6 +120,7 @@ class BatchFileAdapterTest {
         assertEquals(1, response.errors().size());
         assertEquals("Luhn failed", response.errors().get(0).reason());
         assertEquals("****3452", response.errors().get(0).cardNumber());
+        verify(cardBatchInputPort, never()).persistAll(any(), any());
     }
 
     @Test
@@ -88,18 +139,286 @@ class BatchFileAdapterTest {
         assertEquals(1, response.failureCount());
         assertEquals(1, response.errors().size());
         assertEquals("Empty card number", response.errors().get(0).reason());
+        verifyNoInteractions(cardBatchInputPort);
+    }
+
+    @Test
+    void processFile_WhenDuplicateCard_ShouldRecordErrorAndContinue() throws IOException {
+        // Arrange
+        String content = "DATA   1234567890123452   REST\n" +
+                "DATA   4539578763621486   REST\n" +
+                "DATA   49927398716        REST\n";
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain",
+                content.getBytes(StandardCharsets.UTF_8));
+
+        UUID existingToken = UUID.randomUUID();
+        stubPersistAll("4539578763621486", existingToken);
+
+        // Act
+        BatchResponse response = batchFileAdapter.processFile(file);
+
+        // Assert
+        assertEquals(3, response.totalLinesProcessed());
+        assertEquals(2, response.successCount());
+        assertEquals(1, response.failureCount());
+        assertEquals(2, response.errors().get(0).lineNumber());
+        assertEquals("Card already registered with Token: " + existingToken, response.errors().get(0).reason());
+        assertEquals("****1486", response.errors().get(0).cardNumber());
+    }
+
+    @Test
+    void processFile_WhenCardAlreadyRegistered_ShouldSkipEncryption() throws IOException {
+        // Arrange
+        String content = "DATA   1234567890123452   REST\n" +
+                "DATA   4539578763621486   REST\n";
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain",
+                content.getBytes(StandardCharsets.UTF_8));
+
+        UUID existingToken = UUID.randomUUID();
+        when(cardBatchInputPort.hash(any())).thenAnswer(invocation -> invocation.getArgument(0, byte[].class).clone());
+        when(cardBatchInputPort.findRegistered(any()))
+                .thenReturn(List.of(Optional.empty(), Optional.of(existingToken)));
+        stubPersistAll(null, null);
+
+        // Act
+        BatchResponse response = batchFileAdapter.processFile(file);
+
+        // Assert
+        assertEquals(1, response.successCount());
+        assertEquals(1, response.failureCount());
+        assertEquals(2, response.errors().get(0).lineNumber());
+        assertEquals("Card already registered with Token: " + existingToken, response.errors().get(0).reason());
+        verify(cardBatchInputPort).tokenize(any(), aryEq(ascii("1234567890123452")));
+        verify(cardBatchInputPort, never()).tokenize(any(), aryEq(ascii("4539578763621486")));
+    }
+
+    @Test
+    void processFile_WhenChunkInsertFails_ShouldFailEveryLineOfThatChunk() throws IOException {
+        // Arrange
+        String content = "DATA   1234567890123452   REST\n" +
+                "DATA   4539578763621486   REST\n";
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain",
+                content.getBytes(StandardCharsets.UTF_8));
+
+        when(cardBatchInputPort.persistAll(any(), any()))
+                .thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act
+        BatchResponse response = batchFileAdapter.processFile(file);
+
+        // Assert
+        assertEquals(2, response.totalLinesProcessed());
+        assertEquals(0, response.successCount());
+        assertEquals(2, response.failureCount());
+        assertTrue(response.errors().stream().allMatch(error -> "Database unavailable".equals(error.reason())));
+    }
+
+    @Test
+    void processFile_WhenManyChunksFail_ShouldCountAllButReportErrorsInLineOrder() throws IOException {
+        // Arrange
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 9; i++) {
+            content.append("DATA   1234567890123452   REST\n");
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain",
+                content.toString().getBytes(StandardCharsets.UTF_8));
+        batchFileAdapter.shutdown();
+        batchFileAdapter = new BatchFileAdapter(cardBatchInputPort, 2, 1, 3, 5, 2, metricsService);
+
+        doThrow(new com.hyperativa.javaEspecialista.domain.exception.CardValidationException("Luhn failed"))
+                .when(cardBatchInputPort).validate(any());
+
+        // Act
+        BatchResponse response = batchFileAdapter.processFile(file);
+
+        // Assert
+        assertEquals(9, response.totalLinesProcessed());
+        assertEquals(0, response.successCount());
+        assertEquals(9, response.failureCount());
+        assertEquals(5, response.errors().size());
+        for (int i = 1; i < response.errors().size(); i++) {
+            assertTrue(response.errors().get(i - 1).lineNumber() < response.errors().get(i).lineNumber());
+        }
+    }
+
+    @Test
+    void processFile_ShouldRecordTimingsOfEveryStage() throws IOException {
+        // Arrange
+        String content = "DATA   1234567890123452   REST\n" +
+                "DATA   4539578763621486   REST\n";
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain",
+                content.getBytes(StandardCharsets.UTF_8));
+        stubPersistAll(null, null);
+
+        // Act
+        batchFileAdapter.processFile(file);
+
+        // Assert
+        for (String stage : List.of("validate", "hash", "dedupe", "encrypt", "persist")) {
+            verify(metricsService, atLeastOnce()).recordBatchStageLatency(eq(stage), any());
+        }
+    }
+
+    @Test
+    void processFile_WhenStageFailsUnexpectedly_ShouldCancelUpload() {
+        // Arrange
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            content.append("DATA   1234567890123452   REST\n");
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain",
+                content.toString().getBytes(StandardCharsets.UTF_8));
+        doThrow(new StackOverflowError()).when(cardBatchInputPort).validate(any());
+
+        // Act & Assert
+        FileProcessingException exception = assertThrows(FileProcessingException.class,
+                () -> batchFileAdapter.processFile(file));
+        assertInstanceOf(StackOverflowError.class, exception.getCause());
+        verify(cardBatchInputPort, never()).persistAll(any(), any());
     }
 
     @Test
     void processFile_WhenIOException_ShouldThrowRuntimeException() throws IOException {
         // Arrange
         MultipartFileMock file = mock(MultipartFileMock.class);
-        when(file.getInputStream()).thenThrow(new IOException("Read error"));
+        doThrow(new IOException("Read error")).when(file).transferTo(any(Path.class));
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> batchFileAdapter.processFile(file));
     }
 
+    @Test
+    void processFile_ShouldReadUnpaddedRecordsAndWipeThemAfterPersisting() {
+        // Arrange
+        String content = "DESAFIO-HYPERATIVA           20180524LOTE0001000002\r\n" +
+                "C1     4456897922969999\r\n" +
+                "C2     4456897999999999124\r\n" +
+                "LOTE0001000002\r\n";
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", ascii(content));
+        List<byte[]> received = new CopyOnWriteArrayList<>();
+        List<String> validated = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            byte[] cardNumber = invocation.getArgument(0, byte[].class);
+            received.add(cardNumber);
+            validated.add(new String(cardNumber, StandardCharsets.US_ASCII));
+            return null;
+        }).when(cardBatchInputPort).validate(any());
+        stubPersistAll(null, null);
+
+        // Act
+        BatchResponse response = batchFileAdapter.processFile(file);
+
+        // Assert
+        assertEquals(4, response.totalLinesProcessed());
+        assertEquals(2, response.successCount());
+        assertEquals(List.of("4456897922969999", "4456897999999999124"), validated);
+        assertTrue(received.stream().allMatch(cardNumber -> Arrays.equals(new byte[cardNumber.length], cardNumber)));
+    }
+
+    @Test
+    void processFile_WhenHeaderCountDoesNotMatch_ShouldRejectLotBeforeProcessingAnyCard() {
+        // Arrange
+        String content = "DESAFIO-HYPERATIVA           20180524LOTE0001000003\n" +
+                "C1     1234567890123452\n" +
+                "C2     4539578763621486\n" +
+                "LOTE0001000002\n";
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", ascii(content));
+
+        // Act
+        BatchFileFormatException exception = assertThrows(BatchFileFormatException.class,
+                () -> batchFileAdapter.processFile(file));
+
+        // Assert
+        assertEquals("Header of lot LOTE0001 declares 3 records but the lot contains 2", exception.getMessage());
+        verifyNoInteractions(cardBatchInputPort);
+    }
+
+    @Test
+    void processFile_WhenTrailerLotDoesNotMatchHeader_ShouldRejectLot() {
+        // Arrange
+        String content = "DESAFIO-HYPERATIVA           20180524LOTE0001000001\n" +
+                "C1     1234567890123452\n" +
+                "LOTE0002000001\n";
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", ascii(content));
+
+        // Act & Assert
+        BatchFileFormatException exception = assertThrows(BatchFileFormatException.class,
+                () -> batchFileAdapter.processFile(file));
+        assertEquals("Trailer lot LOTE0002 does not match header lot LOTE0001", exception.getMessage());
+        verifyNoInteractions(cardBatchInputPort);
+    }
+
+    @Test
+    void processFile_ShouldCheckpointEveryChunkOfALotWithHeader() {
+        // Arrange
+        String content = "DESAFIO-HYPERATIVA           20180524LOTE0001000003\n" +
+                "C1     4456897922969999\n" +
+                "C2     4539578763621486\n" +
+                "C3     1234567890123452\n" +
+                "LOTE0001000003\n";
+        long lotSize = ascii(content).length;
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", ascii(content));
+        stubPersistAll(null, null);
+
+        // Act
+        batchFileAdapter.processFile(file);
+
+        // Assert
+        verify(cardBatchInputPort).findCheckpoints("20180524LOTE0001", lotSize);
+        verify(cardBatchInputPort).persistAll(any(), eq(new BatchCheckpoint("20180524LOTE0001", lotSize, 2, 3)));
+        verify(cardBatchInputPort).persistAll(any(), eq(new BatchCheckpoint("20180524LOTE0001", lotSize, 4, 4)));
+        verify(cardBatchInputPort).completeLot("20180524LOTE0001");
+    }
+
+    @Test
+    void processFile_WhenLotWasInterrupted_ShouldSkipCommittedLines() {
+        // Arrange
+        String content = "DESAFIO-HYPERATIVA           20180524LOTE0001000004\n" +
+                "C1     4456897922969999\n" +
+                "C2     4539578763621486\n" +
+                "C3     1234567890123452\n" +
+                "C4     4111111111111111\n" +
+                "LOTE0001000004\n";
+        long lotSize = ascii(content).length;
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain", ascii(content));
+        // The persist worker of the second chunk committed before the one of the first
+        when(cardBatchInputPort.findCheckpoints("20180524LOTE0001", lotSize))
+                .thenReturn(List.of(new BatchCheckpoint("20180524LOTE0001", lotSize, 4, 5)));
+        List<String> validated = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            validated.add(new String(invocation.getArgument(0, byte[].class), StandardCharsets.US_ASCII));
+            return null;
+        }).when(cardBatchInputPort).validate(any());
+        stubPersistAll(null, null);
+
+        // Act
+        BatchResponse response = batchFileAdapter.processFile(file);
+
+        // Assert
+        assertEquals(6, response.totalLinesProcessed());
+        assertEquals(2, response.successCount());
+        assertEquals(2, response.resumedCount());
+        assertEquals(List.of("4456897922969999", "4539578763621486"), validated);
+        verify(cardBatchInputPort).persistAll(any(), eq(new BatchCheckpoint("20180524LOTE0001", lotSize, 2, 3)));
+        verify(cardBatchInputPort).completeLot("20180524LOTE0001");
+    }
+
+    @Test
+    void processFile_WithoutHeader_ShouldNotCheckpoint() {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "test.txt", "text/plain",
+                ascii("C1     4456897922969999\n"));
+        stubPersistAll(null, null);
+
+        // Act
+        batchFileAdapter.processFile(file);
+
+        // Assert
+        verify(cardBatchInputPort).persistAll(any(), isNull());
+        verify(cardBatchInputPort, never()).findCheckpoints(any(), anyLong());
+        verify(cardBatchInputPort, never()).completeLot(any());
+    }
+
     // Workaround for Mockito and MultipartFile.getInputStream()
     interface MultipartFileMock extends org.springframework.web.multipart.MultipartFile {
     }
@@ -0,0 +1,165 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchError;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchResponse;
+import com.hyperativa.javaEspecialista.domain.exception.BatchFileFormatException;
+import com.hyperativa.javaEspecialista.domain.model.BatchJob;
+import com.hyperativa.javaEspecialista.domain.model.BatchJobError;
+import com.hyperativa.javaEspecialista.domain.model.BatchJobStatus;
+import com.hyperativa.javaEspecialista.domain.ports.out.BatchJobPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchJobServiceTest {
+
+    private static final Path SPOOL = Path.of("desafio-lot-test.txt");
+
+    @Mock
+    private BatchFileAdapter batchFileAdapter;
+
+    @Mock
+    private BatchJobPort jobStore;
+
+    @Mock
+    private ScheduledExecutorService progressScheduler;
+
+    private ExecutorService jobExecutor;
+    private BatchJobService batchJobService;
+    private MockMultipartFile file;
+
+    @BeforeEach
+    void setUp() {
+        jobExecutor = Executors.newSingleThreadExecutor();
+        batchJobService = new BatchJobService(batchFileAdapter, jobStore, 1, Duration.ofSeconds(1), jobExecutor,
+                progressScheduler);
+        file = new MockMultipartFile("file", "lote.txt", "text/plain",
+                "DATA   1234567890123452   REST\n".getBytes(StandardCharsets.UTF_8));
+        when(batchFileAdapter.spool(file)).thenReturn(SPOOL);
+        when(jobStore.find(any())).thenAnswer(invocation -> Optional.of(new BatchJob(invocation.getArgument(0),
+                "alice", "lote.txt", BatchJobStatus.QUEUED, -1, 0, 0, 0, 0, Instant.now(), null, null, null,
+                null)));
+    }
+
+    private void awaitJobs() throws InterruptedException {
+        jobExecutor.shutdown();
+        assertTrue(jobExecutor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void submit_ShouldReturnQueuedJobAndProcessItInBackground() throws InterruptedException {
+        // Arrange
+        BatchResultCollector results = new BatchResultCollector(100, true);
+        BatchResponse response = new BatchResponse(1, 1, 0, List.of());
+        when(batchFileAdapter.newResults(true)).thenReturn(results);
+        when(batchFileAdapter.processLot(SPOOL, results)).thenReturn(response);
+
+        // Act
+        BatchJob job = batchJobService.submit(file, "alice");
+        awaitJobs();
+
+        // Assert
+        assertEquals(BatchJobStatus.QUEUED, job.status());
+        verify(jobStore).create(job.id(), "alice", "lote.txt");
+        verify(jobStore).started(job.id());
+        verify(jobStore).completed(job.id(), -1, 1, 1, 0, List.of());
+        verify(batchFileAdapter).deleteSpool(SPOOL);
+    }
+
+    @Test
+    void submit_WhenLotIsRejected_ShouldMarkJobFailedAndDeleteSpool() throws InterruptedException {
+        // Arrange
+        when(batchFileAdapter.newResults(true)).thenReturn(new BatchResultCollector(100, true));
+        when(batchFileAdapter.processLot(eq(SPOOL), any()))
+                .thenThrow(new BatchFileFormatException("Header declares 2 records but the lot has 1"));
+
+        // Act
+        BatchJob job = batchJobService.submit(file, "alice");
+        awaitJobs();
+
+        // Assert
+        verify(jobStore).failed(job.id(), 0, 0, "Header declares 2 records but the lot has 1");
+        verify(jobStore, never()).completed(any(), anyInt(), anyInt(), anyInt(), anyInt(), anyList());
+        verify(batchFileAdapter).deleteSpool(SPOOL);
+    }
+
+    @Test
+    void progress_ShouldPublishCountersAndNewErrorsUntilJobFinishes() throws InterruptedException {
+        // Arrange
+        BatchResultCollector results = new BatchResultCollector(100, true);
+        when(batchFileAdapter.newResults(true)).thenReturn(results);
+        ArgumentCaptor<Runnable> publisher = ArgumentCaptor.forClass(Runnable.class);
+        when(progressScheduler.scheduleWithFixedDelay(publisher.capture(), anyLong(), anyLong(), any()))
+                .thenReturn(null);
+        when(batchFileAdapter.processLot(eq(SPOOL), any())).thenAnswer(invocation -> {
+            results.expectedCards(2);
+            results.success();
+            results.failure(new CardLine(3, new byte[0]), "****", "Empty card number");
+            publisher.getValue().run();
+            publisher.getValue().run();
+            return new BatchResponse(4, 1, 1, List.of(new BatchError(3, "****", "Empty card number")));
+        });
+
+        // Act
+        BatchJob job = batchJobService.submit(file, "alice");
+        awaitJobs();
+        publisher.getValue().run();
+
+        // Assert
+        verify(jobStore).progress(job.id(), 2, 1, 1, List.of(new BatchJobError(3, "****", "Empty card number")));
+        verify(jobStore).progress(job.id(), 2, 1, 1, List.of());
+        verify(jobStore).completed(eq(job.id()), eq(2), eq(4), eq(1), eq(1),
+                eq(List.of(new BatchJobError(3, "****", "Empty card number"))));
+        verify(jobStore, times(2)).progress(any(), anyInt(), anyInt(), anyInt(), anyList());
+    }
+
+    @Test
+    void touch_ShouldKeepQueuedJobsAliveUntilTheyStart() {
+        // Arrange
+        ExecutorService idleExecutor = mock(ExecutorService.class);
+        BatchJobService service = new BatchJobService(batchFileAdapter, jobStore, 1, Duration.ofSeconds(1),
+                idleExecutor, progressScheduler);
+        ArgumentCaptor<Runnable> heartbeat = ArgumentCaptor.forClass(Runnable.class);
+        verify(progressScheduler, times(2)).scheduleWithFixedDelay(heartbeat.capture(), eq(1000L), eq(1000L),
+                eq(TimeUnit.MILLISECONDS));
+        ArgumentCaptor<Runnable> job = ArgumentCaptor.forClass(Runnable.class);
+        when(batchFileAdapter.newResults(true)).thenReturn(new BatchResultCollector(100, true));
+        when(batchFileAdapter.processLot(eq(SPOOL), any())).thenReturn(new BatchResponse(1, 1, 0, List.of()));
+
+        // Act
+        BatchJob queued = service.submit(file, "alice");
+        heartbeat.getValue().run();
+        verify(idleExecutor).execute(job.capture());
+        job.getValue().run();
+        heartbeat.getValue().run();
+
+        // Assert
+        verify(jobStore, times(1)).touch(Set.of(queued.id()));
+        verify(jobStore, times(1)).touch(any());
+    }
+}
@@ -0,0 +1,125 @@
+package com.hyperativa.javaEspecialista.adapters.in.file;
+
+import com.hyperativa.javaEspecialista.domain.exception.BatchFileFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DesafioLotParserTest {
+
+    private static final String HEADER = "DESAFIO-HYPERATIVA           20180524LOTE0001000002";
+
+    private static DesafioLotParser parser(String content) {
+        return new DesafioLotParser(ByteBuffer.wrap(content.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void parse_ShouldExtractCardNumbersWithLineNumbers() throws InterruptedException {
+        // Arrange
+        DesafioLotParser parser = parser(HEADER + "\n" +
+                "C1     4456897922969999                               \n" +
+                "\n" +
+                "C2     4456897999999999124\n" +
+                "LOTE0001000002");
+        List<String> records = new ArrayList<>();
+
+        // Act
+        int verified = parser.verify();
+        int lines = parser.parse((lineNumber, cardNumber) -> records.add(
+                lineNumber + ":" + new String(cardNumber, StandardCharsets.US_ASCII)));
+
+        // Assert
+        assertEquals(2, verified);
+        assertEquals(5, lines);
+        assertEquals(List.of("2:4456897922969999", "4:4456897999999999124"), records);
+    }
+
+    @Test
+    void parse_ShouldIgnoreColumnsAfterTheCardNumber() throws InterruptedException {
+        // Arrange
+        DesafioLotParser parser = parser("C1     4456897922969999   // comment\r\n");
+        List<String> records = new ArrayList<>();
+
+        // Act
+        parser.parse((lineNumber, cardNumber) -> records.add(new String(cardNumber, StandardCharsets.US_ASCII)));
+
+        // Assert
+        assertEquals(List.of("4456897922969999"), records);
+    }
+
+    @Test
+    void verify_WithoutHeaderOrTrailer_ShouldOnlyCountRecords() {
+        // Act & Assert
+        assertEquals(2, parser("C1     1234567890123452\nC2     4539578763621486\n").verify());
+        assertEquals(0, parser("").verify());
+    }
+
+    @Test
+    void verify_WhenHeaderCountDoesNotMatch_ShouldThrow() {
+        // Arrange
+        DesafioLotParser parser = parser(HEADER + "\nC1     1234567890123452\nLOTE0001000001\n");
+
+        // Act & Assert
+        BatchFileFormatException exception = assertThrows(BatchFileFormatException.class, parser::verify);
+        assertEquals("Header of lot LOTE0001 declares 2 records but the lot contains 1", exception.getMessage());
+    }
+
+    @Test
+    void verify_WhenTrailerCountDoesNotMatch_ShouldThrow() {
+        // Arrange
+        DesafioLotParser parser = parser("C1     1234567890123452\nLOTE0001000002\n");
+
+        // Act & Assert
+        BatchFileFormatException exception = assertThrows(BatchFileFormatException.class, parser::verify);
+        assertEquals("Trailer declares 2 records but the lot contains 1", exception.getMessage());
+    }
+
+    @Test
+    void verify_WhenTrailerIsMissing_ShouldThrow() {
+        // Arrange
+        DesafioLotParser parser = parser(HEADER + "\nC1     1234567890123452\nC2     4539578763621486\n");
+
+        // Act & Assert
+        BatchFileFormatException exception = assertThrows(BatchFileFormatException.class, parser::verify);
+        assertEquals("Lot LOTE0001 has no trailer", exception.getMessage());
+    }
+
+    @Test
+    void verify_WhenHeaderIsMalformed_ShouldThrow() {
+        // Act & Assert
+        assertThrows(BatchFileFormatException.class, () -> parser("DESAFIO HEADER\nLOTE0001000000\n").verify());
+        assertThrows(BatchFileFormatException.class,
+                () -> parser("DESAFIO-HYPERATIVA           20180524LOTE000100000X\nLOTE0001000000\n").verify());
+    }
+
+    @Test
+    void verify_WhenRecordFollowsTrailer_ShouldThrow() {
+        // Arrange
+        DesafioLotParser parser = parser("LOTE0001000000\nC1     1234567890123452\n");
+
+        // Act & Assert
+        BatchFileFormatException exception = assertThrows(BatchFileFormatException.class, parser::verify);
+        assertEquals("Record at line 2 comes after the lot trailer at line 1", exception.getMessage());
+    }
+
+    @Test
+    void lotId_ShouldCombineHeaderDateAndLotNumber() {
+        // Arrange
+        DesafioLotParser withHeader = parser(HEADER.replace("000002", "000000") + "\nLOTE0001000000\n");
+        DesafioLotParser withoutHeader = parser("C1     1234567890123452\n");
+
+        // Act
+        withHeader.verify();
+        withoutHeader.verify();
+
+        // Assert
+        assertEquals("20180524LOTE0001", withHeader.lotId());
+        assertNull(withoutHeader.lotId());
+        assertThrows(IllegalStateException.class, () -> parser(HEADER).lotId());
+    }
+}
@@ -1,14 +1,23 @@
 package com.hyperativa.javaEspecialista.adapters.in.web;
 
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.repository.AuditLogJdbcRepository;
 import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.repository.AuditLogRepository;
 import com.hyperativa.javaEspecialista.auth.adapters.out.persistence.repo.UserRepository;
 import com.hyperativa.javaEspecialista.auth.adapters.out.persistence.repository.RefreshTokenRepository;
@@ -17,7 +26,11 @@ import java.io.PrintWriter;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.logging.Logger;
@@ -48,13 +61,22 @@ import org.springframework.web.context.WebApplicationContext;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hyperativa.javaEspecialista.adapters.in.file.BatchFileAdapter;
+import com.hyperativa.javaEspecialista.adapters.in.file.BatchJobService;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchDetokenizeRequest;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchError;
 import com.hyperativa.javaEspecialista.adapters.in.web.dto.BatchResponse;
 import com.hyperativa.javaEspecialista.adapters.in.web.dto.CardRequest;
+import com.hyperativa.javaEspecialista.adapters.in.web.dto.DetokenizeRequest;
 import com.hyperativa.javaEspecialista.adapters.in.web.exception.GlobalExceptionHandler;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.CardJdbcRepository;
 import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.CardRepository;
 import com.hyperativa.javaEspecialista.domain.exception.CardValidationException;
-import com.hyperativa.javaEspecialista.domain.exception.DuplicateCardException;
+import com.hyperativa.javaEspecialista.domain.model.BatchJob;
+import com.hyperativa.javaEspecialista.domain.model.BatchJobStatus;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+import com.hyperativa.javaEspecialista.domain.model.IdempotentRegistration;
 import com.hyperativa.javaEspecialista.domain.ports.in.CardInputPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.IdempotencyPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 
 @SpringBootTest(properties = {
@@ -65,6 +87,7 @@ import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
         "spring.liquibase.enabled=false",
         "spring.data.redis.repositories.enabled=false",
         "management.health.redis.enabled=false",
+        "app.cache.invalidation.enabled=false",
         "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration,org.springframework.boot.autoconfigure.data.jdbc.JdbcRepositoriesAutoConfiguration,org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration,org.springframework.boot.actuate.autoconfigure.data.redis.RedisReactiveHealthContributorAutoConfiguration,org.springframework.boot.data.redis.autoconfigure.health.DataRedisReactiveHealthContributorAutoConfiguration,org.springframework.boot.autoconfigure.data.jdbc.DataJdbcRepositoriesAutoConfiguration,org.springframework.boot.data.redis.autoconfigure.DataRedisReactiveAutoConfiguration"
 })
 @ActiveProfiles("test")
@@ -74,6 +97,9 @@ class CardControllerTest {
     @MockitoBean
     private CardRepository cardRepository;
 
+    @MockitoBean
+    private CardJdbcRepository cardJdbcRepository;
+
     @MockitoBean
     private UserRepository userRepository;
 
@@ -83,6 +109,9 @@ class CardControllerTest {
     @MockitoBean
     private AuditLogRepository auditLogRepository;
 
+    @MockitoBean
+    private AuditLogJdbcRepository auditLogJdbcRepository;
+
     @MockitoBean
     private JdbcAggregateOperations jdbcAggregateOperations;
 
@@ -97,6 +126,12 @@ class CardControllerTest {
     @MockitoBean
     private BatchFileAdapter batchFileAdapter;
 
+    @MockitoBean
+    private BatchJobService batchJobService;
+
+    @MockitoBean
+    private IdempotencyPort idempotencyPort;
+
     @MockitoBean
     private MetricsPort metricsService;
 
@@ -127,31 +162,115 @@ class CardControllerTest {
     void registerCard_ShouldReturnCreated() throws Exception {
         UUID uuid = UUID.randomUUID();
         CardRequest request = new CardRequest("1234567890123452");
-        when(cardInputPort.registerCard(anyString())).thenReturn(uuid);
+        when(cardInputPort.registerCard(anyString())).thenReturn(CardSaveResult.inserted(uuid));
 
         mockMvc.perform(post("/api/v1/cards")
                 .with(csrf())
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.token").value(uuid.toString()));
+        verifyNoInteractions(idempotencyPort);
+    }
+
+    @Test
+    @WithMockUser
+    void registerCard_WhenCardExists_ShouldReturnExistingToken() throws Exception {
+        UUID existing = UUID.randomUUID();
+        CardRequest request = new CardRequest("1234567890123452");
+        when(cardInputPort.registerCard(anyString())).thenReturn(CardSaveResult.duplicateOf(existing));
+
+        mockMvc.perform(post("/api/v1/cards")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value(existing.toString()));
+    }
+
+    private static final byte[] CARD_HASH = new byte[32];
+
+    @Test
+    @WithMockUser(username = "alice")
+    void registerCard_WithIdempotencyKey_ShouldHashOnceAndStoreResult() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        CardRequest request = new CardRequest("1234567890123452");
+        CardSaveResult result = CardSaveResult.inserted(uuid);
+        when(cardInputPort.hash("1234567890123452")).thenReturn(CARD_HASH);
+        when(idempotencyPort.find("alice", "order-42", CARD_HASH)).thenReturn(Optional.empty());
+        when(cardInputPort.registerCard("1234567890123452", CARD_HASH)).thenReturn(result);
+
+        mockMvc.perform(post("/api/v1/cards")
+                .with(csrf())
+                .header("Idempotency-Key", "order-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.token").value(uuid.toString()));
+        verify(idempotencyPort).save("alice", "order-42", CARD_HASH, result);
+        verify(cardInputPort).hash(anyString());
+    }
+
+    @Test
+    @WithMockUser(username = "alice")
+    void registerCard_WhenIdempotencyKeyWasSeen_ShouldReplayWithoutRegistering() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        CardRequest request = new CardRequest("1234567890123452");
+        when(cardInputPort.hash("1234567890123452")).thenReturn(CARD_HASH);
+        when(idempotencyPort.find("alice", "order-42", CARD_HASH))
+                .thenReturn(Optional.of(new IdempotentRegistration(uuid, true, true)));
+
+        mockMvc.perform(post("/api/v1/cards")
+                .with(csrf())
+                .header("Idempotency-Key", "order-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
                 .andExpect(jsonPath("$.token").value(uuid.toString()));
+        verify(cardInputPort, never()).registerCard(anyString(), any());
+        verify(metricsService).incrementCardRegistrationReplay();
+    }
+
+    @Test
+    @WithMockUser(username = "alice")
+    void registerCard_WhenIdempotencyKeyWasUsedForAnotherCard_ShouldReturnUnprocessableEntity() throws Exception {
+        CardRequest request = new CardRequest("1234567890123452");
+        when(cardInputPort.hash("1234567890123452")).thenReturn(CARD_HASH);
+        when(idempotencyPort.find("alice", "order-42", CARD_HASH))
+                .thenReturn(Optional.of(new IdempotentRegistration(UUID.randomUUID(), true, false)));
+
+        mockMvc.perform(post("/api/v1/cards")
+                .with(csrf())
+                .header("Idempotency-Key", "order-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.title").value("Idempotency Key Reused"));
+        verify(cardInputPort, never()).registerCard(anyString(), any());
     }
 
     @Test
     @WithMockUser
-    void registerCard_WhenCardExists_ShouldReturnConflict() throws Exception {
+    void registerCard_WhenIdempotencyKeyIsMalformed_ShouldReturnBadRequest() throws Exception {
         CardRequest request = new CardRequest("1234567890123452");
-        when(cardInputPort.registerCard(anyString()))
-                .thenThrow(new DuplicateCardException(
-                        "Card already registered"));
 
         mockMvc.perform(post("/api/v1/cards")
                 .with(csrf())
+                .header("Idempotency-Key", "order:42")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isConflict())
-                .andExpect(jsonPath("$.title").value("Card Already Registered"));
+                .andExpect(status().isBadRequest());
+        verify(idempotencyPort, never()).find(any(), any(), any());
+        verifyNoInteractions(cardInputPort);
+    }
+
+    @Test
+    void checkIdempotencyKey_ShouldRejectKeysOutsideTheAllowedAlphabet() {
+        assertDoesNotThrow(() -> CardController.checkIdempotencyKey("3f2a-9c_41"));
+        assertThrows(IllegalArgumentException.class, () -> CardController.checkIdempotencyKey("order:42"));
+        assertThrows(IllegalArgumentException.class, () -> CardController.checkIdempotencyKey(""));
+        assertThrows(IllegalArgumentException.class, () -> CardController.checkIdempotencyKey("k".repeat(65)));
     }
 
     @Test
@@ -181,6 +300,73 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.totalLinesProcessed").value(10));
     }
 
+    private static BatchJob runningJob(UUID id, String owner) {
+        Instant startedAt = Instant.parse("2026-01-01T10:00:00Z");
+        return new BatchJob(id, owner, "lote.txt", BatchJobStatus.RUNNING, 1000, 0, 398, 2, 2,
+                startedAt, startedAt, startedAt.plusSeconds(2), null, null);
+    }
+
+    @Test
+    @WithMockUser(username = "alice")
+    void submitBatch_ShouldReturnAcceptedWithJobLocation() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        MockMultipartFile file = new MockMultipartFile("file", "lote.txt", "text/plain", "data".getBytes());
+        when(batchJobService.submit(any(), eq("alice")))
+                .thenReturn(new BatchJob(jobId, "alice", "lote.txt", BatchJobStatus.QUEUED, -1, 0, 0, 0, 0,
+                        Instant.now(), null, null, null, null));
+
+        mockMvc.perform(multipart("/api/v1/cards/batches")
+                .file(file)
+                .with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/cards/batches/" + jobId))
+                .andExpect(jsonPath("$.jobId").value(jobId.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    @WithMockUser(username = "alice")
+    void getBatch_WhenOwner_ShouldReturnProgressAndErrorPage() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(batchJobService.find(jobId)).thenReturn(Optional.of(runningJob(jobId, "alice")));
+        when(batchJobService.errors(jobId, 1, 1))
+                .thenReturn(List.of(new BatchError(7, "****1234", "Invalid card number")));
+
+        mockMvc.perform(get("/api/v1/cards/batches/{jobId}", jobId)
+                .param("page", "1")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.expectedCards").value(1000))
+                .andExpect(jsonPath("$.successCount").value(398))
+                .andExpect(jsonPath("$.failureCount").value(2))
+                .andExpect(jsonPath("$.cardsPerSecond").value(200.0))
+                .andExpect(jsonPath("$.errorCount").value(2))
+                .andExpect(jsonPath("$.errors[0].lineNumber").value(7));
+    }
+
+    @Test
+    @WithMockUser(username = "bob")
+    void getBatch_WhenAnotherUsersJob_ShouldReturnNotFound() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(batchJobService.find(jobId)).thenReturn(Optional.of(runningJob(jobId, "alice")));
+
+        mockMvc.perform(get("/api/v1/cards/batches/{jobId}", jobId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(username = "ops", authorities = "SCOPE_ADMIN")
+    void getBatch_WhenAdmin_ShouldReturnAnyJob() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(batchJobService.find(jobId)).thenReturn(Optional.of(runningJob(jobId, "alice")));
+        when(batchJobService.errors(jobId, 0, 100)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/v1/cards/batches/{jobId}", jobId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jobId").value(jobId.toString()));
+    }
+
     @TestConfiguration
     static class TestConfig {
 
@@ -331,4 +517,77 @@ class CardControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    @Test
+    @WithMockUser(authorities = "SCOPE_ADMIN")
+    void detokenize_WhenAdminAndExists_ShouldReturnCardNumberWithoutCaching() throws Exception {
+        UUID token = UUID.randomUUID();
+        when(cardInputPort.detokenize(token)).thenReturn(Optional.of("1234567890123452"));
+
+        mockMvc.perform(post("/api/v1/cards/detokenize")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DetokenizeRequest(token))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.token").value(token.toString()))
+                .andExpect(jsonPath("$.cardNumber").value("1234567890123452"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_ADMIN")
+    void detokenize_WhenAdminAndNotFound_ShouldReturnNotFound() throws Exception {
+        UUID token = UUID.randomUUID();
+        when(cardInputPort.detokenize(token)).thenReturn(Optional.empty());
+
+        mockMvc.perform(post("/api/v1/cards/detokenize")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DetokenizeRequest(token))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_USER")
+    void detokenize_WhenNotAdmin_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/cards/detokenize")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new DetokenizeRequest(UUID.randomUUID()))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_ADMIN")
+    void detokenizeBatch_ShouldReturnFoundCardsAndUnknownTokens() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<UUID> tokens = List.of(first, unknown, second);
+        Map<UUID, String> cardNumbers = new LinkedHashMap<>();
+        cardNumbers.put(first, "1234567890123452");
+        cardNumbers.put(second, "4539578763621486");
+        when(cardInputPort.detokenize(tokens)).thenReturn(cardNumbers);
+
+        mockMvc.perform(post("/api/v1/cards/detokenize/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchDetokenizeRequest(tokens))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andExpect(jsonPath("$.cards[0].token").value(first.toString()))
+                .andExpect(jsonPath("$.cards[0].cardNumber").value("1234567890123452"))
+                .andExpect(jsonPath("$.cards[1].token").value(second.toString()))
+                .andExpect(jsonPath("$.notFound[0]").value(unknown.toString()));
+    }
+
+    @Test
+    @WithMockUser(authorities = "SCOPE_ADMIN")
+    void detokenizeBatch_WhenEmpty_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/cards/detokenize/batch")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BatchDetokenizeRequest(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
 }
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -20,8 +21,12 @@ import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +37,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * 2. Login and receive JWT token
  * 3. Register a card (tokenize)
  * 4. Look up the card token
+ * 5. Register the card again, then retry a registration with an Idempotency-Key
  */
 @SpringBootTest(properties = {
                 "ENCRYPTION_KEY=12345678901234567890123456789012",
@@ -127,12 +133,102 @@ class CardFlowIT {
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.token").value(cardToken));
 
-                // Step 5: Registering the same card returns 409 Conflict
+                // Step 5: Registering the same card returns 200 with the existing token
                 mockMvc.perform(post("/api/v1/cards")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .header("Authorization", "Bearer " + token)
                                 .content(cardJson))
-                                .andExpect(status().isConflict())
-                                .andExpect(jsonPath("$.title").value("Card Already Registered"));
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.token").value(cardToken));
+
+                // Step 6: A retry with the same Idempotency-Key replays the first response
+                String newCardJson = """
+                                {"cardNumber": "4012888888881881"}
+                                """;
+
+                MvcResult keyedResult = mockMvc.perform(post("/api/v1/cards")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + token)
+                                .header("Idempotency-Key", "flow-retry-1")
+                                .content(newCardJson))
+                                .andExpect(status().isCreated())
+                                .andReturn();
+                String keyedToken = objectMapper.readTree(keyedResult.getResponse().getContentAsString())
+                                .get("token").asText();
+
+                mockMvc.perform(post("/api/v1/cards")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + token)
+                                .header("Idempotency-Key", "flow-retry-1")
+                                .content(newCardJson))
+                                .andExpect(status().isCreated())
+                                .andExpect(header().string("Idempotent-Replayed", "true"))
+                                .andExpect(jsonPath("$.token").value(keyedToken));
+
+                // Step 7: Reusing the key for a different card is rejected
+                mockMvc.perform(post("/api/v1/cards")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .header("Authorization", "Bearer " + token)
+                                .header("Idempotency-Key", "flow-retry-1")
+                                .content(cardJson))
+                                .andExpect(status().isUnprocessableEntity());
+        }
+
+        @Test
+        void asyncBatch_SubmitLot_PollUntilCompleted() throws Exception {
+                // Step 1: Register user and login
+                String credentialsJson = """
+                                {"username": "batchuser", "password": "BatchPass1!xy"}
+                                """;
+
+                mockMvc.perform(post("/api/v1/auth/register")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(credentialsJson))
+                                .andExpect(status().isCreated());
+
+                MvcResult loginResult = mockMvc.perform(post("/api/v1/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(credentialsJson))
+                                .andExpect(status().isOk())
+                                .andReturn();
+                String token = objectMapper.readTree(loginResult.getResponse().getContentAsString())
+                                .get("accessToken").asText();
+
+                // Step 2: Submit the lot; the job id comes back before processing
+                String lot = "DESAFIO-HYPERATIVA           20180524LOTE0001000002\n" +
+                                "C1     4111111111111111\n" +
+                                "C2     5105105105105100\n" +
+                                "LOTE0001000002\n";
+                MockMultipartFile file = new MockMultipartFile("file", "lote.txt", "text/plain", lot.getBytes());
+
+                MvcResult submitResult = mockMvc.perform(multipart("/api/v1/cards/batches")
+                                .file(file)
+                                .header("Authorization", "Bearer " + token))
+                                .andExpect(status().isAccepted())
+                                .andExpect(header().exists("Location"))
+                                .andReturn();
+                String jobId = objectMapper.readTree(submitResult.getResponse().getContentAsString())
+                                .get("jobId").asText();
+
+                // Step 3: Poll until the job has finished
+                JsonNode job = null;
+                for (int attempt = 0; attempt < 50; attempt++) {
+                        MvcResult pollResult = mockMvc.perform(get("/api/v1/cards/batches/{jobId}", jobId)
+                                        .header("Authorization", "Bearer " + token))
+                                        .andExpect(status().isOk())
+                                        .andReturn();
+                        job = objectMapper.readTree(pollResult.getResponse().getContentAsString());
+                        String jobStatus = job.get("status").asText();
+                        if ("COMPLETED".equals(jobStatus) || "FAILED".equals(jobStatus)) {
+                                break;
+                        }
+                        Thread.sleep(200);
+                }
+
+                assertEquals("COMPLETED", job.get("status").asText());
+                assertEquals(2, job.get("expectedCards").asInt());
+                assertEquals(4, job.get("totalLinesProcessed").asInt());
+                assertEquals(2, job.get("successCount").asInt());
+                assertEquals(0, job.get("failureCount").asInt());
         }
 }
@@ -79,7 +79,7 @@ class MetricsIT {
                 mockMvc.perform(post("/api/v1/cards").with(jwt())
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .content("{\"cardNumber\": \"" + validCard + "\"}"))
-                                .andExpect(status().isConflict());
+                                .andExpect(status().isOk());
 
                 mockMvc.perform(post("/api/v1/cards").with(jwt())
                                 .contentType(MediaType.APPLICATION_JSON)
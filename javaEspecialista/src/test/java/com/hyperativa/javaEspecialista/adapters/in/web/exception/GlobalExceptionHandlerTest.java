@@ -1,8 +1,9 @@
 package com.hyperativa.javaEspecialista.adapters.in.web.exception;
 
+import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationBusyException;
 import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationException;
+import com.hyperativa.javaEspecialista.domain.exception.BatchFileFormatException;
 import com.hyperativa.javaEspecialista.domain.exception.CardValidationException;
-import com.hyperativa.javaEspecialista.domain.exception.DuplicateCardException;
 import com.hyperativa.javaEspecialista.domain.exception.UsernameAlreadyExistsException;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,8 +11,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.BindingResult;
@@ -63,15 +66,28 @@ class GlobalExceptionHandlerTest {
     }
 
     @Test
-    void handleDuplicateCard_ShouldReturnConflict() {
-        DuplicateCardException ex = new DuplicateCardException("Card exists");
+    void handleIdempotencyKeyReused_ShouldReturnUnprocessableEntity() {
+        IdempotencyKeyReusedException ex = new IdempotencyKeyReusedException();
 
-        ProblemDetail problem = exceptionHandler.handleDuplicateCard(ex);
+        ProblemDetail problem = exceptionHandler.handleIdempotencyKeyReused(ex);
 
-        assertEquals(HttpStatus.CONFLICT.value(), problem.getStatus());
-        assertEquals("Card exists", problem.getDetail());
-        assertEquals("Card Already Registered", problem.getTitle());
-        assertEquals(URI.create("https://hyperativa.com.br/errors/duplicate-card"), problem.getType());
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY.value(), problem.getStatus());
+        assertEquals("Idempotency-Key was already used to register a different card", problem.getDetail());
+        assertEquals("Idempotency Key Reused", problem.getTitle());
+        assertEquals(URI.create("https://hyperativa.com.br/errors/idempotency-key-reused"), problem.getType());
+    }
+
+    @Test
+    void handleBatchFileFormat_ShouldReturnBadRequest() {
+        BatchFileFormatException ex = new BatchFileFormatException("Lot LOTE0001 has no trailer");
+
+        ProblemDetail problem = exceptionHandler.handleBatchFileFormat(ex);
+
+        assertEquals(HttpStatus.BAD_REQUEST.value(), problem.getStatus());
+        assertEquals("Lot LOTE0001 has no trailer", problem.getDetail());
+        assertEquals("Invalid Batch File", problem.getTitle());
+        assertEquals(URI.create("https://hyperativa.com.br/errors/batch-file-format"), problem.getType());
+        verifyNoInteractions(metricsService);
     }
 
     @Test
@@ -118,6 +134,18 @@ class GlobalExceptionHandlerTest {
         assertEquals(URI.create("https://hyperativa.com.br/errors/unauthorized"), problem.getType());
     }
 
+    @Test
+    void handleAuthenticationBusy_ShouldReturnServiceUnavailableWithRetryAfter() {
+        AuthenticationBusyException ex = new AuthenticationBusyException("Password hashing queue is full");
+
+        ResponseEntity<ProblemDetail> response = exceptionHandler.handleAuthenticationBusy(ex);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("Service Unavailable", response.getBody().getTitle());
+        assertEquals(URI.create("https://hyperativa.com.br/errors/service-unavailable"), response.getBody().getType());
+    }
+
     @Test
     void handleBadCredentials_ShouldReturnUnauthorized() {
         BadCredentialsException ex = new BadCredentialsException("Bad creds");
@@ -1,5 +1,6 @@
 package com.hyperativa.javaEspecialista.adapters.in.web.filter;
 
+import com.hyperativa.javaEspecialista.config.RateLimitProperties;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -12,13 +13,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.http.HttpStatus;
 
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.time.Duration;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -27,10 +27,7 @@ import static org.mockito.Mockito.*;
 class RateLimitFilterTest {
 
     @Mock
-    private StringRedisTemplate redisTemplate;
-
-    @Mock
-    private ValueOperations<String, String> valueOperations;
+    private TokenBucketRateLimiter rateLimiter;
 
     @Mock
     private MetricsPort metricsService;
@@ -45,51 +42,56 @@ class RateLimitFilterTest {
     private FilterChain chain;
 
     private RateLimitFilter rateLimitFilter;
-    private final int limitPerMinute = 2;
 
     @BeforeEach
     void setUp() {
-        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        rateLimitFilter = new RateLimitFilter(redisTemplate, metricsService, limitPerMinute);
+        RateLimitProperties properties = new RateLimitProperties(100,
+                List.of(new RateLimitProperties.Route("/api/v1/auth/login", 10),
+                        new RateLimitProperties.Route("/api/v1/cards/**", 50)),
+                20, Duration.ofSeconds(5), 1000);
+        rateLimitFilter = new RateLimitFilter(rateLimiter, metricsService, properties);
     }
 
     @Test
     void shouldAllowRequestWhenUnderLimit() throws ServletException, IOException {
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
         when(request.getRequestURI()).thenReturn("/api/test");
-        when(valueOperations.increment(anyString())).thenReturn(1L);
+        when(rateLimiter.tryAcquire(RateLimitFilter.DEFAULT_ROUTE, "127.0.0.1", 100)).thenReturn(0L);
 
         rateLimitFilter.doFilter(request, response, chain);
 
-        verify(redisTemplate).expire(eq("rate_limit:127.0.0.1"), any(Duration.class));
-        verify(metricsService).incrementRateLimit(true, "127.0.0.1", "/api/test");
+        verify(metricsService).incrementRateLimit(true, "127.0.0.1", RateLimitFilter.DEFAULT_ROUTE);
         verify(chain).doFilter(request, response);
     }
 
     @Test
-    void shouldBlockRequestWhenOverLimit() throws ServletException, IOException {
+    void shouldBlockRequestWithRetryAfterWhenOverLimit() throws ServletException, IOException {
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
         when(request.getRequestURI()).thenReturn("/api/test");
-        when(valueOperations.increment(anyString())).thenReturn(3L);
+        when(rateLimiter.tryAcquire(RateLimitFilter.DEFAULT_ROUTE, "127.0.0.1", 100)).thenReturn(1_200L);
         when(response.getWriter()).thenReturn(mock(PrintWriter.class));
 
         rateLimitFilter.doFilter(request, response, chain);
 
-        verify(metricsService).incrementRateLimit(false, "127.0.0.1", "/api/test");
+        verify(metricsService).incrementRateLimit(false, "127.0.0.1", RateLimitFilter.DEFAULT_ROUTE);
         verify(response).setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        verify(response).setHeader("Retry-After", "2");
         verify(chain, never()).doFilter(any(), any());
     }
 
     @Test
-    void shouldIncrementButNotExpireWhenCountGreaterThanOne() throws ServletException, IOException {
+    void shouldApplyLimitOfFirstMatchingRoute() throws ServletException, IOException {
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
-        when(request.getRequestURI()).thenReturn("/api/test");
-        when(valueOperations.increment(anyString())).thenReturn(2L);
+        when(request.getRequestURI()).thenReturn("/api/v1/auth/login", "/api/v1/cards/3f2b0c1e", "/api/v1/cards");
 
+        rateLimitFilter.doFilter(request, response, chain);
+        rateLimitFilter.doFilter(request, response, chain);
         rateLimitFilter.doFilter(request, response, chain);
 
-        verify(redisTemplate, never()).expire(anyString(), any(Duration.class));
-        verify(chain).doFilter(request, response);
+        verify(rateLimiter).tryAcquire("/api/v1/auth/login", "127.0.0.1", 10);
+        verify(rateLimiter, times(2)).tryAcquire("/api/v1/cards/**", "127.0.0.1", 50);
+        verify(metricsService, times(2)).incrementRateLimit(true, "127.0.0.1", "/api/v1/cards/**");
+        verify(chain, times(3)).doFilter(request, response);
     }
 
     @Test
@@ -99,7 +101,7 @@ class RateLimitFilterTest {
 
         rateLimitFilter.doFilter(nonHttpRequest, nonHttpResponse, chain);
 
-        verifyNoInteractions(redisTemplate);
+        verify(rateLimiter, never()).tryAcquire(anyString(), anyString(), anyInt());
         verify(chain).doFilter(nonHttpRequest, nonHttpResponse);
     }
 }
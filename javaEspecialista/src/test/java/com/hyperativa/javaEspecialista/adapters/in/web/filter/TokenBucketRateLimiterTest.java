@@ -0,0 +1,141 @@
+package com.hyperativa.javaEspecialista.adapters.in.web.filter;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.hyperativa.javaEspecialista.config.RateLimitProperties;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenBucketRateLimiterTest {
+
+    private static final String KEY = "rate_limit:default:127.0.0.1";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisScript<List<Long>> leaseScript;
+
+    @Mock
+    private MetricsPort metricsService;
+
+    private final AtomicLong nanos = new AtomicLong(-Duration.ofHours(1).toNanos());
+    private TokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties(100, List.of(), 5, Duration.ofSeconds(5), 1000);
+        Ticker ticker = nanos::get;
+        rateLimiter = new TokenBucketRateLimiter(redisTemplate, leaseScript, properties, metricsService, ticker);
+    }
+
+    private void leaseReturns(List<Long> result) {
+        when(redisTemplate.execute(eq(leaseScript), eq(List.of(KEY)), any(), any(), any())).thenReturn(result);
+    }
+
+    @Test
+    void tryAcquire_ShouldSpendLeasedTokensWithoutCallingRedis() {
+        // Arrange
+        leaseReturns(List.of(5L, 0L));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("default", "127.0.0.1", 100));
+        }
+        assertEquals(0, rateLimiter.tryAcquire("default", "127.0.0.1", 100));
+
+        // Assert
+        verify(redisTemplate, times(2)).execute(leaseScript, List.of(KEY), "100", "60000", "5");
+        verify(metricsService, times(2)).incrementRateLimitLease("granted");
+    }
+
+    @Test
+    void tryAcquire_WhenLeaseExpires_ShouldGoBackToRedis() {
+        // Arrange
+        leaseReturns(List.of(5L, 0L));
+        rateLimiter.tryAcquire("default", "127.0.0.1", 100);
+
+        // Act
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        rateLimiter.tryAcquire("default", "127.0.0.1", 100);
+
+        // Assert
+        verify(redisTemplate, times(2)).execute(eq(leaseScript), eq(List.of(KEY)), any(), any(), any());
+    }
+
+    @Test
+    void tryAcquire_WhenSharedBucketIsEmpty_ShouldDenyLocallyUntilRetryAfter() {
+        // Arrange
+        leaseReturns(List.of(0L, 1_500L));
+
+        // Act
+        long first = rateLimiter.tryAcquire("default", "127.0.0.1", 100);
+        nanos.addAndGet(Duration.ofMillis(1_000).toNanos());
+        long second = rateLimiter.tryAcquire("default", "127.0.0.1", 100);
+        nanos.addAndGet(Duration.ofMillis(600).toNanos());
+        rateLimiter.tryAcquire("default", "127.0.0.1", 100);
+
+        // Assert
+        assertEquals(1_500, first);
+        assertEquals(500, second);
+        verify(redisTemplate, times(2)).execute(eq(leaseScript), eq(List.of(KEY)), any(), any(), any());
+        verify(metricsService, times(2)).incrementRateLimitLease("exhausted");
+    }
+
+    @Test
+    void tryAcquire_WhenRedisFails_ShouldAllowLocalAllowanceAtConfiguredRate() {
+        // Arrange
+        when(redisTemplate.execute(eq(leaseScript), eq(List.of(KEY)), any(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act: 60 per minute over a 5s lease is 5 requests
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("default", "127.0.0.1", 60));
+        }
+        rateLimiter.tryAcquire("default", "127.0.0.1", 60);
+
+        // Assert
+        verify(redisTemplate, times(2)).execute(eq(leaseScript), eq(List.of(KEY)), any(), any(), any());
+        verify(metricsService, times(2)).incrementRateLimitLease("error");
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketsPerRouteAndClient() {
+        // Arrange
+        when(redisTemplate.execute(eq(leaseScript), any(), any(), any(), any())).thenReturn(List.of(5L, 0L));
+
+        // Act
+        rateLimiter.tryAcquire("default", "127.0.0.1", 100);
+        rateLimiter.tryAcquire("default", "10.0.0.1", 100);
+        rateLimiter.tryAcquire("/api/v1/auth/login", "127.0.0.1", 10);
+
+        // Assert
+        verify(redisTemplate).execute(leaseScript, List.of(KEY), "100", "60000", "5");
+        verify(redisTemplate).execute(leaseScript, List.of("rate_limit:default:10.0.0.1"), "100", "60000", "5");
+        verify(redisTemplate).execute(leaseScript, List.of("rate_limit:/api/v1/auth/login:127.0.0.1"), "10",
+                "60000", "1");
+    }
+
+    @Test
+    void leaseSize_ShouldStayWithinATenthOfTheLimit() {
+        assertEquals(5, rateLimiter.leaseSize(1_000));
+        assertEquals(2, rateLimiter.leaseSize(20));
+        assertEquals(1, rateLimiter.leaseSize(5));
+    }
+}
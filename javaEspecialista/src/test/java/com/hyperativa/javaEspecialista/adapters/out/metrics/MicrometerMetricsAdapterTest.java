@@ -6,6 +6,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -27,6 +28,8 @@ class MicrometerMetricsAdapterTest {
         metricsAdapter.incrementCardsValidationFailed();
         metricsAdapter.incrementCacheHit();
         metricsAdapter.incrementCacheMiss();
+        metricsAdapter.incrementCacheLegacyHit();
+        metricsAdapter.incrementCacheLoadCoalesced();
         metricsAdapter.incrementCryptoFailure();
 
         assertEquals(1, meterRegistry.get("cards_registered_total").counter().count());
@@ -34,9 +37,63 @@ class MicrometerMetricsAdapterTest {
         assertEquals(1, meterRegistry.get("cards_validation_failed_total").counter().count());
         assertEquals(1, meterRegistry.get("cache_hits_total").counter().count());
         assertEquals(1, meterRegistry.get("cache_misses_total").counter().count());
+        assertEquals(1, meterRegistry.get("cache_legacy_hits_total").counter().count());
+        assertEquals(1, meterRegistry.get("cache_loads_coalesced_total").counter().count());
         assertEquals(1, meterRegistry.get("crypto_failures_total").counter().count());
     }
 
+    @Test
+    void cardRegistrationReplayCounter_ShouldBeIncremented() {
+        metricsAdapter.incrementCardRegistrationReplay();
+
+        assertEquals(1, meterRegistry.get("card_registration_replays_total").counter().count());
+    }
+
+    @Test
+    void nearCacheCounters_ShouldBeIncremented() {
+        metricsAdapter.incrementNearCacheHit();
+        metricsAdapter.incrementNearCacheMiss();
+        metricsAdapter.incrementNearCacheEviction();
+
+        assertEquals(1, meterRegistry.get("near_cache_hits_total").counter().count());
+        assertEquals(1, meterRegistry.get("near_cache_misses_total").counter().count());
+        assertEquals(1, meterRegistry.get("near_cache_evictions_total").counter().count());
+    }
+
+    @Test
+    void panCacheCounters_ShouldBeIncremented() {
+        metricsAdapter.incrementPanCacheHit();
+        metricsAdapter.incrementPanCacheMiss();
+        metricsAdapter.incrementPanCacheMiss();
+
+        assertEquals(1, meterRegistry.get("pan_cache_hits_total").counter().count());
+        assertEquals(2, meterRegistry.get("pan_cache_misses_total").counter().count());
+    }
+
+    @Test
+    void jwtCacheCounters_ShouldBeIncremented() {
+        metricsAdapter.incrementJwtCacheHit();
+        metricsAdapter.incrementJwtCacheHit();
+        metricsAdapter.incrementJwtCacheMiss();
+
+        assertEquals(2, meterRegistry.get("jwt_cache_hits_total").counter().count());
+        assertEquals(1, meterRegistry.get("jwt_cache_misses_total").counter().count());
+    }
+
+    @Test
+    void auditMetrics_ShouldTrackQueueDepthSpillsAndDrops() {
+        AtomicInteger depth = new AtomicInteger(3);
+        metricsAdapter.registerAuditQueueDepth(depth::get);
+        metricsAdapter.incrementAuditEventsSpilled(5);
+        metricsAdapter.incrementAuditEventsDropped(2);
+
+        assertEquals(3, meterRegistry.get("audit_queue_depth").gauge().value());
+        depth.set(7);
+        assertEquals(7, meterRegistry.get("audit_queue_depth").gauge().value());
+        assertEquals(5, meterRegistry.get("audit_events_spilled_total").counter().count());
+        assertEquals(2, meterRegistry.get("audit_events_dropped_total").counter().count());
+    }
+
     @Test
     void recordCardLookup_ShouldIncrementCorrectCounters() {
         metricsAdapter.recordCardLookup(true);
@@ -47,6 +104,17 @@ class MicrometerMetricsAdapterTest {
         assertEquals(1, meterRegistry.get("card_lookup_not_found_total").counter().count());
     }
 
+    @Test
+    void recordDetokenization_ShouldIncrementCorrectCounters() {
+        metricsAdapter.recordDetokenization(true);
+        metricsAdapter.recordDetokenization(true);
+        metricsAdapter.recordDetokenization(false);
+
+        assertEquals(3, meterRegistry.get("card_detokenize_total").counter().count());
+        assertEquals(2, meterRegistry.get("card_detokenize_found_total").counter().count());
+        assertEquals(1, meterRegistry.get("card_detokenize_not_found_total").counter().count());
+    }
+
     @Test
     void testRecordLatencies() {
         metricsAdapter.recordCacheGetLatency(Duration.ofMillis(100));
@@ -70,6 +138,26 @@ class MicrometerMetricsAdapterTest {
         assertEquals(1, meterRegistry.get("rate_limit_blocked_total").tag("client_id", "client2").counter().count());
     }
 
+    @Test
+    void incrementRateLimitLease_ShouldTagOutcome() {
+        metricsAdapter.incrementRateLimitLease("granted");
+        metricsAdapter.incrementRateLimitLease("granted");
+        metricsAdapter.incrementRateLimitLease("exhausted");
+
+        assertEquals(2, meterRegistry.get("rate_limit_leases_total").tag("outcome", "granted").counter().count());
+        assertEquals(1, meterRegistry.get("rate_limit_leases_total").tag("outcome", "exhausted").counter().count());
+    }
+
+    @Test
+    void recordBatchStageLatency_ShouldTagStage() {
+        metricsAdapter.recordBatchStageLatency("encrypt", Duration.ofMillis(4));
+        metricsAdapter.recordBatchStageLatency("encrypt", Duration.ofMillis(6));
+        metricsAdapter.recordBatchStageLatency("persist", Duration.ofMillis(20));
+
+        assertEquals(2, meterRegistry.get("batch_stage_duration_seconds").tag("stage", "encrypt").timer().count());
+        assertEquals(1, meterRegistry.get("batch_stage_duration_seconds").tag("stage", "persist").timer().count());
+    }
+
     @Test
     void incrementRateLimit_WithNulls_ShouldUseDefaults() {
         metricsAdapter.incrementRateLimit(true, null, null);
@@ -91,4 +179,19 @@ class MicrometerMetricsAdapterTest {
         assertEquals(1, meterRegistry.get("auth_user_registration_failed_total").tag("reason", "username_exists")
                 .counter().count());
     }
+
+    @Test
+    void passwordHashMetrics_ShouldSeparateQueueWaitFromHashTime() {
+        metricsAdapter.recordPasswordHashQueueWait(Duration.ofMillis(3));
+        metricsAdapter.recordPasswordHashDuration(Duration.ofMillis(80));
+        metricsAdapter.recordPasswordHashDuration(Duration.ofMillis(90));
+        metricsAdapter.incrementPasswordHashRejected("queue_full");
+        metricsAdapter.incrementPasswordRehashed();
+
+        assertEquals(1, meterRegistry.get("password_hash_queue_wait_seconds").timer().count());
+        assertEquals(2, meterRegistry.get("password_hash_duration_seconds").timer().count());
+        assertEquals(1, meterRegistry.get("password_hash_rejected_total").tag("reason", "queue_full")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("auth_password_rehashed_total").counter().count());
+    }
 }
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -13,13 +14,24 @@ import org.testcontainers.containers.MySQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import com.hyperativa.javaEspecialista.adapters.out.persistence.cache.CardCacheCodec;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.cache.CardNearCache;
 import com.hyperativa.javaEspecialista.adapters.out.persistence.entity.CardEntity;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.mapper.CardEntityMapper;
 import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.CardRepository;
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
 import com.hyperativa.javaEspecialista.domain.model.Card;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -44,12 +56,18 @@ class CardRepositoryAdapterIT {
     @Autowired
     private CardRepositoryAdapter adapter;
 
+    @Autowired
+    private BatchCheckpointRepositoryAdapter checkpointAdapter;
+
     @Autowired
     private CardRepository repository;
 
     @Autowired
     private StringRedisTemplate redisTemplate;
 
+    @Autowired
+    private RedisTemplate<byte[], byte[]> binaryRedisTemplate;
+
     @DynamicPropertySource
     static void redisProperties(DynamicPropertyRegistry registry) {
         registry.add("spring.data.redis.host", redis::getHost);
@@ -59,6 +77,7 @@ class CardRepositoryAdapterIT {
     @AfterEach
     void tearDown() {
         repository.deleteAll();
+        checkpointAdapter.deleteByLot("20180524LOTE0001");
         redisTemplate.getConnectionFactory().getConnection().flushAll();
     }
 
@@ -73,20 +92,16 @@ class CardRepositoryAdapterIT {
         Card card = new Card(uuid, hash, enc, iv, tag, LocalDateTime.now());
 
         // Save
-        Card saved = adapter.save(card);
-        assertThat(saved).isNotNull();
-        assertThat(saved.getUuid()).isEqualTo(uuid);
+        CardSaveResult saved = adapter.saveOrGet(card);
+        assertThat(saved).isEqualTo(CardSaveResult.inserted(uuid));
 
         // Verify MySQL
         Optional<CardEntity> entity = repository.findByCardHash(hash);
         assertThat(entity).isPresent();
-        assertThat(entity.get().getUuid()).isEqualTo(uuid.toString());
+        assertThat(entity.get().getUuid()).isEqualTo(CardEntityMapper.toBytes(uuid));
 
         // Verify Redis Cache (Write-Through)
-        // Manual check of key generation logic from Adapter: "card:exists:" + hex
-        String hexHash = java.util.HexFormat.of().formatHex(hash);
-        String savedUuid = redisTemplate.opsForValue().get("card:exists:" + hexHash);
-        assertThat(savedUuid).isEqualTo(uuid.toString());
+        assertThat(cachedEntry(hash)).isEqualTo(uuid);
 
         // Verify Find (Hit Cache)
         Optional<UUID> foundUuid = adapter.findUuidByHash(hash);
@@ -104,12 +119,152 @@ class CardRepositoryAdapterIT {
         assertThat(foundUuid).isEmpty();
 
         // Verify Redis Negative Cache
-        String hexHash = java.util.HexFormat.of().formatHex(hash);
-        String cachedValue = redisTemplate.opsForValue().get("card:exists:" + hexHash);
-        assertThat(cachedValue).isEqualTo("NOT_FOUND");
+        assertThat(binaryRedisTemplate.opsForValue().get(CardCacheCodec.key(hash)))
+                .isEqualTo(CardCacheCodec.notFound());
 
-        // Find again (Hit Negative Cache) - Adapter handles NOT_FOUND value
+        // Find again (Hit Negative Cache) - Adapter handles the negative marker
         Optional<UUID> foundUuidSecond = adapter.findUuidByHash(hash);
         assertThat(foundUuidSecond).isEmpty();
     }
+
+    @Test
+    void shouldSaveChunkAndReportDuplicates() {
+        byte[] existingHash = new byte[32];
+        byte[] newHash = new byte[32];
+        new java.util.Random().nextBytes(existingHash);
+        new java.util.Random().nextBytes(newHash);
+        UUID existingUuid = UUID.randomUUID();
+        adapter.saveOrGet(new Card(existingUuid, existingHash, new byte[] { 1 }, new byte[12], new byte[16],
+                LocalDateTime.now()));
+
+        UUID newUuid = UUID.randomUUID();
+        List<CardSaveResult> results = adapter.saveAll(List.of(
+                new Card(newUuid, newHash, new byte[] { 2 }, new byte[12], new byte[16], LocalDateTime.now()),
+                new Card(UUID.randomUUID(), existingHash, new byte[] { 3 }, new byte[12], new byte[16],
+                        LocalDateTime.now())), null);
+
+        assertThat(results).containsExactly(
+                CardSaveResult.inserted(newUuid),
+                CardSaveResult.duplicateOf(existingUuid));
+        assertThat(repository.count()).isEqualTo(2);
+
+        assertThat(cachedEntry(newHash)).isEqualTo(newUuid);
+    }
+
+    @Test
+    void shouldRegisterConcurrentDuplicatesOnce() throws Exception {
+        byte[] hash = new byte[32];
+        new java.util.Random().nextBytes(hash);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CardSaveResult>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                Card card = new Card(UUID.randomUUID(), hash, new byte[] { 1 }, new byte[12], new byte[16],
+                        LocalDateTime.now());
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return adapter.saveOrGet(card);
+                }));
+            }
+            start.countDown();
+
+            List<CardSaveResult> results = new ArrayList<>();
+            for (Future<CardSaveResult> future : futures) {
+                results.add(future.get());
+            }
+
+            assertThat(results).filteredOn(result -> !result.duplicate()).hasSize(1);
+            assertThat(results).extracting(CardSaveResult::token).containsOnly(results.get(0).token());
+            assertThat(repository.count()).isEqualTo(1);
+            assertThat(cachedEntry(hash)).isEqualTo(results.get(0).token());
+        }
+    }
+
+    @Test
+    void shouldCommitCheckpointWithChunkAndIgnoreRetries() {
+        byte[] hash = new byte[32];
+        new java.util.Random().nextBytes(hash);
+        Card card = new Card(UUID.randomUUID(), hash, new byte[] { 1 }, new byte[12], new byte[16],
+                LocalDateTime.now());
+        BatchCheckpoint first = new BatchCheckpoint("20180524LOTE0001", 512, 2, 3);
+        BatchCheckpoint second = new BatchCheckpoint("20180524LOTE0001", 512, 4, 5);
+
+        adapter.saveAll(List.of(card), first);
+        adapter.saveAll(List.of(card), first);
+        adapter.saveAll(List.of(), second);
+
+        assertThat(checkpointAdapter.findByLot("20180524LOTE0001")).containsExactlyInAnyOrder(first, second);
+        assertThat(repository.count()).isEqualTo(1);
+
+        checkpointAdapter.deleteByLot("20180524LOTE0001");
+        assertThat(checkpointAdapter.findByLot("20180524LOTE0001")).isEmpty();
+    }
+
+    @Test
+    void shouldResolveHashesInBulkAndCacheMisses() {
+        byte[] registeredHash = new byte[32];
+        byte[] unknownHash = new byte[32];
+        new java.util.Random().nextBytes(registeredHash);
+        new java.util.Random().nextBytes(unknownHash);
+        UUID uuid = UUID.randomUUID();
+        repository.save(new CardEntity(null, CardEntityMapper.toBytes(uuid), registeredHash, new byte[] { 1 },
+                new byte[12], new byte[16], LocalDateTime.now()));
+
+        List<Optional<UUID>> found = adapter.findUuidsByHashes(List.of(registeredHash, unknownHash));
+
+        assertThat(found).containsExactly(Optional.of(uuid), Optional.empty());
+        assertThat(cachedEntry(registeredHash)).isEqualTo(uuid);
+        assertThat(cachedEntry(unknownHash)).isEqualTo(CardNearCache.NOT_FOUND);
+    }
+
+    @Test
+    void shouldFindCardByBinaryToken() {
+        byte[] hash = new byte[32];
+        new java.util.Random().nextBytes(hash);
+        UUID uuid = UUID.randomUUID();
+        adapter.saveOrGet(new Card(uuid, hash, new byte[] { 1 }, new byte[12], new byte[16], LocalDateTime.now()));
+
+        Optional<CardEntity> found = repository.findByUuid(CardEntityMapper.toBytes(uuid));
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getCardHash()).isEqualTo(hash);
+        assertThat(repository.findByUuid(CardEntityMapper.toBytes(UUID.randomUUID()))).isEmpty();
+    }
+
+    @Test
+    void shouldLoadEncryptedCardsByTokens() {
+        byte[] hash = new byte[32];
+        new java.util.Random().nextBytes(hash);
+        UUID uuid = UUID.randomUUID();
+        byte[] encryptedCard = { 4, 5, 6 };
+        byte[] iv = new byte[12];
+        byte[] tag = new byte[16];
+        tag[0] = 7;
+        adapter.saveOrGet(new Card(uuid, hash, encryptedCard, iv, tag, LocalDateTime.now()));
+
+        List<Card> found = adapter.findByTokens(List.of(uuid, UUID.randomUUID()));
+
+        assertThat(found).hasSize(1);
+        assertThat(found.get(0).getUuid()).isEqualTo(uuid);
+        assertThat(found.get(0).getEncryptedCard()).isEqualTo(encryptedCard);
+        assertThat(found.get(0).getEncryptionIv()).isEqualTo(iv);
+        assertThat(found.get(0).getEncryptionTag()).isEqualTo(tag);
+    }
+
+    @Test
+    void shouldReadEntriesWrittenInLegacyLayout() {
+        byte[] hash = new byte[32];
+        new java.util.Random().nextBytes(hash);
+        UUID uuid = UUID.randomUUID();
+        redisTemplate.opsForValue().set("card:exists:" + java.util.HexFormat.of().formatHex(hash), uuid.toString());
+
+        assertThat(adapter.findUuidByHash(hash)).contains(uuid);
+        assertThat(repository.findByCardHash(hash)).isEmpty();
+    }
+
+    private UUID cachedEntry(byte[] hash) {
+        return CardCacheCodec.decode(binaryRedisTemplate.opsForValue().get(CardCacheCodec.key(hash)));
+    }
 }
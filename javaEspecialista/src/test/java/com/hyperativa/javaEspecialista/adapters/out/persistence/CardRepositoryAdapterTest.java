@@ -1,31 +1,64 @@
 package com.hyperativa.javaEspecialista.adapters.out.persistence;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionOperations;
 
+import com.hyperativa.javaEspecialista.adapters.out.persistence.cache.CardCacheCodec;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.cache.CardNearCache;
 import com.hyperativa.javaEspecialista.adapters.out.persistence.entity.CardEntity;
 import com.hyperativa.javaEspecialista.adapters.out.persistence.mapper.CardEntityMapper;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.BatchCheckpointJdbcRepository;
+import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.CardJdbcRepository;
 import com.hyperativa.javaEspecialista.adapters.out.persistence.repo.CardRepository;
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
 import com.hyperativa.javaEspecialista.domain.model.Card;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,10 +68,19 @@ class CardRepositoryAdapterTest {
     private CardRepository cardRepository;
 
     @Mock
-    private StringRedisTemplate redisTemplate;
+    private CardJdbcRepository cardJdbcRepository;
 
     @Mock
-    private ValueOperations<String, String> valueOperations;
+    private BatchCheckpointJdbcRepository checkpointRepository;
+
+    @Mock
+    private RedisTemplate<byte[], byte[]> redisTemplate;
+
+    @Mock
+    private ValueOperations<byte[], byte[]> valueOperations;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
 
     @Mock
     private CardEntityMapper cardEntityMapper;
@@ -46,52 +88,50 @@ class CardRepositoryAdapterTest {
     @Mock
     private MetricsPort metricsService;
 
+    @Captor
+    private ArgumentCaptor<List<byte[]>> keysCaptor;
+
+    @Captor
+    private ArgumentCaptor<Collection<byte[]>> deletedKeysCaptor;
+
     private CardRepositoryAdapter adapter;
 
     private static final byte[] HASH = new byte[] { 1, 2, 3 };
-    private static final String HEX_HASH = "010203";
-    private static final String CACHE_KEY = "card:exists:" + HEX_HASH;
+    private static final byte[] CACHE_KEY = CardCacheCodec.key(HASH);
+    private static final byte[] LEGACY_CACHE_KEY = "card:exists:010203".getBytes(StandardCharsets.US_ASCII);
 
     @BeforeEach
     void setUp() {
         org.mockito.Mockito.lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        adapter = new CardRepositoryAdapter(
+        adapter = adapter(false);
+    }
+
+    private CardRepositoryAdapter adapter(boolean legacyRead) {
+        return new CardRepositoryAdapter(
                 cardRepository,
+                cardJdbcRepository,
+                checkpointRepository,
+                TransactionOperations.withoutTransaction(),
                 redisTemplate,
+                new CardNearCache(stringRedisTemplate, Duration.ofHours(24), Duration.ofMinutes(10), 1000,
+                        Duration.ofMinutes(5), metricsService),
                 Duration.ofHours(24),
                 Duration.ofMinutes(10),
+                legacyRead,
+                0.0,
                 cardEntityMapper,
                 metricsService);
     }
 
-    @Test
-    void save_ShouldSaveToDbAndUpdateCache() {
-        // Arrange
-        UUID uuid = UUID.randomUUID();
-        Card card = mock(Card.class);
-        when(card.getCardHash()).thenReturn(HASH);
-        when(card.getUuid()).thenReturn(uuid);
-
-        CardEntity entity = new CardEntity();
-        when(cardEntityMapper.toEntity(card)).thenReturn(entity);
-        when(cardRepository.save(entity)).thenReturn(entity);
-        when(cardEntityMapper.toDomain(entity)).thenReturn(card);
-
-        // Act
-        Card result = adapter.save(card);
-
-        // Assert
-        assertNotNull(result);
-        verify(cardRepository).save(entity);
-        verify(valueOperations).set(eq(CACHE_KEY), eq(uuid.toString()), any(Duration.class));
-        verify(metricsService).recordCachePutLatency(any(Duration.class));
+    private static List<byte[]> values(byte[]... values) {
+        return Arrays.asList(values);
     }
 
     @Test
     void findUuidByHash_WhenInCache_ShouldReturnUuid() {
         // Arrange
         UUID uuid = UUID.randomUUID();
-        when(valueOperations.get(CACHE_KEY)).thenReturn(uuid.toString());
+        when(valueOperations.multiGet(keysCaptor.capture())).thenReturn(values(CardCacheCodec.encode(uuid)));
 
         // Act
         Optional<UUID> result = adapter.findUuidByHash(HASH);
@@ -99,6 +139,8 @@ class CardRepositoryAdapterTest {
         // Assert
         assertTrue(result.isPresent());
         assertEquals(uuid, result.get());
+        assertEquals(1, keysCaptor.getValue().size());
+        assertArrayEquals(CACHE_KEY, keysCaptor.getValue().get(0));
         verify(metricsService).incrementCacheHit();
         verifyNoInteractions(cardRepository);
     }
@@ -106,7 +148,7 @@ class CardRepositoryAdapterTest {
     @Test
     void findUuidByHash_WhenInCacheAsNotFound_ShouldReturnEmpty() {
         // Arrange
-        when(valueOperations.get(CACHE_KEY)).thenReturn("NOT_FOUND");
+        when(valueOperations.multiGet(any())).thenReturn(values(CardCacheCodec.notFound()));
 
         // Act
         Optional<UUID> result = adapter.findUuidByHash(HASH);
@@ -121,10 +163,10 @@ class CardRepositoryAdapterTest {
     void findUuidByHash_WhenNotInCacheButInDb_ShouldReturnUuidAndUpdateCache() {
         // Arrange
         UUID uuid = UUID.randomUUID();
-        when(valueOperations.get(CACHE_KEY)).thenReturn(null);
+        when(valueOperations.multiGet(any())).thenReturn(values((byte[]) null));
 
         CardEntity entity = new CardEntity();
-        entity.setUuid(uuid.toString());
+        entity.setUuid(CardEntityMapper.toBytes(uuid));
         when(cardRepository.findByCardHash(HASH)).thenReturn(Optional.of(entity));
 
         // Act
@@ -134,13 +176,13 @@ class CardRepositoryAdapterTest {
         assertTrue(result.isPresent());
         assertEquals(uuid, result.get());
         verify(metricsService).incrementCacheMiss();
-        verify(valueOperations).set(eq(CACHE_KEY), eq(uuid.toString()), any(Duration.class));
+        verify(valueOperations).set(aryEq(CACHE_KEY), aryEq(CardCacheCodec.encode(uuid)), eq(Duration.ofHours(24)));
     }
 
     @Test
     void findUuidByHash_WhenNotInCacheAndNotInDb_ShouldReturnEmptyAndCacheNotFound() {
         // Arrange
-        when(valueOperations.get(CACHE_KEY)).thenReturn(null);
+        when(valueOperations.multiGet(any())).thenReturn(values((byte[]) null));
         when(cardRepository.findByCardHash(HASH)).thenReturn(Optional.empty());
 
         // Act
@@ -149,7 +191,71 @@ class CardRepositoryAdapterTest {
         // Assert
         assertTrue(result.isEmpty());
         verify(metricsService).incrementCacheMiss();
-        verify(valueOperations).set(eq(CACHE_KEY), eq("NOT_FOUND"), any(Duration.class));
+        verify(valueOperations).set(aryEq(CACHE_KEY), aryEq(new byte[] { 0 }), eq(Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void findUuidByHash_InLegacyReadMode_ShouldFallBackToLegacyEntry() {
+        // Arrange
+        adapter = adapter(true);
+        UUID uuid = UUID.randomUUID();
+        when(valueOperations.multiGet(keysCaptor.capture()))
+                .thenReturn(values(null, uuid.toString().getBytes(StandardCharsets.US_ASCII)));
+
+        // Act
+        Optional<UUID> result = adapter.findUuidByHash(HASH);
+
+        // Assert
+        assertEquals(Optional.of(uuid), result);
+        assertArrayEquals(CACHE_KEY, keysCaptor.getValue().get(0));
+        assertArrayEquals(LEGACY_CACHE_KEY, keysCaptor.getValue().get(1));
+        verify(metricsService).incrementCacheHit();
+        verify(metricsService).incrementCacheLegacyHit();
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void findUuidByHash_InLegacyReadMode_ShouldPreferBinaryEntry() {
+        // Arrange
+        adapter = adapter(true);
+        UUID uuid = UUID.randomUUID();
+        when(valueOperations.multiGet(any()))
+                .thenReturn(values(CardCacheCodec.encode(uuid), "NOT_FOUND".getBytes(StandardCharsets.US_ASCII)));
+
+        // Act
+        Optional<UUID> result = adapter.findUuidByHash(HASH);
+
+        // Assert
+        assertEquals(Optional.of(uuid), result);
+        verify(metricsService, never()).incrementCacheLegacyHit();
+    }
+
+    @Test
+    void findByTokens_ShouldQueryBinaryTokensOnceWithoutTouchingCache() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        CardEntity entity = new CardEntity();
+        entity.setUuid(CardEntityMapper.toBytes(token));
+        Card card = new Card(token, null, new byte[] { 1 }, new byte[12], new byte[16], null);
+        when(cardJdbcRepository.findByUuids(any())).thenReturn(List.of(entity));
+        when(cardEntityMapper.toDomain(entity)).thenReturn(card);
+
+        // Act
+        List<Card> result = adapter.findByTokens(List.of(token, UUID.randomUUID()));
+
+        // Assert
+        assertEquals(List.of(card), result);
+        verify(cardJdbcRepository).findByUuids(keysCaptor.capture());
+        assertEquals(2, keysCaptor.getValue().size());
+        assertArrayEquals(CardEntityMapper.toBytes(token), keysCaptor.getValue().get(0));
+        verifyNoInteractions(redisTemplate, stringRedisTemplate);
+    }
+
+    @Test
+    void findByTokens_WhenEmpty_ShouldNotQuery() {
+        // Act & Assert
+        assertTrue(adapter.findByTokens(List.of()).isEmpty());
+        verifyNoInteractions(cardJdbcRepository);
     }
 
     @Test
@@ -160,19 +266,421 @@ class CardRepositoryAdapterTest {
 
         assertTrue(result);
         verify(cardRepository).deleteByCardHash(HASH);
-        verify(redisTemplate).delete(CACHE_KEY);
+        verify(redisTemplate).delete(deletedKeysCaptor.capture());
+        assertEquals(1, deletedKeysCaptor.getValue().size());
+        assertArrayEquals(CACHE_KEY, deletedKeysCaptor.getValue().iterator().next());
+    }
+
+    @Test
+    void deleteByHash_InLegacyReadMode_ShouldDeleteBothLayouts() {
+        adapter = adapter(true);
+        when(cardRepository.deleteByCardHash(HASH)).thenReturn(1);
+
+        adapter.deleteByHash(HASH);
+
+        verify(redisTemplate).delete(deletedKeysCaptor.capture());
+        List<byte[]> deletedKeys = new ArrayList<>(deletedKeysCaptor.getValue());
+        assertEquals(2, deletedKeys.size());
+        assertArrayEquals(CACHE_KEY, deletedKeys.get(0));
+        assertArrayEquals(LEGACY_CACHE_KEY, deletedKeys.get(1));
+    }
+
+    @Test
+    void deleteExpiredCards_ShouldDeleteFoundRowsAndEvictTheirCacheEntries() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        CardEntity expired = new CardEntity();
+        expired.setUuid(CardEntityMapper.toBytes(token));
+        expired.setCardHash(HASH);
+        when(cardJdbcRepository.findExpired(100)).thenReturn(List.of(expired));
+        when(cardJdbcRepository.deleteByUuids(any())).thenReturn(1);
+
+        // Act
+        List<UUID> deleted = adapter.deleteExpiredCards(100);
+
+        // Assert
+        assertEquals(List.of(token), deleted);
+        verify(cardJdbcRepository).deleteByUuids(List.of(expired.getUuid()));
+        verify(redisTemplate).delete(deletedKeysCaptor.capture());
+        assertArrayEquals(CACHE_KEY, deletedKeysCaptor.getValue().iterator().next());
+        verify(stringRedisTemplate).convertAndSend(eq(CardNearCache.INVALIDATION_CHANNEL), anyString());
+    }
+
+    @Test
+    void deleteExpiredCards_WhenNoneExpired_ShouldNotDelete() {
+        // Act & Assert
+        assertTrue(adapter.deleteExpiredCards(100).isEmpty());
+        verify(cardJdbcRepository, never()).deleteByUuids(any());
+        verifyNoInteractions(redisTemplate);
     }
 
     @Test
     void deleteByHash_WhenDeletedFromDbButCacheInvalidationFails_ShouldLogAndReturnTrue() {
         when(cardRepository.deleteByCardHash(HASH)).thenReturn(1);
-        when(redisTemplate.delete(CACHE_KEY)).thenThrow(new RuntimeException("Redis down"));
+        when(redisTemplate.delete(anyCollection())).thenThrow(new RuntimeException("Redis down"));
 
         boolean result = adapter.deleteByHash(HASH);
 
         assertTrue(result);
         verify(cardRepository).deleteByCardHash(HASH);
-        verify(redisTemplate).delete(CACHE_KEY);
+        verify(redisTemplate).delete(anyCollection());
         // Exception is logged but not rethrown
     }
+
+    @Test
+    void saveAll_ShouldReportInsertedAndDuplicateRowsInInputOrder() {
+        // Arrange
+        byte[] otherHash = new byte[] { 4, 5, 6 };
+        UUID newToken = UUID.randomUUID();
+        UUID rejectedToken = UUID.randomUUID();
+        UUID existingToken = UUID.randomUUID();
+        Card newCard = new Card(newToken, HASH, new byte[] { 1 }, new byte[12], new byte[16], null);
+        Card duplicateCard = new Card(rejectedToken, otherHash, new byte[] { 2 }, new byte[12], new byte[16], null);
+
+        when(cardEntityMapper.toEntity(any(Card.class))).thenReturn(new CardEntity());
+        when(cardJdbcRepository.findTokensByCardHashes(any())).thenReturn(List.of(
+                new CardEntity(null, CardEntityMapper.toBytes(existingToken), otherHash.clone(), null, null, null, null),
+                new CardEntity(null, CardEntityMapper.toBytes(newToken), HASH.clone(), null, null, null, null)));
+
+        // Act
+        List<CardSaveResult> results = adapter.saveAll(List.of(newCard, duplicateCard), null);
+
+        // Assert
+        assertEquals(List.of(CardSaveResult.inserted(newToken), CardSaveResult.duplicateOf(existingToken)), results);
+        verify(cardJdbcRepository).insertIgnoringDuplicates(any());
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(metricsService).recordCachePutLatency(any(Duration.class));
+    }
+
+    @Test
+    void saveAll_WhenEmpty_ShouldNotTouchDatabaseOrCache() {
+        List<CardSaveResult> results = adapter.saveAll(List.of(), null);
+
+        assertTrue(results.isEmpty());
+        verifyNoInteractions(cardJdbcRepository, checkpointRepository, redisTemplate);
+    }
+
+    @Test
+    void saveAll_ShouldStoreCheckpointWithTheChunk() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        Card card = new Card(token, HASH, new byte[] { 1 }, new byte[12], new byte[16], null);
+        BatchCheckpoint checkpoint = new BatchCheckpoint("20180524LOTE0001", 512, 2, 3);
+        when(cardEntityMapper.toEntity(card)).thenReturn(new CardEntity());
+        when(cardJdbcRepository.findTokensByCardHashes(any())).thenReturn(List.of(
+                new CardEntity(null, CardEntityMapper.toBytes(token), HASH, null, null, null, null)));
+
+        // Act
+        adapter.saveAll(List.of(card), checkpoint);
+
+        // Assert
+        InOrder inOrder = inOrder(cardJdbcRepository, checkpointRepository);
+        inOrder.verify(cardJdbcRepository).insertIgnoringDuplicates(any());
+        inOrder.verify(checkpointRepository).insert(checkpoint);
+    }
+
+    @Test
+    void saveAll_WhenChunkHasNoCardsLeft_ShouldOnlyStoreCheckpoint() {
+        // Arrange
+        BatchCheckpoint checkpoint = new BatchCheckpoint("20180524LOTE0001", 512, 2, 3);
+
+        // Act
+        List<CardSaveResult> results = adapter.saveAll(List.of(), checkpoint);
+
+        // Assert
+        assertTrue(results.isEmpty());
+        verify(checkpointRepository).insert(checkpoint);
+        verifyNoInteractions(cardJdbcRepository, redisTemplate);
+    }
+
+    @Test
+    void saveAll_WhenCachingFails_ShouldStillReturnResults() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        Card card = new Card(token, HASH, new byte[] { 1 }, new byte[12], new byte[16], null);
+        when(cardEntityMapper.toEntity(card)).thenReturn(new CardEntity());
+        when(cardJdbcRepository.findTokensByCardHashes(any())).thenReturn(List.of(
+                new CardEntity(null, CardEntityMapper.toBytes(token), HASH, null, null, null, null)));
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new RuntimeException("Redis down"));
+
+        // Act
+        List<CardSaveResult> results = adapter.saveAll(List.of(card), null);
+
+        // Assert
+        assertEquals(1, results.size());
+        assertFalse(results.get(0).duplicate());
+        assertEquals(token, results.get(0).token());
+    }
+
+    @Test
+    void saveAll_WhenRowMissingAfterInsert_ShouldThrow() {
+        // Arrange
+        Card card = new Card(UUID.randomUUID(), HASH, new byte[] { 1 }, new byte[12], new byte[16], null);
+        when(cardEntityMapper.toEntity(card)).thenReturn(new CardEntity());
+        when(cardJdbcRepository.findTokensByCardHashes(any())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> adapter.saveAll(List.of(card), null));
+    }
+
+    @Test
+    void saveOrGet_WhenCardIsNew_ShouldUpsertAndCacheOwnToken() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        Card card = new Card(token, HASH, new byte[] { 1 }, new byte[12], new byte[16], null);
+        CardEntity entity = new CardEntity();
+        when(cardEntityMapper.toEntity(card)).thenReturn(entity);
+        when(cardJdbcRepository.insertOrGetToken(entity)).thenReturn(CardEntityMapper.toBytes(token));
+
+        // Act
+        CardSaveResult result = adapter.saveOrGet(card);
+
+        // Assert
+        assertEquals(CardSaveResult.inserted(token), result);
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(metricsService).recordCachePutLatency(any(Duration.class));
+        verify(stringRedisTemplate).convertAndSend(anyString(), anyString());
+        verify(valueOperations, never()).multiGet(any());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void saveOrGet_WhenConcurrentRegistrationWon_ShouldReturnStoredToken() {
+        // Arrange
+        UUID existingToken = UUID.randomUUID();
+        Card card = new Card(UUID.randomUUID(), HASH, new byte[] { 1 }, new byte[12], new byte[16], null);
+        when(cardEntityMapper.toEntity(card)).thenReturn(new CardEntity());
+        when(cardJdbcRepository.insertOrGetToken(any())).thenReturn(CardEntityMapper.toBytes(existingToken));
+
+        // Act
+        CardSaveResult result = adapter.saveOrGet(card);
+
+        // Assert
+        assertEquals(CardSaveResult.duplicateOf(existingToken), result);
+        verify(stringRedisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    void findCachedUuid_WhenTokenIsCached_ShouldNotTouchDatabase() {
+        // Arrange
+        UUID existingToken = UUID.randomUUID();
+        when(valueOperations.multiGet(any())).thenReturn(values(CardCacheCodec.encode(existingToken)));
+
+        // Act
+        Optional<UUID> result = adapter.findCachedUuid(HASH);
+
+        // Assert
+        assertEquals(Optional.of(existingToken), result);
+        verify(metricsService).incrementCacheHit();
+        verifyNoInteractions(cardJdbcRepository, cardRepository);
+    }
+
+    @Test
+    void findCachedUuid_WhenNegativeEntryOrRedisDown_ShouldBeEmpty() {
+        // Arrange
+        when(valueOperations.multiGet(any()))
+                .thenReturn(values(CardCacheCodec.notFound()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act & Assert
+        assertEquals(Optional.empty(), adapter.findCachedUuid(HASH));
+        assertEquals(Optional.empty(), adapter.findCachedUuid(new byte[] { 9 }));
+        verifyNoInteractions(cardJdbcRepository, cardRepository);
+    }
+
+    @Test
+    void saveOrGet_WhenRowMissingAfterUpsert_ShouldThrow() {
+        // Arrange
+        Card card = new Card(UUID.randomUUID(), HASH, new byte[] { 1 }, new byte[12], new byte[16], null);
+        when(cardEntityMapper.toEntity(card)).thenReturn(new CardEntity());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> adapter.saveOrGet(card));
+    }
+
+    @Test
+    void findUuidsByHashes_WhenAllCached_ShouldNotQueryDatabase() {
+        // Arrange
+        byte[] otherHash = new byte[] { 4, 5, 6 };
+        UUID uuid = UUID.randomUUID();
+        when(valueOperations.multiGet(keysCaptor.capture()))
+                .thenReturn(values(CardCacheCodec.encode(uuid), CardCacheCodec.notFound()));
+
+        // Act
+        List<Optional<UUID>> result = adapter.findUuidsByHashes(List.of(HASH, otherHash));
+
+        // Assert
+        assertEquals(List.of(Optional.of(uuid), Optional.empty()), result);
+        assertArrayEquals(CACHE_KEY, keysCaptor.getValue().get(0));
+        assertArrayEquals(CardCacheCodec.key(otherHash), keysCaptor.getValue().get(1));
+        verify(metricsService, times(2)).incrementCacheHit();
+        verifyNoInteractions(cardJdbcRepository);
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void findUuidByHash_WhenConcurrentMisses_ShouldQueryDatabaseOnce() throws Exception {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        CardEntity entity = new CardEntity();
+        entity.setUuid(CardEntityMapper.toBytes(uuid));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(valueOperations.multiGet(any())).thenReturn(values((byte[]) null));
+        when(cardRepository.findByCardHash(HASH)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            return Optional.of(entity);
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            Future<Optional<UUID>> loader = executor.submit(() -> adapter.findUuidByHash(HASH));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Optional<UUID>> waiter = executor.submit(() -> adapter.findUuidByHash(HASH));
+            verify(metricsService, timeout(5000)).incrementCacheLoadCoalesced();
+            release.countDown();
+
+            // Assert
+            assertEquals(Optional.of(uuid), loader.get(5, TimeUnit.SECONDS));
+            assertEquals(Optional.of(uuid), waiter.get(5, TimeUnit.SECONDS));
+            verify(cardRepository, times(1)).findByCardHash(HASH);
+            verify(valueOperations, times(1)).set(aryEq(CACHE_KEY), any(), any(Duration.class));
+        }
+    }
+
+    @Test
+    void findUuidByHash_WhenCoalescedLoadFails_ShouldRethrowToWaiters() throws Exception {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(valueOperations.multiGet(any())).thenReturn(values((byte[]) null));
+        when(cardRepository.findByCardHash(HASH)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await();
+            throw new IllegalStateException("Database unavailable");
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            Future<Optional<UUID>> loader = executor.submit(() -> adapter.findUuidByHash(HASH));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<Optional<UUID>> waiter = executor.submit(() -> adapter.findUuidByHash(HASH));
+            verify(metricsService, timeout(5000)).incrementCacheLoadCoalesced();
+            release.countDown();
+
+            // Assert
+            ExecutionException failure = assertThrows(ExecutionException.class,
+                    () -> waiter.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failure.getCause());
+            assertThrows(ExecutionException.class, () -> loader.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void findUuidByHash_WithTtlJitter_ShouldShortenTtlByAtMostTheJitter() {
+        // Arrange
+        CardRepositoryAdapter jittered = new CardRepositoryAdapter(cardRepository, cardJdbcRepository,
+                checkpointRepository, TransactionOperations.withoutTransaction(), redisTemplate,
+                new CardNearCache(stringRedisTemplate, Duration.ofHours(24), Duration.ofMinutes(10), 1000,
+                        Duration.ofMinutes(5), metricsService),
+                Duration.ofHours(24), Duration.ofMinutes(10), false, 0.5, cardEntityMapper, metricsService);
+        CardEntity entity = new CardEntity();
+        entity.setUuid(CardEntityMapper.toBytes(UUID.randomUUID()));
+        when(valueOperations.multiGet(any())).thenReturn(values((byte[]) null));
+        when(cardRepository.findByCardHash(HASH)).thenReturn(Optional.of(entity));
+        ArgumentCaptor<Duration> ttl = ArgumentCaptor.forClass(Duration.class);
+
+        // Act
+        jittered.findUuidByHash(HASH);
+
+        // Assert
+        verify(valueOperations).set(aryEq(CACHE_KEY), any(), ttl.capture());
+        assertTrue(ttl.getValue().compareTo(Duration.ofHours(12)) >= 0);
+        assertTrue(ttl.getValue().compareTo(Duration.ofHours(24)) <= 0);
+    }
+
+    @Test
+    void findUuidsByHashes_WhenSomeMissing_ShouldQueryMissesOnceAndCacheThem() {
+        // Arrange
+        byte[] foundHash = new byte[] { 4, 5, 6 };
+        byte[] unknownHash = new byte[] { 7, 8, 9 };
+        UUID cachedUuid = UUID.randomUUID();
+        UUID storedUuid = UUID.randomUUID();
+        when(valueOperations.multiGet(any())).thenReturn(values(CardCacheCodec.encode(cachedUuid), null, null));
+        when(cardJdbcRepository.findTokensByCardHashes(List.of(foundHash, unknownHash))).thenReturn(List.of(
+                new CardEntity(null, CardEntityMapper.toBytes(storedUuid), foundHash.clone(), null, null, null, null)));
+
+        // Act
+        List<Optional<UUID>> result = adapter.findUuidsByHashes(List.of(HASH, foundHash, unknownHash));
+
+        // Assert
+        assertEquals(List.of(Optional.of(cachedUuid), Optional.of(storedUuid), Optional.empty()), result);
+        verify(metricsService).incrementCacheHit();
+        verify(metricsService, times(2)).incrementCacheMiss();
+        verify(cardJdbcRepository).findTokensByCardHashes(any());
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        verify(cardRepository, never()).findByCardHash(any());
+    }
+
+    @Test
+    void findUuidsByHashes_InLegacyReadMode_ShouldFetchBothLayoutsInOneCommand() {
+        // Arrange
+        adapter = adapter(true);
+        byte[] otherHash = new byte[] { 4, 5, 6 };
+        UUID legacyUuid = UUID.randomUUID();
+        when(valueOperations.multiGet(keysCaptor.capture())).thenReturn(values(
+                null, legacyUuid.toString().getBytes(StandardCharsets.US_ASCII),
+                CardCacheCodec.notFound(), null));
+
+        // Act
+        List<Optional<UUID>> result = adapter.findUuidsByHashes(List.of(HASH, otherHash));
+
+        // Assert
+        assertEquals(List.of(Optional.of(legacyUuid), Optional.empty()), result);
+        assertEquals(4, keysCaptor.getValue().size());
+        verify(valueOperations, times(1)).multiGet(any());
+        verify(metricsService).incrementCacheLegacyHit();
+        verifyNoInteractions(cardJdbcRepository);
+    }
+
+    @Test
+    void findUuidsByHashes_WhenEmpty_ShouldReturnEmptyList() {
+        assertTrue(adapter.findUuidsByHashes(List.of()).isEmpty());
+        verifyNoInteractions(redisTemplate, cardJdbcRepository);
+    }
+
+    @Test
+    void findUuidByHash_WhenLookedUpTwice_ShouldServeSecondLookupFromNearCache() {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        when(valueOperations.multiGet(any())).thenReturn(values(CardCacheCodec.encode(uuid)));
+
+        // Act
+        adapter.findUuidByHash(HASH);
+        Optional<UUID> result = adapter.findUuidByHash(HASH.clone());
+
+        // Assert
+        assertEquals(Optional.of(uuid), result);
+        verify(valueOperations, times(1)).multiGet(any());
+        verify(metricsService).incrementNearCacheHit();
+    }
+
+    @Test
+    void deleteByHash_WhenDeleted_ShouldDropNearCacheEntryAndPublishInvalidation() {
+        // Arrange
+        when(valueOperations.multiGet(any()))
+                .thenReturn(values(CardCacheCodec.encode(UUID.randomUUID())), values((byte[]) null));
+        when(cardRepository.findByCardHash(HASH)).thenReturn(Optional.empty());
+        when(cardRepository.deleteByCardHash(HASH)).thenReturn(1);
+        adapter.findUuidByHash(HASH);
+
+        // Act
+        adapter.deleteByHash(HASH);
+        Optional<UUID> result = adapter.findUuidByHash(HASH);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(stringRedisTemplate).convertAndSend(eq(CardNearCache.INVALIDATION_CHANNEL), anyString());
+    }
 }
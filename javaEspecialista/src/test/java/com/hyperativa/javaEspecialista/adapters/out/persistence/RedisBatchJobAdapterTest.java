@@ -0,0 +1,99 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence;
+
+import com.hyperativa.javaEspecialista.domain.model.BatchJob;
+import com.hyperativa.javaEspecialista.domain.model.BatchJobStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisBatchJobAdapterTest {
+
+    private static final UUID JOB_ID = UUID.fromString("3d6f4c1a-2b9e-4f7d-8a15-6c0e9b2d4f11");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, String, String> hashOperations;
+
+    private RedisBatchJobAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new RedisBatchJobAdapter(redisTemplate, Duration.ofHours(24), Duration.ofSeconds(30));
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashOperations);
+    }
+
+    private void stored(BatchJobStatus status, Instant updatedAt) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("owner", "alice");
+        fields.put("fileName", "lote.txt");
+        fields.put("status", status.name());
+        fields.put("submittedAt", Long.toString(updatedAt.minusSeconds(60).toEpochMilli()));
+        fields.put("updatedAt", Long.toString(updatedAt.toEpochMilli()));
+        fields.put("success", "398");
+        when(hashOperations.entries("batch:job:" + JOB_ID)).thenReturn(fields);
+    }
+
+    @Test
+    void find_WhenRunningJobReportedRecently_ShouldBeRunning() {
+        // Arrange
+        stored(BatchJobStatus.RUNNING, Instant.now().minusSeconds(2));
+
+        // Act
+        BatchJob job = adapter.find(JOB_ID).orElseThrow();
+
+        // Assert
+        assertEquals(BatchJobStatus.RUNNING, job.status());
+        assertNull(job.message());
+    }
+
+    @Test
+    void find_WhenRunningJobStoppedReporting_ShouldBeFailedAndKeepCounters() {
+        // Arrange
+        Instant lastUpdate = Instant.now().minusSeconds(120);
+        stored(BatchJobStatus.RUNNING, lastUpdate);
+
+        // Act
+        BatchJob job = adapter.find(JOB_ID).orElseThrow();
+
+        // Assert
+        assertEquals(BatchJobStatus.FAILED, job.status());
+        assertEquals(RedisBatchJobAdapter.STALLED_MESSAGE, job.message());
+        assertEquals(lastUpdate.toEpochMilli(), job.finishedAt().toEpochMilli());
+        assertEquals(398, job.successCount());
+    }
+
+    @Test
+    void find_WhenQueuedJobStoppedReporting_ShouldBeFailed() {
+        // Arrange
+        stored(BatchJobStatus.QUEUED, Instant.now().minusSeconds(120));
+
+        // Act & Assert
+        assertEquals(BatchJobStatus.FAILED, adapter.find(JOB_ID).orElseThrow().status());
+    }
+
+    @Test
+    void find_WhenJobCompletedLongAgo_ShouldStayCompleted() {
+        // Arrange
+        stored(BatchJobStatus.COMPLETED, Instant.now().minus(Duration.ofHours(2)));
+
+        // Act & Assert
+        assertEquals(BatchJobStatus.COMPLETED, adapter.find(JOB_ID).orElseThrow().status());
+    }
+}
@@ -0,0 +1,126 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
+import com.hyperativa.javaEspecialista.domain.model.IdempotentRegistration;
+
+@ExtendWith(MockitoExtension.class)
+class RedisIdempotencyAdapterTest {
+
+    private static final byte[] KEY = "idem:card:alice:order-42".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CARD_HASH = hmac(1);
+    private static final byte[] OTHER_CARD_HASH = hmac(2);
+
+    @Mock
+    private RedisTemplate<byte[], byte[]> redisTemplate;
+
+    @Mock
+    private ValueOperations<byte[], byte[]> valueOperations;
+
+    private RedisIdempotencyAdapter store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RedisIdempotencyAdapter(redisTemplate, Duration.ofHours(24));
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private static byte[] hmac(int seed) {
+        byte[] hash = new byte[32];
+        Arrays.fill(hash, (byte) seed);
+        return hash;
+    }
+
+    private byte[] storedValue(CardSaveResult result) {
+        ArgumentCaptor<byte[]> value = ArgumentCaptor.forClass(byte[].class);
+        store.save("alice", "order-42", CARD_HASH, result);
+        verify(valueOperations).setIfAbsent(aryEq(KEY), value.capture(), eq(Duration.ofHours(24)));
+        return value.getValue();
+    }
+
+    @Test
+    void save_ShouldStoreFixedSizeValueThatFindReadsBack() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        byte[] value = storedValue(CardSaveResult.inserted(token));
+        when(valueOperations.get(aryEq(KEY))).thenReturn(value);
+
+        // Act
+        Optional<IdempotentRegistration> found = store.find("alice", "order-42", CARD_HASH);
+
+        // Assert
+        assertEquals(33, value.length);
+        assertArrayEquals(Arrays.copyOf(CARD_HASH, 16), Arrays.copyOfRange(value, 17, 33));
+        assertEquals(Optional.of(new IdempotentRegistration(token, true, true)), found);
+    }
+
+    @Test
+    void find_WhenCardDiffersFromTheFirstRequest_ShouldNotBeSameCard() {
+        // Arrange
+        when(valueOperations.get(aryEq(KEY))).thenReturn(storedValue(CardSaveResult.inserted(UUID.randomUUID())));
+
+        // Act
+        IdempotentRegistration found = store.find("alice", "order-42", OTHER_CARD_HASH).orElseThrow();
+
+        // Assert
+        assertFalse(found.sameCard());
+    }
+
+    @Test
+    void save_WhenCardWasAlreadyRegistered_ShouldRememberItWasNotCreated() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        when(valueOperations.get(aryEq(KEY))).thenReturn(storedValue(CardSaveResult.duplicateOf(token)));
+
+        // Act
+        IdempotentRegistration found = store.find("alice", "order-42", CARD_HASH).orElseThrow();
+
+        // Assert
+        assertFalse(found.created());
+        assertTrue(found.sameCard());
+    }
+
+    @Test
+    void find_WhenKeyIsUnknown_ShouldReturnEmpty() {
+        // Act & Assert
+        assertEquals(Optional.empty(), store.find("alice", "order-42", CARD_HASH));
+    }
+
+    @Test
+    void find_WhenRedisIsDown_ShouldReturnEmpty() {
+        // Arrange
+        when(valueOperations.get(any())).thenThrow(new RedisConnectionFailureException("down"));
+
+        // Act & Assert
+        assertEquals(Optional.empty(), store.find("alice", "order-42", CARD_HASH));
+        assertDoesNotThrow(() -> store.save("alice", "order-42", CARD_HASH,
+                CardSaveResult.inserted(UUID.randomUUID())));
+    }
+}
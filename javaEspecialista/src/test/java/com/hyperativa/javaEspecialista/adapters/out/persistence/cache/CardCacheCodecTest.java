@@ -0,0 +1,67 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardCacheCodecTest {
+
+    @Test
+    void key_ShouldBeShortPrefixFollowedByRawHash() {
+        // Arrange
+        byte[] hash = new byte[32];
+        hash[0] = 1;
+        hash[31] = (byte) 0xff;
+
+        // Act
+        byte[] key = CardCacheCodec.key(hash);
+
+        // Assert
+        assertEquals(35, key.length);
+        assertEquals("ce:", new String(key, 0, 3, StandardCharsets.US_ASCII));
+        assertEquals(1, key[3]);
+        assertEquals((byte) 0xff, key[34]);
+    }
+
+    @Test
+    void legacyKey_ShouldMatchTextLayout() {
+        assertArrayEquals("card:exists:0a0bff".getBytes(StandardCharsets.US_ASCII),
+                CardCacheCodec.legacyKey(new byte[] { 0x0a, 0x0b, (byte) 0xff }));
+    }
+
+    @Test
+    void encode_ShouldRoundTripThroughDecodeInSixteenBytes() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+
+        // Act
+        byte[] value = CardCacheCodec.encode(token);
+
+        // Assert
+        assertEquals(16, value.length);
+        assertEquals(token, CardCacheCodec.decode(value));
+    }
+
+    @Test
+    void decode_ShouldRecogniseNegativeMarkerAndRejectUnknownValues() {
+        assertEquals(CardNearCache.NOT_FOUND, CardCacheCodec.decode(CardCacheCodec.notFound()));
+        assertTrue(CardCacheCodec.isNotFound(new byte[] { 0 }));
+        assertNull(CardCacheCodec.decode(null));
+        assertNull(CardCacheCodec.decode("NOT_FOUND".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(CardCacheCodec.decode(new byte[] { 1 }));
+    }
+
+    @Test
+    void decodeLegacy_ShouldReadTextValues() {
+        UUID token = UUID.randomUUID();
+
+        assertEquals(token, CardCacheCodec.decodeLegacy(token.toString().getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(CardNearCache.NOT_FOUND,
+                CardCacheCodec.decodeLegacy("NOT_FOUND".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(CardCacheCodec.decodeLegacy(CardCacheCodec.encode(token)));
+        assertNull(CardCacheCodec.decodeLegacy(null));
+    }
+}
@@ -0,0 +1,152 @@
+package com.hyperativa.javaEspecialista.adapters.out.persistence.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+
+@ExtendWith(MockitoExtension.class)
+class CardNearCacheTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private MetricsPort metricsService;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private CardNearCache nearCache;
+
+    private static final byte[] HASH = new byte[] { 1, 2, 3 };
+
+    @BeforeEach
+    void setUp() {
+        nearCache = new CardNearCache(redisTemplate, Duration.ofHours(24), Duration.ofMinutes(10), 100,
+                Duration.ofMinutes(5), metricsService, nanos::get);
+    }
+
+    @Test
+    void getIfPresent_ShouldCompareHashesByContent() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        nearCache.put(HASH, token);
+
+        // Act
+        UUID result = nearCache.getIfPresent(HASH.clone());
+
+        // Assert
+        assertEquals(token, result);
+        verify(metricsService).incrementNearCacheHit();
+    }
+
+    @Test
+    void getIfPresent_WhenNotCached_ShouldReturnNullAndCountMiss() {
+        assertNull(nearCache.getIfPresent(HASH));
+        verify(metricsService).incrementNearCacheMiss();
+    }
+
+    @Test
+    void putNotFound_ShouldExpireAfterNotFoundTtl() {
+        // Arrange
+        CardNearCache shortNegativeTtl = new CardNearCache(redisTemplate, Duration.ofHours(24),
+                Duration.ofMinutes(1), 100, Duration.ofMinutes(5), metricsService, nanos::get);
+        shortNegativeTtl.putNotFound(HASH);
+
+        // Act & Assert
+        assertEquals(CardNearCache.NOT_FOUND, shortNegativeTtl.getIfPresent(HASH));
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertNull(shortNegativeTtl.getIfPresent(HASH));
+    }
+
+    @Test
+    void put_ShouldCapFoundTtlAtMaxTtl() {
+        // Arrange
+        nearCache.put(HASH, UUID.randomUUID());
+
+        // Act
+        nanos.addAndGet(Duration.ofMinutes(5).plusSeconds(1).toNanos());
+
+        // Assert
+        assertNull(nearCache.getIfPresent(HASH));
+    }
+
+    @Test
+    void put_WhenFull_ShouldEvictAndCountEviction() {
+        // Arrange
+        CardNearCache tiny = new CardNearCache(redisTemplate, Duration.ofHours(24), Duration.ofMinutes(10), 1,
+                Duration.ofMinutes(5), metricsService, nanos::get);
+
+        // Act
+        tiny.put(new byte[] { 1 }, UUID.randomUUID());
+        tiny.put(new byte[] { 2 }, UUID.randomUUID());
+
+        // Assert
+        verify(metricsService, times(1)).incrementNearCacheEviction();
+    }
+
+    @Test
+    void publishInvalidation_ShouldSendHexHashesTaggedWithNodeId() {
+        nearCache.publishInvalidation(List.of(HASH, new byte[] { 10 }));
+
+        verify(redisTemplate).convertAndSend(CardNearCache.INVALIDATION_CHANNEL,
+                nearCache.nodeId() + "|010203,0a");
+    }
+
+    @Test
+    void publishInvalidation_WhenEmpty_ShouldNotPublish() {
+        nearCache.publishInvalidation(List.of());
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void publishInvalidation_WhenRedisFails_ShouldNotThrow() {
+        when(redisTemplate.convertAndSend(eq(CardNearCache.INVALIDATION_CHANNEL), anyString()))
+                .thenThrow(new RuntimeException("Redis down"));
+
+        nearCache.publishInvalidation(List.of(HASH));
+    }
+
+    @Test
+    void applyInvalidation_FromOtherNode_ShouldDropEntries() {
+        // Arrange
+        nearCache.put(HASH, UUID.randomUUID());
+
+        // Act
+        nearCache.applyInvalidation("other-node|010203");
+
+        // Assert
+        assertNull(nearCache.getIfPresent(HASH));
+    }
+
+    @Test
+    void applyInvalidation_FromSameNode_ShouldBeIgnored() {
+        // Arrange
+        UUID token = UUID.randomUUID();
+        nearCache.put(HASH, token);
+
+        // Act
+        nearCache.applyInvalidation(nearCache.nodeId() + "|010203");
+
+        // Assert
+        assertEquals(token, nearCache.getIfPresent(HASH));
+    }
+}
@@ -14,9 +14,10 @@ class CardEntityTest {
         byte[] encrypted = "encrypted".getBytes();
         byte[] iv = "iv".getBytes();
         byte[] tag = "tag".getBytes();
+        byte[] uuid = new byte[16];
 
         entity.setId(1L);
-        entity.setUuid("uuid");
+        entity.setUuid(uuid);
         entity.setCardHash(hash);
         entity.setEncryptedCard(encrypted);
         entity.setEncryptionIv(iv);
@@ -24,7 +25,7 @@ class CardEntityTest {
         entity.setCreatedAt(now);
 
         assertEquals(1L, entity.getId());
-        assertEquals("uuid", entity.getUuid());
+        assertArrayEquals(uuid, entity.getUuid());
         assertArrayEquals(hash, entity.getCardHash());
         assertArrayEquals(encrypted, entity.getEncryptedCard());
         assertArrayEquals(iv, entity.getEncryptionIv());
@@ -39,11 +40,12 @@ class CardEntityTest {
         byte[] encrypted = "encrypted".getBytes();
         byte[] iv = "iv".getBytes();
         byte[] tag = "tag".getBytes();
+        byte[] uuid = new byte[16];
 
-        CardEntity entity = new CardEntity(1L, "uuid", hash, encrypted, iv, tag, now);
+        CardEntity entity = new CardEntity(1L, uuid, hash, encrypted, iv, tag, now);
 
         assertEquals(1L, entity.getId());
-        assertEquals("uuid", entity.getUuid());
+        assertArrayEquals(uuid, entity.getUuid());
         assertArrayEquals(hash, entity.getCardHash());
         assertArrayEquals(encrypted, entity.getEncryptedCard());
         assertArrayEquals(iv, entity.getEncryptionIv());
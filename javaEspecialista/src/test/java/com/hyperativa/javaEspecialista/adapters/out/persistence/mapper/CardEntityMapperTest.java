@@ -22,7 +22,7 @@ class CardEntityMapperTest {
         CardEntity entity = mapper.toEntity(card);
 
         assertNull(entity.getId());
-        assertEquals(uuid.toString(), entity.getUuid());
+        assertArrayEquals(CardEntityMapper.toBytes(uuid), entity.getUuid());
         assertArrayEquals(card.getCardHash(), entity.getCardHash());
         assertArrayEquals(card.getEncryptedCard(), entity.getEncryptedCard());
         assertArrayEquals(card.getEncryptionIv(), entity.getEncryptionIv());
@@ -34,7 +34,7 @@ class CardEntityMapperTest {
     void toDomain_ShouldMapCorrectly() {
         UUID uuid = UUID.randomUUID();
         LocalDateTime now = LocalDateTime.now();
-        CardEntity entity = new CardEntity(1L, uuid.toString(), "hash".getBytes(), "encrypted".getBytes(),
+        CardEntity entity = new CardEntity(1L, CardEntityMapper.toBytes(uuid), "hash".getBytes(), "encrypted".getBytes(),
                 "iv".getBytes(), "tag".getBytes(), now);
 
         Card domain = mapper.toDomain(entity);
@@ -46,4 +46,21 @@ class CardEntityMapperTest {
         assertArrayEquals(entity.getEncryptionTag(), domain.getEncryptionTag());
         assertEquals(now, domain.getCreatedAt());
     }
+
+    @Test
+    void toBytes_ShouldUseMostSignificantHalfFirst() {
+        UUID uuid = UUID.fromString("0190f5a8-7b2c-7d3e-8f40-123456789abc");
+
+        byte[] bytes = CardEntityMapper.toBytes(uuid);
+
+        assertEquals(16, bytes.length);
+        assertEquals(0x01, bytes[0]);
+        assertEquals((byte) 0xbc, bytes[15]);
+        assertEquals(uuid, CardEntityMapper.toUuid(bytes));
+    }
+
+    @Test
+    void toUuid_WithWrongLength_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> CardEntityMapper.toUuid(new byte[36]));
+    }
 }
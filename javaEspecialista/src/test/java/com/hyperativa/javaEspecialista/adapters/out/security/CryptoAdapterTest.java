@@ -7,7 +7,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -27,7 +33,7 @@ class CryptoAdapterTest {
 
     @BeforeEach
     void setUp() {
-        cryptoAdapter = new CryptoAdapter(encryptionKey, hashKey, metricsService);
+        cryptoAdapter = new CryptoAdapter(encryptionKey, hashKey, 2, metricsService);
     }
 
     @Test
@@ -52,6 +58,51 @@ class CryptoAdapterTest {
         assertEquals(32, hash.length); // SHA-256 HMAC is 32 bytes
     }
 
+    @Test
+    void hash_WithBytes_ShouldMatchStringVariant() {
+        String plainText = "4539578763621486";
+
+        byte[] fromBytes = cryptoAdapter.hash(plainText.getBytes(StandardCharsets.UTF_8));
+
+        assertArrayEquals(cryptoAdapter.hash(plainText), fromBytes);
+    }
+
+    @Test
+    void encrypt_WithBytes_ShouldRoundTripThroughDecrypt() {
+        byte[] iv = cryptoAdapter.generateIv();
+
+        byte[] encrypted = cryptoAdapter.encrypt("4539578763621486".getBytes(StandardCharsets.UTF_8), iv);
+
+        assertEquals("4539578763621486", cryptoAdapter.decrypt(encrypted, iv));
+    }
+
+    @Test
+    void hashAndEncrypt_WhenCalledConcurrently_ShouldReuseInstancesSafely() throws Exception {
+        // Pool of 2 shared by many virtual threads: results must match the sequential ones
+        byte[] expectedHash = cryptoAdapter.hash("4539578763621486");
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                results.add(executor.submit(() -> {
+                    byte[] iv = cryptoAdapter.generateIv();
+                    byte[] encrypted = cryptoAdapter.encrypt("4539578763621486", iv);
+                    return java.util.Arrays.equals(expectedHash, cryptoAdapter.hash("4539578763621486"))
+                            && "4539578763621486".equals(cryptoAdapter.decrypt(encrypted, iv));
+                }));
+            }
+        }
+
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+    }
+
+    @Test
+    void generateIv_ShouldReturnDistinctIvs() {
+        assertFalse(java.util.Arrays.equals(cryptoAdapter.generateIv(), cryptoAdapter.generateIv()));
+    }
+
     @Test
     void generateIv_ShouldReturnValidIv() {
         byte[] iv = cryptoAdapter.generateIv();
@@ -62,7 +113,7 @@ class CryptoAdapterTest {
     @Test
     void encrypt_WhenErrorOccurs_ShouldIncrementFailureMetric() {
         // Passing null plainText to trigger exception
-        assertThrows(RuntimeException.class, () -> cryptoAdapter.encrypt(null, cryptoAdapter.generateIv()));
+        assertThrows(RuntimeException.class, () -> cryptoAdapter.encrypt((String) null, cryptoAdapter.generateIv()));
         verify(metricsService).incrementCryptoFailure();
     }
 
@@ -77,6 +128,17 @@ class CryptoAdapterTest {
         assertEquals(plainText, decrypted);
     }
 
+    @Test
+    void decryptToBytes_ShouldReturnPlainTextBytes() {
+        byte[] plainText = "4539578763621486".getBytes(StandardCharsets.US_ASCII);
+        byte[] iv = cryptoAdapter.generateIv();
+        byte[] encrypted = cryptoAdapter.encrypt(plainText, iv);
+
+        byte[] decrypted = cryptoAdapter.decryptToBytes(encrypted, iv);
+
+        assertArrayEquals(plainText, decrypted);
+    }
+
     @Test
     void decrypt_WhenErrorOccurs_ShouldIncrementFailureMetric() {
         byte[] iv = cryptoAdapter.generateIv();
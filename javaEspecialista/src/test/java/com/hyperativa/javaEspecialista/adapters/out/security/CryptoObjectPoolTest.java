@@ -0,0 +1,42 @@
+package com.hyperativa.javaEspecialista.adapters.out.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CryptoObjectPoolTest {
+
+    @Test
+    void borrow_WhenPoolEmpty_ShouldCreateNewInstance() throws Exception {
+        AtomicInteger created = new AtomicInteger();
+        CryptoObjectPool<Object> pool = new CryptoObjectPool<>(2, () -> {
+            created.incrementAndGet();
+            return new Object();
+        });
+
+        assertNotSame(pool.borrow(), pool.borrow());
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    void borrow_AfterRelease_ShouldReuseInstance() throws Exception {
+        CryptoObjectPool<Object> pool = new CryptoObjectPool<>(2, Object::new);
+        Object instance = pool.borrow();
+
+        pool.release(instance);
+
+        assertSame(instance, pool.borrow());
+    }
+
+    @Test
+    void release_WhenPoolFull_ShouldDropInstance() throws Exception {
+        CryptoObjectPool<Object> pool = new CryptoObjectPool<>(1, Object::new);
+
+        pool.release(new Object());
+        pool.release(new Object());
+
+        assertEquals(1, pool.idleCount());
+    }
+}
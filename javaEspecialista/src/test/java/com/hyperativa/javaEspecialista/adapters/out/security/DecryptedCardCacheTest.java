@@ -0,0 +1,187 @@
+package com.hyperativa.javaEspecialista.adapters.out.security;
+
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DecryptedCardCacheTest {
+
+    private static final String CARD_NUMBER = "4539578763621486";
+    private static final UUID TOKEN = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private MetricsPort metricsService;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private DecryptedCardCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DecryptedCardCache(redisTemplate, Duration.ofSeconds(60), 2, metricsService, nanos::get,
+                Scheduler.disabledScheduler());
+    }
+
+    private static byte[] cardNumber(String digits) {
+        return digits.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isWiped(byte[] cardNumber) {
+        for (byte b : cardNumber) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Test
+    void get_WhenCached_ShouldReturnCardNumberAndCountHit() {
+        // Arrange
+        cache.put(TOKEN, cardNumber(CARD_NUMBER));
+
+        // Act
+        String result = cache.get(TOKEN);
+
+        // Assert
+        assertEquals(CARD_NUMBER, result);
+        verify(metricsService).incrementPanCacheHit();
+    }
+
+    @Test
+    void get_WhenAbsent_ShouldReturnNullAndCountMiss() {
+        // Act & Assert
+        assertNull(cache.get(TOKEN));
+        verify(metricsService).incrementPanCacheMiss();
+    }
+
+    @Test
+    void invalidate_ShouldWipeCardNumberAndTellOtherNodes() {
+        // Arrange
+        byte[] cardNumber = cardNumber(CARD_NUMBER);
+        cache.put(TOKEN, cardNumber);
+
+        // Act
+        cache.invalidate(List.of(TOKEN, new UUID(0L, 1L)));
+
+        // Assert
+        assertTrue(isWiped(cardNumber));
+        assertNull(cache.get(TOKEN));
+        verify(redisTemplate).convertAndSend(DecryptedCardCache.INVALIDATION_CHANNEL,
+                cache.nodeId() + "|" + TOKEN + ",00000000-0000-0000-0000-000000000001");
+    }
+
+    @Test
+    void invalidate_WhenRedisFails_ShouldStillWipeLocally() {
+        // Arrange
+        byte[] cardNumber = cardNumber(CARD_NUMBER);
+        cache.put(TOKEN, cardNumber);
+        when(redisTemplate.convertAndSend(eq(DecryptedCardCache.INVALIDATION_CHANNEL), anyString()))
+                .thenThrow(new RuntimeException("Redis down"));
+
+        // Act
+        cache.invalidate(List.of(TOKEN));
+
+        // Assert
+        assertTrue(isWiped(cardNumber));
+    }
+
+    @Test
+    void applyInvalidation_FromOtherNode_ShouldWipeCardNumber() {
+        // Arrange
+        byte[] cardNumber = cardNumber(CARD_NUMBER);
+        cache.put(TOKEN, cardNumber);
+
+        // Act
+        cache.applyInvalidation("other-node|" + TOKEN);
+
+        // Assert
+        assertTrue(isWiped(cardNumber));
+        assertNull(cache.get(TOKEN));
+    }
+
+    @Test
+    void applyInvalidation_FromSameNode_ShouldBeIgnored() {
+        // Arrange
+        cache.put(TOKEN, cardNumber(CARD_NUMBER));
+
+        // Act
+        cache.applyInvalidation(cache.nodeId() + "|" + TOKEN);
+
+        // Assert
+        assertEquals(CARD_NUMBER, cache.get(TOKEN));
+    }
+
+    @Test
+    void put_WhenReplacingEntry_ShouldWipePreviousCardNumber() {
+        // Arrange
+        byte[] previous = cardNumber(CARD_NUMBER);
+        cache.put(TOKEN, previous);
+
+        // Act
+        cache.put(TOKEN, cardNumber("1234567890123452"));
+
+        // Assert
+        assertTrue(isWiped(previous));
+        assertEquals("1234567890123452", cache.get(TOKEN));
+    }
+
+    @Test
+    void expiry_ShouldWipeCardNumber() {
+        // Arrange
+        byte[] cardNumber = cardNumber(CARD_NUMBER);
+        cache.put(TOKEN, cardNumber);
+
+        // Act
+        nanos.addAndGet(Duration.ofSeconds(61).toNanos());
+        cache.cleanUp();
+
+        // Assert
+        assertTrue(isWiped(cardNumber));
+        assertNull(cache.get(TOKEN));
+    }
+
+    @Test
+    void sizeEviction_ShouldWipeEvictedCardNumbers() {
+        // Arrange
+        byte[][] cardNumbers = new byte[5][];
+        for (int i = 0; i < cardNumbers.length; i++) {
+            cardNumbers[i] = cardNumber(CARD_NUMBER);
+            cache.put(new UUID(0L, i), cardNumbers[i]);
+        }
+
+        // Act
+        cache.cleanUp();
+
+        // Assert: only the entries still cached keep their digits
+        int wiped = 0;
+        for (int i = 0; i < cardNumbers.length; i++) {
+            if (isWiped(cardNumbers[i])) {
+                wiped++;
+            } else {
+                assertEquals(CARD_NUMBER, cache.get(new UUID(0L, i)));
+            }
+        }
+        assertEquals(3, wiped);
+    }
+}
@@ -0,0 +1,97 @@
+package com.hyperativa.javaEspecialista.adapters.out.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7TokenGeneratorTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @Test
+    void nextToken_ShouldSetVersionVariantAndTimestamp() {
+        // Arrange
+        UuidV7TokenGenerator generator = new UuidV7TokenGenerator(() -> NOW, 2);
+
+        // Act
+        UUID token = generator.nextToken();
+
+        // Assert
+        assertEquals(7, token.version());
+        assertEquals(2, token.variant());
+        assertEquals(NOW, token.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void nextToken_WithinSameMillisecond_ShouldIncrease() {
+        // Arrange
+        UuidV7TokenGenerator generator = new UuidV7TokenGenerator(() -> NOW, 2);
+
+        // Act
+        List<UUID> tokens = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tokens.add(generator.nextToken());
+        }
+
+        // Assert
+        for (int i = 1; i < tokens.size(); i++) {
+            assertTrue(Long.compareUnsigned(tokens.get(i - 1).getMostSignificantBits(),
+                    tokens.get(i).getMostSignificantBits()) < 0, "token " + i + " is not after its predecessor");
+        }
+        // 4096 tokens per millisecond, then the timestamp borrows from the next one
+        assertEquals(NOW + 2, tokens.getLast().getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void nextToken_WhenClockGoesBackwards_ShouldStillIncrease() {
+        // Arrange
+        AtomicLong clock = new AtomicLong(NOW);
+        UuidV7TokenGenerator generator = new UuidV7TokenGenerator(clock::get, 2);
+        UUID before = generator.nextToken();
+        clock.set(NOW - 1_000);
+
+        // Act
+        UUID after = generator.nextToken();
+        clock.set(NOW + 5);
+        UUID later = generator.nextToken();
+
+        // Assert
+        assertTrue(Long.compareUnsigned(before.getMostSignificantBits(), after.getMostSignificantBits()) < 0);
+        assertEquals(NOW + 5, later.getMostSignificantBits() >>> 16);
+    }
+
+    @Test
+    void nextToken_FromManyThreads_ShouldBeUnique() throws InterruptedException {
+        // Arrange
+        UuidV7TokenGenerator generator = new UuidV7TokenGenerator(System::currentTimeMillis, 4);
+        ConcurrentLinkedQueue<UUID> tokens = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    tokens.add(generator.nextToken());
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Assert
+        Set<Long> prefixes = new HashSet<>();
+        for (UUID token : tokens) {
+            assertTrue(prefixes.add(token.getMostSignificantBits()), "duplicate timestamp and counter");
+        }
+        assertEquals(40_000, prefixes.size());
+    }
+}
@@ -1,13 +1,22 @@
 package com.hyperativa.javaEspecialista.audit.adapters.out.persistence;
 
 import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.entity.AuditLogEntity;
-import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.repository.AuditLogRepository;
+import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.repository.AuditLogJdbcRepository;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -15,35 +24,159 @@ import static org.mockito.Mockito.*;
 class AuditRepositoryAdapterTest {
 
     @Mock
-    private AuditLogRepository auditLogRepository;
+    private AuditLogJdbcRepository auditLogJdbcRepository;
+
+    @Mock
+    private MetricsPort metricsService;
+
+    @TempDir
+    Path spillDirectory;
 
-    @InjectMocks
     private AuditRepositoryAdapter adapter;
 
+    // The adapter reuses its batch list, so inserted batches are copied when received
+    private final List<List<AuditLogEntity>> inserted = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        adapter = newAdapter(Duration.ofSeconds(30));
+    }
+
+    private AuditRepositoryAdapter newAdapter(Duration retryInterval) {
+        return new AuditRepositoryAdapter(auditLogJdbcRepository, metricsService, 3, 2, Duration.ofMillis(50),
+                retryInterval, spillDirectory.toString(), Duration.ofMillis(20));
+    }
+
+    private void recordInserts() {
+        doAnswer(invocation -> {
+            inserted.add(new ArrayList<>(invocation.<List<AuditLogEntity>>getArgument(0)));
+            return null;
+        }).when(auditLogJdbcRepository).insertAll(any());
+    }
+
+    private List<AuditLogEntity> insertedEvents() {
+        return inserted.stream().flatMap(List::stream).toList();
+    }
+
     @Test
     void log_WhenDetailsAreJson_ShouldSaveAsIs() {
+        recordInserts();
         String jsonDetails = "{\"key\":\"value\"}";
         adapter.log("user1", "ACTION", "res1", "127.0.0.1", "SUCCESS", jsonDetails);
+        adapter.flush();
 
-        verify(auditLogRepository).save(argThat(entity -> entity.getDetails().equals(jsonDetails) &&
-                entity.getUserId().equals("user1")));
+        AuditLogEntity entity = insertedEvents().get(0);
+        assertEquals(jsonDetails, entity.getDetails());
+        assertEquals("user1", entity.getUserId());
     }
 
     @Test
     void log_WhenDetailsArePlainString_ShouldWrapInQuotes() {
-        String plainDetails = "Just a string";
-        adapter.log("user1", "ACTION", "res1", "127.0.0.1", "SUCCESS", plainDetails);
+        recordInserts();
+        adapter.log("user1", "ACTION", "res1", "127.0.0.1", "SUCCESS", "Just a string");
+        adapter.flush();
+
+        assertEquals("\"Just a string\"", insertedEvents().get(0).getDetails());
+    }
+
+    @Test
+    void log_ShouldNotWriteInTheCallingThread() {
+        adapter.log("user1", "ACTION", "res1", "127.0.0.1", "SUCCESS", null);
 
-        verify(auditLogRepository).save(argThat(entity -> entity.getDetails().equals("\"Just a string\"")));
+        verifyNoInteractions(auditLogJdbcRepository);
     }
 
     @Test
-    void log_WhenRepositoryThrowsException_ShouldCatchAndLog() {
-        doThrow(new RuntimeException("DB Error")).when(auditLogRepository).save(any(AuditLogEntity.class));
+    void flush_ShouldWriteQueuedEventsInMultiRowBatches() {
+        recordInserts();
+        adapter.log("user1", "A1", null, null, "SUCCESS", null);
+        adapter.log("user1", "A2", null, null, "SUCCESS", null);
+        adapter.log("user1", "A3", null, null, "SUCCESS", null);
 
-        // Should not throw exception
+        adapter.flush();
+
+        assertEquals(List.of(2, 1), inserted.stream().map(List::size).toList());
+        assertEquals(List.of("A1", "A2", "A3"), insertedEvents().stream().map(AuditLogEntity::getAction).toList());
+    }
+
+    @Test
+    void log_WhenRepositoryThrowsException_ShouldSpillAndReplayLater() {
+        // Arrange
+        doThrow(new RuntimeException("DB Error")).when(auditLogJdbcRepository).insertAll(any());
         adapter.log("user1", "ACTION", "res1", "127.0.0.1", "SUCCESS", "details");
 
-        verify(auditLogRepository).save(any(AuditLogEntity.class));
+        // Act: should not throw
+        adapter.flush();
+
+        // Assert
+        verify(metricsService).incrementAuditEventsSpilled(1);
+        verify(metricsService, never()).incrementAuditEventsDropped(anyInt());
+
+        // Act: MySQL is back
+        reset(auditLogJdbcRepository);
+        recordInserts();
+        newAdapter(Duration.ZERO).flush();
+
+        // Assert
+        AuditLogEntity replayed = insertedEvents().get(0);
+        assertEquals("ACTION", replayed.getAction());
+        assertEquals("\"details\"", replayed.getDetails());
+        assertEquals("127.0.0.1", replayed.getIpAddress());
+    }
+
+    @Test
+    void write_AfterFailure_ShouldSkipDatabaseUntilRetryInterval() {
+        // Arrange
+        doThrow(new RuntimeException("DB Error")).when(auditLogJdbcRepository).insertAll(any());
+        adapter.log("user1", "A1", null, null, "SUCCESS", null);
+        adapter.flush();
+
+        // Act
+        adapter.log("user1", "A2", null, null, "SUCCESS", null);
+        adapter.flush();
+
+        // Assert
+        verify(auditLogJdbcRepository, times(1)).insertAll(any());
+        verify(metricsService, times(2)).incrementAuditEventsSpilled(1);
+    }
+
+    @Test
+    void log_WhenQueueIsFull_ShouldSpillInsteadOfBlocking() {
+        // Arrange
+        recordInserts();
+        for (int i = 1; i <= 4; i++) {
+            adapter.log("user1", "A" + i, null, null, "SUCCESS", null);
+        }
+
+        // Assert
+        verify(metricsService).incrementAuditEventsSpilled(1);
+
+        // Act
+        adapter.flush();
+
+        // Assert
+        assertEquals(List.of("A1", "A2", "A3", "A4"),
+                insertedEvents().stream().map(AuditLogEntity::getAction).toList());
+    }
+
+    @Test
+    void writer_ShouldFlushInTheBackgroundAndOnStop() throws InterruptedException {
+        // Arrange
+        recordInserts();
+        adapter.start();
+
+        // Act
+        adapter.log("user1", "A1", null, null, "SUCCESS", null);
+        verify(auditLogJdbcRepository, timeout(2000)).insertAll(any());
+        adapter.stop();
+        adapter.log("user1", "A2", null, null, "SUCCESS", null);
+
+        // Assert
+        assertEquals(List.of("A1", "A2"), insertedEvents().stream().map(AuditLogEntity::getAction).toList());
+    }
+
+    @Test
+    void constructor_ShouldRegisterQueueDepthGauge() {
+        verify(metricsService).registerAuditQueueDepth(any());
     }
 }
@@ -0,0 +1,114 @@
+package com.hyperativa.javaEspecialista.audit.adapters.out.persistence;
+
+import com.hyperativa.javaEspecialista.audit.adapters.out.persistence.entity.AuditLogEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditSpillFileTest {
+
+    @TempDir
+    Path directory;
+
+    private AuditSpillFile spillFile;
+
+    @BeforeEach
+    void setUp() {
+        spillFile = new AuditSpillFile(directory);
+    }
+
+    @Test
+    void replay_ShouldRestoreEveryFieldIncludingNullsAndEscapes() throws IOException {
+        // Arrange
+        LocalDateTime timestamp = LocalDateTime.of(2026, 1, 2, 3, 4, 5, 6_000_000);
+        AuditLogEntity entity = new AuditLogEntity(timestamp, "user\t1", "ACTION", null, "::1", "SUCCESS",
+                "\"line\\nbreak\nand \\\\N\"");
+        spillFile.append(List.of(entity));
+        List<AuditLogEntity> replayed = new ArrayList<>();
+
+        // Act
+        int count = spillFile.replay(10, replayed::addAll);
+
+        // Assert
+        assertEquals(1, count);
+        AuditLogEntity restored = replayed.get(0);
+        assertEquals(timestamp, restored.getTimestamp());
+        assertEquals("user\t1", restored.getUserId());
+        assertNull(restored.getResourceId());
+        assertEquals("::1", restored.getIpAddress());
+        assertEquals(entity.getDetails(), restored.getDetails());
+        assertFalse(spillFile.hasPending());
+    }
+
+    @Test
+    void replay_WhenSinkFails_ShouldKeepFailedAndRemainingEvents() throws IOException {
+        // Arrange
+        List<AuditLogEntity> events = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            events.add(new AuditLogEntity("user", "A" + i, null, null, "SUCCESS", null));
+        }
+        spillFile.append(events);
+        List<String> delivered = new ArrayList<>();
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> spillFile.replay(2, batch -> {
+            if (!delivered.isEmpty()) {
+                throw new IllegalStateException("DB Error");
+            }
+            batch.forEach(event -> delivered.add(event.getAction()));
+        }));
+        List<String> remaining = new ArrayList<>();
+        spillFile.replay(10, batch -> batch.forEach(event -> remaining.add(event.getAction())));
+
+        // Assert
+        assertEquals(List.of("A1", "A2"), delivered);
+        assertEquals(List.of("A3", "A4", "A5"), remaining);
+    }
+
+    @Test
+    void append_AfterReplayOrClose_ShouldReopenAFreshFile() throws IOException {
+        // Arrange
+        spillFile.append(List.of(new AuditLogEntity("user", "A1", null, null, "SUCCESS", null)));
+        spillFile.sync();
+        spillFile.replay(10, batch -> {
+        });
+        spillFile.append(List.of(new AuditLogEntity("user", "A2", null, null, "SUCCESS", null)));
+        spillFile.close();
+        spillFile.append(List.of(new AuditLogEntity("user", "A3", null, null, "SUCCESS", null)));
+        spillFile.sync();
+        List<String> remaining = new ArrayList<>();
+
+        // Act
+        spillFile.replay(10, batch -> batch.forEach(event -> remaining.add(event.getAction())));
+
+        // Assert
+        assertEquals(List.of("A2", "A3"), remaining);
+        assertFalse(spillFile.hasPending());
+    }
+
+    @Test
+    void replay_ShouldSkipTornRecords() throws IOException {
+        // Arrange
+        spillFile.append(List.of(new AuditLogEntity("user", "A1", null, null, "SUCCESS", null)));
+        Files.writeString(directory.resolve("audit-spill.log"), "2026-01-01T00:00\tuser\tA2",
+                StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        List<String> replayed = new ArrayList<>();
+
+        // Act
+        spillFile.replay(10, batch -> batch.forEach(event -> replayed.add(event.getAction())));
+
+        // Assert
+        assertEquals(List.of("A1"), replayed);
+    }
+}
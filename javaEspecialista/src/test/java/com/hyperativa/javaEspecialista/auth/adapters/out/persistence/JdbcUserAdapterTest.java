@@ -73,4 +73,12 @@ class JdbcUserAdapterTest {
         assertEquals(1, captured.getRoles().size());
         assertEquals("USER", captured.getRoles().iterator().next().getRole());
     }
+
+    @Test
+    void updatePassword_ShouldOnlyReplaceTheExpectedHash() {
+        UUID id = UUID.randomUUID();
+        when(userRepository.updatePassword(id.toString(), "$2a$10$old", "{bcrypt}$2a$12$new")).thenReturn(true);
+
+        assertTrue(adapter.updatePassword(id, "$2a$10$old", "{bcrypt}$2a$12$new"));
+    }
 }
@@ -0,0 +1,134 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.persistence;
+
+import com.hyperativa.javaEspecialista.auth.domain.model.RefreshToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisRefreshTokenAdapterTest {
+
+    private static final UUID USER_ID = UUID.fromString("6f1c2a9e-0d4b-4c1e-9b7a-3e5f8d2c1a00");
+    private static final UUID TOKEN_ID = UUID.fromString("0b8e3f5a-7c2d-4e19-a6b4-1d9f0c3e7a55");
+    private static final Instant EXPIRY = Instant.ofEpochMilli(1_900_000_000_000L);
+    private static final String GENERATION_KEY = "rt:gen:" + USER_ID;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private RedisRefreshTokenAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        adapter = new RedisRefreshTokenAdapter(redisTemplate);
+        lenient().when(redisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    private Map<Object, Object> storedToken(String generation, String revoked) {
+        return Map.of("id", TOKEN_ID.toString(), "userId", USER_ID.toString(),
+                "expiry", String.valueOf(EXPIRY.toEpochMilli()), "gen", generation, "revoked", revoked);
+    }
+
+    @Test
+    void save_WhenTokenIsNew_ShouldStampCurrentGenerationAndExpireWithToken() {
+        // Arrange
+        when(valueOperations.get(GENERATION_KEY)).thenReturn("3");
+
+        // Act
+        RefreshToken saved = adapter.save(new RefreshToken(null, "abc", USER_ID, EXPIRY, false));
+
+        // Assert
+        assertNotNull(saved.id());
+        verify(redisTemplate).execute(any(), eq(List.of("rt:abc")), eq("1900000000000"), eq("gen"), eq("3"),
+                eq("id"), eq(saved.id().toString()), eq("userId"), eq(USER_ID.toString()),
+                eq("expiry"), eq("1900000000000"), eq("revoked"), eq("0"));
+    }
+
+    @Test
+    void save_WhenTokenIsRevoked_ShouldKeepItsGeneration() {
+        // Act
+        RefreshToken saved = adapter.save(new RefreshToken(TOKEN_ID, "abc", USER_ID, EXPIRY, true));
+
+        // Assert
+        assertEquals(TOKEN_ID, saved.id());
+        verify(valueOperations, never()).get(any());
+        verify(redisTemplate).execute(any(), eq(List.of("rt:abc")), eq("1900000000000"),
+                eq("id"), eq(TOKEN_ID.toString()), eq("userId"), eq(USER_ID.toString()),
+                eq("expiry"), eq("1900000000000"), eq("revoked"), eq("1"));
+    }
+
+    @Test
+    void loadByToken_WhenIssuedInCurrentGeneration_ShouldBeValid() {
+        // Arrange
+        when(hashOperations.entries("rt:abc")).thenReturn(storedToken("3", "0"));
+        when(valueOperations.get(GENERATION_KEY)).thenReturn("3");
+
+        // Act
+        Optional<RefreshToken> token = adapter.loadByToken("abc");
+
+        // Assert
+        assertEquals(Optional.of(new RefreshToken(TOKEN_ID, "abc", USER_ID, EXPIRY, false)), token);
+    }
+
+    @Test
+    void loadByToken_WhenFamilyWasRevokedAfterIssue_ShouldBeRevoked() {
+        // Arrange
+        when(hashOperations.entries("rt:abc")).thenReturn(storedToken("0", "0"));
+        when(valueOperations.get(GENERATION_KEY)).thenReturn("1");
+
+        // Act
+        Optional<RefreshToken> token = adapter.loadByToken("abc");
+
+        // Assert
+        assertTrue(token.orElseThrow().revoked());
+    }
+
+    @Test
+    void loadByToken_WhenUnknownOrExpired_ShouldBeEmpty() {
+        // Arrange
+        when(hashOperations.entries("rt:gone")).thenReturn(Map.of());
+
+        // Act & Assert
+        assertFalse(adapter.loadByToken("gone").isPresent());
+        verify(valueOperations, never()).get(any());
+    }
+
+    @Test
+    void revokeAllUserTokens_ShouldOnlyIncrementTheGeneration() {
+        // Act
+        adapter.revokeAllUserTokens(USER_ID);
+
+        // Assert
+        verify(valueOperations).increment(GENERATION_KEY);
+        verify(hashOperations, never()).entries(any());
+    }
+}
@@ -0,0 +1,124 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.security;
+
+import com.hyperativa.javaEspecialista.config.JwtKeyProperties;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtKeySetTest {
+
+    private static KeyPair rsa;
+    private static KeyPair ec;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        rsa = rsaGenerator.generateKeyPair();
+
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ec = ecGenerator.generateKeyPair();
+    }
+
+    private static Resource pem(String type, byte[] der) {
+        String body = Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der);
+        String text = "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n";
+        return new ByteArrayResource(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static JwtKeyProperties.Key key(String id, String algorithm, KeyPair pair, boolean withPrivateKey) {
+        return new JwtKeyProperties.Key(id, algorithm,
+                pem("PUBLIC KEY", pair.getPublic().getEncoded()),
+                withPrivateKey ? pem("PRIVATE KEY", pair.getPrivate().getEncoded()) : null);
+    }
+
+    private static JwtClaimsSet claims() {
+        Instant now = Instant.now();
+        return JwtClaimsSet.builder().subject("alice").issuedAt(now).expiresAt(now.plusSeconds(300)).build();
+    }
+
+    private static String sign(JwtKeySet keys) {
+        return keys.encoder().encode(JwtEncoderParameters.from(keys.signingHeader(), claims())).getTokenValue();
+    }
+
+    @Test
+    void decoder_DuringRotation_ShouldAcceptTokensFromEveryKey() {
+        // Arrange
+        JwtKeySet before = new JwtKeySet(new JwtKeyProperties("rsa-1",
+                List.of(key("rsa-1", "RS256", rsa, true))));
+        JwtKeySet after = new JwtKeySet(new JwtKeyProperties("ec-1",
+                List.of(key("rsa-1", "RS256", rsa, false), key("ec-1", "ES256", ec, true))));
+
+        // Act
+        Jwt rsaToken = after.decoder().decode(sign(before));
+        Jwt ecToken = after.decoder().decode(sign(after));
+
+        // Assert
+        assertEquals("rsa-1", rsaToken.getHeaders().get("kid"));
+        assertEquals("ES256", ecToken.getHeaders().get("alg").toString());
+        assertEquals("ec-1", ecToken.getHeaders().get("kid"));
+        assertEquals("alice", ecToken.getSubject());
+    }
+
+    @Test
+    void decoder_ShouldAcceptTokensIssuedWithoutKeyId() {
+        // Arrange
+        JwtKeySet keys = new JwtKeySet(new JwtKeyProperties("rsa-1", List.of(key("rsa-1", "RS256", rsa, true))));
+        RSAKey legacyKey = new RSAKey.Builder((RSAPublicKey) rsa.getPublic())
+                .privateKey((RSAPrivateKey) rsa.getPrivate())
+                .build();
+        String legacyToken = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(legacyKey)))
+                .encode(JwtEncoderParameters.from(claims()))
+                .getTokenValue();
+
+        // Act & Assert
+        assertEquals("alice", keys.decoder().decode(legacyToken).getSubject());
+    }
+
+    @Test
+    void decoder_ShouldRejectTokensFromUnknownKeys() {
+        // Arrange
+        JwtKeySet issuer = new JwtKeySet(new JwtKeyProperties("ec-1", List.of(key("ec-1", "ES256", ec, true))));
+        JwtKeySet verifier = new JwtKeySet(new JwtKeyProperties("rsa-1", List.of(key("rsa-1", "RS256", rsa, true))));
+
+        // Act & Assert
+        assertThrows(BadJwtException.class, () -> verifier.decoder().decode(sign(issuer)));
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidConfiguration() {
+        assertThrows(IllegalStateException.class, () -> new JwtKeySet(
+                new JwtKeyProperties("rsa-1", List.of(key("rsa-1", "RS256", rsa, false)))));
+        assertThrows(IllegalStateException.class, () -> new JwtKeySet(
+                new JwtKeyProperties("ec-1", List.of(key("ec-1", "ES384", ec, true)))));
+        assertThrows(IllegalStateException.class, () -> new JwtKeySet(
+                new JwtKeyProperties("ec-1", List.of(key("ec-1", "RS256", ec, true)))));
+        assertThrows(IllegalStateException.class, () -> new JwtKeySet(
+                new JwtKeyProperties("ed-1", List.of(key("ed-1", "EdDSA", ec, true)))));
+        assertThrows(IllegalStateException.class, () -> new JwtKeySet(
+                new JwtKeyProperties("missing", List.of(key("rsa-1", "RS256", rsa, true)))));
+    }
+}
@@ -9,6 +9,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
@@ -29,11 +31,15 @@ class JwtTokenProviderTest {
     @Mock
     private JwtEncoder jwtEncoder;
 
+    @Mock
+    private JwtKeySet jwtKeySet;
+
     private JwtTokenProvider tokenProvider;
 
     @BeforeEach
     void setUp() {
-        tokenProvider = new JwtTokenProvider(jwtEncoder);
+        when(jwtKeySet.signingHeader()).thenReturn(JwsHeader.with(SignatureAlgorithm.ES256).keyId("ec-1").build());
+        tokenProvider = new JwtTokenProvider(jwtEncoder, jwtKeySet);
         ReflectionTestUtils.setField(tokenProvider, "expirationSeconds", 3600);
         ReflectionTestUtils.setField(tokenProvider, "tokenIssuer", "https://hyperativa.com");
     }
@@ -54,6 +60,8 @@ class JwtTokenProviderTest {
         verify(jwtEncoder).encode(captor.capture());
 
         JwtEncoderParameters params = captor.getValue();
+        assertEquals(SignatureAlgorithm.ES256, params.getJwsHeader().getAlgorithm());
+        assertEquals("ec-1", params.getJwsHeader().getKeyId());
         assertNotNull(params.getClaims());
         assertEquals("testuser", params.getClaims().getSubject());
         assertEquals("https://hyperativa.com", params.getClaims().getIssuer().toString());
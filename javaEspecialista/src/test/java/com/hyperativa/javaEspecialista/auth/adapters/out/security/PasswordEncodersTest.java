@@ -0,0 +1,58 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordEncodersTest {
+
+    private static final String PASSWORD = "StrongPass1!xy";
+
+    @Test
+    void delegating_ShouldMatchLegacyHashesAndAskToUpgradeThem() {
+        // Arrange
+        PasswordEncoder encoder = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 4);
+        String legacy = new BCryptPasswordEncoder(4).encode(PASSWORD);
+
+        // Act & Assert
+        assertTrue(encoder.matches(PASSWORD, legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    void delegating_ShouldAskToUpgradeOnlyHashesBelowTheConfiguredCost() {
+        // Arrange
+        String cost4 = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 4).encode(PASSWORD);
+        PasswordEncoder cost5 = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 5);
+
+        // Act & Assert
+        assertTrue(cost4.startsWith("{bcrypt}"));
+        assertTrue(cost5.matches(PASSWORD, cost4));
+        assertTrue(cost5.upgradeEncoding(cost4));
+        assertFalse(cost5.upgradeEncoding(cost5.encode(PASSWORD)));
+    }
+
+    @Test
+    void delegating_ShouldAcceptEveryEncoderWhicheverIsConfigured() {
+        // Arrange
+        String argon2 = PasswordEncoders.delegating(PasswordEncoders.ARGON2, 4).encode(PASSWORD);
+        String pbkdf2 = PasswordEncoders.delegating(PasswordEncoders.PBKDF2, 4).encode(PASSWORD);
+        PasswordEncoder bcrypt = PasswordEncoders.delegating(PasswordEncoders.BCRYPT, 4);
+
+        // Act & Assert
+        assertTrue(bcrypt.matches(PASSWORD, argon2));
+        assertTrue(bcrypt.matches(PASSWORD, pbkdf2));
+        assertFalse(bcrypt.matches("wrong", argon2));
+        assertTrue(bcrypt.upgradeEncoding(argon2));
+        assertTrue(bcrypt.upgradeEncoding(pbkdf2));
+    }
+
+    @Test
+    void delegating_WhenEncoderIsUnknown_ShouldFail() {
+        assertThrows(IllegalStateException.class, () -> PasswordEncoders.delegating("scrypt", 10));
+    }
+}
@@ -0,0 +1,124 @@
+package com.hyperativa.javaEspecialista.auth.adapters.out.security;
+
+import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationBusyException;
+import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SpringPasswordEncoderAdapterTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private MetricsPort metricsService;
+
+    private final CountDownLatch hashing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SpringPasswordEncoderAdapter adapter;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        adapter.shutdown();
+    }
+
+    /**
+     * Occupies the only hashing thread until {@link #release} is counted down.
+     * Any other password matches.
+     */
+    private Thread occupyHashingThread() throws InterruptedException {
+        when(passwordEncoder.matches(any(), any())).thenAnswer(invocation -> {
+            if ("slow".equals(invocation.getArgument(0))) {
+                hashing.countDown();
+                release.await();
+            }
+            return true;
+        });
+        Thread slow = Thread.ofPlatform().start(() -> adapter.matches("slow", "hash"));
+        hashing.await();
+        return slow;
+    }
+
+    /**
+     * Starts a check on its own thread and returns once it is queued.
+     */
+    private Thread queueCheck(AtomicReference<Throwable> failure) throws InterruptedException {
+        Thread queued = Thread.ofPlatform().start(() -> {
+            try {
+                adapter.matches("queued", "hash");
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        while (queued.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        return queued;
+    }
+
+    @Test
+    void matches_ShouldHashOnExecutorAndRecordBothTimings() {
+        // Arrange
+        adapter = new SpringPasswordEncoderAdapter(passwordEncoder, metricsService, 1, 4, Duration.ofSeconds(2));
+        when(passwordEncoder.matches("pass", "hash")).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(adapter.matches("pass", "hash"));
+        verify(metricsService).recordPasswordHashQueueWait(any(Duration.class));
+        verify(metricsService).recordPasswordHashDuration(any(Duration.class));
+    }
+
+    @Test
+    void matches_WhenQueueIsFull_ShouldFailFastWithoutHashing() throws InterruptedException {
+        // Arrange
+        adapter = new SpringPasswordEncoderAdapter(passwordEncoder, metricsService, 1, 1, Duration.ofSeconds(10));
+        Thread slow = occupyHashingThread();
+        Thread queued = queueCheck(new AtomicReference<>());
+
+        // Act & Assert
+        assertThrows(AuthenticationBusyException.class, () -> adapter.matches("rejected", "hash"));
+        verify(metricsService).incrementPasswordHashRejected("queue_full");
+
+        release.countDown();
+        slow.join();
+        queued.join();
+    }
+
+    @Test
+    void matches_WhenQueuedTooLong_ShouldSkipTheHash() throws InterruptedException {
+        // Arrange
+        adapter = new SpringPasswordEncoderAdapter(passwordEncoder, metricsService, 1, 4, Duration.ofMillis(50));
+        Thread slow = occupyHashingThread();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread queued = queueCheck(failure);
+
+        // Act
+        Thread.sleep(100);
+        release.countDown();
+        slow.join();
+        queued.join();
+
+        // Assert
+        assertInstanceOf(AuthenticationBusyException.class, failure.get());
+        verify(passwordEncoder, times(1)).matches(any(), any());
+        verify(metricsService).incrementPasswordHashRejected("queue_timeout");
+    }
+}
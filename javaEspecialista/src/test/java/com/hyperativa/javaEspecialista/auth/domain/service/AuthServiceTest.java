@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -18,6 +19,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationBusyException;
 import com.hyperativa.javaEspecialista.auth.domain.exception.AuthenticationException;
 import com.hyperativa.javaEspecialista.auth.domain.model.RefreshToken;
 import com.hyperativa.javaEspecialista.auth.domain.model.Role;
@@ -126,6 +128,65 @@ class AuthServiceTest {
                 eq("Bad credentials"));
     }
 
+    @Test
+    void login_WhenPasswordHashingIsSaturated_ShouldRethrowAndRecordFailure() {
+        // Arrange
+        User user = new User(UUID.randomUUID(), "user", "encodedPass", Set.of(Role.USER));
+        when(loadUserPort.loadUserByUsername("user")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("pass", "encodedPass"))
+                .thenThrow(new AuthenticationBusyException("Password hashing queue is full"));
+        when(securityPort.getCurrentIp()).thenReturn("127.0.0.1");
+
+        // Act & Assert
+        assertThrows(AuthenticationBusyException.class, () -> authService.login("user", "pass"));
+        verify(metricsService).incrementLoginFailure("busy");
+        verify(auditPort).log(eq("user"), eq("LOGIN_FAILURE"), any(), eq("127.0.0.1"), eq("FAILURE"),
+                eq("Server busy"));
+        verify(tokenProvider, never()).generateAccessToken(any());
+    }
+
+    @Test
+    void login_WhenStoredHashIsOutdated_ShouldRehashPassword() {
+        // Arrange
+        User user = new User(UUID.randomUUID(), "user", "$2a$10$old", Set.of(Role.USER));
+        when(loadUserPort.loadUserByUsername("user")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("pass", "$2a$10$old")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$10$old")).thenReturn(true);
+        when(passwordEncoder.encode("pass")).thenReturn("{bcrypt}$2a$12$new");
+        when(saveUserPort.updatePassword(user.id(), "$2a$10$old", "{bcrypt}$2a$12$new")).thenReturn(true);
+        when(tokenProvider.generateAccessToken(user)).thenReturn(new AuthService.AccessToken("access-token", 3600));
+        when(saveRefreshTokenPort.save(any(RefreshToken.class))).thenReturn(
+                new RefreshToken(UUID.randomUUID(), "refresh", user.id(), java.time.Instant.now(), false));
+
+        // Act
+        authService.login("user", "pass");
+
+        // Assert
+        verify(saveUserPort).updatePassword(user.id(), "$2a$10$old", "{bcrypt}$2a$12$new");
+        verify(metricsService).incrementPasswordRehashed();
+    }
+
+    @Test
+    void login_WhenRehashFails_ShouldStillSucceed() {
+        // Arrange
+        User user = new User(UUID.randomUUID(), "user", "$2a$10$old", Set.of(Role.USER));
+        when(loadUserPort.loadUserByUsername("user")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("pass", "$2a$10$old")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("$2a$10$old")).thenReturn(true);
+        when(passwordEncoder.encode("pass")).thenThrow(new AuthenticationBusyException("Password hashing queue is full"));
+        when(tokenProvider.generateAccessToken(user)).thenReturn(new AuthService.AccessToken("access-token", 3600));
+        when(saveRefreshTokenPort.save(any(RefreshToken.class))).thenReturn(
+                new RefreshToken(UUID.randomUUID(), "refresh", user.id(), java.time.Instant.now(), false));
+
+        // Act
+        com.hyperativa.javaEspecialista.auth.domain.model.TokenPair result = authService.login("user", "pass");
+
+        // Assert
+        assertEquals("access-token", result.accessToken());
+        verify(saveUserPort, never()).updatePassword(any(), any(), any());
+        verify(metricsService, never()).incrementPasswordRehashed();
+    }
+
     @Test
     void register_WhenValidData_ShouldSaveUser() {
         // Arrange
@@ -1,12 +1,25 @@
 package com.hyperativa.javaEspecialista.config;
 
+import com.hyperativa.javaEspecialista.domain.ports.out.BatchCheckpointPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.CardRepositoryPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.DecryptedCardCachePort;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -16,18 +29,49 @@ class DataRetentionSchedulerTest {
     @Mock
     private CardRepositoryPort cardRepository;
 
-    @InjectMocks
+    @Mock
+    private DecryptedCardCachePort decryptedCardCache;
+
+    @Mock
+    private BatchCheckpointPort batchCheckpoints;
+
     private DataRetentionScheduler scheduler;
 
+    @BeforeEach
+    void setUp() {
+        scheduler = new DataRetentionScheduler(cardRepository, decryptedCardCache, batchCheckpoints, Duration.ofDays(7));
+    }
+
+    @Test
+    void cleanupExpiredCards_ShouldInvalidateDecryptedCardsOfEachDeletedBatch() {
+        // Given
+        List<UUID> fullBatch = Collections.nCopies(DataRetentionScheduler.CARD_BATCH_SIZE, UUID.randomUUID());
+        List<UUID> lastBatch = List.of(UUID.randomUUID());
+        when(cardRepository.deleteExpiredCards(DataRetentionScheduler.CARD_BATCH_SIZE))
+                .thenReturn(fullBatch, lastBatch);
+
+        // When
+        scheduler.cleanupExpiredCards();
+
+        // Then
+        InOrder inOrder = inOrder(cardRepository, decryptedCardCache);
+        inOrder.verify(cardRepository).deleteExpiredCards(DataRetentionScheduler.CARD_BATCH_SIZE);
+        inOrder.verify(decryptedCardCache).invalidate(fullBatch);
+        inOrder.verify(cardRepository).deleteExpiredCards(DataRetentionScheduler.CARD_BATCH_SIZE);
+        inOrder.verify(decryptedCardCache).invalidate(lastBatch);
+        verify(cardRepository, times(2)).deleteExpiredCards(DataRetentionScheduler.CARD_BATCH_SIZE);
+    }
+
     @Test
-    void cleanupExpiredCards_ShouldCallDeleteExpiredCards() {
+    void cleanupExpiredCards_ShouldDeleteCheckpointsOlderThanRetention() {
         // Given
-        when(cardRepository.deleteExpiredCards()).thenReturn(5);
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
 
         // When
         scheduler.cleanupExpiredCards();
 
         // Then
-        verify(cardRepository).deleteExpiredCards();
+        verify(batchCheckpoints).deleteCreatedBefore(cutoff.capture());
+        assertTrue(cutoff.getValue().isBefore(LocalDateTime.now().minusDays(6)));
     }
 }
@@ -2,8 +2,10 @@ package com.hyperativa.javaEspecialista.domain;
 
 import org.junit.jupiter.api.Test;
 
+import com.hyperativa.javaEspecialista.domain.exception.CardValidationException;
 import com.hyperativa.javaEspecialista.domain.model.Card;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -42,6 +44,31 @@ class CardTest {
         assertThrows(com.hyperativa.javaEspecialista.domain.exception.CardValidationException.class, () -> Card.validate(null));
     }
 
+    @Test
+    void shouldThrowExceptionForLengthOutsideIsoRange() {
+        assertDoesNotThrow(() -> Card.validate("00000000"));
+        assertDoesNotThrow(() -> Card.validate("0000000000000000000"));
+        CardValidationException tooShort = assertThrows(CardValidationException.class,
+                () -> Card.validate("0000000"));
+        assertEquals("Card number must have between 8 and 19 digits", tooShort.getMessage());
+        assertThrows(CardValidationException.class, () -> Card.validate("00000000000000000000"));
+    }
+
+    @Test
+    void shouldValidateCharSequence() {
+        assertDoesNotThrow(() -> Card.validate(new StringBuilder("4539578763621486")));
+        assertThrows(CardValidationException.class, () -> Card.validate(new StringBuilder("4539578763621487")));
+    }
+
+    @Test
+    void shouldValidateAsciiSliceOfByteBuffer() {
+        byte[] record = "C000001 4539578763621486   ".getBytes(StandardCharsets.US_ASCII);
+
+        assertDoesNotThrow(() -> Card.validate(record, 8, 16));
+        assertThrows(CardValidationException.class, () -> Card.validate(record, 7, 17)); // includes the space
+        assertThrows(CardValidationException.class, () -> Card.validate(record, 8, 0));
+    }
+
     @Test
     void shouldCreateCard() {
         UUID uuid = UUID.randomUUID();
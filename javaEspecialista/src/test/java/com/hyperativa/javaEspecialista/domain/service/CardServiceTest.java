@@ -1,34 +1,48 @@
 package com.hyperativa.javaEspecialista.domain.service;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
-import com.hyperativa.javaEspecialista.domain.exception.DuplicateCardException;
 import com.hyperativa.javaEspecialista.domain.exception.CardValidationException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.hyperativa.javaEspecialista.domain.model.BatchCheckpoint;
 import com.hyperativa.javaEspecialista.domain.model.Card;
+import com.hyperativa.javaEspecialista.domain.model.CardSaveResult;
 import com.hyperativa.javaEspecialista.audit.domain.port.out.AuditPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.BatchCheckpointPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.CardRepositoryPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.CryptoPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.DecryptedCardCachePort;
 import com.hyperativa.javaEspecialista.domain.ports.out.MetricsPort;
 import com.hyperativa.javaEspecialista.domain.ports.out.SecurityPort;
+import com.hyperativa.javaEspecialista.domain.ports.out.TokenGeneratorPort;
 
 @ExtendWith(MockitoExtension.class)
 class CardServiceTest {
@@ -48,6 +62,15 @@ class CardServiceTest {
     @Mock
     private SecurityPort securityPort;
 
+    @Mock
+    private TokenGeneratorPort tokenGenerator;
+
+    @Mock
+    private DecryptedCardCachePort decryptedCardCache;
+
+    @Mock
+    private BatchCheckpointPort batchCheckpoints;
+
     @InjectMocks
     private CardService cardService;
 
@@ -58,42 +81,81 @@ class CardServiceTest {
     private static final byte[] HASH = "hash".getBytes();
     private static final byte[] IV = "iv12345678901234".getBytes();
     private static final byte[] ENCRYPTED_WITH_TAG = "encrypted_with_tag_16_bytes_tag".getBytes();
+    private static final UUID TOKEN = UUID.fromString("01890a5d-ac96-774b-bcce-b302099a8057");
 
     @Test
     void registerCard_WhenNewCard_ShouldSaveAndReturnUuid() {
         // Arrange
         when(cryptoPort.hash(VALID_CARD_NUMBER)).thenReturn(HASH);
-        when(cardRepository.findUuidByHash(HASH)).thenReturn(Optional.empty());
         when(cryptoPort.generateIv()).thenReturn(IV);
         when(cryptoPort.encrypt(eq(VALID_CARD_NUMBER), eq(IV))).thenReturn(ENCRYPTED_WITH_TAG);
         when(securityPort.getCurrentUser()).thenReturn(USER);
         when(securityPort.getCurrentIp()).thenReturn(IP);
+        when(tokenGenerator.nextToken()).thenReturn(TOKEN);
+        when(cardRepository.saveOrGet(any(Card.class))).thenReturn(CardSaveResult.inserted(TOKEN));
 
         // Act
-        UUID result = cardService.registerCard(VALID_CARD_NUMBER);
+        CardSaveResult result = cardService.registerCard(VALID_CARD_NUMBER);
 
         // Assert
-        assertNotNull(result);
-        verify(cardRepository).save(any(Card.class));
+        assertEquals(CardSaveResult.inserted(TOKEN), result);
+        verify(cardRepository, never()).findUuidByHash(any());
         verify(metricsService).incrementCardsCreated();
         verify(metricsService, never()).incrementCardsAlreadyExists();
         verify(auditPort).log(eq(USER), eq("CARD_REGISTERED"), any(), eq(IP), eq("SUCCESS"), any());
     }
 
     @Test
-    void registerCard_WhenCardAlreadyExists_ShouldThrowDuplicateCardException() {
+    void registerCard_WhenCardAlreadyExists_ShouldReturnExistingToken() {
         // Arrange
         UUID existingUuid = UUID.randomUUID();
         when(cryptoPort.hash(VALID_CARD_NUMBER)).thenReturn(HASH);
-        when(cardRepository.findUuidByHash(HASH)).thenReturn(Optional.of(existingUuid));
+        when(cryptoPort.generateIv()).thenReturn(IV);
+        when(cryptoPort.encrypt(eq(VALID_CARD_NUMBER), eq(IV))).thenReturn(ENCRYPTED_WITH_TAG);
+        when(tokenGenerator.nextToken()).thenReturn(TOKEN);
+        when(cardRepository.saveOrGet(any(Card.class))).thenReturn(CardSaveResult.duplicateOf(existingUuid));
 
-        // Act & Assert
-        assertThrows(DuplicateCardException.class,
-                () -> cardService.registerCard(VALID_CARD_NUMBER));
+        // Act
+        CardSaveResult result = cardService.registerCard(VALID_CARD_NUMBER);
 
-        verify(cardRepository, never()).save(any(Card.class));
+        // Assert
+        assertEquals(CardSaveResult.duplicateOf(existingUuid), result);
         verify(metricsService, never()).incrementCardsCreated();
         verify(metricsService).incrementCardsAlreadyExists();
+        verifyNoInteractions(auditPort);
+    }
+
+    @Test
+    void registerCard_WhenTokenIsCached_ShouldNotEncrypt() {
+        // Arrange
+        UUID existingUuid = UUID.randomUUID();
+        when(cryptoPort.hash(VALID_CARD_NUMBER)).thenReturn(HASH);
+        when(cardRepository.findCachedUuid(HASH)).thenReturn(Optional.of(existingUuid));
+
+        // Act
+        CardSaveResult result = cardService.registerCard(VALID_CARD_NUMBER);
+
+        // Assert
+        assertEquals(CardSaveResult.duplicateOf(existingUuid), result);
+        verify(cryptoPort, never()).generateIv();
+        verify(cryptoPort, never()).encrypt(anyString(), any());
+        verify(cardRepository, never()).saveOrGet(any());
+        verify(metricsService).incrementCardsAlreadyExists();
+        verifyNoInteractions(auditPort, tokenGenerator);
+    }
+
+    @Test
+    void registerCard_WithCardHash_ShouldNotHashAgain() {
+        // Arrange
+        UUID existingUuid = UUID.randomUUID();
+        when(cardRepository.findCachedUuid(HASH)).thenReturn(Optional.of(existingUuid));
+
+        // Act
+        CardSaveResult result = cardService.registerCard(VALID_CARD_NUMBER, HASH);
+
+        // Assert
+        assertEquals(CardSaveResult.duplicateOf(existingUuid), result);
+        verifyNoInteractions(cryptoPort);
     }
 
     @Test
@@ -104,6 +166,109 @@ class CardServiceTest {
         verifyNoInteractions(cardRepository, cryptoPort, metricsService);
     }
 
+    @Test
+    void tokenize_ShouldSplitCiphertextAndTagAndAssignToken() {
+        // Arrange
+        byte[] cardNumber = VALID_CARD_NUMBER.getBytes(StandardCharsets.US_ASCII);
+        when(cryptoPort.generateIv()).thenReturn(IV);
+        when(cryptoPort.encrypt(cardNumber, IV)).thenReturn(ENCRYPTED_WITH_TAG);
+        when(tokenGenerator.nextToken()).thenReturn(TOKEN);
+
+        // Act
+        Card card = cardService.tokenize(cardNumber, HASH);
+
+        // Assert
+        assertEquals(TOKEN, card.getUuid());
+        assertArrayEquals(HASH, card.getCardHash());
+        assertArrayEquals(IV, card.getEncryptionIv());
+        assertEquals(16, card.getEncryptionTag().length);
+        assertEquals(ENCRYPTED_WITH_TAG.length - 16, card.getEncryptedCard().length);
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void validate_WithAsciiCardNumber_ShouldApplyLuhnCheck() {
+        // Act & Assert
+        cardService.validate(VALID_CARD_NUMBER.getBytes(StandardCharsets.US_ASCII));
+        assertThrows(CardValidationException.class,
+                () -> cardService.validate("1234567890123453".getBytes(StandardCharsets.US_ASCII)));
+        verifyNoInteractions(cardRepository, cryptoPort);
+    }
+
+    @Test
+    void findRegistered_ShouldCountAlreadyRegisteredCards() {
+        // Arrange
+        UUID existingToken = UUID.randomUUID();
+        List<byte[]> hashes = List.of(HASH, "other".getBytes());
+        List<Optional<UUID>> existing = List.of(Optional.of(existingToken), Optional.empty());
+        when(cardRepository.findUuidsByHashes(hashes)).thenReturn(existing);
+
+        // Act
+        List<Optional<UUID>> result = cardService.findRegistered(hashes);
+
+        // Assert
+        assertEquals(existing, result);
+        verify(metricsService).incrementCardsAlreadyExists();
+        verify(cardRepository, never()).findUuidByHash(any());
+    }
+
+    @Test
+    void persistAll_ShouldRecordCreatedAndDuplicateCards() {
+        // Arrange
+        UUID newToken = UUID.randomUUID();
+        UUID existingToken = UUID.randomUUID();
+        List<Card> cards = List.of(
+                new Card(newToken, HASH, new byte[] { 1 }, IV, new byte[16], null),
+                new Card(UUID.randomUUID(), HASH, new byte[] { 2 }, IV, new byte[16], null));
+        List<CardSaveResult> saved = List.of(
+                CardSaveResult.inserted(newToken),
+                CardSaveResult.duplicateOf(existingToken));
+        BatchCheckpoint checkpoint = new BatchCheckpoint("20180524LOTE0001", 512, 2, 3);
+        when(cardRepository.saveAll(cards, checkpoint)).thenReturn(saved);
+        when(securityPort.getCurrentUser()).thenReturn(USER);
+        when(securityPort.getCurrentIp()).thenReturn(IP);
+
+        // Act
+        List<CardSaveResult> results = cardService.persistAll(cards, checkpoint);
+
+        // Assert
+        assertEquals(saved, results);
+        verify(metricsService).incrementCardsCreated();
+        verify(metricsService).incrementCardsAlreadyExists();
+        verify(auditPort).log(eq(USER), eq("CARD_REGISTERED"), eq(newToken.toString()), eq(IP), eq("SUCCESS"), any());
+        verify(auditPort, never()).log(any(), any(), eq(existingToken.toString()), any(), any(), any());
+    }
+
+    @Test
+    void findCheckpoints_WhenSameLotIsResubmitted_ShouldReturnCommittedRanges() {
+        // Arrange
+        List<BatchCheckpoint> checkpoints = List.of(
+                new BatchCheckpoint("20180524LOTE0001", 512, 4, 5),
+                new BatchCheckpoint("20180524LOTE0001", 512, 2, 3));
+        when(batchCheckpoints.findByLot("20180524LOTE0001")).thenReturn(checkpoints);
+
+        // Act
+        List<BatchCheckpoint> result = cardService.findCheckpoints("20180524LOTE0001", 512);
+
+        // Assert
+        assertEquals(checkpoints, result);
+        verify(batchCheckpoints, never()).deleteByLot(any());
+    }
+
+    @Test
+    void findCheckpoints_WhenLotNumberIsReusedByAnotherFile_ShouldDiscardCheckpoints() {
+        // Arrange
+        when(batchCheckpoints.findByLot("20180524LOTE0001"))
+                .thenReturn(List.of(new BatchCheckpoint("20180524LOTE0001", 512, 2, 3)));
+
+        // Act
+        List<BatchCheckpoint> result = cardService.findCheckpoints("20180524LOTE0001", 1024);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(batchCheckpoints).deleteByLot("20180524LOTE0001");
+    }
+
     @Test
     void findCardUuid_WhenCardExists_ShouldReturnUuid() {
         // Arrange
@@ -144,6 +309,7 @@ class CardServiceTest {
     void deleteCard_WhenCardExists_ShouldReturnTrue() {
         // Arrange
         when(cryptoPort.hash(VALID_CARD_NUMBER)).thenReturn(HASH);
+        when(cardRepository.findUuidByHash(HASH)).thenReturn(Optional.of(TOKEN));
         when(cardRepository.deleteByHash(HASH)).thenReturn(true);
         when(securityPort.getCurrentUser()).thenReturn(USER);
         when(securityPort.getCurrentIp()).thenReturn(IP);
@@ -153,6 +319,9 @@ class CardServiceTest {
 
         // Assert
         assertTrue(result);
+        InOrder inOrder = inOrder(cardRepository, decryptedCardCache);
+        inOrder.verify(cardRepository).deleteByHash(HASH);
+        inOrder.verify(decryptedCardCache).invalidate(List.of(TOKEN));
         verify(auditPort).log(eq(USER), eq("CARD_DELETED"), any(), eq(IP), eq("SUCCESS"), any());
     }
 
@@ -169,6 +338,97 @@ class CardServiceTest {
 
         // Assert
         assertFalse(result);
+        verify(decryptedCardCache, never()).invalidate(any());
         verify(auditPort).log(eq(USER), eq("CARD_DELETED"), any(), eq(IP), eq("NOT_FOUND"), any());
     }
+
+    @Test
+    void detokenize_WhenCached_ShouldNotLoadOrDecrypt() {
+        // Arrange
+        when(decryptedCardCache.get(TOKEN)).thenReturn(VALID_CARD_NUMBER);
+        when(securityPort.getCurrentUser()).thenReturn(USER);
+        when(securityPort.getCurrentIp()).thenReturn(IP);
+
+        // Act
+        Optional<String> result = cardService.detokenize(TOKEN);
+
+        // Assert
+        assertEquals(Optional.of(VALID_CARD_NUMBER), result);
+        verifyNoInteractions(cardRepository, cryptoPort);
+        verify(metricsService).recordDetokenization(true);
+        verify(auditPort).log(USER, "CARD_DETOKENIZED", TOKEN.toString(), IP, "SUCCESS", null);
+    }
+
+    @Test
+    void detokenize_WhenNotCached_ShouldDecryptAndCacheCardNumber() {
+        // Arrange
+        byte[] encryptedCard = "cipher".getBytes(StandardCharsets.US_ASCII);
+        byte[] tag = "tag_16_bytes_tag".getBytes(StandardCharsets.US_ASCII);
+        byte[] encryptedWithTag = "ciphertag_16_bytes_tag".getBytes(StandardCharsets.US_ASCII);
+        byte[] cardNumber = VALID_CARD_NUMBER.getBytes(StandardCharsets.US_ASCII);
+        when(cardRepository.findByTokens(List.of(TOKEN)))
+                .thenReturn(List.of(new Card(TOKEN, HASH, encryptedCard, IV, tag, LocalDateTime.now())));
+        when(cryptoPort.decryptToBytes(encryptedWithTag, IV)).thenReturn(cardNumber);
+        when(securityPort.getCurrentUser()).thenReturn(USER);
+        when(securityPort.getCurrentIp()).thenReturn(IP);
+
+        // Act
+        Optional<String> result = cardService.detokenize(TOKEN);
+
+        // Assert
+        assertEquals(Optional.of(VALID_CARD_NUMBER), result);
+        verify(decryptedCardCache).put(TOKEN, cardNumber);
+        verify(metricsService).recordDetokenization(true);
+    }
+
+    @Test
+    void detokenize_WhenUnknown_ShouldReturnEmptyAndAuditNotFound() {
+        // Arrange
+        when(cardRepository.findByTokens(List.of(TOKEN))).thenReturn(List.of());
+        when(securityPort.getCurrentUser()).thenReturn(USER);
+        when(securityPort.getCurrentIp()).thenReturn(IP);
+
+        // Act
+        Optional<String> result = cardService.detokenize(TOKEN);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(metricsService).recordDetokenization(false);
+        verify(auditPort).log(USER, "CARD_DETOKENIZED", TOKEN.toString(), IP, "NOT_FOUND", null);
+    }
+
+    @Test
+    void detokenizeBatch_ShouldKeepRequestOrderAndLoadOnlyCacheMisses() {
+        // Arrange
+        int size = 100; // above the parallel decryption threshold
+        List<UUID> tokens = new ArrayList<>();
+        List<Card> stored = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            UUID token = new UUID(0L, i + 1L);
+            tokens.add(token);
+            if (i > 0 && i % 10 != 0) {
+                stored.add(new Card(token, HASH, new byte[] { (byte) i }, IV, new byte[16], LocalDateTime.now()));
+            }
+        }
+        when(decryptedCardCache.get(tokens.get(0))).thenReturn("cached");
+        when(cardRepository.findByTokens(anyList())).thenReturn(stored.reversed());
+        when(cryptoPort.decryptToBytes(any(byte[].class), eq(IV)))
+                .thenAnswer(invocation -> String.valueOf(((byte[]) invocation.getArgument(0))[0])
+                        .getBytes(StandardCharsets.US_ASCII));
+
+        // Act
+        Map<UUID, String> result = cardService.detokenize(tokens);
+
+        // Assert
+        assertEquals(stored.size() + 1, result.size());
+        List<UUID> expectedOrder = new ArrayList<>();
+        expectedOrder.add(tokens.get(0));
+        stored.forEach(card -> expectedOrder.add(card.getUuid()));
+        assertEquals(expectedOrder, List.copyOf(result.keySet()));
+        assertEquals("cached", result.get(tokens.get(0)));
+        assertEquals("57", result.get(tokens.get(57)));
+        verify(cardRepository).findByTokens(tokens.subList(1, size));
+        verify(metricsService, times(stored.size() + 1)).recordDetokenization(true);
+        verify(metricsService, times(size - stored.size() - 1)).recordDetokenization(false);
+    }
 }